@@ -28,6 +28,18 @@ public class CommandResult {
     /** The resultMessages. */
     private List<String> messages;
 
+    /** The exit code of the process, or null if it was not started. */
+    private Integer exitCode;
+
+    /** If the process was killed because it exceeded the time limit. */
+    private boolean timedOut;
+
+    /** Milliseconds from the request until the process was started. */
+    private long spawnLatency;
+
+    /** Milliseconds from the request until the process has ended. */
+    private long duration;
+
     /**
      * Constructor.
      * 
@@ -47,6 +59,33 @@ public class CommandResult {
         this.messages = messages;
     }
 
+    /**
+     * Constructor for the result of a process that has been started.
+     *
+     * @param id
+     *            The id.
+     * @param command
+     *            The command.
+     * @param messages
+     *            The resultMessages
+     * @param exitCode
+     *            The exit code of the process.
+     * @param timedOut
+     *            If the process was killed because it exceeded the time limit.
+     * @param spawnLatency
+     *            Milliseconds from the request until the process was started.
+     * @param duration
+     *            Milliseconds from the request until the process has ended.
+     */
+    public CommandResult(Integer id, String command, List<String> messages, int exitCode, boolean timedOut,
+            long spawnLatency, long duration) {
+        this(id, command, !timedOut && exitCode == 0, messages);
+        this.exitCode = exitCode;
+        this.timedOut = timedOut;
+        this.spawnLatency = spawnLatency;
+        this.duration = duration;
+    }
+
     /**
      * Gets the id.
      * 
@@ -83,6 +122,43 @@ public class CommandResult {
         return messages;
     }
 
+    /**
+     * Gets the exit code of the process.
+     *
+     * @return The exit code, or null if the process was not started.
+     */
+    public Integer getExitCode() {
+        return exitCode;
+    }
+
+    /**
+     * Gets if the process was killed because it exceeded the time limit.
+     *
+     * @return The timedOut.
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Gets the milliseconds from the request until the process was started.
+     * This includes the time waiting for a free slot to start the process.
+     *
+     * @return The spawn latency.
+     */
+    public long getSpawnLatency() {
+        return spawnLatency;
+    }
+
+    /**
+     * Gets the milliseconds from the request until the process has ended.
+     *
+     * @return The duration.
+     */
+    public long getDuration() {
+        return duration;
+    }
+
     /**
      * Indicates whether a CommandResults is "equal to" this one.
      *
@@ -0,0 +1,153 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.api.dataformat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.kitodo.api.Metadata;
+import org.kitodo.api.MetadataEntry;
+import org.kitodo.api.MetadataGroup;
+
+/**
+ * Keeps the original state of the divisions of a workpiece which have been
+ * changed since the tracking started. The state of a division is copied right
+ * before its first change, so nothing is copied for the divisions that are
+ * not changed, and checking for changes only compares the changed divisions.
+ * The state of a division does not include the state of its children; these
+ * are compared by identity, as a changed child is tracked by itself.
+ */
+class ChangeTracker {
+
+    /**
+     * The original states of the changed divisions.
+     */
+    private final Map<Division<?>, List<Object>> originalStates = new IdentityHashMap<>();
+
+    /**
+     * Called before a division is changed. Keeps the state of the division if
+     * it is the first change of the division.
+     *
+     * @param division
+     *            division to be changed
+     */
+    void beforeChange(Division<?> division) {
+        originalStates.computeIfAbsent(division, Division::getState);
+    }
+
+    /**
+     * Returns whether one of the changed divisions differs from its original
+     * state. A division that was changed back does not count as changed.
+     *
+     * @return whether a division was changed
+     */
+    boolean hasChanges() {
+        for (Entry<Division<?>, List<Object>> originalState : originalStates.entrySet()) {
+            if (!originalState.getValue().equals(originalState.getKey().getState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a value that equals another one returned by this method exactly
+     * if it contains the same objects in the same order.
+     *
+     * @param objects
+     *            objects to compare by identity
+     * @return a value to compare
+     */
+    static Object identities(Collection<?> objects) {
+        return new Identities(objects.toArray());
+    }
+
+    /**
+     * Returns a copy of metadata, so that the state of a division is kept even
+     * if its metadata is changed later on.
+     *
+     * @param metadata
+     *            metadata to copy
+     * @return a copy of the metadata
+     */
+    static Collection<Metadata> copyOf(Collection<Metadata> metadata) {
+        Collection<Metadata> copy = metadata instanceof List ? new ArrayList<>(metadata.size())
+                : new HashSet<>(metadata.size() * 2);
+        for (Metadata metadataToCopy : metadata) {
+            copy.add(copyOf(metadataToCopy));
+        }
+        return copy;
+    }
+
+    private static Metadata copyOf(Metadata metadata) {
+        Metadata copy;
+        if (metadata.getClass() == MetadataEntry.class) {
+            MetadataEntry metadataEntry = new MetadataEntry();
+            metadataEntry.setValue(((MetadataEntry) metadata).getValue());
+            copy = metadataEntry;
+        } else if (metadata.getClass() == MetadataGroup.class) {
+            MetadataGroup metadataGroup = new MetadataGroup();
+            Collection<Metadata> group = ((MetadataGroup) metadata).getGroup();
+            metadataGroup.setGroup(group == null ? null : copyOf(group));
+            copy = metadataGroup;
+        } else if (metadata.getClass() == Metadata.class) {
+            copy = new Metadata();
+        } else {
+            return metadata;
+        }
+        copy.setDomain(metadata.getDomain());
+        copy.setKey(metadata.getKey());
+        return copy;
+    }
+
+    /**
+     * Objects compared by identity.
+     */
+    private static class Identities {
+        private final Object[] objects;
+
+        private Identities(Object[] objects) {
+            this.objects = objects;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Identities)) {
+                return false;
+            }
+            Object[] other = ((Identities) obj).objects;
+            if (objects.length != other.length) {
+                return false;
+            }
+            for (int i = 0; i < objects.length; i++) {
+                if (objects[i] != other[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hashCode = 1;
+            for (Object object : objects) {
+                hashCode = 31 * hashCode + System.identityHashCode(object);
+            }
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.api.dataformat;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.ListIterator;
+import java.util.function.Consumer;
+
+/**
+ * A linked list of a division which tells the division before it is changed.
+ * All modifying methods of {@code LinkedList} which do not call another one
+ * are overridden, including those of its iterators.
+ *
+ * @param <E>
+ *            the type of elements
+ */
+class ChangeTrackingList<E> extends LinkedList<E> {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Division<?> division;
+
+    ChangeTrackingList(Division<?> division) {
+        this.division = division;
+    }
+
+    @Override
+    public boolean add(E e) {
+        division.beforeChange();
+        return super.add(e);
+    }
+
+    @Override
+    public void add(int index, E element) {
+        division.beforeChange();
+        super.add(index, element);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        division.beforeChange();
+        return super.addAll(c);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        division.beforeChange();
+        return super.addAll(index, c);
+    }
+
+    @Override
+    public void addFirst(E e) {
+        division.beforeChange();
+        super.addFirst(e);
+    }
+
+    @Override
+    public void addLast(E e) {
+        division.beforeChange();
+        super.addLast(e);
+    }
+
+    @Override
+    public void clear() {
+        division.beforeChange();
+        super.clear();
+    }
+
+    @Override
+    public E poll() {
+        division.beforeChange();
+        return super.poll();
+    }
+
+    @Override
+    public E pollFirst() {
+        division.beforeChange();
+        return super.pollFirst();
+    }
+
+    @Override
+    public E pollLast() {
+        division.beforeChange();
+        return super.pollLast();
+    }
+
+    @Override
+    public E remove(int index) {
+        division.beforeChange();
+        return super.remove(index);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        division.beforeChange();
+        return super.remove(o);
+    }
+
+    @Override
+    public E removeFirst() {
+        division.beforeChange();
+        return super.removeFirst();
+    }
+
+    @Override
+    public E removeLast() {
+        division.beforeChange();
+        return super.removeLast();
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        division.beforeChange();
+        return super.removeLastOccurrence(o);
+    }
+
+    @Override
+    public E set(int index, E element) {
+        division.beforeChange();
+        return super.set(index, element);
+    }
+
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        return new ChangeTrackingListIterator(super.listIterator(index));
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        ListIterator<E> listIterator = listIterator(size());
+        return new Iterator<E>() {
+            @Override
+            public boolean hasNext() {
+                return listIterator.hasPrevious();
+            }
+
+            @Override
+            public E next() {
+                return listIterator.previous();
+            }
+
+            @Override
+            public void remove() {
+                listIterator.remove();
+            }
+        };
+    }
+
+    private class ChangeTrackingListIterator implements ListIterator<E> {
+        private final ListIterator<E> listIterator;
+
+        private ChangeTrackingListIterator(ListIterator<E> listIterator) {
+            this.listIterator = listIterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return listIterator.hasNext();
+        }
+
+        @Override
+        public E next() {
+            return listIterator.next();
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return listIterator.hasPrevious();
+        }
+
+        @Override
+        public E previous() {
+            return listIterator.previous();
+        }
+
+        @Override
+        public int nextIndex() {
+            return listIterator.nextIndex();
+        }
+
+        @Override
+        public int previousIndex() {
+            return listIterator.previousIndex();
+        }
+
+        @Override
+        public void remove() {
+            division.beforeChange();
+            listIterator.remove();
+        }
+
+        @Override
+        public void set(E e) {
+            division.beforeChange();
+            listIterator.set(e);
+        }
+
+        @Override
+        public void add(E e) {
+            division.beforeChange();
+            listIterator.add(e);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            listIterator.forEachRemaining(action);
+        }
+    }
+}
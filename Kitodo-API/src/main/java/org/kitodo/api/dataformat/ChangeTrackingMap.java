@@ -0,0 +1,116 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.api.dataformat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A hash map of a division which tells the division before it is changed. All
+ * modifying methods of {@code HashMap} are overridden. Changes made through
+ * the key set, the values or the entry set are not tracked; the divisions are
+ * not changed this way.
+ *
+ * @param <K>
+ *            the type of keys
+ * @param <V>
+ *            the type of values
+ */
+class ChangeTrackingMap<K, V> extends HashMap<K, V> {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Division<?> division;
+
+    ChangeTrackingMap(Division<?> division) {
+        this.division = division;
+    }
+
+    @Override
+    public void clear() {
+        division.beforeChange();
+        super.clear();
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        division.beforeChange();
+        return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        division.beforeChange();
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        division.beforeChange();
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        division.beforeChange();
+        return super.merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        division.beforeChange();
+        return super.put(key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        division.beforeChange();
+        super.putAll(m);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        division.beforeChange();
+        return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        division.beforeChange();
+        return super.remove(key);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        division.beforeChange();
+        return super.remove(key, value);
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        division.beforeChange();
+        return super.replace(key, value);
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        division.beforeChange();
+        return super.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        division.beforeChange();
+        super.replaceAll(function);
+    }
+}
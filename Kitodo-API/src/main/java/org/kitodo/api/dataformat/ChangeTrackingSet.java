@@ -0,0 +1,79 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.api.dataformat;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * A hash set of a division which tells the division before it is changed. All
+ * modifying methods of {@code HashSet} which do not call another one are
+ * overridden, including the one of its iterator.
+ *
+ * @param <E>
+ *            the type of elements
+ */
+class ChangeTrackingSet<E> extends HashSet<E> {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Division<?> division;
+
+    ChangeTrackingSet(Division<?> division) {
+        this.division = division;
+    }
+
+    @Override
+    public boolean add(E e) {
+        division.beforeChange();
+        return super.add(e);
+    }
+
+    @Override
+    public void clear() {
+        division.beforeChange();
+        super.clear();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        division.beforeChange();
+        return super.remove(o);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<E> iterator = super.iterator();
+        return new Iterator<E>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                division.beforeChange();
+                iterator.remove();
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super E> action) {
+                iterator.forEachRemaining(action);
+            }
+        };
+    }
+}
@@ -13,10 +13,9 @@ package org.kitodo.api.dataformat;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -36,9 +35,9 @@ public abstract class Division<T extends Division<T>> {
     /**
      * The children of this division, which form the structure tree.
      */
-    private List<T> children = new LinkedList<>();
+    private List<T> children = new ChangeTrackingList<>(this);
 
-    private List<URI> contentIds = new ArrayList<>(0);
+    private List<URI> contentIds = new ChangeTrackingList<>(this);
 
     /**
      * The label for this divison.
@@ -48,7 +47,7 @@ public abstract class Division<T extends Division<T>> {
     /**
      * The metadata for this division.
      */
-    private Collection<Metadata> metadata = new HashSet<>();
+    private Collection<Metadata> metadata = new ChangeTrackingSet<>(this);
 
     /**
      * Sequence number. The sequence number must be unique across all divisions.
@@ -89,6 +88,12 @@ public abstract class Division<T extends Division<T>> {
      */
     private String type;
 
+    /**
+     * Keeps the original state of this division if it is changed, while the
+     * changes of the workpiece are tracked.
+     */
+    private ChangeTracker changeTracker;
+
     /**
      * Creates a new division.
      */
@@ -159,6 +164,7 @@ public abstract class Division<T extends Division<T>> {
      *            label to set
      */
     public void setLabel(String label) {
+        beforeChange();
         this.label = label;
     }
 
@@ -187,6 +193,7 @@ public abstract class Division<T extends Division<T>> {
      *            as int
      */
     public void setOrder(int order) {
+        beforeChange();
         this.order = order;
     }
 
@@ -206,6 +213,7 @@ public abstract class Division<T extends Division<T>> {
      *            order label to set
      */
     public void setOrderlabel(String orderlabel) {
+        beforeChange();
         this.orderlabel = orderlabel;
     }
 
@@ -225,9 +233,42 @@ public abstract class Division<T extends Division<T>> {
      *            type to set
      */
     public void setType(String type) {
+        beforeChange();
         this.type = type;
     }
 
+    /**
+     * Called before this division is changed, to keep its original state if
+     * the changes of the workpiece are tracked.
+     */
+    void beforeChange() {
+        if (Objects.nonNull(changeTracker)) {
+            changeTracker.beforeChange(this);
+        }
+    }
+
+    /**
+     * Sets the change tracker of the workpiece, or null to stop tracking the
+     * changes of this division.
+     *
+     * @param changeTracker
+     *            change tracker to set
+     */
+    void setChangeTracker(ChangeTracker changeTracker) {
+        this.changeTracker = changeTracker;
+    }
+
+    /**
+     * Returns the state of this division, without the state of its children.
+     * The children are compared by identity. Subclasses add their own fields.
+     *
+     * @return the state of this division
+     */
+    List<Object> getState() {
+        return new ArrayList<>(Arrays.asList(label, order, orderlabel, type, ChangeTracker.identities(children),
+            new ArrayList<>(contentIds), ChangeTracker.copyOf(metadata)));
+    }
+
     @Override
     public boolean equals(Object compared) {
         if (this == compared) {
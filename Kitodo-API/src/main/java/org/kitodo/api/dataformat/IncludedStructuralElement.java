@@ -12,7 +12,9 @@
 package org.kitodo.api.dataformat;
 
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 import org.kitodo.api.dataformat.mets.LinkedMetsResource;
 
@@ -40,7 +42,7 @@ public class IncludedStructuralElement extends Division<IncludedStructuralElemen
      * Creates a new included structural element.
      */
     public IncludedStructuralElement() {
-        views = new LinkedList<>();
+        views = new ChangeTrackingList<>(this);
     }
 
     /**
@@ -72,6 +74,7 @@ public class IncludedStructuralElement extends Division<IncludedStructuralElemen
      *            link to set
      */
     public void setLink(LinkedMetsResource link) {
+        beforeChange();
         this.link = link;
     }
 
@@ -84,6 +87,15 @@ public class IncludedStructuralElement extends Division<IncludedStructuralElemen
         return views;
     }
 
+    @Override
+    List<Object> getState() {
+        List<Object> state = super.getState();
+        state.add(link);
+        state.add(ChangeTracker.identities(views));
+        state.add(ChangeTracker.identities(views.stream().map(View::getMediaUnit).collect(Collectors.toList())));
+        return state;
+    }
+
     @Override
     public String toString() {
         return getType() + " \"" + getLabel() + "\"";
@@ -49,7 +49,7 @@ public class MediaUnit extends Division<MediaUnit> {
      * Each media unit can be available in different variants, for each of which
      * a media file is available. This is in this map.
      */
-    private Map<MediaVariant, URI> mediaFiles = new HashMap<>();
+    private Map<MediaVariant, URI> mediaFiles = new ChangeTrackingMap<>(this);
 
     /**
      * Saves the METS identifier for the division.
@@ -113,6 +113,13 @@ public class MediaUnit extends Division<MediaUnit> {
         return includedStructuralElements;
     }
 
+    @Override
+    List<Object> getState() {
+        List<Object> state = super.getState();
+        state.add(new HashMap<>(mediaFiles));
+        return state;
+    }
+
     @Override
     public String toString() {
         String fileName = "No file (";
@@ -12,6 +12,7 @@
 package org.kitodo.api.dataformat;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.GregorianCalendar;
@@ -51,6 +52,18 @@ public class Workpiece {
      */
     private IncludedStructuralElement rootElement = new IncludedStructuralElement();
 
+    /**
+     * Keeps the original state of the changed divisions, if the changes are
+     * tracked.
+     */
+    private ChangeTracker changeTracker;
+
+    /**
+     * The original state of the fields of the workpiece, if the changes are
+     * tracked.
+     */
+    private List<Object> originalState;
+
     /**
      * Returns the creation date of the workpiece.
      *
@@ -136,6 +149,44 @@ public class Workpiece {
         this.rootElement = rootElement;
     }
 
+    /**
+     * Starts tracking the changes of this workpiece, so that
+     * {@link #hasChanges()} can tell whether it differs from its current
+     * state. Instead of keeping a copy of the whole workpiece, the state of a
+     * division is kept right before its first change. This assumes that the
+     * workpiece is changed through the getters and setters of the workpiece
+     * and its divisions; changes made to metadata or views in place, which are
+     * not added to or removed from a division, are not tracked. Calling this
+     * method again starts tracking anew.
+     */
+    public void trackChanges() {
+        changeTracker = new ChangeTracker();
+        treeStream(rootElement).forEach(division -> division.setChangeTracker(changeTracker));
+        treeStream(mediaUnit).forEach(division -> division.setChangeTracker(changeTracker));
+        originalState = getState();
+    }
+
+    /**
+     * Returns whether this workpiece has been changed since
+     * {@link #trackChanges()} was called. Only the divisions that have been
+     * changed are compared; a change that was undone does not count.
+     *
+     * @return whether this workpiece has been changed
+     * @throws IllegalStateException
+     *             if the changes are not tracked
+     */
+    public boolean hasChanges() {
+        if (Objects.isNull(changeTracker)) {
+            throw new IllegalStateException("Changes of workpiece " + id + " are not tracked");
+        }
+        return !getState().equals(originalState) || changeTracker.hasChanges();
+    }
+
+    private List<Object> getState() {
+        return Arrays.asList(Objects.nonNull(creationDate) ? creationDate.clone() : null,
+            new ArrayList<>(editHistory), id, ChangeTracker.identities(Arrays.asList(mediaUnit, rootElement)));
+    }
+
     @Override
     public String toString() {
         return id + ", " + rootElement;
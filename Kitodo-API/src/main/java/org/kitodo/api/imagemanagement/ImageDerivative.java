@@ -0,0 +1,77 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.api.imagemanagement;
+
+import java.net.URI;
+
+/**
+ * A derivative to be created from a source image.
+ */
+public class ImageDerivative {
+
+    /** The percentage of scaling for the derivative. */
+    private final double percent;
+
+    /** The URI to save the derivative to. */
+    private final URI resultFileUri;
+
+    /** The format for the derivative. */
+    private final ImageFileFormat resultFileFormat;
+
+    /**
+     * Creates a new image derivative.
+     *
+     * @param percent
+     *            the percentage of scaling for the derivative
+     * @param resultFileUri
+     *            the URI to save the derivative to
+     * @param resultFileFormat
+     *            the format for the derivative
+     */
+    public ImageDerivative(double percent, URI resultFileUri, ImageFileFormat resultFileFormat) {
+        this.percent = percent;
+        this.resultFileUri = resultFileUri;
+        this.resultFileFormat = resultFileFormat;
+    }
+
+    /**
+     * Gets the percentage of scaling.
+     *
+     * @return the percentage of scaling
+     */
+    public double getPercent() {
+        return percent;
+    }
+
+    /**
+     * Gets the URI to save the derivative to.
+     *
+     * @return the URI of the result file
+     */
+    public URI getResultFileUri() {
+        return resultFileUri;
+    }
+
+    /**
+     * Gets the format for the derivative.
+     *
+     * @return the format of the result file
+     */
+    public ImageFileFormat getResultFileFormat() {
+        return resultFileFormat;
+    }
+
+    @Override
+    public String toString() {
+        return resultFileUri + " (" + resultFileFormat + ", " + 100 * percent + "%)";
+    }
+}
@@ -14,6 +14,7 @@ package org.kitodo.api.imagemanagement;
 import java.awt.Image;
 import java.io.IOException;
 import java.net.URI;
+import java.util.Collection;
 
 public interface ImageManagementInterface {
 
@@ -50,6 +51,30 @@ public interface ImageManagementInterface {
     boolean createDerivative(URI imageFileUri, double percent, URI resultFileUri, ImageFileFormat resultFileFormat)
             throws IOException;
 
+    /**
+     * Creates several derivatives for an image at a given path. Implementations
+     * should read the image only once for all derivatives. The default
+     * implementation creates the derivatives one after the other.
+     *
+     * @param imageFileUri
+     *            the URI to the image
+     * @param derivatives
+     *            the derivatives to create
+     * @return true, if creation was successful for all derivatives, false
+     *         otherwise
+     * @throws IOException
+     *             if the plug-in is configured incorrectly, the image is
+     *             missing or corrupted, etc.
+     */
+    default boolean createDerivatives(URI imageFileUri, Collection<ImageDerivative> derivatives) throws IOException {
+        boolean successful = true;
+        for (ImageDerivative derivative : derivatives) {
+            successful &= createDerivative(imageFileUri, derivative.getPercent(), derivative.getResultFileUri(),
+                derivative.getResultFileFormat());
+        }
+        return successful;
+    }
+
     /**
      * Scales an image at a given path and returns it.
      *
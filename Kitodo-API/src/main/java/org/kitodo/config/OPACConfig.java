@@ -37,6 +37,7 @@ public class OPACConfig {
     private static final String TRUE = "true";
     private static final String DEFAULT = "[@default]";
     private static final int DEFAULT_IMPORT_DEPTH = 2;
+    private static final int DEFAULT_PARALLEL_REQUESTS = 4;
 
     /**
      * Private constructor.
@@ -325,6 +326,21 @@ public class OPACConfig {
         }
     }
 
+    /**
+     * Return the maximal number of requests sent to catalog 'catalogName' at
+     * the same time if configured. Return DEFAULT_PARALLEL_REQUESTS 4
+     * otherwise.
+     * @param catalogName name of catalog
+     * @return maximal number of parallel requests to catalog
+     */
+    public static int getMaxParallelRequests(String catalogName) {
+        try {
+            return Math.max(1, getCatalog(catalogName).getInt("parallelRequests"));
+        } catch (NoSuchElementException | ConversionException e) {
+            return DEFAULT_PARALLEL_REQUESTS;
+        }
+    }
+
     /**
      * Retrieve the list of catalogs' titles from config file.
      * @return List of Strings containing all catalog titles.
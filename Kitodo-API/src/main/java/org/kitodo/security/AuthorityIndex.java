@@ -0,0 +1,122 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * The authorities of a user, indexed for the checks of {@link SecurityAccess}.
+ * The granted authorities are named {@code <title>_GLOBAL},
+ * {@code <title>_CLIENT_ANY} and {@code <title>_CLIENT_<client id>}. The index
+ * keeps the titles of the global authorities and the titles of the authorities
+ * per client in hash sets, so that a check is a single lookup which creates
+ * no objects. An index is immutable; if the roles of a user change, a new one
+ * must be built.
+ */
+public final class AuthorityIndex {
+
+    private static final String GLOBAL_IDENTIFIER = "GLOBAL";
+    private static final String CLIENT_IDENTIFIER = "CLIENT";
+    private static final String GLOBAL_SUFFIX = "_" + GLOBAL_IDENTIFIER;
+    private static final String CLIENT_INFIX = "_" + CLIENT_IDENTIFIER + "_";
+
+    /**
+     * An index without any authorities.
+     */
+    public static final AuthorityIndex EMPTY = new AuthorityIndex(Collections.emptyList());
+
+    private final List<GrantedAuthority> authorities;
+    private final Set<String> global = new HashSet<>();
+    private final Map<Integer, Set<String>> byClient = new HashMap<>();
+
+    private AuthorityIndex(Collection<? extends GrantedAuthority> grantedAuthorities) {
+        List<GrantedAuthority> authorityList = new ArrayList<>(grantedAuthorities.size());
+        Set<String> names = new HashSet<>();
+        for (GrantedAuthority grantedAuthority : grantedAuthorities) {
+            String name = grantedAuthority.getAuthority();
+            if (!names.add(name)) {
+                continue;
+            }
+            authorityList.add(grantedAuthority);
+            if (name.endsWith(GLOBAL_SUFFIX)) {
+                global.add(name.substring(0, name.length() - GLOBAL_SUFFIX.length()).intern());
+                continue;
+            }
+            int infix = name.lastIndexOf(CLIENT_INFIX);
+            if (infix > 0) {
+                try {
+                    Integer clientId = Integer.valueOf(name.substring(infix + CLIENT_INFIX.length()));
+                    byClient.computeIfAbsent(clientId, key -> new HashSet<>()).add(name.substring(0, infix).intern());
+                } catch (NumberFormatException e) {
+                    // <title>_CLIENT_ANY, not used for the checks
+                }
+            }
+        }
+        this.authorities = Collections.unmodifiableList(authorityList);
+    }
+
+    /**
+     * Creates the index of the given authorities.
+     *
+     * @param authorities
+     *            the granted authorities
+     * @return the index
+     */
+    public static AuthorityIndex of(Collection<? extends GrantedAuthority> authorities) {
+        return authorities.isEmpty() ? EMPTY : new AuthorityIndex(authorities);
+    }
+
+    /**
+     * Returns the granted authorities, without duplicates, in the order they
+     * were given.
+     *
+     * @return the granted authorities, unmodifiable
+     */
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    /**
+     * Returns whether the authority is granted globally.
+     *
+     * @param authorityTitle
+     *            the authority title
+     * @return whether the authority is granted globally
+     */
+    public boolean hasAuthorityGlobal(String authorityTitle) {
+        return global.contains(authorityTitle);
+    }
+
+    /**
+     * Returns whether the authority is granted for the client.
+     *
+     * @param authorityTitle
+     *            the authority title
+     * @param clientId
+     *            the id of the client
+     * @return whether the authority is granted for the client
+     */
+    public boolean hasAuthorityForClient(String authorityTitle, int clientId) {
+        Set<String> titles = byClient.get(clientId);
+        return Objects.nonNull(titles) && titles.contains(authorityTitle);
+    }
+}
@@ -11,13 +11,9 @@
 
 package org.kitodo.security;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Objects;
 
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 /**
@@ -26,15 +22,19 @@ import org.springframework.security.core.context.SecurityContextHolder;
  */
 public abstract class SecurityAccess {
 
-    private static final String GLOBAL_IDENTIFIER = "GLOBAL";
-    private static final String CLIENT_IDENTIFIER = "CLIENT";
-
-    private Collection<? extends GrantedAuthority> getAuthoritiesOfCurrentAuthentication() {
+    /**
+     * Get the index of the authorities of the current authentication. This
+     * creates the index each time; subclasses should return an index which
+     * has been created once for the authentication.
+     *
+     * @return the index of the authorities of the current authentication
+     */
+    protected AuthorityIndex getAuthorityIndexOfCurrentAuthentication() {
         Authentication authentication = getCurrentAuthentication();
         if (Objects.nonNull(authentication)) {
-            return authentication.getAuthorities();
+            return AuthorityIndex.of(authentication.getAuthorities());
         } else {
-            return new ArrayList<>();
+            return AuthorityIndex.EMPTY;
         }
     }
 
@@ -54,7 +54,7 @@ public abstract class SecurityAccess {
      * @return true if the current user has the specified authority
      */
     public boolean hasAuthorityGlobal(String authorityTitle) {
-        return hasAuthority(authorityTitle + "_" + GLOBAL_IDENTIFIER);
+        return getAuthorityIndexOfCurrentAuthentication().hasAuthorityGlobal(authorityTitle);
     }
 
     /**
@@ -65,8 +65,7 @@ public abstract class SecurityAccess {
      * @return true if the current user has the specified authority
      */
     public boolean hasAuthorityForClient(String authorityTitle) {
-        String clientAuthority = authorityTitle + "_" + CLIENT_IDENTIFIER + "_" + getClientId();
-        return hasAuthority(clientAuthority);
+        return getAuthorityIndexOfCurrentAuthentication().hasAuthorityForClient(authorityTitle, getClientId());
     }
 
     /**
@@ -139,12 +138,6 @@ public abstract class SecurityAccess {
         return SecurityContextHolder.getContext().getAuthentication();
     }
 
-    private boolean hasAuthority(String authorityTitle) {
-        SimpleGrantedAuthority authority = new SimpleGrantedAuthority(authorityTitle);
-        Collection<? extends GrantedAuthority> authorities = getAuthoritiesOfCurrentAuthentication();
-        return authorities.contains(authority);
-    }
-
     private String[] getStringArray(String values) {
         // remove white spaces and split values
         return values.replaceAll("\\s+", "").split(",");
@@ -0,0 +1,251 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.serviceloader;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Process-wide registry of the modules in the modules directory. The jar files
+ * of the modules directory are only scanned again if one of them was added,
+ * removed or changed its modification time or size. The provider classes which
+ * were resolved for an interface are kept, so that further requests for a
+ * module only need to instantiate it.
+ */
+public class KitodoModuleRegistry {
+    private static final Logger logger = LogManager.getLogger(KitodoModuleRegistry.class);
+
+    private static final String JAR = "*.jar";
+
+    /**
+     * Minimum time between two looks at the modules directory.
+     */
+    private static final long MODIFICATION_CHECK_INTERVAL = TimeUnit.SECONDS.toMillis(10);
+
+    private static final KitodoModuleRegistry instance = new KitodoModuleRegistry(MODIFICATION_CHECK_INTERVAL);
+
+    private final long modificationCheckInterval;
+    private Map<Path, String> moduleFingerprints;
+    private long lastModificationCheck;
+    private boolean frontendFilesLoaded;
+
+    private final Map<Class<?>, List<Class<?>>> providerClasses = new ConcurrentHashMap<>();
+    private final Map<String, Long> providerResolutionTimes = new ConcurrentHashMap<>();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private long scanCount;
+    private long lastScanDuration;
+    private long totalScanDuration;
+
+    /**
+     * Creates a new module registry. Except for tests, the shared instance
+     * returned by {@link #getInstance()} should be used.
+     *
+     * @param modificationCheckInterval
+     *            minimum time in milliseconds between two looks at the modules
+     *            directory
+     */
+    KitodoModuleRegistry(long modificationCheckInterval) {
+        this.modificationCheckInterval = modificationCheckInterval;
+    }
+
+    /**
+     * Returns the module registry of this process.
+     *
+     * @return the module registry
+     */
+    public static KitodoModuleRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Checks whether the jar files in the modules folder have changed since the
+     * last check. If so, the resolved provider classes are discarded and the
+     * frontend files are marked to be loaded again.
+     *
+     * @param moduleFolder
+     *            folder containing the module jar files
+     * @return whether the modules folder has to be scanned
+     */
+    synchronized boolean checkForModifications(Path moduleFolder) {
+        long now = System.currentTimeMillis();
+        if (Objects.nonNull(moduleFingerprints) && now - lastModificationCheck < modificationCheckInterval) {
+            return false;
+        }
+        lastModificationCheck = now;
+        Map<Path, String> currentFingerprints = getFingerprints(moduleFolder);
+        if (currentFingerprints.equals(moduleFingerprints)) {
+            return false;
+        }
+        if (Objects.nonNull(moduleFingerprints)) {
+            logger.info("Modules in {} have changed, rescanning", moduleFolder);
+        }
+        moduleFingerprints = currentFingerprints;
+        providerClasses.clear();
+        frontendFilesLoaded = false;
+        return true;
+    }
+
+    private static Map<Path, String> getFingerprints(Path moduleFolder) {
+        Map<Path, String> fingerprints = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(moduleFolder, JAR)) {
+            for (Path jar : stream) {
+                fingerprints.put(jar,
+                    Files.getLastModifiedTime(jar).toMillis() + ":" + Files.size(jar));
+            }
+        } catch (IOException e) {
+            logger.error("Modules folder could not be read: {}", e.getMessage());
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Records the duration of a scan of the modules folder.
+     *
+     * @param nanos
+     *            duration of the scan in nanoseconds
+     */
+    synchronized void recordScan(long nanos) {
+        scanCount++;
+        lastScanDuration = TimeUnit.NANOSECONDS.toMillis(nanos);
+        totalScanDuration += lastScanDuration;
+        logger.info("Scanned modules folder in {} ms", lastScanDuration);
+    }
+
+    synchronized boolean isFrontendFilesLoaded() {
+        return frontendFilesLoaded;
+    }
+
+    synchronized void setFrontendFilesLoaded() {
+        this.frontendFilesLoaded = true;
+    }
+
+    /**
+     * Returns the provider classes implementing the given interface. They are
+     * resolved by a {@code ServiceLoader} on first request only.
+     *
+     * @param clazz
+     *            interface class of module to load
+     * @return the provider classes
+     */
+    List<Class<?>> getProviderClasses(Class<?> clazz) {
+        List<Class<?>> classes = providerClasses.get(clazz);
+        if (Objects.nonNull(classes)) {
+            cacheHits.incrementAndGet();
+            return classes;
+        }
+        cacheMisses.incrementAndGet();
+        List<Class<?>> resolvedClasses = new ArrayList<>();
+        long start = System.nanoTime();
+        for (Object provider : ServiceLoader.load(clazz)) {
+            resolvedClasses.add(provider.getClass());
+        }
+        long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        classes = Collections.unmodifiableList(resolvedClasses);
+        providerClasses.put(clazz, classes);
+        providerResolutionTimes.put(clazz.getName(), duration);
+        logger.debug("Resolved {} provider(s) for {} in {} ms", classes.size(), clazz.getName(), duration);
+        return classes;
+    }
+
+    /**
+     * Creates a new instance of a provider class.
+     *
+     * @param clazz
+     *            interface class of module to load
+     * @param providerClass
+     *            class to instantiate
+     * @return a new instance of the provider
+     */
+    <T> T instantiate(Class<T> clazz, Class<?> providerClass) {
+        try {
+            return clazz.cast(providerClass.getDeclaredConstructor().newInstance());
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException
+                | NoSuchMethodException e) {
+            throw new ServiceConfigurationError(
+                    clazz.getName() + ": Provider " + providerClass.getName() + " could not be instantiated", e);
+        }
+    }
+
+    /**
+     * Returns how often the modules folder was scanned.
+     *
+     * @return the number of scans
+     */
+    public synchronized long getScanCount() {
+        return scanCount;
+    }
+
+    /**
+     * Returns the duration of the last scan of the modules folder.
+     *
+     * @return the duration in milliseconds
+     */
+    public synchronized long getLastScanDuration() {
+        return lastScanDuration;
+    }
+
+    /**
+     * Returns the duration of all scans of the modules folder.
+     *
+     * @return the duration in milliseconds
+     */
+    public synchronized long getTotalScanDuration() {
+        return totalScanDuration;
+    }
+
+    /**
+     * Returns how often a module was requested whose provider classes were
+     * already resolved.
+     *
+     * @return the number of cache hits
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * Returns how often the provider classes of a module had to be resolved.
+     *
+     * @return the number of cache misses
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    /**
+     * Returns for each interface the time it took to resolve its provider
+     * classes the last time.
+     *
+     * @return map of interface names to durations in milliseconds
+     */
+    public Map<String, Long> getProviderResolutionTimes() {
+        return Collections.unmodifiableMap(new HashMap<>(providerResolutionTimes));
+    }
+}
@@ -30,11 +30,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Enumeration;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Properties;
-import java.util.ServiceLoader;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
@@ -42,9 +42,11 @@ import javax.faces.context.FacesContext;
 import javax.servlet.http.HttpSession;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.kitodo.config.KitodoConfig;
+import org.kitodo.config.enums.ParameterAPI;
 
 public class KitodoServiceLoader<T> {
     private Class clazz;
@@ -73,19 +75,54 @@ public class KitodoServiceLoader<T> {
     public KitodoServiceLoader(Class clazz) {
         String modulesDirectory = KitodoConfig.getKitodoModulesDirectory();
         this.clazz = clazz;
-        if (new File(modulesDirectory).exists()) {
+        if (Objects.isNull(modulesDirectory)) {
+            this.modulePath = null;
+            logger.error("Module folder is not configured: {}", ParameterAPI.DIR_MODULES.getName());
+        } else if (new File(modulesDirectory).exists()) {
             this.modulePath = modulesDirectory;
         } else {
             logger.error("Specified module folder does not exist: {}", modulesDirectory);
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private ServiceLoader<T> getClassLoader() {
-        loadModulesIntoClasspath();
-        loadBeans();
-        loadFrontendFilesIntoCore();
-        return ServiceLoader.load(clazz);
+    /**
+     * Returns the folder containing the module jar files.
+     *
+     * @return the modules folder
+     * @throws IllegalStateException
+     *             if no modules folder is configured
+     */
+    private Path getModuleFolder() {
+        if (Objects.isNull(modulePath)) {
+            throw new IllegalStateException("Cannot load module for " + clazz.getName()
+                    + ": no module folder is configured in " + ParameterAPI.DIR_MODULES.getName());
+        }
+        return FileSystems.getDefault().getPath(modulePath);
+    }
+
+    /**
+     * Returns the provider classes implementing the constructed clazz. The
+     * modules folder is only scanned again if its jar files have changed since
+     * the last scan. Frontend files are loaded as soon as a faces context is
+     * available.
+     *
+     * @return the provider classes
+     */
+    private List<Class<?>> getProviderClasses() {
+        KitodoModuleRegistry registry = KitodoModuleRegistry.getInstance();
+        synchronized (registry) {
+            if (registry.checkForModifications(getModuleFolder())) {
+                long start = System.nanoTime();
+                loadModulesIntoClasspath();
+                registry.recordScan(System.nanoTime() - start);
+            }
+            if (!registry.isFrontendFilesLoaded() && Objects.nonNull(FacesContext.getCurrentInstance())) {
+                loadBeans();
+                loadFrontendFilesIntoCore();
+                registry.setFrontendFilesLoaded();
+            }
+        }
+        return registry.getProviderClasses(clazz);
     }
 
     /**
@@ -94,23 +131,26 @@ public class KitodoServiceLoader<T> {
      *
      * @return A module with type T.
      */
+    @SuppressWarnings("unchecked")
     public T loadModule() {
-        ServiceLoader<T> loader = getClassLoader();
-        Iterator<T> loaderIterator = loader.iterator();
-        if (!loaderIterator.hasNext()) {
+        List<Class<?>> providerClasses = getProviderClasses();
+        if (providerClasses.isEmpty()) {
             logger.error("Couldn't find a module for {}!", clazz);
+            throw new NoSuchElementException();
         }
-        return loaderIterator.next();
+        return (T) KitodoModuleRegistry.getInstance().instantiate(clazz, providerClasses.get(0));
     }
 
     /**
      * Loads and returns all modules from the classpath which implement the constructed clazz.
      * @return List of modules with type T
      */
+    @SuppressWarnings("unchecked")
     public List<T> loadModules() {
-        ServiceLoader<T> loader = getClassLoader();
         LinkedList<T> modules = new LinkedList<>();
-        loader.iterator().forEachRemaining(modules::add);
+        for (Class<?> providerClass : getProviderClasses()) {
+            modules.add((T) KitodoModuleRegistry.getInstance().instantiate(clazz, providerClass));
+        }
         return modules;
     }
 
@@ -119,7 +159,7 @@ public class KitodoServiceLoader<T> {
      * they can be used in all frontend files
      */
     private void loadBeans() {
-        Path moduleFolder = FileSystems.getDefault().getPath(modulePath);
+        Path moduleFolder = getModuleFolder();
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(moduleFolder, JAR)) {
 
             for (Path f : stream) {
@@ -180,7 +220,7 @@ public class KitodoServiceLoader<T> {
      */
     private void loadFrontendFilesIntoCore() {
 
-        Path moduleFolder = FileSystems.getDefault().getPath(modulePath);
+        Path moduleFolder = getModuleFolder();
 
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(moduleFolder, JAR)) {
 
@@ -293,9 +333,7 @@ public class KitodoServiceLoader<T> {
 
                     try (InputStream inputStream = jar.getInputStream(currentJarEntry);
                             FileOutputStream fos = new FileOutputStream(resourceFile)) {
-                        while (inputStream.available() > 0) {
-                            fos.write(inputStream.read());
-                        }
+                        IOUtils.copy(inputStream, fos);
                     }
                 }
             }
@@ -352,7 +390,7 @@ public class KitodoServiceLoader<T> {
      * can find them.
      */
     private void loadModulesIntoClasspath() {
-        Path moduleFolder = FileSystems.getDefault().getPath(modulePath);
+        Path moduleFolder = getModuleFolder();
 
         URLClassLoader sysLoader;
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(moduleFolder, JAR)) {
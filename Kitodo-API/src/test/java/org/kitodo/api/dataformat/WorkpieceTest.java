@@ -0,0 +1,96 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.api.dataformat;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kitodo.api.MetadataEntry;
+
+public class WorkpieceTest {
+
+    private Workpiece workpiece;
+    private IncludedStructuralElement chapter;
+    private MediaUnit page;
+
+    /**
+     * Creates a workpiece with a chapter and a page, and starts tracking its
+     * changes.
+     */
+    @Before
+    public void createWorkpiece() {
+        workpiece = new Workpiece();
+        workpiece.setId("1");
+        chapter = new IncludedStructuralElement();
+        chapter.setType("Chapter");
+        MetadataEntry title = new MetadataEntry();
+        title.setKey("TitleDocMain");
+        title.setValue("Chapter 1");
+        chapter.getMetadata().add(title);
+        workpiece.getRootElement().getChildren().add(chapter);
+        page = new MediaUnit();
+        page.setType(MediaUnit.TYPE_PAGE);
+        workpiece.getMediaUnit().getChildren().add(page);
+        chapter.getViews().add(View.of(page));
+        workpiece.trackChanges();
+    }
+
+    @Test
+    public void shouldHaveNoChangesAfterTrackingStarted() {
+        assertFalse("Workpiece has changes", workpiece.hasChanges());
+    }
+
+    @Test
+    public void shouldTrackChangesOfDivisions() {
+        chapter.setLabel("Chapter one");
+        assertTrue("Changed label not found", workpiece.hasChanges());
+        chapter.setLabel(null);
+        assertFalse("Undone change found", workpiece.hasChanges());
+
+        page.getMediaFiles().put(new MediaVariant(), URI.create("images/00000001.tif"));
+        assertTrue("Added media file not found", workpiece.hasChanges());
+    }
+
+    @Test
+    public void shouldTrackChangesOfStructure() {
+        workpiece.getRootElement().getChildren().remove(chapter);
+        assertTrue("Removed chapter not found", workpiece.hasChanges());
+        workpiece.getRootElement().getChildren().add(chapter);
+        assertFalse("Undone change found", workpiece.hasChanges());
+
+        chapter.getViews().removeFirstOccurrence(chapter.getViews().getFirst());
+        assertTrue("Removed view not found", workpiece.hasChanges());
+    }
+
+    @Test
+    public void shouldCompareMetadataByValue() {
+        MetadataEntry title = new MetadataEntry();
+        title.setKey("TitleDocMain");
+        title.setValue("Chapter 1");
+        chapter.getMetadata().clear();
+        chapter.getMetadata().add(title);
+        assertFalse("Metadata added again found as changed", workpiece.hasChanges());
+
+        title.setValue("Chapter 2");
+        assertTrue("Changed metadata not found", workpiece.hasChanges());
+    }
+
+    @Test
+    public void shouldTrackChangesOfWorkpiece() {
+        workpiece.setId("2");
+        assertTrue("Changed ID not found", workpiece.hasChanges());
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+public class AuthorityIndexTest {
+
+    private final AuthorityIndex authorityIndex = AuthorityIndex.of(Arrays.asList(
+        new SimpleGrantedAuthority("viewAllClients_GLOBAL"),
+        new SimpleGrantedAuthority("editProcess_CLIENT_ANY"),
+        new SimpleGrantedAuthority("editProcess_CLIENT_1"),
+        new SimpleGrantedAuthority("editProcess_CLIENT_ANY"),
+        new SimpleGrantedAuthority("viewProcess_CLIENT_2")));
+
+    @Test
+    public void shouldFindGlobalAuthority() {
+        assertTrue("Global authority not found", authorityIndex.hasAuthorityGlobal("viewAllClients"));
+        assertFalse("Client authority found globally", authorityIndex.hasAuthorityGlobal("editProcess"));
+    }
+
+    @Test
+    public void shouldFindClientAuthority() {
+        assertTrue("Client authority not found", authorityIndex.hasAuthorityForClient("editProcess", 1));
+        assertFalse("Authority found for other client", authorityIndex.hasAuthorityForClient("editProcess", 2));
+        assertTrue("Client authority not found", authorityIndex.hasAuthorityForClient("viewProcess", 2));
+        assertFalse("Global authority found for client", authorityIndex.hasAuthorityForClient("viewAllClients", 1));
+    }
+
+    @Test
+    public void shouldRemoveDuplicateAuthorities() {
+        assertEquals("Wrong number of authorities", 4, authorityIndex.getAuthorities().size());
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+package org.kitodo.serviceloader;
+
+/**
+ * Interface of a module which is provided on the test class path.
+ */
+public interface ExampleModuleInterface {
+}
@@ -0,0 +1,84 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+package org.kitodo.serviceloader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class KitodoModuleRegistryTest {
+
+    @Rule
+    public TemporaryFolder modulesFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldOnlyRequestScanIfModulesChanged() throws IOException {
+        KitodoModuleRegistry registry = new KitodoModuleRegistry(0);
+        Path moduleFolder = modulesFolder.getRoot().toPath();
+        Path jar = Files.write(moduleFolder.resolve("module.jar"), Collections.singletonList("first"));
+
+        assertTrue("First check should request a scan", registry.checkForModifications(moduleFolder));
+        assertFalse("Unchanged modules should not be scanned", registry.checkForModifications(moduleFolder));
+
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 1000));
+        assertTrue("Changed modification time should request a scan", registry.checkForModifications(moduleFolder));
+
+        Files.write(moduleFolder.resolve("other.jar"), Collections.singletonList("second"));
+        assertTrue("Added module should request a scan", registry.checkForModifications(moduleFolder));
+        assertFalse("Unchanged modules should not be scanned", registry.checkForModifications(moduleFolder));
+    }
+
+    @Test
+    public void shouldNotLookAtModulesFolderWithinCheckInterval() throws IOException {
+        KitodoModuleRegistry registry = new KitodoModuleRegistry(60_000);
+        Path moduleFolder = modulesFolder.getRoot().toPath();
+
+        assertTrue("First check should request a scan", registry.checkForModifications(moduleFolder));
+        Files.write(moduleFolder.resolve("module.jar"), Collections.singletonList("added"));
+        assertFalse("Check interval should not be elapsed", registry.checkForModifications(moduleFolder));
+    }
+
+    @Test
+    public void shouldResolveProviderClassesOnce() {
+        KitodoModuleRegistry registry = new KitodoModuleRegistry(0);
+
+        List<Class<?>> providerClasses = registry.getProviderClasses(ExampleModuleInterface.class);
+        assertEquals("Provider class should be resolved", Collections.singletonList(ExampleModule.class),
+            providerClasses);
+        registry.getProviderClasses(ExampleModuleInterface.class);
+
+        assertEquals("Incorrect number of cache misses", 1, registry.getCacheMisses());
+        assertEquals("Incorrect number of cache hits", 1, registry.getCacheHits());
+        assertTrue("Resolution time should be recorded",
+            registry.getProviderResolutionTimes().containsKey(ExampleModuleInterface.class.getName()));
+    }
+
+    @Test
+    public void shouldInstantiateNewModuleOnEachRequest() {
+        KitodoModuleRegistry registry = new KitodoModuleRegistry(0);
+
+        ExampleModuleInterface first = registry.instantiate(ExampleModuleInterface.class, ExampleModule.class);
+        ExampleModuleInterface second = registry.instantiate(ExampleModuleInterface.class, ExampleModule.class);
+        assertNotSame("Modules should not be shared", first, second);
+    }
+}
@@ -11,25 +11,80 @@
 
 package org.kitodo.command;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.kitodo.api.command.CommandInterface;
 import org.kitodo.api.command.CommandResult;
+import org.kitodo.config.KitodoConfig;
+import org.kitodo.config.enums.ParameterCommand;
 
 public class Command implements CommandInterface {
 
     private static final Logger logger = LogManager.getLogger(Command.class);
-    private static final String CHARSET = "UTF-8";
 
     /**
-     * Method executes a script.
+     * Default time limit for a command, in seconds.
+     */
+    private static final int DEFAULT_TIMEOUT_SEC = (int) TimeUnit.HOURS.toSeconds(2);
+
+    /**
+     * Default number of lines kept of each output stream of a command.
+     */
+    private static final int DEFAULT_MAX_OUTPUT_LINES = 1000;
+
+    /**
+     * Default number of characters kept of each line of the output of a
+     * command.
+     */
+    private static final int DEFAULT_MAX_OUTPUT_LINE_LENGTH = 10000;
+
+    /**
+     * Default number of commands running in parallel.
+     */
+    private static final int DEFAULT_MAX_PARALLEL = 2 * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Time to wait for the output of a process after it has ended. Processes
+     * started by the command in the background may keep the output open.
+     */
+    private static final long DRAIN_TIMEOUT_SEC = 5;
+
+    /**
+     * Threads reading the output streams of the processes, so that a process
+     * never blocks on a full pipe.
+     */
+    private static final ExecutorService STREAM_READERS = Executors
+            .newCachedThreadPool(new StreamReaderThreadFactory());
+
+    /**
+     * Number of processes currently running. Guarded by {@link #RUNNING_LOCK}.
+     */
+    private static int running = 0;
+    private static final Object RUNNING_LOCK = new Object();
+
+    /**
+     * Method executes a script. Standard output and standard error of the
+     * process are read concurrently, so that the process cannot block on
+     * either of them. The process is killed if it exceeds the configured time
+     * limit. If the configured number of processes is already running, waits
+     * until one of them ends.
      *
      * @param id
      *            The id, to identify the command and it's results.
@@ -40,27 +95,22 @@ public class Command implements CommandInterface {
     @Override
     public CommandResult runCommand(Integer id, String command) {
         CommandResult commandResult;
-        Process process;
         String[] callSequence = command.split("[\\r\\n\\s]+");
+        long requested = System.nanoTime();
 
         try {
-            process = new ProcessBuilder(callSequence).start();
-            try (InputStream inputStream = process.getInputStream();
-                    InputStream errorInputStream = process.getErrorStream()) {
-                List<String> outputMessage = inputStreamArrayToList(inputStream);
-                List<String> errorMessage = inputStreamArrayToList(errorInputStream);
-                int errCode = process.waitFor();
-
-                outputMessage.addAll(errorMessage);
-
-                commandResult = new CommandResult(id, command, errCode == 0, outputMessage);
-                if (commandResult.isSuccessful()) {
-                    logger.info("Execution of Command {} {} was successful!: {}", commandResult.getId(),
-                        commandResult.getCommand(), commandResult.getMessages());
-                } else {
-                    logger.error("Execution of Command {} {} failed!: {}", commandResult.getId(),
-                        commandResult.getCommand(), commandResult.getMessages());
-                }
+            acquire();
+            try {
+                commandResult = runProcess(id, command, callSequence, requested);
+            } finally {
+                release();
+            }
+            if (commandResult.isSuccessful()) {
+                logger.info("Execution of Command {} {} was successful!: {}", commandResult.getId(),
+                    commandResult.getCommand(), commandResult.getMessages());
+            } else {
+                logger.error("Execution of Command {} {} failed!: {}", commandResult.getId(),
+                    commandResult.getCommand(), commandResult.getMessages());
             }
         } catch (InterruptedException e) {
             commandResult = new CommandResult(id, command, false, Collections.singletonList(e.getMessage()));
@@ -80,21 +130,203 @@ public class Command implements CommandInterface {
     }
 
     /**
-     * The method reads an InputStream and returns it as a ArrayList.
+     * Starts a process and waits until it has ended. If the thread is
+     * interrupted while waiting, the process is killed.
+     */
+    private static CommandResult runProcess(Integer id, String command, String[] callSequence, long requested)
+            throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(callSequence).start();
+        long spawnLatency = millisSince(requested);
+        List<String> messages = new ArrayList<>();
+        try {
+            boolean timedOut = awaitProcess(process, messages);
+            return new CommandResult(id, command, messages, process.exitValue(), timedOut, spawnLatency,
+                    millisSince(requested));
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until a process has ended, or kills it if it exceeds the
+     * configured time limit, and collects its output.
+     *
+     * @param process
+     *            the running process
+     * @param messages
+     *            list to add the lines of standard output and standard error
+     *            of the process to
+     * @return whether the process was killed because it exceeded the time
+     *         limit
+     */
+    private static boolean awaitProcess(Process process, List<String> messages) throws InterruptedException {
+        int maxLines = KitodoConfig.getIntParameter(ParameterCommand.MAX_OUTPUT_LINES, DEFAULT_MAX_OUTPUT_LINES);
+        int maxLineLength = KitodoConfig.getIntParameter(ParameterCommand.MAX_OUTPUT_LINE_LENGTH,
+            DEFAULT_MAX_OUTPUT_LINE_LENGTH);
+        Future<List<String>> outputMessage = STREAM_READERS
+                .submit(() -> readLines(process.getInputStream(), maxLines, maxLineLength));
+        Future<List<String>> errorMessage = STREAM_READERS
+                .submit(() -> readLines(process.getErrorStream(), maxLines, maxLineLength));
+
+        int timeout = KitodoConfig.getIntParameter(ParameterCommand.TIMEOUT_SEC, DEFAULT_TIMEOUT_SEC);
+        boolean timedOut = !process.waitFor(timeout, TimeUnit.SECONDS);
+        if (timedOut) {
+            process.destroyForcibly();
+            process.waitFor();
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SEC);
+        messages.addAll(getLines(outputMessage, process.getInputStream(), drainDeadline));
+        messages.addAll(getLines(errorMessage, process.getErrorStream(), drainDeadline));
+        if (timedOut) {
+            messages.add("Command was killed after exceeding the time limit of " + timeout + " seconds");
+        }
+        return timedOut;
+    }
+
+    /**
+     * Waits until less than the configured number of processes are running.
+     *
+     * @throws InterruptedException
+     *             if the thread is interrupted while waiting
+     */
+    private static void acquire() throws InterruptedException {
+        int limit = KitodoConfig.getIntParameter(ParameterCommand.MAX_PARALLEL, DEFAULT_MAX_PARALLEL);
+        synchronized (RUNNING_LOCK) {
+            while (limit > 0 && running >= limit) {
+                RUNNING_LOCK.wait();
+            }
+            running++;
+        }
+    }
+
+    private static void release() {
+        synchronized (RUNNING_LOCK) {
+            running--;
+            RUNNING_LOCK.notifyAll();
+        }
+    }
+
+    private static long millisSince(long nanoTime) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - nanoTime);
+    }
+
+    /**
+     * Returns the lines read from an output stream of an ended process. If
+     * the stream is kept open by another process, it is closed.
+     *
+     * @param lines
+     *            the reading of the stream
+     * @param inputStream
+     *            the stream
+     * @param deadline
+     *            {@link System#nanoTime()} until when to wait for the stream to
+     *            be closed
+     * @return the lines read
+     */
+    private static List<String> getLines(Future<List<String>> lines, InputStream inputStream, long deadline)
+            throws InterruptedException {
+        try {
+            return lines.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Output of command not closed after the process has ended");
+            try {
+                inputStream.close();
+            } catch (IOException closeException) {
+                logger.catching(closeException);
+            }
+            lines.cancel(true);
+            return Collections.emptyList();
+        } catch (ExecutionException e) {
+            logger.error("Cannot read output of command", e.getCause());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * The method reads an InputStream and returns it as a ArrayList. Only the
+     * given number of lines is kept. If there are more lines, the remaining
+     * lines are read and discarded, and their number is added as last line.
+     * Longer lines are cut off after the given number of characters.
      *
      * @param inputStream
      *            The Stream to convert.
+     * @param maxLines
+     *            the maximum number of lines to keep
+     * @param maxLineLength
+     *            the maximum number of characters to keep of each line
      * @return A ArrayList holding the single lines.
      */
-    private static ArrayList<String> inputStreamArrayToList(InputStream inputStream) {
-        ArrayList<String> list = new ArrayList<>();
-
-        try (Scanner inputLines = new Scanner(inputStream, CHARSET)) {
-            while (inputLines.hasNextLine()) {
-                String myLine = inputLines.nextLine();
-                list.add(myLine);
+    private static List<String> readLines(InputStream inputStream, int maxLines, int maxLineLength)
+            throws IOException {
+        List<String> list = new ArrayList<>();
+        int omitted = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = readLine(reader, maxLineLength)) != null) {
+                if (list.size() < maxLines) {
+                    list.add(line);
+                } else {
+                    omitted++;
+                }
             }
         }
+        if (omitted > 0) {
+            list.add("[" + omitted + " more lines omitted]");
+        }
         return list;
     }
+
+    /**
+     * Reads a line like {@link BufferedReader#readLine()}, but keeps only the
+     * given number of characters. The number of further characters of the
+     * line, which are read and discarded, is appended to it.
+     *
+     * @param reader
+     *            reader to read from
+     * @param maxLength
+     *            the maximum number of characters to keep
+     * @return the line, or {@code null} at the end of the stream
+     */
+    private static String readLine(BufferedReader reader, int maxLength) throws IOException {
+        int character = reader.read();
+        if (character == -1) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder();
+        long omitted = 0;
+        while (character != -1 && character != '\n' && character != '\r') {
+            if (line.length() < maxLength) {
+                line.append((char) character);
+            } else {
+                omitted++;
+            }
+            character = reader.read();
+        }
+        if (character == '\r') {
+            reader.mark(1);
+            if (reader.read() != '\n') {
+                reader.reset();
+            }
+        }
+        if (omitted > 0) {
+            line.append(" [").append(omitted).append(" more characters omitted]");
+        }
+        return line.toString();
+    }
+
+    /**
+     * Creates the daemon threads reading the output of the processes.
+     */
+    private static class StreamReaderThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Command-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -0,0 +1,37 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.config.enums;
+
+public enum ParameterCommand implements ParameterInterface {
+
+    TIMEOUT_SEC("Command.timeoutSec"),
+    MAX_PARALLEL("Command.maxParallel"),
+    MAX_OUTPUT_LINES("Command.maxOutputLines"),
+    MAX_OUTPUT_LINE_LENGTH("Command.maxOutputLineLength");
+
+    private String name;
+
+    /**
+     * Private constructor to hide the implicit public one.
+     *
+     * @param name
+     *            of parameter
+     */
+    ParameterCommand(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public java.lang.String toString() {
+        return this.name;
+    }
+}
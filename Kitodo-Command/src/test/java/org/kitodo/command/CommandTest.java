@@ -12,6 +12,9 @@
 package org.kitodo.command;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
 
 import java.io.File;
 import java.io.IOException;
@@ -27,6 +30,7 @@ import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.kitodo.api.command.CommandResult;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.SystemUtils;
 
 public class CommandTest {
@@ -39,6 +43,12 @@ public class CommandTest {
             System.getProperty("user.dir") + "/src/test/resources/working_script_with_parameters.sh");
     private static File notWorkingScript = new File(
             System.getProperty("user.dir") + "/src/test/resources/not_working_script.sh");
+    private static File floodingScript = new File(
+            System.getProperty("user.dir") + "/src/test/resources/flooding_script.sh");
+    private static File sleepingScript = new File(
+            System.getProperty("user.dir") + "/src/test/resources/sleeping_script.sh");
+    private static File longLineScript = new File(
+            System.getProperty("user.dir") + "/src/test/resources/long_line_script.sh");
 
     @BeforeClass
     public static void setUp() throws IOException {
@@ -52,6 +62,9 @@ public class CommandTest {
             setFileExecuteable(workingScript);
             setFileExecuteable(workingScriptWithParameters);
             setFileExecuteable(notWorkingScript);
+            setFileExecuteable(floodingScript);
+            setFileExecuteable(sleepingScript);
+            setFileExecuteable(longLineScript);
         }
 
     }
@@ -62,6 +75,9 @@ public class CommandTest {
             setFileNotExecuteable(workingScript);
             setFileNotExecuteable(workingScriptWithParameters);
             setFileNotExecuteable(notWorkingScript);
+            setFileNotExecuteable(floodingScript);
+            setFileNotExecuteable(sleepingScript);
+            setFileNotExecuteable(longLineScript);
         }
     }
 
@@ -142,6 +158,47 @@ public class CommandTest {
                 commandResult.getMessages());
     }
 
+    @Test
+    public void shouldRunCommandFillingErrorStream() {
+        assumeFalse(windows);
+        Command command = new Command();
+
+        CommandResult commandResult = command.runCommand(processId, "src/test/resources/flooding_script.sh");
+
+        assertTrue("Command filling the error stream did not succeed", commandResult.isSuccessful());
+        List<String> messages = commandResult.getMessages();
+        assertEquals("Output message missing", "Hello World", messages.get(0));
+        assertEquals("Error messages are not limited", 1002, messages.size());
+        assertEquals("Omitted error messages not reported", "[4000 more lines omitted]",
+            messages.get(messages.size() - 1));
+    }
+
+    @Test
+    public void shouldCutOffLongLines() {
+        assumeFalse(windows);
+        Command command = new Command();
+
+        CommandResult commandResult = command.runCommand(processId, "src/test/resources/long_line_script.sh");
+
+        assertTrue("Command writing a long line did not succeed", commandResult.isSuccessful());
+        List<String> messages = commandResult.getMessages();
+        assertEquals("Long line is not cut off", StringUtils.repeat('x', 10000) + " [5000 more characters omitted]",
+            messages.get(0));
+        assertEquals("Line after the long line is missing", "Hello World", messages.get(1));
+    }
+
+    @Test
+    public void shouldKillCommandExceedingTimeLimit() {
+        assumeFalse(windows);
+        Command command = new Command();
+
+        CommandResult commandResult = command.runCommand(processId, "src/test/resources/sleeping_script.sh");
+
+        assertFalse("Command exceeding the time limit was successful", commandResult.isSuccessful());
+        assertTrue("Command exceeding the time limit was not killed", commandResult.isTimedOut());
+        assertTrue("Command was not killed in time", commandResult.getDuration() < 20000);
+    }
+
     private static void setFileExecuteable(File file) throws IOException {
         Set<PosixFilePermission> perms = new HashSet<>();
 
@@ -0,0 +1,18 @@
+#!/usr/bin/env bash
+#
+# (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+#
+# This file is part of the Kitodo project.
+#
+# It is licensed under GNU General Public License version 3 or later.
+#
+# For the full copyright and license information, please read the
+# GPL3-License.txt file that was distributed with this source code.
+#
+
+i=0
+while [ $i -lt 5000 ]; do
+  echo "error line $i, long enough to fill the pipe buffer of the process" >&2
+  i=$((i+1))
+done
+echo Hello World
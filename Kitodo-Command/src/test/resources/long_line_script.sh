@@ -0,0 +1,15 @@
+#!/usr/bin/env bash
+#
+# (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+#
+# This file is part of the Kitodo project.
+#
+# It is licensed under GNU General Public License version 3 or later.
+#
+# For the full copyright and license information, please read the
+# GPL3-License.txt file that was distributed with this source code.
+#
+
+head -c 15000 /dev/zero | tr '\0' 'x'
+echo
+echo Hello World
@@ -25,7 +25,6 @@ import java.util.Optional;
 
 import javax.xml.bind.JAXBElement;
 import javax.xml.datatype.DatatypeConfigurationException;
-import javax.xml.datatype.DatatypeFactory;
 import javax.xml.datatype.XMLGregorianCalendar;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -34,6 +33,7 @@ import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
 import org.kitodo.api.filemanagement.FileManagementInterface;
+import org.kitodo.dataformat.MetsJaxbContext;
 import org.kitodo.dataformat.metskitodo.KitodoType;
 import org.kitodo.dataformat.metskitodo.MdSecType;
 import org.kitodo.serviceloader.KitodoServiceLoader;
@@ -80,7 +80,7 @@ public class JaxbXmlUtils {
      */
     static XMLGregorianCalendar getXmlTime() throws DatatypeConfigurationException {
         ZonedDateTime zonedDateTime = LocalDateTime.now().atZone(ZoneId.of("Europe/Berlin"));
-        return DatatypeFactory.newInstance().newXMLGregorianCalendar(GregorianCalendar.from(zonedDateTime));
+        return MetsJaxbContext.getDatatypeFactory().newXMLGregorianCalendar(GregorianCalendar.from(zonedDateTime));
     }
 
     /**
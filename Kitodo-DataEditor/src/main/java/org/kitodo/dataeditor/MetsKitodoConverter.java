@@ -16,15 +16,14 @@ import java.io.OutputStream;
 import java.net.URI;
 import java.nio.file.Paths;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
 import javax.xml.transform.TransformerException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.kitodo.api.filemanagement.FileManagementInterface;
 import org.kitodo.dataeditor.handlers.MetsKitodoHeaderHandler;
+import org.kitodo.dataformat.MetsJaxbContext;
 import org.kitodo.dataformat.metskitodo.Mets;
 import org.kitodo.serviceloader.KitodoServiceLoader;
 
@@ -84,10 +83,7 @@ public class MetsKitodoConverter {
     private static void saveToFile(Mets mets, URI xmlFile) throws JAXBException, IOException {
         URI metsFileUri = fileManagementModule.getFile(xmlFile).toURI();
         try (OutputStream outputStream = fileManagementModule.write(metsFileUri)) {
-            JAXBContext context = JAXBContext.newInstance(Mets.class);
-            Marshaller marshaller = context.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            marshaller.marshal(mets, outputStream);
+            MetsJaxbContext.getMarshaller().marshal(mets, outputStream);
         }
     }
 }
@@ -16,7 +16,6 @@ import java.io.InputStream;
 import java.io.StringReader;
 import java.net.URI;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.transform.TransformerException;
@@ -24,6 +23,7 @@ import javax.xml.transform.TransformerException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.kitodo.api.filemanagement.FileManagementInterface;
+import org.kitodo.dataformat.MetsJaxbContext;
 import org.kitodo.dataformat.metskitodo.Mets;
 import org.kitodo.serviceloader.KitodoServiceLoader;
 import org.xml.sax.InputSource;
@@ -51,8 +51,7 @@ class MetsKitodoReader {
      * @return The Mets object in mets-kitodo format.
      */
     static Mets readStringToMets(String xmlString) throws JAXBException {
-        JAXBContext jaxbMetsContext = JAXBContext.newInstance(Mets.class);
-        Unmarshaller jaxbUnmarshaller = jaxbMetsContext.createUnmarshaller();
+        Unmarshaller jaxbUnmarshaller = MetsJaxbContext.getUnmarshaller();
         try (StringReader stringReader = new StringReader(xmlString)) {
             return (Mets) jaxbUnmarshaller.unmarshal(new InputSource(stringReader));
         }
@@ -69,8 +68,7 @@ class MetsKitodoReader {
         FileManagementInterface fileManagementModule = new KitodoServiceLoader<FileManagementInterface>(
                 FileManagementInterface.class).loadModule();
         if (fileManagementModule.fileExist(xmlFile)) {
-            JAXBContext jaxbMetsContext = JAXBContext.newInstance(Mets.class);
-            Unmarshaller jaxbUnmarshaller = jaxbMetsContext.createUnmarshaller();
+            Unmarshaller jaxbUnmarshaller = MetsJaxbContext.getUnmarshaller();
             try (InputStream inputStream = fileManagementModule.read(xmlFile)) {
                 return (Mets) jaxbUnmarshaller.unmarshal(inputStream);
             }
@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.xml.bind.JAXBContext;
@@ -48,6 +49,12 @@ public class RulesetManagement implements RulesetManagementInterface {
      */
     private static final Logger logger = LogManager.getLogger(RulesetManagement.class);
 
+    /**
+     * Java XML binding contexts are expensive to create, but thread-safe, so
+     * they are only created once per class.
+     */
+    private static final Map<Class<?>, JAXBContext> jaxbContexts = new ConcurrentHashMap<>();
+
     /**
      * The ruleset.
      */
@@ -280,7 +287,12 @@ public class RulesetManagement implements RulesetManagementInterface {
     @SuppressWarnings("unchecked")
     private <T> T read(Class<T> objectClass, File inputFile) throws IOException {
         try {
-            Unmarshaller reader = JAXBContext.newInstance(objectClass).createUnmarshaller();
+            JAXBContext jaxbContext = jaxbContexts.get(objectClass);
+            if (Objects.isNull(jaxbContext)) {
+                jaxbContext = JAXBContext.newInstance(objectClass);
+                jaxbContexts.put(objectClass, jaxbContext);
+            }
+            Unmarshaller reader = jaxbContext.createUnmarshaller();
             return (T) reader.unmarshal(inputFile);
         } catch (JAXBException e) {
             /*
@@ -0,0 +1,124 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.dataformat;
+
+import java.util.Objects;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+
+import org.kitodo.dataformat.metskitodo.Mets;
+
+/**
+ * Provides the Java XML binding context for METS files in Kitodo format.
+ * Creating the context is by far the most expensive part of reading a small
+ * METS file, so it is only created once. The context is thread-safe, while
+ * marshallers and unmarshallers are not. Therefore, each thread gets its own
+ * ones, which are reused for all files read or written by that thread.
+ *
+ * <p>
+ * The marshallers and unmarshallers returned here are shared. Callers must not
+ * change their properties or set listeners on them. If a differently
+ * configured marshaller is needed, create one with
+ * {@code getContext().createMarshaller()}.
+ */
+public final class MetsJaxbContext {
+
+    private static volatile JAXBContext context;
+
+    private static final ThreadLocal<Unmarshaller> unmarshallers = new ThreadLocal<>();
+
+    private static final ThreadLocal<Marshaller> marshallers = new ThreadLocal<>();
+
+    private static final ThreadLocal<DatatypeFactory> datatypeFactories = new ThreadLocal<>();
+
+    /**
+     * Private constructor to hide the implicit public one.
+     */
+    private MetsJaxbContext() {
+    }
+
+    /**
+     * Returns the Java XML binding context for METS files in Kitodo format.
+     *
+     * @return the JAXB context
+     * @throws JAXBException
+     *             if the context cannot be created
+     */
+    public static JAXBContext getContext() throws JAXBException {
+        JAXBContext localReference = context;
+        if (Objects.isNull(localReference)) {
+            synchronized (MetsJaxbContext.class) {
+                localReference = context;
+                if (Objects.isNull(localReference)) {
+                    localReference = JAXBContext.newInstance(Mets.class);
+                    context = localReference;
+                }
+            }
+        }
+        return localReference;
+    }
+
+    /**
+     * Returns the unmarshaller of the current thread.
+     *
+     * @return an unmarshaller for METS files
+     * @throws JAXBException
+     *             if the unmarshaller cannot be created
+     */
+    public static Unmarshaller getUnmarshaller() throws JAXBException {
+        Unmarshaller unmarshaller = unmarshallers.get();
+        if (Objects.isNull(unmarshaller)) {
+            unmarshaller = getContext().createUnmarshaller();
+            unmarshallers.set(unmarshaller);
+        }
+        return unmarshaller;
+    }
+
+    /**
+     * Returns the marshaller of the current thread. The marshaller produces
+     * formatted output.
+     *
+     * @return a marshaller for METS files
+     * @throws JAXBException
+     *             if the marshaller cannot be created
+     */
+    public static Marshaller getMarshaller() throws JAXBException {
+        Marshaller marshaller = marshallers.get();
+        if (Objects.isNull(marshaller)) {
+            marshaller = getContext().createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+            marshallers.set(marshaller);
+        }
+        return marshaller;
+    }
+
+    /**
+     * Returns the datatype factory of the current thread.
+     *
+     * @return a datatype factory
+     * @throws DatatypeConfigurationException
+     *             if no implementation of the datatype factory is available
+     */
+    public static DatatypeFactory getDatatypeFactory() throws DatatypeConfigurationException {
+        DatatypeFactory datatypeFactory = datatypeFactories.get();
+        if (Objects.isNull(datatypeFactory)) {
+            datatypeFactory = DatatypeFactory.newInstance();
+            datatypeFactories.set(datatypeFactory);
+        }
+        return datatypeFactory;
+    }
+}
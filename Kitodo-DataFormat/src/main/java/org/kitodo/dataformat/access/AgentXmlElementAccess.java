@@ -59,11 +59,34 @@ public class AgentXmlElementAccess {
      *            agent from which a new constructor is to be created
      */
     AgentXmlElementAccess(Agent agent) {
+        this(agent.getName(), agent.getNote(), agent.getROLE(), agent.getOTHERROLE(), agent.getTYPE(),
+                agent.getOTHERTYPE());
+    }
+
+    /**
+     * Constructor with the parts of a METS agent. This constructor creates a
+     * new processing note from the content and attributes of an agent.
+     *
+     * @param name
+     *            content of the {@code <name>} element
+     * @param notes
+     *            contents of the {@code <note>} elements
+     * @param role
+     *            value of the {@code ROLE} attribute
+     * @param otherRole
+     *            value of the {@code OTHERROLE} attribute
+     * @param type
+     *            value of the {@code TYPE} attribute
+     * @param otherType
+     *            value of the {@code OTHERTYPE} attribute
+     */
+    AgentXmlElementAccess(String name, List<String> notes, String role, String otherRole, String type,
+            String otherType) {
         this();
-        processingNote.setName(agent.getName());
-        processingNote.setNote(String.join(System.lineSeparator(), agent.getNote()));
-        processingNote.setRole("OTHER".equals(agent.getROLE()) ? agent.getOTHERROLE() : agent.getROLE());
-        processingNote.setType("OTHER".equals(agent.getTYPE()) ? agent.getOTHERTYPE() : agent.getROLE());
+        processingNote.setName(name);
+        processingNote.setNote(String.join(System.lineSeparator(), notes));
+        processingNote.setRole("OTHER".equals(role) ? otherRole : role);
+        processingNote.setType("OTHER".equals(type) ? otherType : role);
     }
 
 
@@ -85,6 +85,19 @@ public class DivXmlElementAccess extends IncludedStructuralElement {
                 : KitodoUUID.randomUUID();
     }
 
+    /**
+     * Creates a new, empty DivXmlElementAccess for a METS {@code <div>} with
+     * the given ID. The content is set by the caller while reading the METS
+     * file.
+     *
+     * @param metsReferrerId
+     *            ID of the METS {@code <div>}
+     */
+    DivXmlElementAccess(String metsReferrerId) {
+        super();
+        this.metsReferrerId = metsReferrerId;
+    }
+
     /**
      * Constructor to read a structure from METS.
      *
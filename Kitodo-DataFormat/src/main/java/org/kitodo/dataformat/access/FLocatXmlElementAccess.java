@@ -61,12 +61,24 @@ public class FLocatXmlElementAccess {
      *            File to create a new media file reference from
      */
     FLocatXmlElementAccess(FileType file) {
-        metsReferrerId = file.getID();
-        uri = getAndRepairUri(file);
+        this(file.getID(), file.getFLocat().get(0).getHref());
     }
 
-    private final URI getAndRepairUri(FileType file) {
-        String href = file.getFLocat().get(0).getHref();
+    /**
+     * Constructor for creating a new media file reference from the ID of a
+     * METS file and the address of its F locat.
+     *
+     * @param fileId
+     *            ID of the METS {@code <file>}
+     * @param href
+     *            address of the first {@code <FLocat>} of the file
+     */
+    FLocatXmlElementAccess(String fileId, String href) {
+        metsReferrerId = fileId;
+        uri = getAndRepairUri(href);
+    }
+
+    private static URI getAndRepairUri(String href) {
         try {
             return new URI(href);
         } catch (URISyntaxException exception) {
@@ -28,10 +28,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
 import javax.xml.datatype.DatatypeConfigurationException;
 import javax.xml.datatype.DatatypeFactory;
 import javax.xml.datatype.XMLGregorianCalendar;
@@ -42,6 +39,7 @@ import org.kitodo.api.dataformat.MediaVariant;
 import org.kitodo.api.dataformat.ProcessingNote;
 import org.kitodo.api.dataformat.Workpiece;
 import org.kitodo.api.dataformat.mets.MetsXmlElementAccessInterface;
+import org.kitodo.dataformat.MetsJaxbContext;
 import org.kitodo.dataformat.metskitodo.DivType;
 import org.kitodo.dataformat.metskitodo.FileType;
 import org.kitodo.dataformat.metskitodo.Mets;
@@ -186,7 +184,8 @@ public class MetsXmlElementAccess implements MetsXmlElementAccessInterface {
     }
 
     /**
-     * Reads METS from an InputStream. JAXB is used to parse the XML.
+     * Reads METS from an InputStream. JAXB is used to parse the XML. The JAXB
+     * context and the unmarshaller of the current thread are reused.
      *
      * @param in
      *            InputStream to read from
@@ -194,9 +193,7 @@ public class MetsXmlElementAccess implements MetsXmlElementAccessInterface {
     @Override
     public Workpiece read(InputStream in) throws IOException {
         try {
-            JAXBContext jc = JAXBContext.newInstance(Mets.class);
-            Unmarshaller unmarshaller = jc.createUnmarshaller();
-            Mets mets = (Mets) unmarshaller.unmarshal(in);
+            Mets mets = (Mets) MetsJaxbContext.getUnmarshaller().unmarshal(in);
             return new MetsXmlElementAccess(mets).workpiece;
         } catch (JAXBException e) {
             if (e.getCause() instanceof IOException) {
@@ -219,10 +216,7 @@ public class MetsXmlElementAccess implements MetsXmlElementAccessInterface {
     @Override
     public void save(Workpiece workpiece, OutputStream out) throws IOException {
         try {
-            JAXBContext context = JAXBContext.newInstance(Mets.class);
-            Marshaller marshal = context.createMarshaller();
-            marshal.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            marshal.marshal(new MetsXmlElementAccess(workpiece).toMets(), out);
+            MetsJaxbContext.getMarshaller().marshal(new MetsXmlElementAccess(workpiece).toMets(), out);
         } catch (JAXBException e) {
             if (e.getCause() instanceof IOException) {
                 throw (IOException) e.getCause();
@@ -291,7 +285,7 @@ public class MetsXmlElementAccess implements MetsXmlElementAccessInterface {
     private static XMLGregorianCalendar convertDate(GregorianCalendar gregorianCalendar) {
         DatatypeFactory datatypeFactory;
         try {
-            datatypeFactory = DatatypeFactory.newInstance();
+            datatypeFactory = MetsJaxbContext.getDatatypeFactory();
         } catch (DatatypeConfigurationException e) {
             String message = e.getMessage();
             throw new NoClassDefFoundError(message != null ? message
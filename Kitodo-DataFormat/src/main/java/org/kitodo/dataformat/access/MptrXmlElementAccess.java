@@ -79,11 +79,26 @@ class MptrXmlElementAccess {
         if (div.getMptr().isEmpty()) {
             return null;
         }
-        LinkedMetsResource linkFromDiv = new LinkedMetsResource();
         Mptr mptr = div.getMptr().get(0);
-        linkFromDiv.setLoctype(AllowedLoctypeValues.OTHER.toString().equals(mptr.getLOCTYPE()) ? mptr.getOTHERLOCTYPE()
-                : mptr.getLOCTYPE());
-        linkFromDiv.setUri(URI.create(mptr.getHref()));
-        return linkFromDiv;
+        return createLink(mptr.getLOCTYPE(), mptr.getOTHERLOCTYPE(), mptr.getHref());
+    }
+
+    /**
+     * Creates the information about a link from the attributes of a
+     * {@code <mets:mptr>}.
+     *
+     * @param loctype
+     *            value of the {@code LOCTYPE} attribute
+     * @param otherLoctype
+     *            value of the {@code OTHERLOCTYPE} attribute
+     * @param href
+     *            value of the {@code xlink:href} attribute
+     * @return information to the link
+     */
+    static LinkedMetsResource createLink(String loctype, String otherLoctype, String href) {
+        LinkedMetsResource link = new LinkedMetsResource();
+        link.setLoctype(AllowedLoctypeValues.OTHER.toString().equals(loctype) ? otherLoctype : loctype);
+        link.setUri(URI.create(href));
+        return link;
     }
 }
@@ -0,0 +1,611 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.dataformat.access;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.lang.StringUtils;
+import org.kitodo.api.MdSec;
+import org.kitodo.api.Metadata;
+import org.kitodo.api.MetadataEntry;
+import org.kitodo.api.MetadataGroup;
+import org.kitodo.api.dataformat.IncludedStructuralElement;
+import org.kitodo.api.dataformat.MediaUnit;
+import org.kitodo.api.dataformat.MediaVariant;
+import org.kitodo.api.dataformat.View;
+import org.kitodo.api.dataformat.Workpiece;
+import org.kitodo.api.dataformat.mets.MetsXmlElementAccessInterface;
+import org.kitodo.dataformat.MetsJaxbContext;
+
+/**
+ * Reads METS files in Kitodo format from a StAX event stream. Unlike
+ * {@link MetsXmlElementAccess}, no JAXB object tree of the whole file is built
+ * first. The media units, the included structural elements and their metadata
+ * are created directly while the file is read in one pass. Only the views,
+ * which are declared in the struct link section at the end of the file, are
+ * attached afterwards. Saving is delegated to {@link MetsXmlElementAccess}.
+ *
+ * <p>
+ * The reader relies on the element order prescribed by the METS schema, where
+ * the metadata sections and the file section precede the struct maps.
+ */
+public class StreamingMetsXmlElementAccess implements MetsXmlElementAccessInterface {
+    private static final String METS_NAMESPACE = "http://www.loc.gov/METS/";
+    private static final String KITODO_NAMESPACE = "http://meta.kitodo.org/v1/";
+    private static final String XLINK_NAMESPACE = "http://www.w3.org/1999/xlink";
+
+    private static final XMLInputFactory xmlInputFactory = createXmlInputFactory();
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Reads METS from an InputStream. StAX is used to parse the XML.
+     *
+     * @param in
+     *            InputStream to read from
+     */
+    @Override
+    public Workpiece read(InputStream in) throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = xmlInputFactory.createXMLStreamReader(in);
+            return new MetsStreamReader(reader).read();
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            if (Objects.nonNull(reader)) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the contents of this workpiece as a METS file into an output
+     * stream. This is done by {@link MetsXmlElementAccess}.
+     *
+     * @param out
+     *            writable output stream
+     * @throws IOException
+     *             if the output device has an error
+     */
+    @Override
+    public void save(Workpiece workpiece, OutputStream out) throws IOException {
+        new MetsXmlElementAccess().save(workpiece, out);
+    }
+
+    /**
+     * The state of reading one METS file.
+     */
+    private static class MetsStreamReader {
+        private final XMLStreamReader reader;
+        private final Workpiece workpiece = new Workpiece();
+
+        /**
+         * Metadata sections by their ID.
+         */
+        private final Map<String, MdSecContent> mdSecs = new HashMap<>();
+
+        /**
+         * METS files by their ID.
+         */
+        private final Map<String, FileReference> files = new HashMap<>();
+
+        /**
+         * MIME types of the files of each file group, by the USE of the file
+         * group.
+         */
+        private final Map<String, Set<String>> mimeTypesByUse = new LinkedHashMap<>();
+
+        /**
+         * Media variants by their USE. This is available once the file section
+         * has been read.
+         */
+        private final Map<String, MediaVariant> mediaVariants = new HashMap<>();
+
+        /**
+         * Media units by the ID of their physical {@code <div>}.
+         */
+        private final Map<String, MediaUnit> divIDsToMediaUnits = new HashMap<>();
+
+        /**
+         * IDs of the logical {@code <div>}s of the included structural
+         * elements.
+         */
+        private final Map<IncludedStructuralElement, String> logicalDivIDs = new IdentityHashMap<>();
+
+        /**
+         * Media units linked from the logical {@code <div>}s, by the ID of the
+         * logical {@code <div>}.
+         */
+        private final Map<String, List<MediaUnit>> mediaUnitsMap = new HashMap<>();
+
+        private boolean physicalStructMapRead;
+        private IncludedStructuralElement rootElement;
+
+        private MetsStreamReader(XMLStreamReader reader) {
+            this.reader = reader;
+        }
+
+        private Workpiece read() throws XMLStreamException, IOException {
+            reader.nextTag();
+            if (!isMetsElement("mets")) {
+                throw new IOException("Corrupt file: root element is not <mets:mets>");
+            }
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (isMetsElement("metsHdr")) {
+                    readMetsHdr();
+                } else if (isMetsElement("dmdSec")) {
+                    readMdSec(MdSec.DMD_SEC);
+                } else if (isMetsElement("amdSec")) {
+                    readAmdSec();
+                } else if (isMetsElement("fileSec")) {
+                    readFileSec();
+                } else if (isMetsElement("structMap")) {
+                    readStructMap();
+                } else if (isMetsElement("structLink")) {
+                    readStructLink();
+                } else {
+                    skipElement();
+                }
+            }
+            if (Objects.isNull(rootElement)) {
+                throw new IOException("Corrupt file: <mets:structMap TYPE=\"LOGICAL\"> is missing");
+            }
+            attachViews(rootElement);
+            workpiece.setRootElement(rootElement);
+            return workpiece;
+        }
+
+        private void readMetsHdr() throws XMLStreamException, IOException {
+            String createDate = attribute("CREATEDATE");
+            if (Objects.nonNull(createDate)) {
+                try {
+                    workpiece.setCreationDate(MetsJaxbContext.getDatatypeFactory()
+                            .newXMLGregorianCalendar(createDate.trim()).toGregorianCalendar());
+                } catch (DatatypeConfigurationException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+            } else {
+                workpiece.setCreationDate(new GregorianCalendar());
+            }
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (isMetsElement("agent")) {
+                    readAgent();
+                } else if (isMetsElement("metsDocumentID")) {
+                    workpiece.setId(reader.getElementText());
+                } else {
+                    skipElement();
+                }
+            }
+        }
+
+        private void readAgent() throws XMLStreamException {
+            String role = attribute("ROLE");
+            String otherRole = attribute("OTHERROLE");
+            String type = attribute("TYPE");
+            String otherType = attribute("OTHERTYPE");
+            String name = null;
+            List<String> notes = new ArrayList<>();
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (isMetsElement("name")) {
+                    name = reader.getElementText();
+                } else if (isMetsElement("note")) {
+                    notes.add(reader.getElementText());
+                } else {
+                    skipElement();
+                }
+            }
+            workpiece.getEditHistory()
+                    .add(new AgentXmlElementAccess(name, notes, role, otherRole, type, otherType).getProcessingNote());
+        }
+
+        private void readAmdSec() throws XMLStreamException {
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (isMetsElement("techMD")) {
+                    readMdSec(MdSec.TECH_MD);
+                } else if (isMetsElement("rightsMD")) {
+                    readMdSec(MdSec.RIGHTS_MD);
+                } else if (isMetsElement("sourceMD")) {
+                    readMdSec(MdSec.SOURCE_MD);
+                } else if (isMetsElement("digiprovMD")) {
+                    readMdSec(MdSec.DIGIPROV_MD);
+                } else {
+                    skipElement();
+                }
+            }
+        }
+
+        private void readMdSec(MdSec domain) throws XMLStreamException {
+            String id = attribute("ID");
+            Collection<Metadata> metadata = new HashSet<>();
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (isMetsElement("mdWrap")) {
+                    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                        if (isMetsElement("xmlData")) {
+                            readXmlData(domain, metadata);
+                        } else {
+                            skipElement();
+                        }
+                    }
+                } else {
+                    skipElement();
+                }
+            }
+            if (Objects.nonNull(id)) {
+                mdSecs.put(id, new MdSecContent(domain, metadata));
+            }
+        }
+
+        private void readXmlData(MdSec domain, Collection<Metadata> metadata) throws XMLStreamException {
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (isKitodoElement("kitodo")) {
+                    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                        if (isKitodoElement("metadata")) {
+                            MetadataEntry metadataEntry = readMetadataEntry(domain);
+                            if (!metadataEntry.getValue().isEmpty()) {
+                                metadata.add(metadataEntry);
+                            }
+                        } else if (isKitodoElement("metadataGroup")) {
+                            metadata.add(readMetadataGroup(domain));
+                        } else {
+                            skipElement();
+                        }
+                    }
+                } else {
+                    skipElement();
+                }
+            }
+        }
+
+        private MetadataEntry readMetadataEntry(MdSec domain) throws XMLStreamException {
+            MetadataEntry metadataEntry = new MetadataEntry();
+            metadataEntry.setDomain(domain);
+            metadataEntry.setKey(attribute("name"));
+            metadataEntry.setValue(reader.getElementText());
+            return metadataEntry;
+        }
+
+        private MetadataGroup readMetadataGroup(MdSec domain) throws XMLStreamException {
+            MetadataGroup metadataGroup = new MetadataGroup();
+            metadataGroup.setDomain(domain);
+            metadataGroup.setKey(attribute("name"));
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (isKitodoElement("metadata")) {
+                    metadataGroup.getGroup().add(readMetadataEntry(null));
+                } else if (isKitodoElement("metadataGroup")) {
+                    metadataGroup.getGroup().add(readMetadataGroup(null));
+                } else {
+                    skipElement();
+                }
+            }
+            return metadataGroup;
+        }
+
+        private void readFileSec() throws XMLStreamException {
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (isMetsElement("fileGrp")) {
+                    readFileGrp();
+                } else {
+                    skipElement();
+                }
+            }
+            for (Entry<String, Set<String>> entry : mimeTypesByUse.entrySet()) {
+                mediaVariants.put(entry.getKey(),
+                    new UseXmlAttributeAccess(entry.getKey(), entry.getValue()).getMediaVariant());
+            }
+        }
+
+        private void readFileGrp() throws XMLStreamException {
+            String use = attribute("USE");
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (isMetsElement("file")) {
+                    readFile(use);
+                } else {
+                    skipElement();
+                }
+            }
+        }
+
+        private void readFile(String use) throws XMLStreamException {
+            String id = attribute("ID");
+            String mimeType = attribute("MIMETYPE");
+            String href = null;
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (isMetsElement("FLocat") && Objects.isNull(href)) {
+                    href = reader.getAttributeValue(XLINK_NAMESPACE, "href");
+                }
+                skipElement();
+            }
+            files.put(id, new FileReference(use, href));
+            Set<String> mimeTypes = mimeTypesByUse.computeIfAbsent(use, any -> new HashSet<>());
+            if (Objects.nonNull(mimeType)) {
+                mimeTypes.add(mimeType);
+            }
+        }
+
+        private void readStructMap() throws XMLStreamException {
+            String type = attribute("TYPE");
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (isMetsElement("div") && "PHYSICAL".equals(type) && !physicalStructMapRead) {
+                    workpiece.setMediaUnit(readPhysicalDiv());
+                    physicalStructMapRead = true;
+                } else if (isMetsElement("div") && "LOGICAL".equals(type) && Objects.isNull(rootElement)) {
+                    rootElement = readLogicalDiv(1);
+                } else {
+                    skipElement();
+                }
+            }
+        }
+
+        private MediaUnit readPhysicalDiv() throws XMLStreamException {
+            MediaUnitMetsReferrerStorage mediaUnit = new MediaUnitMetsReferrerStorage();
+            String id = attribute("ID");
+            mediaUnit.setDivId(id);
+            divIDsToMediaUnits.put(id, mediaUnit);
+            String order = attribute("ORDER");
+            if (Objects.nonNull(order)) {
+                mediaUnit.setOrder(new BigInteger(order.trim()).intValue());
+            }
+            mediaUnit.setOrderlabel(attribute("ORDERLABEL"));
+            mediaUnit.setType(attribute("TYPE"));
+            addMetadata(mediaUnit.getMetadata(), attribute("DMDID"), attribute("ADMID"));
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (isMetsElement("fptr")) {
+                    addMediaFile(mediaUnit, attribute("FILEID"));
+                    skipElement();
+                } else if (isMetsElement("div")) {
+                    mediaUnit.getChildren().add(readPhysicalDiv());
+                } else {
+                    skipElement();
+                }
+            }
+            return mediaUnit;
+        }
+
+        private void addMediaFile(MediaUnitMetsReferrerStorage mediaUnit, String fileId) {
+            FileReference file = Objects.nonNull(fileId) ? files.get(fileId) : null;
+            if (Objects.isNull(file)) {
+                return;
+            }
+            MediaVariant mediaVariant = mediaVariants.get(file.use);
+            if (Objects.isNull(mediaVariant)) {
+                throw new IllegalArgumentException("Corrupt file: <mets:fptr> not referenced in <mets:fileGrp>");
+            }
+            if (Objects.isNull(file.href)) {
+                throw new IllegalArgumentException(
+                        "Corrupt file: <mets:file ID=\"" + fileId + "\"> has no <mets:FLocat> with xlink:href");
+            }
+            FLocatXmlElementAccess fLocatXmlElementAccess = new FLocatXmlElementAccess(fileId, file.href);
+            mediaUnit.storeFileId(fLocatXmlElementAccess);
+            mediaUnit.getMediaFiles().put(mediaVariant, fLocatXmlElementAccess.getUri());
+        }
+
+        private IncludedStructuralElement readLogicalDiv(int parentOrder) throws XMLStreamException {
+            String id = attribute("ID");
+            DivXmlElementAccess includedStructuralElement = new DivXmlElementAccess(id);
+            logicalDivIDs.put(includedStructuralElement, id);
+            for (String contentId : splitList(attribute("CONTENTIDS"))) {
+                includedStructuralElement.getContentIds().add(URI.create(contentId));
+            }
+            includedStructuralElement.setLabel(attribute("LABEL"));
+            addMetadata(includedStructuralElement.getMetadata(), attribute("DMDID"), attribute("ADMID"));
+            String order = attribute("ORDER");
+            int orderValue = Objects.nonNull(order) ? new BigInteger(order.trim()).intValue() : 0;
+            if (orderValue > 0) {
+                includedStructuralElement.setOrder(orderValue);
+            } else if (parentOrder > 0) {
+                includedStructuralElement.setOrder(parentOrder);
+            } else {
+                includedStructuralElement.setOrder(1);
+            }
+            includedStructuralElement.setOrderlabel(attribute("ORDERLABEL"));
+            includedStructuralElement.setType(attribute("TYPE"));
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (isMetsElement("div")) {
+                    includedStructuralElement.getChildren().add(readLogicalDiv(includedStructuralElement.getOrder()));
+                } else if (isMetsElement("mptr") && Objects.isNull(includedStructuralElement.getLink())) {
+                    includedStructuralElement.setLink(MptrXmlElementAccess.createLink(attribute("LOCTYPE"),
+                        attribute("OTHERLOCTYPE"), reader.getAttributeValue(XLINK_NAMESPACE, "href")));
+                    skipElement();
+                } else {
+                    skipElement();
+                }
+            }
+            return includedStructuralElement;
+        }
+
+        private void readStructLink() throws XMLStreamException {
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (isMetsElement("smLink")) {
+                    String from = reader.getAttributeValue(XLINK_NAMESPACE, "from");
+                    String to = reader.getAttributeValue(XLINK_NAMESPACE, "to");
+                    mediaUnitsMap.computeIfAbsent(from, any -> new ArrayList<>()).add(divIDsToMediaUnits.get(to));
+                }
+                skipElement();
+            }
+        }
+
+        /**
+         * Adds views to the media units linked to an included structural
+         * element and its descendants. A media unit linked to an included
+         * structural element is only shown there if it isn’t linked to one of
+         * its descendants as well.
+         *
+         * @param includedStructuralElement
+         *            included structural element to process
+         * @return the media units linked to the included structural element or
+         *         its descendants
+         */
+        private Set<MediaUnit> attachViews(IncludedStructuralElement includedStructuralElement) {
+            Set<MediaUnit> linkedBelow = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (IncludedStructuralElement child : includedStructuralElement.getChildren()) {
+                linkedBelow.addAll(attachViews(child));
+            }
+            List<MediaUnit> linkedMediaUnits = mediaUnitsMap.getOrDefault(
+                logicalDivIDs.get(includedStructuralElement), Collections.emptyList());
+            for (MediaUnit mediaUnit : linkedMediaUnits) {
+                if (Objects.nonNull(mediaUnit) && !linkedBelow.contains(mediaUnit)) {
+                    View view = new View();
+                    view.setMediaUnit(mediaUnit);
+                    includedStructuralElement.getViews().add(view);
+                    mediaUnit.getIncludedStructuralElements().add(includedStructuralElement);
+                }
+            }
+            for (MediaUnit mediaUnit : linkedMediaUnits) {
+                if (Objects.nonNull(mediaUnit)) {
+                    linkedBelow.add(mediaUnit);
+                }
+            }
+            return linkedBelow;
+        }
+
+        private void addMetadata(Collection<Metadata> metadata, String dmdIDs, String admIDs) {
+            for (String dmdID : splitList(dmdIDs)) {
+                MdSecContent mdSec = mdSecs.get(dmdID);
+                if (Objects.nonNull(mdSec)) {
+                    metadata.addAll(mdSec.take(MdSec.DMD_SEC));
+                }
+            }
+            for (String admID : splitList(admIDs)) {
+                MdSecContent mdSec = mdSecs.get(admID);
+                if (Objects.nonNull(mdSec)) {
+                    metadata.addAll(mdSec.take(mdSec.domain));
+                }
+            }
+        }
+
+        private String attribute(String localName) {
+            return reader.getAttributeValue(null, localName);
+        }
+
+        private boolean isMetsElement(String localName) {
+            return METS_NAMESPACE.equals(reader.getNamespaceURI()) && localName.equals(reader.getLocalName());
+        }
+
+        private boolean isKitodoElement(String localName) {
+            return KITODO_NAMESPACE.equals(reader.getNamespaceURI()) && localName.equals(reader.getLocalName());
+        }
+
+        /**
+         * Skips the current element including all its content. Afterwards,
+         * the reader is positioned on the end tag of the element.
+         */
+        private void skipElement() throws XMLStreamException {
+            int depth = 1;
+            while (depth > 0) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+        }
+
+        private static String[] splitList(String value) {
+            return Objects.nonNull(value) ? StringUtils.split(value) : new String[0];
+        }
+    }
+
+    /**
+     * The metadata read from a metadata section. The first {@code <div>}
+     * referencing the section gets the metadata objects read, further ones get
+     * copies, so that the metadata can be edited independently, as it is when
+     * reading with JAXB.
+     */
+    private static class MdSecContent {
+        private final MdSec domain;
+        private final Collection<Metadata> metadata;
+        private boolean taken;
+
+        private MdSecContent(MdSec domain, Collection<Metadata> metadata) {
+            this.domain = domain;
+            this.metadata = metadata;
+        }
+
+        private Collection<Metadata> take(MdSec referencedDomain) {
+            if (!taken && referencedDomain == domain) {
+                taken = true;
+                return metadata;
+            }
+            Collection<Metadata> copies = new ArrayList<>(metadata.size());
+            for (Metadata entry : metadata) {
+                copies.add(copy(entry, referencedDomain));
+            }
+            return copies;
+        }
+
+        private static Metadata copy(Metadata metadata, MdSec domain) {
+            if (metadata instanceof MetadataGroup) {
+                MetadataGroup copy = new MetadataGroup();
+                copy.setDomain(domain);
+                copy.setKey(metadata.getKey());
+                for (Metadata member : ((MetadataGroup) metadata).getGroup()) {
+                    copy.getGroup().add(copy(member, member.getDomain()));
+                }
+                return copy;
+            } else {
+                MetadataEntry copy = new MetadataEntry();
+                copy.setDomain(domain);
+                copy.setKey(metadata.getKey());
+                copy.setValue(((MetadataEntry) metadata).getValue());
+                return copy;
+            }
+        }
+    }
+
+    /**
+     * A METS {@code <file>}, reduced to the information needed to create a
+     * media file reference from it.
+     */
+    private static class FileReference {
+        private final String use;
+        private final String href;
+
+        private FileReference(String use, String href) {
+            this.use = use;
+            this.href = href;
+        }
+    }
+}
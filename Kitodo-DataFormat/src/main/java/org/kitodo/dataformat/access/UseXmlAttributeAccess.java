@@ -53,10 +53,25 @@ public class UseXmlAttributeAccess {
      *             if the MIME type is mixed within the METS {@code <fileGrp>}
      */
     UseXmlAttributeAccess(FileGrp fileGrp) {
+        this(fileGrp.getUSE(), fileGrp.getFile().parallelStream().map(fileType -> fileType.getMIMETYPE())
+                .filter(Objects::nonNull).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Constructor that creates a variant from the {@code USE} attribute of a
+     * METS {@code <fileGrp>} and the MIME types of its files.
+     *
+     * @param use
+     *            value of the {@code USE} attribute
+     * @param mimeTypes
+     *            MIME types of the files in the {@code <fileGrp>}, without
+     *            {@code null} values. The set may be modified.
+     * @throws IllegalArgumentException
+     *             if the MIME type is mixed within the METS {@code <fileGrp>}
+     */
+    UseXmlAttributeAccess(String use, Set<String> mimeTypes) {
         this();
-        mediaVariant.setUse(fileGrp.getUSE());
-        Set<String> mimeTypes = fileGrp.getFile().parallelStream().map(fileType -> fileType.getMIMETYPE())
-                .filter(Objects::nonNull).collect(Collectors.toSet());
+        mediaVariant.setUse(use);
         for (Iterator<String> mimeType = mimeTypes.iterator(); mimeTypes.size() > 1 && mimeType.hasNext();) {
             if (StringUtils.isEmpty(mimeType.next())) {
                 mimeType.remove();
@@ -0,0 +1,140 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.dataformat.access;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+import org.kitodo.api.MdSec;
+import org.kitodo.api.MetadataEntry;
+import org.kitodo.api.dataformat.IncludedStructuralElement;
+import org.kitodo.api.dataformat.MediaUnit;
+import org.kitodo.api.dataformat.MediaVariant;
+import org.kitodo.api.dataformat.View;
+import org.kitodo.api.dataformat.Workpiece;
+import org.kitodo.dataformat.metskitodo.Mets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures how many METS files per second can be read. The
+ * {@code readWithNewContext} benchmark additionally creates a JAXB context and
+ * unmarshaller for each file, as reading did before the context was shared.
+ *
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.kitodo.dataformat.access.MetsXmlElementAccessBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetsXmlElementAccessBenchmark {
+
+    private static final int PAGES_PER_CHAPTER = 20;
+
+    @Param({"10", "5000" })
+    private int pages;
+
+    private byte[] metsFile;
+
+    /**
+     * Generates a METS file with the configured number of pages.
+     */
+    @Setup
+    public void generateMetsFile() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new MetsXmlElementAccess().save(generateWorkpiece(pages), out);
+        metsFile = out.toByteArray();
+    }
+
+    /**
+     * Reads a METS file using the shared JAXB context.
+     */
+    @Benchmark
+    public Workpiece readWithSharedContext() throws IOException {
+        return new MetsXmlElementAccess().read(new ByteArrayInputStream(metsFile));
+    }
+
+    /**
+     * Reads a METS file after creating a new JAXB context and unmarshaller.
+     */
+    @Benchmark
+    public Workpiece readWithNewContext() throws IOException, JAXBException {
+        JAXBContext.newInstance(Mets.class).createUnmarshaller();
+        return new MetsXmlElementAccess().read(new ByteArrayInputStream(metsFile));
+    }
+
+    static Workpiece generateWorkpiece(int numberOfPages) throws Exception {
+        Workpiece workpiece = new Workpiece();
+        workpiece.setId("benchmark");
+        workpiece.getRootElement().setType("monograph");
+        MetadataEntry title = new MetadataEntry();
+        title.setKey("TitleDocMain");
+        title.setDomain(MdSec.DMD_SEC);
+        title.setValue("Generated benchmark volume");
+        workpiece.getRootElement().getMetadata().add(title);
+
+        MediaVariant local = new MediaVariant();
+        local.setUse("LOCAL");
+        local.setMimeType("image/tiff");
+        IncludedStructuralElement chapter = null;
+        for (int i = 1; i <= numberOfPages; i++) {
+            MediaUnit page = new MediaUnit();
+            page.setOrder(i);
+            page.setOrderlabel(Integer.toString(i));
+            page.getMediaFiles().put(local, new URI(String.format("images/benchmark_media/%08d.tif", i)));
+            workpiece.getMediaUnit().getChildren().add(page);
+            if ((i - 1) % PAGES_PER_CHAPTER == 0) {
+                chapter = new IncludedStructuralElement();
+                chapter.setType("chapter");
+                chapter.setLabel("Chapter " + (i / PAGES_PER_CHAPTER + 1));
+                workpiece.getRootElement().getChildren().add(chapter);
+            }
+            View view = new View();
+            view.setMediaUnit(page);
+            chapter.getViews().add(view);
+            page.getIncludedStructuralElements().add(chapter);
+        }
+        return workpiece;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *            not used
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MetsXmlElementAccessBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.dataformat.access;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.kitodo.api.dataformat.Workpiece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the time and memory needed to read large METS files with JAXB and
+ * with StAX. The GC profiler reports the bytes allocated per read as
+ * {@code gc.alloc.rate.norm}.
+ *
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.kitodo.dataformat.access.StreamingMetsXmlElementAccessBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g" })
+public class StreamingMetsXmlElementAccessBenchmark {
+
+    @Param({"5000", "50000" })
+    private int pages;
+
+    private byte[] metsFile;
+
+    /**
+     * Generates a METS file with the configured number of pages.
+     */
+    @Setup
+    public void generateMetsFile() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new MetsXmlElementAccess().save(MetsXmlElementAccessBenchmark.generateWorkpiece(pages), out);
+        metsFile = out.toByteArray();
+    }
+
+    /**
+     * Reads a METS file with JAXB.
+     */
+    @Benchmark
+    public Workpiece readWithJaxb() throws IOException {
+        return new MetsXmlElementAccess().read(new ByteArrayInputStream(metsFile));
+    }
+
+    /**
+     * Reads a METS file with StAX.
+     */
+    @Benchmark
+    public Workpiece readWithStax() throws IOException {
+        return new StreamingMetsXmlElementAccess().read(new ByteArrayInputStream(metsFile));
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *            not used
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StreamingMetsXmlElementAccessBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).build()).run();
+    }
+}
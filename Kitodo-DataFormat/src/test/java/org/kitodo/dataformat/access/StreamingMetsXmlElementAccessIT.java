@@ -0,0 +1,120 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.dataformat.access;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.kitodo.api.dataformat.MediaUnit;
+import org.kitodo.api.dataformat.View;
+import org.kitodo.api.dataformat.Workpiece;
+
+public class StreamingMetsXmlElementAccessIT {
+
+    /**
+     * Tests that reading with StAX gives the same workpiece as reading with
+     * JAXB.
+     */
+    @Test
+    public void testReadLikeJaxb() throws Exception {
+        File metsFile = new File("src/test/resources/meta.xml");
+        Workpiece jaxbWorkpiece;
+        try (InputStream in = new FileInputStream(metsFile)) {
+            jaxbWorkpiece = new MetsXmlElementAccess().read(in);
+        }
+        Workpiece staxWorkpiece;
+        try (InputStream in = new FileInputStream(metsFile)) {
+            staxWorkpiece = new StreamingMetsXmlElementAccess().read(in);
+        }
+
+        assertEquals(jaxbWorkpiece, staxWorkpiece);
+        assertEquals(183, staxWorkpiece.getMediaUnit().getChildren().size());
+        assertEquals(17, staxWorkpiece.getRootElement().getViews().size());
+        assertEquals(16, staxWorkpiece.getRootElement().getChildren().size());
+        assertEquals(11, staxWorkpiece.getRootElement().getMetadata().size());
+    }
+
+    /**
+     * Tests that the views reference the media units of the workpiece, and
+     * the media units know the included structural elements showing them.
+     */
+    @Test
+    public void testViewsAreLinked() throws Exception {
+        Workpiece workpiece = new StreamingMetsXmlElementAccess()
+                .read(new FileInputStream(new File("src/test/resources/meta.xml")));
+        for (View view : workpiece.getRootElement().getViews()) {
+            MediaUnit mediaUnit = view.getMediaUnit();
+            assertSame(mediaUnit, workpiece.getMediaUnit().getChildren().get(mediaUnit.getOrder() - 1));
+            assertSame(workpiece.getRootElement(), mediaUnit.getIncludedStructuralElements().get(0));
+        }
+    }
+
+    /**
+     * Tests that a generated workpiece survives saving and reading again.
+     */
+    @Test
+    public void testRoundTrip() throws Exception {
+        Workpiece workpiece = MetsXmlElementAccessBenchmark.generateWorkpiece(100);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new StreamingMetsXmlElementAccess().save(workpiece, out);
+        byte[] metsFile = out.toByteArray();
+
+        Workpiece jaxbWorkpiece = new MetsXmlElementAccess().read(new ByteArrayInputStream(metsFile));
+        Workpiece staxWorkpiece = new StreamingMetsXmlElementAccess().read(new ByteArrayInputStream(metsFile));
+        assertEquals(jaxbWorkpiece, staxWorkpiece);
+        assertEquals(100, staxWorkpiece.getMediaUnit().getChildren().size());
+        assertEquals(5, staxWorkpiece.getRootElement().getChildren().size());
+        assertEquals(20, staxWorkpiece.getRootElement().getChildren().get(0).getViews().size());
+    }
+
+    @Test
+    public void missingMetsHeaderCreationDateDidNotThrowNullPointerException() throws IOException {
+        Workpiece workpiece = new StreamingMetsXmlElementAccess()
+                .read(new FileInputStream(new File("src/test/resources/meta_missing_createdate.xml")));
+        assertNotNull(workpiece.getCreationDate());
+    }
+
+    /**
+     * Tests that a file without a location is reported as corrupt file
+     * instead of failing with a NullPointerException.
+     */
+    @Test
+    public void testFileWithoutFLocat() throws IOException {
+        String mets = "<mets:mets xmlns:mets=\"http://www.loc.gov/METS/\" xmlns:xlink=\"http://www.w3.org/1999/xlink\">"
+                + "<mets:fileSec><mets:fileGrp USE=\"LOCAL\">"
+                + "<mets:file ID=\"FILE_0001\" MIMETYPE=\"image/tiff\"/>"
+                + "</mets:fileGrp></mets:fileSec>"
+                + "<mets:structMap TYPE=\"PHYSICAL\"><mets:div ID=\"PHYS_0000\" TYPE=\"physSequence\">"
+                + "<mets:div ID=\"PHYS_0001\" ORDER=\"1\" TYPE=\"page\"><mets:fptr FILEID=\"FILE_0001\"/></mets:div>"
+                + "</mets:div></mets:structMap>"
+                + "<mets:structMap TYPE=\"LOGICAL\"><mets:div ID=\"LOG_0000\" TYPE=\"Monograph\"/></mets:structMap>"
+                + "</mets:mets>";
+        try {
+            new StreamingMetsXmlElementAccess().read(new ByteArrayInputStream(mets.getBytes(StandardCharsets.UTF_8)));
+            fail("File without location should have been reported");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Corrupt file: <mets:file ID=\"FILE_0001\"> has no <mets:FLocat> with xlink:href",
+                e.getMessage());
+        }
+    }
+}
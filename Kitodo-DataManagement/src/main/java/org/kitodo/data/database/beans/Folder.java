@@ -124,6 +124,13 @@ public class Folder extends BaseBean {
     @Column(name = "imageSize")
     private Integer imageSize = null;
 
+    /**
+     * Class name of the image management module used to generate the images
+     * in this folder. If null, the first module found is used.
+     */
+    @Column(name = "imageManagementModule")
+    private String imageManagementModule = null;
+
     /**
      * Indicates whether a METS {@code <fileGrp>} section is created, and how it
      * is populated.
@@ -236,6 +243,17 @@ public class Folder extends BaseBean {
         return Optional.ofNullable(imageSize);
     }
 
+    /**
+     * Returns the class name of the image management module used to generate
+     * the images in this folder, if any. If absent, the first module found is
+     * used.
+     *
+     * @return the class name of the module
+     */
+    public Optional<String> getImageManagementModule() {
+        return Optional.ofNullable(imageManagementModule);
+    }
+
     /**
      * Returns the linking mode of the folder.
      *
@@ -408,6 +426,18 @@ public class Folder extends BaseBean {
         this.imageSize = imageSize;
     }
 
+    /**
+     * Sets the class name of the image management module used to generate the
+     * images in this folder. Can be set to {@code null} to use the first
+     * module found.
+     *
+     * @param imageManagementModule
+     *            the class name of the module
+     */
+    public void setImageManagementModule(String imageManagementModule) {
+        this.imageManagementModule = imageManagementModule;
+    }
+
     /**
      * Sets the linking mode of the folder.
      *
@@ -0,0 +1,316 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.data.database.beans;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Table;
+
+import org.kitodo.data.database.enums.JobState;
+import org.kitodo.data.database.enums.JobType;
+
+/**
+ * A job in the persistent job queue. Jobs survive a restart of the
+ * application. A job is claimed by a worker for a limited time, the lease,
+ * which the worker renews while the job is running. If the worker disappears,
+ * its lease expires, and the job can be claimed again, by any node sharing
+ * the database.
+ */
+@Entity(name = "Job")
+@Table(name = "job")
+public class Job extends BaseBean {
+
+    @Column(name = "type")
+    @Enumerated(EnumType.STRING)
+    private JobType type;
+
+    @Column(name = "state")
+    @Enumerated(EnumType.STRING)
+    private JobState state = JobState.QUEUED;
+
+    @Column(name = "title")
+    private String title;
+
+    @Column(name = "process_id")
+    private Integer processId;
+
+    @Column(name = "task_id")
+    private Integer taskId;
+
+    @Column(name = "parameters")
+    private String parameters;
+
+    @Column(name = "created")
+    private Date created;
+
+    @Column(name = "started")
+    private Date started;
+
+    @Column(name = "finished")
+    private Date finished;
+
+    @Column(name = "leaseOwner")
+    private String leaseOwner;
+
+    @Column(name = "leaseExpires")
+    private Date leaseExpires;
+
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "error", columnDefinition = "longtext")
+    private String error;
+
+    /**
+     * Constructor.
+     */
+    public Job() {
+    }
+
+    /**
+     * Get type.
+     *
+     * @return value of type
+     */
+    public JobType getType() {
+        return type;
+    }
+
+    /**
+     * Set type.
+     *
+     * @param type as JobType
+     */
+    public void setType(JobType type) {
+        this.type = type;
+    }
+
+    /**
+     * Get state.
+     *
+     * @return value of state
+     */
+    public JobState getState() {
+        return state;
+    }
+
+    /**
+     * Set state.
+     *
+     * @param state as JobState
+     */
+    public void setState(JobState state) {
+        this.state = state;
+    }
+
+    /**
+     * Get title.
+     *
+     * @return value of title
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Set title.
+     *
+     * @param title as String
+     */
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    /**
+     * Get processId.
+     *
+     * @return value of processId
+     */
+    public Integer getProcessId() {
+        return processId;
+    }
+
+    /**
+     * Set processId.
+     *
+     * @param processId as Integer
+     */
+    public void setProcessId(Integer processId) {
+        this.processId = processId;
+    }
+
+    /**
+     * Get taskId.
+     *
+     * @return value of taskId
+     */
+    public Integer getTaskId() {
+        return taskId;
+    }
+
+    /**
+     * Set taskId.
+     *
+     * @param taskId as Integer
+     */
+    public void setTaskId(Integer taskId) {
+        this.taskId = taskId;
+    }
+
+    /**
+     * Get parameters.
+     *
+     * @return value of parameters
+     */
+    public String getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Set parameters.
+     *
+     * @param parameters as String
+     */
+    public void setParameters(String parameters) {
+        this.parameters = parameters;
+    }
+
+    /**
+     * Get created.
+     *
+     * @return value of created
+     */
+    public Date getCreated() {
+        return created;
+    }
+
+    /**
+     * Set created.
+     *
+     * @param created as Date
+     */
+    public void setCreated(Date created) {
+        this.created = created;
+    }
+
+    /**
+     * Get started.
+     *
+     * @return value of started
+     */
+    public Date getStarted() {
+        return started;
+    }
+
+    /**
+     * Set started.
+     *
+     * @param started as Date
+     */
+    public void setStarted(Date started) {
+        this.started = started;
+    }
+
+    /**
+     * Get finished.
+     *
+     * @return value of finished
+     */
+    public Date getFinished() {
+        return finished;
+    }
+
+    /**
+     * Set finished.
+     *
+     * @param finished as Date
+     */
+    public void setFinished(Date finished) {
+        this.finished = finished;
+    }
+
+    /**
+     * Get leaseOwner.
+     *
+     * @return value of leaseOwner
+     */
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    /**
+     * Set leaseOwner.
+     *
+     * @param leaseOwner as String
+     */
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    /**
+     * Get leaseExpires.
+     *
+     * @return value of leaseExpires
+     */
+    public Date getLeaseExpires() {
+        return leaseExpires;
+    }
+
+    /**
+     * Set leaseExpires.
+     *
+     * @param leaseExpires as Date
+     */
+    public void setLeaseExpires(Date leaseExpires) {
+        this.leaseExpires = leaseExpires;
+    }
+
+    /**
+     * Get attempts.
+     *
+     * @return value of attempts
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Set attempts.
+     *
+     * @param attempts as int
+     */
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    /**
+     * Get error.
+     *
+     * @return value of error
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Set error.
+     *
+     * @param error as String
+     */
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.data.database.enums;
+
+/**
+ * Enum for the states of a job in the job queue.
+ */
+public enum JobState {
+    /**
+     * The job waits to be claimed by a worker.
+     */
+    QUEUED,
+
+    /**
+     * The job is claimed by a worker. If the lease of the worker expires, the
+     * job may be claimed again.
+     */
+    RUNNING,
+
+    /**
+     * The job has finished successfully.
+     */
+    FINISHED,
+
+    /**
+     * The job has failed.
+     */
+    FAILED,
+
+    /**
+     * The job was deleted by the user before it finished.
+     */
+    CANCELLED
+}
@@ -0,0 +1,33 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.data.database.enums;
+
+/**
+ * Enum for the types of jobs in the job queue. Each type of job is run on its
+ * own number of workers.
+ */
+public enum JobType {
+    /**
+     * Runs the script, image generation or DMS export of an automatic task.
+     */
+    SCRIPT,
+
+    /**
+     * Exports a process to the DMS.
+     */
+    DMS_EXPORT,
+
+    /**
+     * Generates the images of a process.
+     */
+    IMAGE_GENERATION
+}
@@ -43,6 +43,11 @@ public class AuthorityDAO extends BaseDAO<Authority> {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public List<Authority> getAllAfter(int lastId, int size, boolean notIndexedOnly) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void remove(Integer id) throws DAOException {
         removeObject(Authority.class, id);
@@ -26,6 +26,7 @@ import org.hibernate.Transaction;
 import org.hibernate.exception.SQLGrammarException;
 import org.hibernate.query.Query;
 import org.kitodo.data.database.beans.BaseBean;
+import org.kitodo.data.database.enums.IndexAction;
 import org.kitodo.data.database.exceptions.DAOException;
 
 /**
@@ -75,6 +76,23 @@ public abstract class BaseDAO<T extends BaseBean> implements Serializable {
      */
     public abstract List<T> getAllNotIndexed(int offset, int size) throws DAOException;
 
+    /**
+     * Retrieves BaseBean objects with an id greater than the given one, ordered
+     * by id. Unlike paging by offset, the pages do not shift if objects are
+     * added, removed or marked as indexed while they are read.
+     *
+     * @param lastId
+     *            id of the last object of the previous page, 0 for the first
+     *            page
+     * @param size
+     *            amount of results
+     * @param notIndexedOnly
+     *            if true, only objects with index action INDEX or NULL are
+     *            retrieved
+     * @return constrained list of persisted beans
+     */
+    public abstract List<T> getAllAfter(int lastId, int size, boolean notIndexedOnly) throws DAOException;
+
     /**
      * Saves a BaseBean object to the database.
      *
@@ -88,6 +106,50 @@ public abstract class BaseDAO<T extends BaseBean> implements Serializable {
         storeObject(baseBean);
     }
 
+    /**
+     * Sets the index action of the given objects in the database, as far as
+     * they still have the expected index action there. Objects which were
+     * saved again or marked for deletion in the meantime keep their index
+     * action. Unlike saving the objects, this does not overwrite other
+     * properties which may have been changed in the database in the meantime.
+     *
+     * @param baseBeans
+     *            objects whose index action is set
+     * @param expected
+     *            index action the objects must have in the database to be
+     *            updated, {@code null} for objects without index action
+     * @param indexAction
+     *            index action to set
+     * @throws DAOException
+     *             if a HibernateException is thrown
+     */
+    public void updateIndexAction(List<T> baseBeans, IndexAction expected, IndexAction indexAction)
+            throws DAOException {
+        if (baseBeans.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(baseBeans.size());
+        for (T baseBean : baseBeans) {
+            ids.add(baseBean.getId());
+        }
+        String query = "UPDATE " + Hibernate.getClass(baseBeans.get(0)).getSimpleName()
+                + " SET indexAction = :indexAction WHERE id IN (:ids) AND "
+                + (Objects.isNull(expected) ? "indexAction IS NULL" : "indexAction = :expected");
+        try (Session session = HibernateUtil.getSession()) {
+            Query<?> updateQuery = session.createQuery(query);
+            updateQuery.setParameter("indexAction", indexAction);
+            updateQuery.setParameterList("ids", ids);
+            if (Objects.nonNull(expected)) {
+                updateQuery.setParameter("expected", expected);
+            }
+            Transaction transaction = session.beginTransaction();
+            updateQuery.executeUpdate();
+            transaction.commit();
+        } catch (PersistenceException e) {
+            throw new DAOException(e);
+        }
+    }
+
     /**
      * Removes BaseBean object specified by the given id from the database.
      *
@@ -321,6 +383,35 @@ public abstract class BaseDAO<T extends BaseBean> implements Serializable {
         }
     }
 
+    /**
+     * Retrieve objects of given class with an id greater than the given one,
+     * ordered by id.
+     *
+     * @param cls
+     *            class
+     * @param lastId
+     *            id after which the results start
+     * @param max
+     *            amount of results
+     * @param notIndexedOnly
+     *            if true, only objects with index action INDEX or NULL are
+     *            retrieved
+     * @return constrained list of results
+     */
+    @SuppressWarnings("unchecked")
+    List<T> retrieveObjectsAfter(Class<T> cls, int lastId, int max, boolean notIndexedOnly) throws DAOException {
+        String query = "FROM " + cls.getSimpleName() + " WHERE id > :lastId"
+                + (notIndexedOnly ? " AND (indexAction = 'INDEX' OR indexAction IS NULL)" : "") + " ORDER BY id ASC";
+        try (Session session = HibernateUtil.getSession()) {
+            Query<T> sessionQuery = session.createQuery(query);
+            sessionQuery.setParameter("lastId", lastId);
+            sessionQuery.setMaxResults(max);
+            return sessionQuery.list();
+        } catch (PersistenceException e) {
+            throw new DAOException(e);
+        }
+    }
+
     /**
      * Retrieve all objects fro given class.
      *
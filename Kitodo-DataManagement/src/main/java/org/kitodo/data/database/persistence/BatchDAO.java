@@ -49,6 +49,11 @@ public class BatchDAO extends BaseDAO<Batch> {
             size);
     }
 
+    @Override
+    public List<Batch> getAllAfter(int lastId, int size, boolean notIndexedOnly) throws DAOException {
+        return retrieveObjectsAfter(Batch.class, lastId, size, notIndexedOnly);
+    }
+
     @Override
     public void remove(Integer id) throws DAOException {
         removeObject(Batch.class, id);
@@ -42,6 +42,11 @@ public class ClientDAO extends BaseDAO<Client> {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public List<Client> getAllAfter(int lastId, int size, boolean notIndexedOnly) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void remove(Integer clientId) throws DAOException {
         removeObject(Client.class, clientId);
@@ -44,6 +44,11 @@ public class CommentDAO extends BaseDAO<Comment> {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public List<Comment> getAllAfter(int lastId, int size, boolean notIndexedOnly) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void remove(Integer commentId) throws DAOException {
         removeObject(Comment.class, commentId);
@@ -42,6 +42,11 @@ public class DataEditorSettingDAO extends BaseDAO<DataEditorSetting> {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public List<DataEditorSetting> getAllAfter(int lastId, int size, boolean notIndexedOnly) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void remove(Integer dataEditorSettingId) throws DAOException {
         removeObject(DataEditorSetting.class, dataEditorSettingId);
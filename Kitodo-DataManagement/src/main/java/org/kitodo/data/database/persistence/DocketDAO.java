@@ -43,6 +43,11 @@ public class DocketDAO extends BaseDAO<Docket> {
                 size);
     }
 
+    @Override
+    public List<Docket> getAllAfter(int lastId, int size, boolean notIndexedOnly) throws DAOException {
+        return retrieveObjectsAfter(Docket.class, lastId, size, notIndexedOnly);
+    }
+
     @Override
     public void remove(Integer docketId) throws DAOException {
         removeObject(Docket.class, docketId);
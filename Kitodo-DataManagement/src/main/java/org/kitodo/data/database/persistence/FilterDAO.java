@@ -46,6 +46,11 @@ public class FilterDAO extends BaseDAO<Filter> {
                 size);
     }
 
+    @Override
+    public List<Filter> getAllAfter(int lastId, int size, boolean notIndexedOnly) throws DAOException {
+        return retrieveObjectsAfter(Filter.class, lastId, size, notIndexedOnly);
+    }
+
     @Override
     public void remove(Integer filterId) throws DAOException {
         removeObject(Filter.class, filterId);
@@ -42,6 +42,11 @@ public class FolderDAO extends BaseDAO<Folder> {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public List<Folder> getAllAfter(int lastId, int size, boolean notIndexedOnly) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void remove(Integer id) throws DAOException {
         removeObject(Folder.class, id);
@@ -0,0 +1,280 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.data.database.persistence;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.persistence.PersistenceException;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.query.Query;
+import org.kitodo.data.database.beans.Job;
+import org.kitodo.data.database.enums.JobState;
+import org.kitodo.data.database.enums.JobType;
+import org.kitodo.data.database.exceptions.DAOException;
+
+/**
+ * Access to the persistent job queue. A job is claimed by an atomic update
+ * which only succeeds if the job is still queued or its lease has expired, so
+ * that several nodes can share the queue without claiming a job twice.
+ */
+public class JobDAO extends BaseDAO<Job> {
+
+    private static final String CLAIMABLE = "(state = :queued OR (state = :running AND leaseExpires < :now))";
+
+    @Override
+    public Job getById(Integer jobId) throws DAOException {
+        Job job = retrieveObject(Job.class, jobId);
+        if (Objects.isNull(job)) {
+            throw new DAOException("Object cannot be found in database");
+        }
+        return job;
+    }
+
+    @Override
+    public List<Job> getAll() throws DAOException {
+        return retrieveAllObjects(Job.class);
+    }
+
+    @Override
+    public List<Job> getAll(int offset, int size) throws DAOException {
+        return retrieveObjects("FROM Job ORDER BY id ASC", offset, size);
+    }
+
+    @Override
+    public List<Job> getAllNotIndexed(int offset, int size) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Job> getAllAfter(int lastId, int size, boolean notIndexedOnly) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void remove(Integer jobId) throws DAOException {
+        removeObject(Job.class, jobId);
+    }
+
+    /**
+     * Returns the oldest jobs of a type which can be claimed. These are the
+     * queued jobs and the running jobs whose lease has expired.
+     *
+     * @param type
+     *            type of jobs
+     * @param now
+     *            current time
+     * @param max
+     *            maximum number of jobs to return
+     * @return the jobs which can be claimed
+     * @throws DAOException
+     *             if the database cannot be accessed
+     */
+    @SuppressWarnings("unchecked")
+    public List<Job> getClaimable(JobType type, Date now, int max) throws DAOException {
+        try (Session session = HibernateUtil.getSession()) {
+            Query<Job> query = session.createQuery("FROM Job WHERE type = :type AND " + CLAIMABLE + " ORDER BY id ASC");
+            query.setParameter("type", type);
+            setClaimableParameters(query, now);
+            query.setMaxResults(max);
+            return query.list();
+        } catch (PersistenceException e) {
+            throw new DAOException(e);
+        }
+    }
+
+    /**
+     * Claims a job for a worker. This only succeeds if no other worker has
+     * claimed the job in the meantime.
+     *
+     * @param jobId
+     *            id of the job to claim
+     * @param owner
+     *            the worker which claims the job
+     * @param now
+     *            current time
+     * @param leaseExpires
+     *            time until when the job is claimed, if the lease is not
+     *            renewed
+     * @return whether the job was claimed
+     * @throws DAOException
+     *             if the database cannot be accessed
+     */
+    public boolean claim(Integer jobId, String owner, Date now, Date leaseExpires) throws DAOException {
+        try (Session session = HibernateUtil.getSession()) {
+            Query<?> query = session.createQuery("UPDATE Job SET state = :running, leaseOwner = :owner,"
+                    + " leaseExpires = :leaseExpires, started = :now, attempts = attempts + 1"
+                    + " WHERE id = :id AND " + CLAIMABLE);
+            query.setParameter("owner", owner);
+            query.setParameter("leaseExpires", leaseExpires);
+            query.setParameter("id", jobId);
+            setClaimableParameters(query, now);
+            Transaction transaction = session.beginTransaction();
+            int claimed = query.executeUpdate();
+            transaction.commit();
+            return claimed == 1;
+        } catch (PersistenceException e) {
+            throw new DAOException(e);
+        }
+    }
+
+    /**
+     * Extends the leases of the running jobs of a worker.
+     *
+     * @param jobIds
+     *            ids of the running jobs
+     * @param owner
+     *            the worker running the jobs
+     * @param leaseExpires
+     *            new end of the leases
+     * @throws DAOException
+     *             if the database cannot be accessed
+     */
+    public void renewLeases(Collection<Integer> jobIds, String owner, Date leaseExpires) throws DAOException {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        try (Session session = HibernateUtil.getSession()) {
+            Query<?> query = session.createQuery("UPDATE Job SET leaseExpires = :leaseExpires"
+                    + " WHERE id IN (:ids) AND leaseOwner = :owner AND state = :running");
+            query.setParameter("leaseExpires", leaseExpires);
+            query.setParameterList("ids", jobIds);
+            query.setParameter("owner", owner);
+            query.setParameter("running", JobState.RUNNING);
+            Transaction transaction = session.beginTransaction();
+            query.executeUpdate();
+            transaction.commit();
+        } catch (PersistenceException e) {
+            throw new DAOException(e);
+        }
+    }
+
+    /**
+     * Sets the final state of a job run by a worker.
+     *
+     * @param jobId
+     *            id of the job
+     * @param owner
+     *            the worker running the job
+     * @param state
+     *            final state of the job
+     * @param error
+     *            error message if the job failed, else {@code null}
+     * @param finished
+     *            time when the job has ended
+     * @throws DAOException
+     *             if the database cannot be accessed
+     */
+    public void finish(Integer jobId, String owner, JobState state, String error, Date finished)
+            throws DAOException {
+        try (Session session = HibernateUtil.getSession()) {
+            Query<?> query = session.createQuery("UPDATE Job SET state = :state, error = :error,"
+                    + " finished = :finished, leaseOwner = NULL, leaseExpires = NULL"
+                    + " WHERE id = :id AND leaseOwner = :owner");
+            query.setParameter("state", state);
+            query.setParameter("error", error);
+            query.setParameter("finished", finished);
+            query.setParameter("id", jobId);
+            query.setParameter("owner", owner);
+            Transaction transaction = session.beginTransaction();
+            query.executeUpdate();
+            transaction.commit();
+        } catch (PersistenceException e) {
+            throw new DAOException(e);
+        }
+    }
+
+    /**
+     * Puts the running jobs of a worker back into the queue. This is done if
+     * the worker is shut down.
+     *
+     * @param owner
+     *            the worker running the jobs
+     * @throws DAOException
+     *             if the database cannot be accessed
+     */
+    public void release(String owner) throws DAOException {
+        try (Session session = HibernateUtil.getSession()) {
+            Query<?> query = session.createQuery("UPDATE Job SET state = :queued, leaseOwner = NULL,"
+                    + " leaseExpires = NULL WHERE leaseOwner = :owner AND state = :running");
+            query.setParameter("queued", JobState.QUEUED);
+            query.setParameter("owner", owner);
+            query.setParameter("running", JobState.RUNNING);
+            Transaction transaction = session.beginTransaction();
+            query.executeUpdate();
+            transaction.commit();
+        } catch (PersistenceException e) {
+            throw new DAOException(e);
+        }
+    }
+
+    /**
+     * Deletes the ended jobs of a state which have ended before a given time.
+     *
+     * @param state
+     *            state of the jobs to delete
+     * @param finishedBefore
+     *            the jobs which ended before this time are deleted
+     * @throws DAOException
+     *             if the database cannot be accessed
+     */
+    public void removeFinished(JobState state, Date finishedBefore) throws DAOException {
+        try (Session session = HibernateUtil.getSession()) {
+            Query<?> query = session.createQuery("DELETE FROM Job WHERE state = :state AND finished < :before");
+            query.setParameter("state", state);
+            query.setParameter("before", finishedBefore);
+            Transaction transaction = session.beginTransaction();
+            query.executeUpdate();
+            transaction.commit();
+        } catch (PersistenceException e) {
+            throw new DAOException(e);
+        }
+    }
+
+    /**
+     * Returns the number of queued jobs for each type of job.
+     *
+     * @return the number of queued jobs by type
+     * @throws DAOException
+     *             if the database cannot be accessed
+     */
+    @SuppressWarnings("unchecked")
+    public Map<JobType, Long> countQueued() throws DAOException {
+        Map<JobType, Long> queued = new EnumMap<>(JobType.class);
+        for (JobType type : JobType.values()) {
+            queued.put(type, 0L);
+        }
+        try (Session session = HibernateUtil.getSession()) {
+            Query<Object[]> query = session
+                    .createQuery("SELECT type, COUNT(*) FROM Job WHERE state = :queued GROUP BY type");
+            query.setParameter("queued", JobState.QUEUED);
+            for (Object[] row : query.list()) {
+                queued.put((JobType) row[0], (Long) row[1]);
+            }
+            return queued;
+        } catch (PersistenceException e) {
+            throw new DAOException(e);
+        }
+    }
+
+    private static void setClaimableParameters(Query<?> query, Date now) {
+        query.setParameter("queued", JobState.QUEUED);
+        query.setParameter("running", JobState.RUNNING);
+        query.setParameter("now", now);
+    }
+}
@@ -46,4 +46,9 @@ public class LdapGroupDAO extends BaseDAO<LdapGroup> {
     public List<LdapGroup> getAllNotIndexed(int offset, int size) {
         throw new UnsupportedOperationException();
     }
+
+    @Override
+    public List<LdapGroup> getAllAfter(int lastId, int size, boolean notIndexedOnly) {
+        throw new UnsupportedOperationException();
+    }
 }
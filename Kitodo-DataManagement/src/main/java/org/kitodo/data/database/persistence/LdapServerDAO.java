@@ -46,4 +46,9 @@ public class LdapServerDAO extends BaseDAO<LdapServer> {
     public List<LdapServer> getAllNotIndexed(int offset, int size) {
         throw new UnsupportedOperationException();
     }
+
+    @Override
+    public List<LdapServer> getAllAfter(int lastId, int size, boolean notIndexedOnly) {
+        throw new UnsupportedOperationException();
+    }
 }
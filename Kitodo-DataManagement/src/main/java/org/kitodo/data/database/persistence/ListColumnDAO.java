@@ -60,6 +60,11 @@ public class ListColumnDAO extends BaseDAO<ListColumn> {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public List<ListColumn> getAllAfter(int lastId, int size, boolean notIndexedOnly) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void remove(Integer listColumnId) throws DAOException {
         removeObject(ListColumn.class, listColumnId);
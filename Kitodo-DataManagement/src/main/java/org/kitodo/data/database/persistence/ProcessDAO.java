@@ -43,6 +43,11 @@ public class ProcessDAO extends BaseDAO<Process> {
             offset, size);
     }
 
+    @Override
+    public List<Process> getAllAfter(int lastId, int size, boolean notIndexedOnly) throws DAOException {
+        return retrieveObjectsAfter(Process.class, lastId, size, notIndexedOnly);
+    }
+
     /**
      * Save process with regard to its progress.
      *
@@ -43,6 +43,11 @@ public class ProjectDAO extends BaseDAO<Project> {
             offset, size);
     }
 
+    @Override
+    public List<Project> getAllAfter(int lastId, int size, boolean notIndexedOnly) throws DAOException {
+        return retrieveObjectsAfter(Project.class, lastId, size, notIndexedOnly);
+    }
+
     @Override
     public void remove(Integer id) throws DAOException {
         removeObject(Project.class, id);
@@ -48,6 +48,11 @@ public class PropertyDAO extends BaseDAO<Property> {
             offset, size);
     }
 
+    @Override
+    public List<Property> getAllAfter(int lastId, int size, boolean notIndexedOnly) throws DAOException {
+        return retrieveObjectsAfter(Property.class, lastId, size, notIndexedOnly);
+    }
+
     @Override
     public void remove(Integer propertyId) throws DAOException {
         removeObject(Property.class, propertyId);
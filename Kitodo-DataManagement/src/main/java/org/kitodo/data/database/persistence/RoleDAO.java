@@ -46,6 +46,11 @@ public class RoleDAO extends BaseDAO<Role> {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public List<Role> getAllAfter(int lastId, int size, boolean notIndexedOnly) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void remove(Integer id) throws DAOException {
         removeObject(Role.class, id);
@@ -43,6 +43,11 @@ public class RulesetDAO extends BaseDAO<Ruleset> {
             offset, size);
     }
 
+    @Override
+    public List<Ruleset> getAllAfter(int lastId, int size, boolean notIndexedOnly) throws DAOException {
+        return retrieveObjectsAfter(Ruleset.class, lastId, size, notIndexedOnly);
+    }
+
     @Override
     public void remove(Integer rulesetId) throws DAOException {
         removeObject(Ruleset.class, rulesetId);
@@ -47,6 +47,11 @@ public class TaskDAO extends BaseDAO<Task> {
             size);
     }
 
+    @Override
+    public List<Task> getAllAfter(int lastId, int size, boolean notIndexedOnly) throws DAOException {
+        return retrieveObjectsAfter(Task.class, lastId, size, notIndexedOnly);
+    }
+
     @Override
     public void remove(Integer id) throws DAOException {
         removeObject(Task.class, id);
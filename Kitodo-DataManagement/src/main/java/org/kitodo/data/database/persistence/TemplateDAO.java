@@ -45,6 +45,11 @@ public class TemplateDAO extends BaseDAO<Template> {
             offset, size);
     }
 
+    @Override
+    public List<Template> getAllAfter(int lastId, int size, boolean notIndexedOnly) throws DAOException {
+        return retrieveObjectsAfter(Template.class, lastId, size, notIndexedOnly);
+    }
+
     /**
      * Save list of templates.
      *
@@ -45,6 +45,11 @@ public class UserDAO extends BaseDAO<User> {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public List<User> getAllAfter(int lastId, int size, boolean notIndexedOnly) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void remove(User user) throws DAOException {
         user.selfDestruct();
@@ -42,6 +42,11 @@ public class WorkflowConditionDAO extends BaseDAO<WorkflowCondition> {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public List<WorkflowCondition> getAllAfter(int lastId, int size, boolean notIndexedOnly) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void remove(Integer id) throws DAOException {
         removeObject(WorkflowCondition.class, id);
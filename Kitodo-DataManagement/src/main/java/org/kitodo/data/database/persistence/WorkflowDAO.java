@@ -44,6 +44,11 @@ public class WorkflowDAO extends BaseDAO<Workflow> {
             offset, size);
     }
 
+    @Override
+    public List<Workflow> getAllAfter(int lastId, int size, boolean notIndexedOnly) throws DAOException {
+        return retrieveObjectsAfter(Workflow.class, lastId, size, notIndexedOnly);
+    }
+
     @Override
     public void remove(Integer id) throws DAOException {
         removeObject(Workflow.class, id);
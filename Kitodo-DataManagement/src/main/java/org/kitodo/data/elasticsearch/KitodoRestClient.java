@@ -12,8 +12,15 @@
 package org.kitodo.data.elasticsearch;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
 import javax.ws.rs.HttpMethod;
 
 import org.apache.http.HttpEntity;
@@ -165,11 +172,25 @@ public abstract class KitodoRestClient implements RestClientInterface {
      *         success
      */
     public boolean createIndex(String query) throws IOException, CustomResponseException {
+        return createIndex(index, query);
+    }
+
+    /**
+     * Create new index with the given name and mapping.
+     *
+     * @param indexName
+     *            name of the index to create
+     * @param query
+     *            contains mapping
+     * @return true or false - can be used for displaying information to user if
+     *         success
+     */
+    public boolean createIndex(String indexName, String query) throws IOException, CustomResponseException {
         if (query == null) {
             query = "{\"settings\" : {\"index\" : {\"number_of_shards\" : 1,\"number_of_replicas\" : 0}}}";
         }
         HttpEntity entity = new NStringEntity(query, ContentType.APPLICATION_JSON);
-        Response indexResponse = client.performRequest(HttpMethod.PUT, "/" + index, Collections.emptyMap(), entity);
+        Response indexResponse = client.performRequest(HttpMethod.PUT, "/" + indexName, Collections.emptyMap(), entity);
         int statusCode = processStatusCode(indexResponse.getStatusLine());
         return statusCode == 200 || statusCode == 201;
     }
@@ -186,10 +207,102 @@ public abstract class KitodoRestClient implements RestClientInterface {
     }
 
     /**
-     * Delete the whole index. Used for cleaning after tests!
+     * Check if the index with the given name exists.
+     *
+     * @param indexName
+     *            name of the index to check
+     * @return false if doesn't exists, true if exists
+     */
+    public boolean indexExists(String indexName) throws IOException {
+        Response indexResponse = client.performRequest(HttpMethod.HEAD, "/" + indexName);
+        return indexResponse.getStatusLine().getStatusCode() == 200;
+    }
+
+    /**
+     * Refresh the index, so that all documents written so far are found by
+     * searches.
+     */
+    public void refreshIndex() throws IOException {
+        client.performRequest(HttpMethod.POST, "/" + index + "/_refresh");
+    }
+
+    /**
+     * Delete the whole index. Used for cleaning after tests! If the index name
+     * is an alias, the indexes it points to are deleted.
      */
     public void deleteIndex() throws IOException {
-        client.performRequest(HttpMethod.DELETE, "/" + index);
+        List<String> aliasedIndexes = getAliasedIndexes();
+        if (aliasedIndexes.isEmpty()) {
+            client.performRequest(HttpMethod.DELETE, "/" + index);
+        } else {
+            for (String aliasedIndex : aliasedIndexes) {
+                deleteIndex(aliasedIndex);
+            }
+        }
+    }
+
+    /**
+     * Delete the index with the given name.
+     *
+     * @param indexName
+     *            name of the index to delete
+     */
+    public void deleteIndex(String indexName) throws IOException {
+        client.performRequest(HttpMethod.DELETE, "/" + indexName);
+    }
+
+    /**
+     * Return the indexes the index name points to, if it is an alias.
+     *
+     * @return the names of the aliased indexes, empty if the index name is not
+     *         an alias
+     */
+    public List<String> getAliasedIndexes() throws IOException {
+        try {
+            Response response = client.performRequest(HttpMethod.GET, "/_alias/" + index);
+            try (JsonReader jsonReader = Json.createReader(new StringReader(EntityUtils.toString(response.getEntity())))) {
+                return new ArrayList<>(jsonReader.readObject().keySet());
+            }
+        } catch (ResponseException e) {
+            if (e.getResponse().getStatusLine().getStatusCode() == 404) {
+                return Collections.emptyList();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Point the index name, as an alias, to the given index. All other indexes
+     * are removed from the alias in the same request, so searches see either
+     * the old or the new index, never none or both. If the index name is the
+     * name of a real index, as created by earlier versions, this index must be
+     * deleted before the alias can be created. This is the only moment when
+     * the index is not available.
+     *
+     * @param newIndex
+     *            name of the index the alias will point to
+     * @return the names of the indexes the alias pointed to before
+     */
+    public List<String> switchAlias(String newIndex) throws IOException, CustomResponseException {
+        List<String> oldIndexes = getAliasedIndexes();
+        if (oldIndexes.isEmpty()
+                && client.performRequest(HttpMethod.HEAD, "/" + index).getStatusLine().getStatusCode() == 200) {
+            logger.warn("Index {} is not an alias, deleting it to replace it by an alias", index);
+            deleteIndex(index);
+        }
+        JsonArrayBuilder actions = Json.createArrayBuilder();
+        for (String oldIndex : oldIndexes) {
+            actions.add(Json.createObjectBuilder().add("remove",
+                Json.createObjectBuilder().add("index", oldIndex).add("alias", index)));
+        }
+        actions.add(Json.createObjectBuilder().add("add",
+            Json.createObjectBuilder().add("index", newIndex).add("alias", index)));
+        JsonObject query = Json.createObjectBuilder().add("actions", actions).build();
+        HttpEntity entity = new NStringEntity(query.toString(), ContentType.APPLICATION_JSON);
+        Response response = client.performRequest(HttpMethod.POST, "/_aliases", Collections.emptyMap(), entity);
+        processStatusCode(response.getStatusLine());
+        oldIndexes.remove(newIndex);
+        return oldIndexes;
     }
 
     /**
@@ -15,12 +15,15 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.ws.rs.HttpMethod;
 
 import org.apache.http.HttpEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.nio.entity.NStringEntity;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequest;
@@ -42,7 +45,13 @@ public class IndexRestClient extends KitodoRestClient {
      * IndexRestClient singleton.
      */
     private static volatile IndexRestClient instance = null;
-    private final Object lock = new Object();
+
+    /**
+     * Index which is being built in the background while the index stays in
+     * use, or {@code null} if none is being built.
+     */
+    private volatile String shadowIndex = null;
+    private final Queue<DeleteRequest> shadowDeletions = new ConcurrentLinkedQueue<>();
 
     private IndexRestClient() {
     }
@@ -90,6 +99,13 @@ public class IndexRestClient extends KitodoRestClient {
 
         IndexResponse indexResponse = highLevelClient.index(indexRequest);
         processStatusCode(indexResponse.status());
+
+        String shadow = shadowIndex;
+        if (Objects.nonNull(shadow)) {
+            IndexResponse shadowResponse = highLevelClient
+                    .index(new IndexRequest(shadow, type, String.valueOf(id)).source(entity));
+            processStatusCode(shadowResponse.status());
+        }
     }
 
     /**
@@ -102,8 +118,19 @@ public class IndexRestClient extends KitodoRestClient {
      *            list of json documents to the index
      */
     void addTypeSync(String type, Map<Integer, Map<String, Object>> documentsToIndex) throws CustomResponseException {
-        BulkRequest bulkRequest = prepareBulkRequest(type, documentsToIndex);
+        addBulkSync(prepareBulkRequest(type, documentsToIndex));
+    }
 
+    /**
+     * Send a prepared bulk request to the index and wait for the response.
+     *
+     * @param bulkRequest
+     *            bulk request to send
+     * @throws CustomResponseException
+     *             if the index could not be reached or a document was not
+     *             written
+     */
+    void addBulkSync(BulkRequest bulkRequest) throws CustomResponseException {
         try {
             BulkResponse bulkResponse = highLevelClient.bulk(bulkRequest);
             if (bulkResponse.hasFailures()) {
@@ -129,18 +156,27 @@ public class IndexRestClient extends KitodoRestClient {
         ResponseListener responseListener = new ResponseListener(type, documentsToIndex.size());
         highLevelClient.bulkAsync(bulkRequest, responseListener);
 
-        synchronized (lock) {
-            while (Objects.isNull(responseListener.getBulkResponse())) {
-                try {
-                    lock.wait(1000);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-            }
+        try {
+            responseListener.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
+    /**
+     * Send a prepared bulk request to the index without waiting for the
+     * response. The listener is called from a thread of the client, so it
+     * should hand over any longer work to another thread.
+     *
+     * @param bulkRequest
+     *            bulk request to send
+     * @param listener
+     *            called when the request has been answered or has failed
+     */
+    void addBulkAsync(BulkRequest bulkRequest, ActionListener<BulkResponse> listener) {
+        highLevelClient.bulkAsync(bulkRequest, listener);
+    }
+
     /**
      * Delete document from the index.
      *
@@ -160,6 +196,12 @@ public class IndexRestClient extends KitodoRestClient {
 
         try {
             highLevelClient.delete(deleteRequest);
+            String shadow = shadowIndex;
+            if (Objects.nonNull(shadow)) {
+                DeleteRequest shadowDeleteRequest = new DeleteRequest(shadow, type, String.valueOf(id));
+                shadowDeletions.add(shadowDeleteRequest);
+                highLevelClient.delete(shadowDeleteRequest);
+            }
         } catch (ResponseException e) {
             handleResponseException(e);
         }  catch (IOException e) {
@@ -167,6 +209,53 @@ public class IndexRestClient extends KitodoRestClient {
         }
     }
 
+    /**
+     * Start or end building a shadow index. While a shadow index is set,
+     * documents added to or deleted from the index one by one or in bulk are
+     * added to or deleted from the shadow index, too. Documents created with
+     * {@link #prepareIndexRequest(String, Integer, Map)} only go into the
+     * shadow index, and only if it does not contain them yet, because a
+     * document written since the building began is at least as recent.
+     *
+     * @param shadowIndex
+     *            name of the shadow index, or {@code null} to end building
+     */
+    public void setShadowIndex(String shadowIndex) {
+        shadowDeletions.clear();
+        this.shadowIndex = shadowIndex;
+    }
+
+    /**
+     * Get the name of the shadow index being built.
+     *
+     * @return the name of the shadow index, or {@code null} if none is being
+     *         built
+     */
+    public String getShadowIndex() {
+        return shadowIndex;
+    }
+
+    /**
+     * Delete the documents from the shadow index once more which have been
+     * deleted since the building began. Building may have written them again
+     * from objects read before they were deleted. Call this after building has
+     * finished and before the shadow index is put to use.
+     */
+    public void repeatShadowDeletions() throws CustomResponseException {
+        BulkRequest bulkRequest = new BulkRequest();
+        for (DeleteRequest deleteRequest = shadowDeletions.poll(); Objects.nonNull(deleteRequest);
+                deleteRequest = shadowDeletions.poll()) {
+            bulkRequest.add(deleteRequest);
+        }
+        if (bulkRequest.numberOfActions() > 0) {
+            try {
+                highLevelClient.bulk(bulkRequest);
+            } catch (IOException e) {
+                throw new CustomResponseException(e);
+            }
+        }
+    }
+
     /**
      * Enable sorting by text field.
      *
@@ -185,14 +274,53 @@ public class IndexRestClient extends KitodoRestClient {
         processStatusCode(indexResponse.getStatusLine());
     }
 
+    /**
+     * Create an index request for one document, to be used when indexing all
+     * objects. If a shadow index is being built, the request goes there.
+     *
+     * @param type
+     *            for which request is performed
+     * @param id
+     *            of document - equal to the id from table in database
+     * @param document
+     *            json document
+     * @return index request
+     */
+    IndexRequest prepareIndexRequest(String type, Integer id, Map<String, Object> document) {
+        String shadow = shadowIndex;
+        if (Objects.nonNull(shadow)) {
+            return new IndexRequest(shadow, type, String.valueOf(id)).source(document).create(true);
+        }
+        return new IndexRequest(this.index, type, String.valueOf(id)).source(document);
+    }
+
     private BulkRequest prepareBulkRequest(String type, Map<Integer, Map<String, Object>> documentsToIndex) {
         BulkRequest bulkRequest = new BulkRequest();
+        addToBulkRequest(bulkRequest, type, documentsToIndex);
+        return bulkRequest;
+    }
 
+    /**
+     * Add index requests for documents to a bulk request. If a shadow index
+     * is being built, the documents are written into both indexes, and the
+     * documents in the shadow index are overwritten, as they are newer than
+     * the ones written by the indexing of all objects.
+     *
+     * @param bulkRequest
+     *            bulk request to add the documents to
+     * @param type
+     *            for which request is performed
+     * @param documentsToIndex
+     *            list of json documents to the index
+     */
+    void addToBulkRequest(BulkRequest bulkRequest, String type, Map<Integer, Map<String, Object>> documentsToIndex) {
+        String shadow = shadowIndex;
         for (Map.Entry<Integer, Map<String, Object>> entry : documentsToIndex.entrySet()) {
-            IndexRequest indexRequest = new IndexRequest(this.index, type, String.valueOf(entry.getKey()));
-            bulkRequest.add(indexRequest.source(entry.getValue()));
+            String id = String.valueOf(entry.getKey());
+            bulkRequest.add(new IndexRequest(this.index, type, id).source(entry.getValue()));
+            if (Objects.nonNull(shadow)) {
+                bulkRequest.add(new IndexRequest(shadow, type, id).source(entry.getValue()));
+            }
         }
-
-        return bulkRequest;
     }
 }
@@ -12,11 +12,15 @@
 package org.kitodo.data.elasticsearch.index;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import javax.ws.rs.HttpMethod;
 
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.kitodo.data.database.beans.BaseIndexedBean;
 import org.kitodo.data.elasticsearch.Index;
 import org.kitodo.data.elasticsearch.exceptions.CustomResponseException;
@@ -28,7 +32,12 @@ import org.kitodo.data.exceptions.DataException;
  */
 public class Indexer<T extends BaseIndexedBean, S extends BaseType> extends Index {
 
-    private String method;
+    /**
+     * The HTTP method of the next request. It is kept per thread, because the
+     * indexer of a service is shared by the request threads and the threads
+     * writing to the index in the background.
+     */
+    private final ThreadLocal<String> method = new ThreadLocal<>();
     private static final String INCORRECT_HTTP = "Incorrect HTTP method!";
 
     /**
@@ -67,10 +76,11 @@ public class Indexer<T extends BaseIndexedBean, S extends BaseType> extends Inde
             throws CustomResponseException, DataException, IOException {
         IndexRestClient restClient = initiateRestClient();
 
-        if (method.equals(HttpMethod.PUT)) {
+        String httpMethod = getMethod();
+        if (HttpMethod.PUT.equals(httpMethod)) {
             Map<String, Object> document = baseType.createDocument(baseIndexedBean);
             restClient.addDocument(this.type, document, baseIndexedBean.getId(), forceRefresh);
-        } else if (method.equals(HttpMethod.DELETE)) {
+        } else if (HttpMethod.DELETE.equals(httpMethod)) {
             restClient.deleteDocument(this.type, baseIndexedBean.getId(), forceRefresh);
         } else {
             throw new CustomResponseException(INCORRECT_HTTP);
@@ -90,7 +100,7 @@ public class Indexer<T extends BaseIndexedBean, S extends BaseType> extends Inde
     public void performSingleRequest(Integer beanId, boolean forceRefresh) throws CustomResponseException, DataException {
         IndexRestClient restClient = initiateRestClient();
 
-        if (method.equals(HttpMethod.DELETE)) {
+        if (HttpMethod.DELETE.equals(getMethod())) {
             restClient.deleteDocument(this.type, beanId, forceRefresh);
         } else {
             throw new CustomResponseException(INCORRECT_HTTP);
@@ -109,7 +119,7 @@ public class Indexer<T extends BaseIndexedBean, S extends BaseType> extends Inde
     public void performMultipleRequests(List<T> baseIndexedBeans, S baseType, boolean async) throws CustomResponseException {
         IndexRestClient restClient = initiateRestClient();
 
-        if (method.equals(HttpMethod.PUT)) {
+        if (HttpMethod.PUT.equals(getMethod())) {
             Map<Integer, Map<String, Object>> documents = baseType.createDocuments(baseIndexedBeans);
             if (async) {
                 restClient.addTypeAsync(this.type, documents);
@@ -121,6 +131,113 @@ public class Indexer<T extends BaseIndexedBean, S extends BaseType> extends Inde
         }
     }
 
+    /**
+     * Write the documents for the given beans to the index in one bulk request
+     * and wait for the answer. Unlike
+     * {@link #performMultipleRequests(List, BaseType, boolean)}, this does not
+     * depend on the HTTP method set before.
+     *
+     * @param baseIndexedBeans
+     *            list of bean objects which will be added to index
+     * @param baseType
+     *            type on which will be called method createDocument()
+     * @throws CustomResponseException
+     *             if the index could not be reached or a document was not
+     *             written
+     */
+    @SuppressWarnings("unchecked")
+    public void performBulkUpdate(List<T> baseIndexedBeans, S baseType) throws CustomResponseException {
+        if (!baseIndexedBeans.isEmpty()) {
+            initiateRestClient().addTypeSync(this.type, baseType.createDocuments(baseIndexedBeans));
+        }
+    }
+
+    /**
+     * Create the documents for the given beans and pack them into bulk
+     * requests. A new bulk request is begun as soon as the estimated size of
+     * the current one reaches the given number of bytes, so each bulk request
+     * has about the same size, regardless of how large the single documents
+     * are.
+     *
+     * @param baseIndexedBeans
+     *            list of bean objects which will be added to index
+     * @param baseType
+     *            type on which will be called method createDocument()
+     * @param maximumBytes
+     *            size in bytes after which a bulk request is complete
+     * @return the bulk requests, empty if the list of beans is empty
+     */
+    @SuppressWarnings("unchecked")
+    public List<BulkRequest> createBulkRequests(List<T> baseIndexedBeans, S baseType, long maximumBytes) {
+        IndexRestClient restClient = initiateRestClient();
+        List<BulkRequest> bulkRequests = new ArrayList<>();
+        BulkRequest bulkRequest = new BulkRequest();
+        for (T bean : baseIndexedBeans) {
+            Map<String, Object> document = baseType.createDocument(bean);
+            bulkRequest.add(restClient.prepareIndexRequest(this.type, bean.getId(), document));
+            if (bulkRequest.estimatedSizeInBytes() >= maximumBytes) {
+                bulkRequests.add(bulkRequest);
+                bulkRequest = new BulkRequest();
+            }
+        }
+        if (bulkRequest.numberOfActions() > 0) {
+            bulkRequests.add(bulkRequest);
+        }
+        return bulkRequests;
+    }
+
+    /**
+     * Add the documents for the given beans to a bulk request, which may
+     * contain documents of other types as well. Unlike
+     * {@link #createBulkRequests(List, BaseType, long)}, which is meant for
+     * indexing all objects, the documents are written to the index in use
+     * and, while a shadow index is being built, to the shadow index, too.
+     *
+     * @param bulkRequest
+     *            bulk request to add the documents to
+     * @param baseIndexedBeans
+     *            list of bean objects which will be added to index
+     * @param baseType
+     *            type on which will be called method createDocument()
+     */
+    @SuppressWarnings("unchecked")
+    public void addToBulkRequest(BulkRequest bulkRequest, List<T> baseIndexedBeans, S baseType) {
+        if (!baseIndexedBeans.isEmpty()) {
+            initiateRestClient().addToBulkRequest(bulkRequest, this.type, baseType.createDocuments(baseIndexedBeans));
+        }
+    }
+
+    /**
+     * Send a bulk request created by {@link #createBulkRequests(List, BaseType,
+     * long)} without waiting for the response.
+     *
+     * @param bulkRequest
+     *            bulk request to send
+     * @param listener
+     *            called when the request has been answered or has failed
+     */
+    public void performBulkRequest(BulkRequest bulkRequest, ActionListener<BulkResponse> listener) {
+        initiateRestClient().addBulkAsync(bulkRequest, listener);
+    }
+
+    /**
+     * Send a bulk request created by {@link #createBulkRequests(List, BaseType,
+     * long)} or filled by {@link #addToBulkRequest(BulkRequest, List, BaseType)}
+     * and wait for the answer. The request may contain documents of other
+     * types as well.
+     *
+     * @param bulkRequest
+     *            bulk request to send
+     * @throws CustomResponseException
+     *             if the index could not be reached or a document was not
+     *             written
+     */
+    public void performBulkRequest(BulkRequest bulkRequest) throws CustomResponseException {
+        if (bulkRequest.numberOfActions() > 0) {
+            initiateRestClient().addBulkSync(bulkRequest);
+        }
+    }
+
     private IndexRestClient initiateRestClient() {
         IndexRestClient restClient = IndexRestClient.getInstance();
         restClient.setIndex(index);
@@ -133,7 +250,7 @@ public class Indexer<T extends BaseIndexedBean, S extends BaseType> extends Inde
      * @return method for request
      */
     public String getMethod() {
-        return method;
+        return method.get();
     }
 
     /**
@@ -144,6 +261,6 @@ public class Indexer<T extends BaseIndexedBean, S extends BaseType> extends Inde
      *            add, false delete
      */
     public void setMethod(String method) {
-        this.method = method;
+        this.method.set(method);
     }
 }
@@ -11,6 +11,8 @@
 
 package org.kitodo.data.elasticsearch.index;
 
+import java.util.concurrent.CountDownLatch;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.action.ActionListener;
@@ -23,6 +25,7 @@ public class ResponseListener implements ActionListener<BulkResponse> {
     private String type;
     private int batchSize;
     private BulkResponse bulkResponse = null;
+    private final CountDownLatch done = new CountDownLatch(1);
 
     /**
      * Constructor with information about type and size of batch.
@@ -43,6 +46,7 @@ public class ResponseListener implements ActionListener<BulkResponse> {
         if (bulkResponse.hasFailures()) {
             logger.error(bulkResponse.buildFailureMessage());
         }
+        done.countDown();
     }
 
     @Override
@@ -50,6 +54,17 @@ public class ResponseListener implements ActionListener<BulkResponse> {
         // TODO: add error handling
         logger.error("I got failure for type '{}' with size {}!", this.type, this.batchSize);
         logger.error(e.getMessage(), e);
+        done.countDown();
+    }
+
+    /**
+     * Waits until the bulk request has been answered or has failed.
+     *
+     * @throws InterruptedException
+     *             if the current thread is interrupted while waiting
+     */
+    void await() throws InterruptedException {
+        done.await();
     }
 
     /**
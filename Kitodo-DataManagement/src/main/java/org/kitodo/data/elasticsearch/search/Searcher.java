@@ -22,6 +22,7 @@ import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonReader;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.SearchHit;
@@ -198,6 +199,21 @@ public class Searcher extends Index {
      */
     public List<Map<String, Object>> findDocuments(QueryBuilder query, SortBuilder sort, Integer offset, Integer size)
             throws CustomResponseException, DataException {
+        return countAndFindDocuments(query, sort, offset, size).getValue();
+    }
+
+    /**
+     * Find many documents by query, sort condition, offset and size of result
+     * set, and count all documents matching the query, with one request.
+     *
+     * @param query
+     *            as String
+     * @param sort
+     *            as String
+     * @return number of all matching documents, and list of JSON objects
+     */
+    public Pair<Long, List<Map<String, Object>>> countAndFindDocuments(QueryBuilder query, SortBuilder sort,
+            Integer offset, Integer size) throws CustomResponseException, DataException {
         SearchRestClient restClient = initiateRestClient();
         List<Map<String, Object>> searchResults = new ArrayList<>();
 
@@ -207,7 +223,7 @@ public class Searcher extends Index {
             result.put("id", hit.getId());
             searchResults.add(result);
         }
-        return searchResults;
+        return Pair.of(hits.getTotalHits(), searchResults);
     }
 
     private SearchRestClient initiateRestClient() {
@@ -109,6 +109,17 @@ public class FolderGenerator {
         }
     }
 
+    /**
+     * Returns the class name of the image management module to generate the
+     * images with.
+     *
+     * @return the class name of the module, or an empty string for the first
+     *         module found
+     */
+    public String getModule() {
+        return folder.getImageManagementModule().orElse("");
+    }
+
     /**
      * Sets the image width in pixels.
      *
@@ -152,6 +163,18 @@ public class FolderGenerator {
         folder.setImageSize(method.equals(GET_SIZED_WEB_IMAGE) ? width : null);
     }
 
+    /**
+     * Sets the class name of the image management module to generate the
+     * images with.
+     *
+     * @param module
+     *            class name of the module, or an empty string for the first
+     *            module found
+     */
+    public void setModule(String module) {
+        folder.setImageManagementModule(Objects.isNull(module) || module.isEmpty() ? null : module);
+    }
+
     /**
      * Sets the image width in pixels.
      *
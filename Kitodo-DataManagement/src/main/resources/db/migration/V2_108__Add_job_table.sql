@@ -0,0 +1,39 @@
+--
+-- (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+--
+-- This file is part of the Kitodo project.
+--
+-- It is licensed under GNU General Public License version 3 or later.
+--
+-- For the full copyright and license information, please read the
+-- GPL3-License.txt file that was distributed with this source code.
+--
+
+--
+-- Migration: Create table for the persistent job queue.
+--
+-- 1. Add table
+--
+-- The job refers to its process and task without foreign keys, so that
+-- processes and tasks can be deleted while jobs for them are queued.
+--
+
+CREATE TABLE IF NOT EXISTS job(
+    id INT(11) NOT NULL AUTO_INCREMENT,
+    type VARCHAR(31) NOT NULL,
+    state VARCHAR(31) NOT NULL,
+    title VARCHAR(255) DEFAULT NULL,
+    process_id INT(11) DEFAULT NULL,
+    task_id INT(11) DEFAULT NULL,
+    parameters VARCHAR(255) DEFAULT NULL,
+    created DATETIME DEFAULT NULL,
+    started DATETIME DEFAULT NULL,
+    finished DATETIME DEFAULT NULL,
+    leaseOwner VARCHAR(255) DEFAULT NULL,
+    leaseExpires DATETIME DEFAULT NULL,
+    attempts INT(11) NOT NULL DEFAULT 0,
+    error LONGTEXT DEFAULT NULL,
+    PRIMARY KEY (id),
+    KEY job_state_type (state, type)
+) DEFAULT CHARACTER SET = utf8mb4
+  COLLATE utf8mb4_unicode_ci;
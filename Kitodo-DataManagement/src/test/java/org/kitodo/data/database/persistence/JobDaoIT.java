@@ -0,0 +1,85 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.data.database.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.Test;
+import org.kitodo.data.database.beans.Job;
+import org.kitodo.data.database.enums.JobState;
+import org.kitodo.data.database.enums.JobType;
+import org.kitodo.data.database.exceptions.DAOException;
+
+public class JobDaoIT {
+
+    private static final long MINUTE = 60000;
+
+    /**
+     * Test claiming, renewing, finishing and releasing jobs.
+     * @throws DAOException when loading or saving fails
+     */
+    @Test
+    public void runPersistenceSuitTest() throws DAOException {
+        JobDAO jobDAO = new JobDAO();
+        Job firstJob = createJob(JobType.SCRIPT);
+        Job secondJob = createJob(JobType.SCRIPT);
+        jobDAO.save(firstJob);
+        jobDAO.save(secondJob);
+        jobDAO.save(createJob(JobType.DMS_EXPORT));
+
+        Date now = new Date();
+        assertEquals(Long.valueOf(2), jobDAO.countQueued().get(JobType.SCRIPT));
+        assertEquals(Long.valueOf(0), jobDAO.countQueued().get(JobType.IMAGE_GENERATION));
+        assertEquals(2, jobDAO.getClaimable(JobType.SCRIPT, now, 10).size());
+
+        Date leaseExpires = new Date(now.getTime() + MINUTE);
+        assertTrue("Job was not claimed!", jobDAO.claim(firstJob.getId(), "first", now, leaseExpires));
+        assertFalse("Job was claimed twice!", jobDAO.claim(firstJob.getId(), "second", now, leaseExpires));
+        assertEquals(1, jobDAO.getClaimable(JobType.SCRIPT, now, 10).size());
+
+        Date afterLease = new Date(now.getTime() + 2 * MINUTE);
+        jobDAO.renewLeases(Collections.singletonList(firstJob.getId()), "first", new Date(now.getTime() + 3 * MINUTE));
+        assertFalse("Renewed job was claimed!", jobDAO.claim(firstJob.getId(), "second", afterLease, leaseExpires));
+
+        Date afterRenewedLease = new Date(now.getTime() + 4 * MINUTE);
+        assertTrue("Expired job was not claimed!",
+            jobDAO.claim(firstJob.getId(), "second", afterRenewedLease, new Date(now.getTime() + 5 * MINUTE)));
+        jobDAO.finish(firstJob.getId(), "first", JobState.FAILED, "expired", afterRenewedLease);
+        assertEquals(JobState.RUNNING, jobDAO.getById(firstJob.getId()).getState());
+        jobDAO.finish(firstJob.getId(), "second", JobState.FINISHED, null, afterRenewedLease);
+        Job finishedJob = jobDAO.getById(firstJob.getId());
+        assertEquals(JobState.FINISHED, finishedJob.getState());
+        assertEquals(2, finishedJob.getAttempts());
+        assertNull(finishedJob.getLeaseOwner());
+
+        assertTrue("Job was not claimed!", jobDAO.claim(secondJob.getId(), "third", now, leaseExpires));
+        jobDAO.release("third");
+        assertEquals(JobState.QUEUED, jobDAO.getById(secondJob.getId()).getState());
+
+        jobDAO.removeFinished(JobState.FINISHED, new Date(now.getTime() + 5 * MINUTE));
+        assertEquals("Finished job was not removed!", 2, jobDAO.getAll().size());
+    }
+
+    private static Job createJob(JobType type) {
+        Job job = new Job();
+        job.setType(type);
+        job.setTitle(type.toString());
+        job.setCreated(new Date());
+        return job;
+    }
+}
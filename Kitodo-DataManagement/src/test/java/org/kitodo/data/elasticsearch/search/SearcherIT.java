@@ -190,6 +190,30 @@ public class SearcherIT {
             getIdFromJSONObject(searcher.findDocuments(query, sort, 1, 2).get(1)).intValue()));
     }
 
+    @Test
+    public void shouldCountAndFindDocumentsByQuerySortAndPagination() {
+        SortBuilder sort = new FieldSortBuilder(TITLE).order(SortOrder.DESC);
+
+        await().untilAsserted(() -> assertEquals(WRONG_AMOUNT, Long.valueOf(4),
+            searcher.countAndFindDocuments(query, sort, 1, 2).getKey()));
+
+        await().untilAsserted(() -> assertEquals(WRONG_SIZE, 2,
+            searcher.countAndFindDocuments(query, sort, 1, 2).getValue().size()));
+
+        await().untilAsserted(() -> assertEquals(WRONG_ID, 4,
+            getIdFromJSONObject(searcher.countAndFindDocuments(query, sort, 1, 2).getValue().get(0)).intValue()));
+
+        QueryBuilder queryMatch = QueryBuilders.matchQuery(TITLE, BATCH_ONE);
+        await().untilAsserted(() -> assertEquals(WRONG_AMOUNT, Long.valueOf(1),
+            searcher.countAndFindDocuments(queryMatch, sort, 0, 10).getKey()));
+
+        await().untilAsserted(() -> assertEquals(WRONG_AMOUNT, Long.valueOf(4),
+            searcher.countAndFindDocuments(query, sort, 10, 2).getKey()));
+
+        await().untilAsserted(() -> assertEquals("Incorrect result - size is bigger than 0!", 0,
+            searcher.countAndFindDocuments(query, sort, 10, 2).getValue().size()));
+    }
+
     private static IndexRestClient initializeIndexRestClient() {
         IndexRestClient restClient = IndexRestClient.getInstance();
         restClient.setIndex(testIndexName);
@@ -11,17 +11,23 @@
 
 package org.kitodo.docket;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
-import javax.xml.transform.Result;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamSource;
 
 import org.apache.fop.apps.FOPException;
@@ -33,11 +39,36 @@ import org.kitodo.api.docket.DocketData;
 
 /**
  * This class provides generating a run note based on the generated xml log.
+ * The xml log is not serialized, but passed as SAX events through the XSL
+ * transformation into FOP, which writes the PDF directly to the output stream.
+ * The FOP factory and the compiled stylesheets are kept and shared by all
+ * exports.
  *
  * @author Steffen Hankiewicz
  */
 public class ExportDocket {
 
+    private static final FopFactory fopFactory = createFopFactory();
+
+    private static final SAXTransformerFactory transformerFactory = (SAXTransformerFactory) TransformerFactory
+            .newInstance();
+
+    private static final Map<Path, CompiledStylesheet> compiledStylesheets = new ConcurrentHashMap<>();
+
+    /**
+     * A compiled stylesheet and the modification time of its file at the time
+     * it was compiled.
+     */
+    private static class CompiledStylesheet {
+        private final FileTime lastModified;
+        private final Templates templates;
+
+        private CompiledStylesheet(FileTime lastModified, Templates templates) {
+            this.lastModified = lastModified;
+            this.templates = templates;
+        }
+    }
+
     /**
      * This method exports the production metadata as run note to a given
      * stream. the docket.xsl has to be in the config-folder.
@@ -48,14 +79,9 @@ public class ExportDocket {
      *             Throws IOException, when pdfGeneration fails
      */
     void startExport(DocketData docketData, OutputStream outputStream, File xsltFile) throws IOException {
-        ExportXmlLog exl = new ExportXmlLog();
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        exl.startExport(docketData, out);
-
-        byte[] pdfBytes = generatePdfBytes(out, xsltFile);
-
-        outputStream.write(pdfBytes);
-        outputStream.flush();
+        OutputStream bufferedOutputStream = new BufferedOutputStream(outputStream);
+        new ExportXmlLog().startExport(docketData, createPdfHandler(bufferedOutputStream, xsltFile));
+        bufferedOutputStream.flush();
         outputStream.close();
     }
 
@@ -69,37 +95,42 @@ public class ExportDocket {
      *             Throws IOException, when pdfGeneration fails.
      */
     void startExport(Iterable<DocketData> docketDataList, OutputStream os, File xsltFile) throws IOException {
-        ExportXmlLog exl = new ExportXmlLog();
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        exl.startMultipleExport(docketDataList, out);
-
-        byte[] pdfBytes = generatePdfBytes(out, xsltFile);
-
-        os.write(pdfBytes);
+        OutputStream bufferedOutputStream = new BufferedOutputStream(os);
+        new ExportXmlLog().startMultipleExport(docketDataList, createPdfHandler(bufferedOutputStream, xsltFile));
+        bufferedOutputStream.flush();
     }
 
-    private byte[] generatePdfBytes(ByteArrayOutputStream out, File xsltFile) throws IOException {
-        // generate pdf file
-        StreamSource source = new StreamSource(new ByteArrayInputStream(out.toByteArray()));
-        StreamSource transformSource = new StreamSource(xsltFile);
-        FopFactoryBuilder builder = new FopFactoryBuilder(new File(".").toURI());
-        builder.setStrictFOValidation(false);
-        FopFactory fopFactory = builder.build();
-        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
-        // transform xml
+    private TransformerHandler createPdfHandler(OutputStream outputStream, File xsltFile) throws IOException {
         try {
-            Transformer xslTransformer = TransformerFactory.newInstance().newTransformer(transformSource);
-            Fop fop = fopFactory.newFop(MimeConstants.MIME_PDF, outStream);
-            Result res = new SAXResult(fop.getDefaultHandler());
-            xslTransformer.transform(source, res);
+            TransformerHandler transformerHandler = transformerFactory.newTransformerHandler(getTemplates(xsltFile));
+            Fop fop = fopFactory.newFop(MimeConstants.MIME_PDF, outputStream);
+            transformerHandler.setResult(new SAXResult(fop.getDefaultHandler()));
+            return transformerHandler;
         } catch (FOPException e) {
             throw new IOException("FOPException occurred", e);
-        } catch (TransformerException e) {
+        } catch (TransformerConfigurationException e) {
             throw new IOException("TransformerException occurred", e);
         }
+    }
 
-        // write the content to output stream
-        return outStream.toByteArray();
+    private static Templates getTemplates(File xsltFile) throws IOException, TransformerConfigurationException {
+        Path path = xsltFile.toPath().toAbsolutePath().normalize();
+        FileTime lastModified = Files.getLastModifiedTime(path);
+        CompiledStylesheet compiledStylesheet = compiledStylesheets.get(path);
+        if (Objects.isNull(compiledStylesheet) || !compiledStylesheet.lastModified.equals(lastModified)) {
+            Templates templates;
+            synchronized (transformerFactory) {
+                templates = transformerFactory.newTemplates(new StreamSource(path.toFile()));
+            }
+            compiledStylesheet = new CompiledStylesheet(lastModified, templates);
+            compiledStylesheets.put(path, compiledStylesheet);
+        }
+        return compiledStylesheet.templates;
     }
 
+    private static FopFactory createFopFactory() {
+        FopFactoryBuilder builder = new FopFactoryBuilder(new File(".").toURI());
+        builder.setStrictFOValidation(false);
+        return builder.build();
+    }
 }
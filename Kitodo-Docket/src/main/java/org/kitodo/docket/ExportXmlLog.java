@@ -12,20 +12,22 @@
 package org.kitodo.docket;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.jdom2.Attribute;
 import org.jdom2.Document;
 import org.jdom2.Element;
+import org.jdom2.JDOMException;
 import org.jdom2.Namespace;
-import org.jdom2.output.Format;
-import org.jdom2.output.XMLOutputter;
+import org.jdom2.output.SAXOutputter;
 import org.kitodo.api.docket.DocketData;
 import org.kitodo.api.docket.Property;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
 
 /**
  * This class provides xml logfile generation. After the generation the file
@@ -39,82 +41,71 @@ public class ExportXmlLog {
     private static final Logger logger = LoggerFactory.getLogger(ExportXmlLog.class);
     private static final String LABEL = "label";
     private static final String NAMESPACE = "http://www.kitodo.org/logfile";
+    private static final String PROCESSES = "processes";
     private static final String PROPERTIES = "properties";
     private static final String PROPERTY = "property";
     private static final String PROPERTY_IDENTIFIER = "propertyIdentifier";
+    private static final String SCHEMA_LOCATION = "schemaLocation";
     private static final String VALUE = "value";
+    private static final String XSI_NAMESPACE = "http://www.w3.org/2001/XMLSchema-instance";
+    private static final String XSI_PREFIX = "xsi";
 
     /**
-     * This method exports the production metadata as xml to a given stream.
+     * This method exports the production metadata as xml to a given content
+     * handler.
      *
      * @param docketData
      *            the docket data to export
-     * @param os
-     *            the OutputStream to write the contents to
+     * @param contentHandler
+     *            the content handler to write the contents to
      * @throws IOException
      *             Throws IOException, when document creation fails.
      */
-    void startExport(DocketData docketData, OutputStream os) throws IOException {
+    void startExport(DocketData docketData, ContentHandler contentHandler) throws IOException {
         try {
-            Document doc = createDocument(docketData, true);
-
-            XMLOutputter outp = new XMLOutputter();
-            outp.setFormat(Format.getPrettyFormat());
-
-            outp.output(doc, os);
-            os.close();
-
-        } catch (RuntimeException e) {
+            new SAXOutputter(contentHandler).output(createDocument(docketData, true));
+        } catch (JDOMException | RuntimeException e) {
             logger.error("Document creation failed.");
             throw new IOException(e);
         }
     }
 
     /**
-     * This method exports the production metadata for al list of processes as a
-     * single file to a given stream.
+     * This method exports the production metadata for a list of processes as
+     * a single document to a given content handler. The documents of the
+     * processes are created and written one after the other, so that the
+     * whole document is never held in memory.
      *
      * @param docketDataList
      *            a list of Docket data
-     * @param outputStream
-     *            The output stream, to write the docket to.
+     * @param contentHandler
+     *            the content handler to write the contents to
+     * @throws IOException
+     *             Throws IOException, when document creation fails.
      */
-
-    void startMultipleExport(Iterable<DocketData> docketDataList, OutputStream outputStream) {
-        Document answer = new Document();
-        Element root = new Element("processes");
-        answer.setRootElement(root);
-        Namespace xmlns = Namespace.getNamespace(NAMESPACE);
-
-        Namespace xsi = Namespace.getNamespace("xsi", "http://www.w3.org/2001/XMLSchema-instance");
-        root.addNamespaceDeclaration(xsi);
-        root.setNamespace(xmlns);
-        Attribute attSchema = new Attribute("schemaLocation", NAMESPACE + " XML-logfile.xsd",
-                xsi);
-        root.setAttribute(attSchema);
-        for (DocketData docketData : docketDataList) {
-            Document doc = createDocument(docketData, false);
-            Element processRoot = doc.getRootElement();
-            processRoot.detach();
-            root.addContent(processRoot);
-        }
-
-        XMLOutputter outp = new XMLOutputter(Format.getPrettyFormat());
-
+    void startMultipleExport(Iterable<DocketData> docketDataList, ContentHandler contentHandler) throws IOException {
         try {
-            outp.output(answer, outputStream);
-        } catch (IOException e) {
-            logger.error("Generating XML Output failed.", e);
-        } finally {
-            if (outputStream != null) {
-                try {
-                    outputStream.close();
-                } catch (IOException e) {
-                    logger.error("Closing the output stream failed.", e);
-                }
+            contentHandler.startDocument();
+            contentHandler.startPrefixMapping("", NAMESPACE);
+            contentHandler.startPrefixMapping(XSI_PREFIX, XSI_NAMESPACE);
+            AttributesImpl attributes = new AttributesImpl();
+            attributes.addAttribute(XSI_NAMESPACE, SCHEMA_LOCATION, XSI_PREFIX + ':' + SCHEMA_LOCATION, "CDATA",
+                NAMESPACE + " XML-logfile.xsd");
+            contentHandler.startElement(NAMESPACE, PROCESSES, PROCESSES, attributes);
+
+            SAXOutputter saxOutputter = new SAXOutputter(contentHandler);
+            for (DocketData docketData : docketDataList) {
+                saxOutputter.outputFragment(createDocument(docketData, false).detachRootElement());
             }
-        }
 
+            contentHandler.endElement(NAMESPACE, PROCESSES, PROCESSES);
+            contentHandler.endPrefixMapping(XSI_PREFIX);
+            contentHandler.endPrefixMapping("");
+            contentHandler.endDocument();
+        } catch (JDOMException | SAXException | RuntimeException e) {
+            logger.error("Generating XML Output failed.", e);
+            throw new IOException(e);
+        }
     }
 
     /**
@@ -136,9 +127,9 @@ public class ExportXmlLog {
         // namespace declaration
         if (addNamespace) {
 
-            Namespace xsi = Namespace.getNamespace("xsi", "http://www.w3.org/2001/XMLSchema-instance");
+            Namespace xsi = Namespace.getNamespace(XSI_PREFIX, XSI_NAMESPACE);
             processElm.addNamespaceDeclaration(xsi);
-            Attribute attSchema = new Attribute("schemaLocation", NAMESPACE + " XML-logfile.xsd",
+            Attribute attSchema = new Attribute(SCHEMA_LOCATION, NAMESPACE + " XML-logfile.xsd",
                     xsi);
             processElm.setAttribute(attSchema);
         }
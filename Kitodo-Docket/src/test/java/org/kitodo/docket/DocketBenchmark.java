@@ -0,0 +1,199 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.docket;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.apache.fop.apps.Fop;
+import org.apache.fop.apps.FopFactory;
+import org.apache.fop.apps.FopFactoryBuilder;
+import org.apache.fop.apps.MimeConstants;
+import org.jdom2.input.sax.SAXHandler;
+import org.jdom2.output.Format;
+import org.jdom2.output.XMLOutputter;
+import org.kitodo.api.docket.DocketData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the throughput and the peak heap usage of a multi page docket for
+ * 5,000 processes, streamed through the cached stylesheet and FOP factory,
+ * against rendering the XML and the PDF into byte arrays with a new FOP
+ * factory and stylesheet, as it was done before. The score is dockets per
+ * second; the peak heap usage after garbage collections of each iteration is
+ * printed after it.
+ *
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.kitodo.docket.DocketBenchmark} in the module
+ * directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class DocketBenchmark {
+
+    private static final int PROCESSES = 5000;
+    private static final File XSL_FILE = new File("src/test/resources/docket_multipage.xsl");
+
+    private final AtomicLong peakHeapUsage = new AtomicLong();
+    private List<DocketData> docketData;
+
+    /**
+     * Creates the docket data of the processes.
+     */
+    @Setup
+    public void createDocketData() {
+        List<String> processIds = new ArrayList<>(PROCESSES);
+        for (int i = 1; i <= PROCESSES; i++) {
+            processIds.add("processId" + i);
+        }
+        docketData = new DocketDataGenerator().createDocketData(processIds);
+    }
+
+    /**
+     * Records the heap usage after each garbage collection, which is the heap
+     * in use by live objects.
+     */
+    @Setup
+    public void listenToGarbageCollections() {
+        for (GarbageCollectorMXBean garbageCollector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) garbageCollector).addNotificationListener((notification, handback) -> {
+                if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                    long heapUsage = 0;
+                    for (MemoryUsage memoryUsage : GarbageCollectionNotificationInfo
+                            .from((CompositeData) notification.getUserData()).getGcInfo().getMemoryUsageAfterGc()
+                            .values()) {
+                        heapUsage += memoryUsage.getUsed();
+                    }
+                    peakHeapUsage.accumulateAndGet(heapUsage, Math::max);
+                }
+            }, null, null);
+        }
+    }
+
+    /**
+     * Resets the peak heap usage before an iteration.
+     */
+    @Setup(Level.Iteration)
+    public void resetPeakHeapUsage() {
+        System.gc();
+        peakHeapUsage.set(0);
+    }
+
+    /**
+     * Prints the peak heap usage of an iteration.
+     */
+    @TearDown(Level.Iteration)
+    public void printPeakHeapUsage() {
+        System.out.println("Peak heap usage: " + (peakHeapUsage.get() >> 20) + " MB");
+    }
+
+    /**
+     * Streams the docket to the output stream.
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROCESSES)
+    public long streamDocket() throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        new ExportDocket().startExport(docketData, outputStream, XSL_FILE);
+        return outputStream.count;
+    }
+
+    /**
+     * Renders the XML and the PDF of the docket into byte arrays before
+     * writing it to the output stream.
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROCESSES)
+    public long bufferDocket() throws Exception {
+        SAXHandler saxHandler = new SAXHandler();
+        new ExportXmlLog().startMultipleExport(docketData, saxHandler);
+        ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        new XMLOutputter(Format.getPrettyFormat()).output(saxHandler.getDocument(), xml);
+
+        FopFactoryBuilder builder = new FopFactoryBuilder(new File(".").toURI());
+        builder.setStrictFOValidation(false);
+        FopFactory fopFactory = builder.build();
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+        Fop fop = fopFactory.newFop(MimeConstants.MIME_PDF, pdf);
+        TransformerFactory.newInstance().newTransformer(new StreamSource(XSL_FILE)).transform(
+            new StreamSource(new ByteArrayInputStream(xml.toByteArray())), new SAXResult(fop.getDefaultHandler()));
+
+        CountingOutputStream outputStream = new CountingOutputStream();
+        outputStream.write(pdf.toByteArray());
+        return outputStream.count;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *            not used
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DocketBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * An output stream which only counts the bytes written to it.
+     */
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
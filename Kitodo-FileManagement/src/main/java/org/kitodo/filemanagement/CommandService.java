@@ -18,12 +18,23 @@ import java.util.Random;
 
 import org.kitodo.api.command.CommandInterface;
 import org.kitodo.api.command.CommandResult;
-import org.kitodo.serviceloader.KitodoServiceLoader;
 
 class CommandService {
 
+    private final CommandInterface command;
     private Random random = new Random(1000000);
 
+    /**
+     * Creates a command service which runs the scripts with the given command
+     * module, so that the module is not loaded again for every script.
+     *
+     * @param command
+     *            the loaded command module
+     */
+    CommandService(CommandInterface command) {
+        this.command = command;
+    }
+
     /**
      * Method executes a script string.
      *
@@ -36,9 +47,6 @@ class CommandService {
         if (script == null) {
             return null;
         }
-        KitodoServiceLoader<CommandInterface> serviceLoader = new KitodoServiceLoader<>(CommandInterface.class);
-        CommandInterface command = serviceLoader.loadModule();
-
         CommandResult commandResult = command.runCommand(random.nextInt(), script);
         List<String> commandResultMessages = commandResult.getMessages();
         if (commandResultMessages.size() > 0 && commandResultMessages.get(0).contains("IOException")) {
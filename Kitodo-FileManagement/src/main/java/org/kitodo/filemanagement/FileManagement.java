@@ -47,8 +47,10 @@ public class FileManagement implements FileManagementInterface {
 
     private static final String IMAGES_DIRECTORY_NAME = "images";
 
-    private final CommandInterface commandService = new KitodoServiceLoader<CommandInterface>(CommandInterface.class)
+    private final CommandInterface commandModule = new KitodoServiceLoader<CommandInterface>(CommandInterface.class)
             .loadModule();
+    private final CommandService commandService = new CommandService(commandModule);
+
     @Override
     public URI create(URI parentFolderUri, String name, boolean file) throws IOException {
         if (file) {
@@ -371,7 +373,7 @@ public class FileManagement implements FileManagementInterface {
         File processRootDirectory = new File(KitodoConfig.getKitodoDataDirectory() + File.separator + processId);
         String scriptCreateDirMeta = KitodoConfig.getParameter("script_createDirMeta");
         String command = scriptCreateDirMeta + ' ' + processRootDirectory.getPath();
-        if (!processRootDirectory.exists() && !commandService.runCommand(command.hashCode(), command).isSuccessful()) {
+        if (!processRootDirectory.exists() && !commandModule.runCommand(command.hashCode(), command).isSuccessful()) {
             throw new IOException("Could not create processRoot directory.");
         }
         return fileMapper.unmapUriFromKitodoDataDirectoryUri(Paths.get(processRootDirectory.getPath()).toUri());
@@ -488,7 +490,6 @@ public class FileManagement implements FileManagementInterface {
         }
 
         String command = KitodoConfig.getParameter("script_createSymLink");
-        CommandService commandService = new CommandService();
         List<String> parameters = new ArrayList<>();
         parameters.add(imagePath.getAbsolutePath());
         parameters.add(userHome.getAbsolutePath());
@@ -515,7 +516,6 @@ public class FileManagement implements FileManagementInterface {
         File homeFile = new File(fileMapper.mapUriToKitodoDataDirectoryUri(homeUri));
 
         String command = KitodoConfig.getParameter("script_deleteSymLink");
-        CommandService commandService = new CommandService();
         List<String> parameters = new ArrayList<>();
         try {
             parameters.add(URLDecoder.decode(homeFile.getAbsolutePath(), StandardCharsets.UTF_8.name()));
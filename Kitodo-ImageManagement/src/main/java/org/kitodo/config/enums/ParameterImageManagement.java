@@ -16,7 +16,8 @@ public enum ParameterImageManagement implements ParameterInterface {
     DIR_TMP("ImageManagement.tmpDir"),
     SEARCH_PATH("ImageManagement.searchPath"),
     TIMEOUT_SEC("ImageManagement.timeoutSec"),
-    SSH_HOST("ImageManagement.sshHosts");
+    SSH_HOST("ImageManagement.sshHosts"),
+    MAX_PARALLEL_PER_HOST("ImageManagement.maxParallelPerHost");
 
     private String name;
 
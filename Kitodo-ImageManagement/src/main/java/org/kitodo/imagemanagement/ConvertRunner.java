@@ -14,8 +14,12 @@ package org.kitodo.imagemanagement;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
@@ -42,12 +46,23 @@ class ConvertRunner {
      */
     private static final String CONVERT_COMMAND = "convert";
 
+    /**
+     * Name under which the ImageMagick calls on the local machine are counted.
+     */
+    private static final String LOCAL_HOST = "localhost";
+
     /**
      * Randomness generator used to distribute the requests evenly on several
      * configured SSH hosts.
      */
     private static final Random RANDOMNESS_GENERATOR = new Random();
 
+    /**
+     * Number of ImageMagick calls currently running, per host. Guarded by
+     * itself.
+     */
+    private static final Map<String, Integer> RUNNING_CALLS = new HashMap<>();
+
     /**
      * Default timeout.
      */
@@ -75,21 +90,26 @@ class ConvertRunner {
         long timeoutMillis = 1000 * KitodoConfig.getIntParameter(ParameterImageManagement.TIMEOUT_SEC, DEFAULT_TIMEOUT_MINS);
         executor.setWatchdog(new ExecuteWatchdog(timeoutMillis));
 
-        CommandLine command;
+        String[] hosts;
         try {
-            String sshHosts = KitodoConfig.getParameter(ParameterImageManagement.SSH_HOST);
-            command = new CommandLine("ssh");
-            String[] hosts = sshHosts.split(",");
-            String host = hosts[RANDOMNESS_GENERATOR.nextInt(hosts.length)];
-            command.addArgument(host, false);
-            command.addArgument(convertCommand + ' ' + commandLine.toString(), false);
+            hosts = KitodoConfig.getParameter(ParameterImageManagement.SSH_HOST).split(",");
         } catch (NoSuchElementException e) {
             logger.trace("SSH not configured.", e);
-            command = new CommandLine(convertCommand);
-            command.addArguments(commandLine.toString());
+            hosts = null;
         }
-
+        String host = acquireHost(Objects.nonNull(hosts) ? hosts : new String[] {LOCAL_HOST },
+            KitodoConfig.getIntParameter(ParameterImageManagement.MAX_PARALLEL_PER_HOST, 0));
         try {
+            CommandLine command;
+            if (Objects.nonNull(hosts)) {
+                command = new CommandLine("ssh");
+                command.addArgument(host, false);
+                command.addArgument(convertCommand + ' ' + commandLine.toString(), false);
+            } else {
+                command = new CommandLine(convertCommand);
+                command.addArguments(commandLine.toString());
+            }
+
             logger.debug("Executing: {}", command);
             logger.trace("Timeout: {} mins", timeoutMillis / 60000d);
             executor.execute(command);
@@ -97,6 +117,64 @@ class ConvertRunner {
         } catch (IOException | RuntimeException e) {
             logger.error("Command output:{}{}", System.lineSeparator(), outAndErr.toString());
             throw e;
+        } finally {
+            releaseHost(host);
+        }
+    }
+
+    /**
+     * Chooses the host with the fewest running ImageMagick calls. Among hosts
+     * equally busy, one is chosen at random. If a limit of parallel calls per
+     * host is configured and all hosts have reached it, waits until a call
+     * ends.
+     *
+     * @param hosts
+     *            hosts to choose from
+     * @param limit
+     *            maximum number of parallel calls per host, 0 for no limit
+     * @return the chosen host, which must be released after the call
+     * @throws InterruptedIOException
+     *             if the thread is interrupted while waiting
+     */
+    static String acquireHost(String[] hosts, int limit) throws InterruptedIOException {
+        synchronized (RUNNING_CALLS) {
+            while (true) {
+                int offset = RANDOMNESS_GENERATOR.nextInt(hosts.length);
+                String host = null;
+                int leastRunning = Integer.MAX_VALUE;
+                for (int i = 0; i < hosts.length; i++) {
+                    String candidate = hosts[(offset + i) % hosts.length];
+                    int running = RUNNING_CALLS.getOrDefault(candidate, 0);
+                    if (running < leastRunning) {
+                        host = candidate;
+                        leastRunning = running;
+                    }
+                }
+                if (limit <= 0 || leastRunning < limit) {
+                    RUNNING_CALLS.put(host, leastRunning + 1);
+                    return host;
+                }
+                try {
+                    RUNNING_CALLS.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for a free host");
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases a host acquired by {@link #acquireHost(String[], int)} after
+     * the call has ended, and wakes up the threads waiting for a host.
+     *
+     * @param host
+     *            host to release
+     */
+    static void releaseHost(String host) {
+        synchronized (RUNNING_CALLS) {
+            RUNNING_CALLS.merge(host, -1, Integer::sum);
+            RUNNING_CALLS.notifyAll();
         }
     }
 
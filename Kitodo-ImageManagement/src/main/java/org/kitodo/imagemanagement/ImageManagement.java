@@ -17,12 +17,14 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Files;
+import java.util.Collection;
 import java.util.function.Function;
 
 import javax.imageio.ImageIO;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.kitodo.api.imagemanagement.ImageDerivative;
 import org.kitodo.api.imagemanagement.ImageFileFormat;
 import org.kitodo.api.imagemanagement.ImageManagementInterface;
 import org.kitodo.config.KitodoConfig;
@@ -96,6 +98,37 @@ public class ImageManagement implements ImageManagementInterface {
         return new File(resultUri).exists();
     }
 
+    /**
+     * {@inheritDoc} All derivatives are created by one ImageMagick call, so
+     * the source image is read only once.
+     *
+     * @see org.kitodo.api.imagemanagement.ImageManagementInterface#createDerivatives(java.net.URI,
+     *      java.util.Collection)
+     */
+    @Override
+    public boolean createDerivatives(URI sourceUri, Collection<ImageDerivative> derivatives) throws IOException {
+        if (derivatives.isEmpty()) {
+            return true;
+        }
+        ImageConverter imageConverter = new ImageConverter(sourceUri);
+        for (ImageDerivative derivative : derivatives) {
+            validateParameters(sourceUri, derivative.getPercent());
+            if (derivative.getResultFileUri() == null) {
+                throw new NullPointerException("resultUri must not be null");
+            }
+            imageConverter.addResult(derivative.getResultFileUri(), derivative.getResultFileFormat())
+                    .resize(derivative.getPercent());
+        }
+        logger.info("Creating derivatives from {}: {}", sourceUri, derivatives);
+        imageConverter.run();
+        for (ImageDerivative derivative : derivatives) {
+            if (!new File(derivative.getResultFileUri()).exists()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      *
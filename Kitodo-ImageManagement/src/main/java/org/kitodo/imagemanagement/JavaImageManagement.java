@@ -0,0 +1,345 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.imagemanagement;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Objects;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataFormatImpl;
+import javax.imageio.stream.ImageInputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.kitodo.api.imagemanagement.ImageDerivative;
+import org.kitodo.api.imagemanagement.ImageFileFormat;
+import org.kitodo.api.imagemanagement.ImageManagementInterface;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * An ImageManagementInterface implementation using the Java Image I/O API. The
+ * images are decoded, scaled and encoded in the JVM, without starting an
+ * external process. To create small images, the source image is read
+ * subsampled, so that it is never decoded in full resolution. TIFF is read and
+ * written with the TwelveMonkeys plug-in. There are no writers for JPEG 2000
+ * and PDF; derivatives in these formats are refused before the source image is
+ * read.
+ */
+public class JavaImageManagement implements ImageManagementInterface {
+    private static final Logger logger = LogManager.getLogger(JavaImageManagement.class);
+
+    /**
+     * Resolution assumed for images which do not declare one, as ImageMagick
+     * does.
+     */
+    private static final int DEFAULT_DPI = 72;
+
+    /**
+     * The source image is subsampled to no less than this multiple of the
+     * target size, the rest is done by interpolation, to avoid aliasing.
+     */
+    private static final int SUBSAMPLING_HEADROOM = 2;
+
+    private static final double MILLIMETRES_PER_INCH = 25.4;
+
+    static {
+        // register the plug-ins of the web application's libraries
+        ImageIO.scanForPlugins();
+    }
+
+    /**
+     * A decoded image, with the size of the source image.
+     */
+    private static class DecodedImage {
+        private final BufferedImage image;
+        private final int sourceWidth;
+        private final int sourceHeight;
+
+        private DecodedImage(BufferedImage image, int sourceWidth, int sourceHeight) {
+            this.image = image;
+            this.sourceWidth = sourceWidth;
+            this.sourceHeight = sourceHeight;
+        }
+
+        /**
+         * Returns the image scaled by the factor in relation to the source
+         * image.
+         */
+        private BufferedImage scale(double factor, boolean opaque) {
+            int width = (int) Math.max(1, Math.round(sourceWidth * factor));
+            int height = (int) Math.max(1, Math.round(sourceHeight * factor));
+            int type = image.getType() == BufferedImage.TYPE_BYTE_GRAY ? BufferedImage.TYPE_BYTE_GRAY
+                    : !opaque && image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB
+                            : BufferedImage.TYPE_INT_RGB;
+            BufferedImage scaled = image;
+            do {
+                int stepWidth = Math.max(width, scaled.getWidth() / 2);
+                int stepHeight = Math.max(height, scaled.getHeight() / 2);
+                if (stepWidth == scaled.getWidth() && stepHeight == scaled.getHeight() && scaled.getType() == type) {
+                    break;
+                }
+                BufferedImage step = new BufferedImage(stepWidth, stepHeight, type);
+                Graphics2D graphics = step.createGraphics();
+                try {
+                    graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                    graphics.drawImage(scaled, 0, 0, stepWidth, stepHeight, null);
+                } finally {
+                    graphics.dispose();
+                }
+                scaled = step;
+            } while (scaled.getWidth() != width || scaled.getHeight() != height);
+            return scaled;
+        }
+    }
+
+    /**
+     * {@inheritDoc} The image is resampled from its declared resolution, or
+     * 72 DPI if it does not declare one.
+     *
+     * @see org.kitodo.api.imagemanagement.ImageManagementInterface#changeDpi(java.net.URI,
+     *      int)
+     */
+    @Override
+    public Image changeDpi(URI sourceUri, int dpi) throws IOException {
+        requireExists(sourceUri);
+        if (dpi <= 0) {
+            throw new IllegalArgumentException("dpi must be > 0, but was " + dpi);
+        }
+        logger.info("Resizing {} to {} DPI", sourceUri, dpi);
+        int sourceDpi = readSourceDpi(sourceUri);
+        double factor = (double) dpi / sourceDpi;
+        return decode(sourceUri, factor).scale(factor, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.kitodo.api.imagemanagement.ImageManagementInterface#createDerivative(java.net.URI,
+     *      double, java.net.URI,
+     *      org.kitodo.api.imagemanagement.ImageFileFormat)
+     */
+    @Override
+    public boolean createDerivative(URI sourceUri, double factor, URI resultUri, ImageFileFormat format)
+            throws IOException {
+        return createDerivatives(sourceUri,
+            Collections.singletonList(new ImageDerivative(factor, resultUri, format)));
+    }
+
+    /**
+     * {@inheritDoc} The source image is decoded once, in the resolution
+     * needed for the largest derivative.
+     *
+     * @see org.kitodo.api.imagemanagement.ImageManagementInterface#createDerivatives(java.net.URI,
+     *      java.util.Collection)
+     */
+    @Override
+    public boolean createDerivatives(URI sourceUri, Collection<ImageDerivative> derivatives) throws IOException {
+        requireExists(sourceUri);
+        double largestFactor = 0;
+        for (ImageDerivative derivative : derivatives) {
+            validateFactor(derivative.getPercent());
+            if (Objects.isNull(derivative.getResultFileUri())) {
+                throw new NullPointerException("resultUri must not be null");
+            }
+            requireWriter(derivative.getResultFileFormat());
+            largestFactor = Math.max(largestFactor, derivative.getPercent());
+        }
+        if (derivatives.isEmpty()) {
+            return true;
+        }
+        logger.info("Creating derivatives from {}: {}", sourceUri, derivatives);
+        DecodedImage decodedImage = decode(sourceUri, largestFactor);
+        for (ImageDerivative derivative : derivatives) {
+            ImageFileFormat format = derivative.getResultFileFormat();
+            BufferedImage image = decodedImage.scale(derivative.getPercent(),
+                format == ImageFileFormat.JPEG || format == ImageFileFormat.BMP);
+            File resultFile = new File(derivative.getResultFileUri());
+            if (!ImageIO.write(image, getFormatName(format), resultFile)) {
+                throw new IOException("No Image I/O writer for " + format);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.kitodo.api.imagemanagement.ImageManagementInterface#getScaledWebImage(java.net.URI,
+     *      double)
+     */
+    @Override
+    public Image getScaledWebImage(URI sourceUri, double factor) throws IOException {
+        requireExists(sourceUri);
+        validateFactor(factor);
+        logger.info("Generating scaled web image from {}, factor {}%", sourceUri, 100 * factor);
+        return decode(sourceUri, factor).scale(factor, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.kitodo.api.imagemanagement.ImageManagementInterface#getSizedWebImage(java.net.URI,
+     *      int)
+     */
+    @Override
+    public Image getSizedWebImage(URI sourceUri, int width) throws IOException {
+        requireExists(sourceUri);
+        if (width <= 0) {
+            throw new IllegalArgumentException("width must be > 0, but was " + width);
+        }
+        logger.info("Generating sized web image from {}, width {} px", sourceUri, width);
+        double factor = (double) width / readSourceWidth(sourceUri);
+        return decode(sourceUri, factor).scale(factor, false);
+    }
+
+    /**
+     * Reads the image, subsampled as far as possible for the given scale
+     * factor.
+     */
+    private static DecodedImage decode(URI sourceUri, double factor) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new File(sourceUri))) {
+            ImageReader reader = getReader(input, sourceUri);
+            try {
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                ImageReadParam readParam = reader.getDefaultReadParam();
+                int subsampling = (int) Math.max(1, Math.floor(1 / (SUBSAMPLING_HEADROOM * factor)));
+                readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                logger.trace("Reading {} ({} x {} px), subsampling {}", sourceUri, width, height, subsampling);
+                return new DecodedImage(reader.read(0, readParam), width, height);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static int readSourceWidth(URI sourceUri) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new File(sourceUri))) {
+            ImageReader reader = getReader(input, sourceUri);
+            try {
+                return reader.getWidth(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Reads the resolution of the image from its metadata, without decoding
+     * the image.
+     */
+    private static int readSourceDpi(URI sourceUri) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new File(sourceUri))) {
+            ImageReader reader = getReader(input, sourceUri);
+            try {
+                IIOMetadata metadata = reader.getImageMetadata(0);
+                if (Objects.nonNull(metadata) && metadata.isStandardMetadataFormatSupported()) {
+                    Element tree = (Element) metadata.getAsTree(IIOMetadataFormatImpl.standardMetadataFormatName);
+                    NodeList pixelSizes = tree.getElementsByTagName("HorizontalPixelSize");
+                    if (pixelSizes.getLength() > 0) {
+                        double millimetresPerPixel = Double
+                                .parseDouble(((Element) pixelSizes.item(0)).getAttribute("value"));
+                        if (millimetresPerPixel > 0) {
+                            return (int) Math.round(MILLIMETRES_PER_INCH / millimetresPerPixel);
+                        }
+                    }
+                }
+                return DEFAULT_DPI;
+            } catch (NumberFormatException e) {
+                logger.debug("Unreadable resolution in {}", sourceUri, e);
+                return DEFAULT_DPI;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static ImageReader getReader(ImageInputStream input, URI sourceUri) throws IOException {
+        if (Objects.isNull(input)) {
+            throw new IOException("Cannot open " + sourceUri);
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            throw new IOException("No Image I/O reader for " + sourceUri);
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(input, true, true);
+        return reader;
+    }
+
+    private static String getFormatName(ImageFileFormat format) throws IOException {
+        switch (format) {
+            case BMP:
+                return "bmp";
+            case GIF:
+                return "gif";
+            case JPEG:
+                return "jpeg";
+            case JPEG2000:
+                return "jpeg2000";
+            case PNG:
+                return "png";
+            case TIFF:
+                return "tiff";
+            default:
+                throw new IOException("Cannot write " + format + " with Image I/O");
+        }
+    }
+
+    /**
+     * Returns whether Image I/O can write images in a file format.
+     */
+    private static boolean canWrite(ImageFileFormat format) {
+        try {
+            return ImageIO.getImageWritersByFormatName(getFormatName(format)).hasNext();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void requireWriter(ImageFileFormat format) throws IOException {
+        if (!canWrite(format)) {
+            throw new IOException("No Image I/O writer for " + format);
+        }
+    }
+
+    private static void requireExists(URI sourceUri) throws FileNotFoundException {
+        if (!new File(sourceUri).exists()) {
+            throw new FileNotFoundException("sourceUri must exist: " + sourceUri.getRawPath());
+        }
+    }
+
+    private static void validateFactor(double factor) {
+        if (Double.isNaN(factor)) {
+            throw new IllegalArgumentException("factor must be a number, but was " + factor);
+        }
+        if (factor <= 0.0) {
+            throw new IllegalArgumentException("factor must be > 0.0, but was " + factor);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.imagemanagement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+public class ConvertRunnerTest {
+
+    /**
+     * Waits until a thread is waiting for a host.
+     */
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (thread.getState() != Thread.State.WAITING) {
+            assertTrue("Thread should wait for a free host", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void shouldChooseLeastBusyHost() throws Exception {
+        String[] hosts = {"least-busy-1", "least-busy-2" };
+        String first = ConvertRunner.acquireHost(hosts, 0);
+        String second = ConvertRunner.acquireHost(hosts, 0);
+        try {
+            assertNotEquals("Second call should go to the other host", first, second);
+        } finally {
+            ConvertRunner.releaseHost(first);
+            ConvertRunner.releaseHost(second);
+        }
+    }
+
+    @Test
+    public void shouldNotLimitCallsWithoutMaxParallelPerHost() throws Exception {
+        String[] hosts = {"unlimited" };
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Host should be returned without waiting", "unlimited", ConvertRunner.acquireHost(hosts, 0));
+        }
+        for (int i = 0; i < 5; i++) {
+            ConvertRunner.releaseHost("unlimited");
+        }
+    }
+
+    @Test
+    public void shouldWaitForFreeHostWithMaxParallelPerHost() throws Exception {
+        String[] hosts = {"limited-1", "limited-2" };
+        String first = ConvertRunner.acquireHost(hosts, 1);
+        String second = ConvertRunner.acquireHost(hosts, 1);
+        assertNotEquals("Each host should take one call", first, second);
+
+        CompletableFuture<String> third = new CompletableFuture<>();
+        Thread waiting = new Thread(() -> {
+            try {
+                third.complete(ConvertRunner.acquireHost(hosts, 1));
+            } catch (InterruptedIOException e) {
+                third.completeExceptionally(e);
+            }
+        });
+        waiting.start();
+        try {
+            awaitWaiting(waiting);
+            assertFalse("Third call should wait while all hosts are busy", third.isDone());
+
+            ConvertRunner.releaseHost(second);
+            assertEquals("Third call should get the released host", second, third.get(10, TimeUnit.SECONDS));
+        } finally {
+            ConvertRunner.releaseHost(first);
+            ConvertRunner.releaseHost(second);
+        }
+    }
+
+    @Test
+    public void shouldStopWaitingWhenInterrupted() throws Exception {
+        String[] hosts = {"interrupted" };
+        String first = ConvertRunner.acquireHost(hosts, 1);
+
+        CompletableFuture<String> second = new CompletableFuture<>();
+        Thread waiting = new Thread(() -> {
+            try {
+                second.complete(ConvertRunner.acquireHost(hosts, 1));
+            } catch (InterruptedIOException e) {
+                second.completeExceptionally(e);
+            }
+        });
+        waiting.start();
+        try {
+            awaitWaiting(waiting);
+            waiting.interrupt();
+            second.get(10, TimeUnit.SECONDS);
+            throw new AssertionError("Waiting for a host should have been interrupted");
+        } catch (ExecutionException e) {
+            assertTrue("Incorrect exception", e.getCause() instanceof InterruptedIOException);
+        } catch (TimeoutException e) {
+            throw new AssertionError("Waiting for a host should have ended", e);
+        } finally {
+            ConvertRunner.releaseHost(first);
+        }
+    }
+}
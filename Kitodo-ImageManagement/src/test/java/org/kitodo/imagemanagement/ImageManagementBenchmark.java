@@ -0,0 +1,148 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.imagemanagement;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.io.FileUtils;
+import org.kitodo.api.imagemanagement.ImageDerivative;
+import org.kitodo.api.imagemanagement.ImageFileFormat;
+import org.kitodo.api.imagemanagement.ImageManagementInterface;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the pages per minute for which the derivatives of a typical project
+ * configuration (thumbnails at 10 %, web images at 25 %, and a 50 % viewer
+ * image) can be created by ImageMagick and by the Java Image I/O module. The
+ * source page is an A4 page scanned at 300 DPI, as TIFF or JPEG.
+ *
+ * <p>
+ * After each trial, the peak resident set size of the benchmark JVM is
+ * printed. For ImageMagick, this does not include the {@code convert}
+ * processes; run the benchmark under {@code /usr/bin/time -v} to see their
+ * peak, which is reported as the maximum resident set size of the children.
+ *
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.kitodo.imagemanagement.ImageManagementBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgs = {"-Xmx1g" })
+public class ImageManagementBenchmark {
+
+    @Param({"ImageManagement", "JavaImageManagement" })
+    private String module;
+
+    @Param({"tiff", "jpeg" })
+    private String sourceFormat;
+
+    private ImageManagementInterface imageManagement;
+    private File directory;
+    private File source;
+    private List<ImageDerivative> derivatives;
+
+    /**
+     * Creates the source page and the module to benchmark.
+     */
+    @Setup
+    public void createSourcePage() throws IOException {
+        imageManagement = "ImageManagement".equals(module) ? new ImageManagement() : new JavaImageManagement();
+        directory = Files.createTempDirectory("ImageManagementBenchmark").toFile();
+        source = new File(directory, "00000001." + sourceFormat);
+        BufferedImage page = new BufferedImage(2480, 3508, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = page.createGraphics();
+        Random random = new Random(42);
+        graphics.setColor(new Color(0xF4ECD8));
+        graphics.fillRect(0, 0, page.getWidth(), page.getHeight());
+        graphics.setColor(Color.DARK_GRAY);
+        for (int line = 300; line < 3200; line += 60) {
+            for (int x = 250; x < 2200; x += 20 + random.nextInt(40)) {
+                graphics.fillRect(x, line, 10 + random.nextInt(20), 30);
+            }
+        }
+        graphics.dispose();
+        if (!ImageIO.write(page, sourceFormat, source)) {
+            throw new IOException("No Image I/O writer for " + sourceFormat);
+        }
+        derivatives = Arrays.asList(
+            new ImageDerivative(0.1, new File(directory, "thumbs.jpg").toURI(), ImageFileFormat.JPEG),
+            new ImageDerivative(0.25, new File(directory, "web.jpg").toURI(), ImageFileFormat.JPEG),
+            new ImageDerivative(0.5, new File(directory, "max.jpg").toURI(), ImageFileFormat.JPEG));
+    }
+
+    /**
+     * Prints the peak resident set size of the JVM, on Linux.
+     */
+    @TearDown(Level.Trial)
+    public void printPeakResidentSetSize() throws IOException {
+        Path status = Paths.get("/proc/self/status");
+        if (Files.exists(status)) {
+            for (String line : Files.readAllLines(status, StandardCharsets.US_ASCII)) {
+                if (line.startsWith("VmHWM:")) {
+                    System.out.println(module + ", " + sourceFormat + ": peak RSS " + line.substring(6).trim());
+                }
+            }
+        }
+        FileUtils.deleteDirectory(directory);
+    }
+
+    /**
+     * Creates all derivatives of the page.
+     */
+    @Benchmark
+    public boolean createDerivatives() throws IOException {
+        return imageManagement.createDerivatives(source.toURI(), derivatives);
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *            not used
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ImageManagementBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.imagemanagement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kitodo.api.imagemanagement.ImageDerivative;
+import org.kitodo.api.imagemanagement.ImageFileFormat;
+import org.kitodo.api.imagemanagement.ImageManagementInterface;
+
+public class JavaImageManagementTest {
+
+    @ClassRule
+    public static final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static File source;
+
+    /**
+     * Creates a source image of 1000 × 1400 pixels.
+     */
+    @BeforeClass
+    public static void createSourceImage() throws IOException {
+        BufferedImage image = new BufferedImage(1000, 1400, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 1000, 1400);
+        graphics.setColor(Color.BLACK);
+        graphics.drawString("Kitodo", 100, 100);
+        graphics.dispose();
+        source = temporaryFolder.newFile("00000001.png");
+        ImageIO.write(image, "png", source);
+    }
+
+    @Test
+    public void shouldCreateDerivatives() throws IOException {
+        File thumbnail = new File(temporaryFolder.getRoot(), "00000001_thumb.jpg");
+        File web = new File(temporaryFolder.getRoot(), "00000001_web.png");
+        ImageManagementInterface imageManagement = new JavaImageManagement();
+
+        assertTrue("Derivatives should be created", imageManagement.createDerivatives(source.toURI(),
+            Arrays.asList(new ImageDerivative(0.1, thumbnail.toURI(), ImageFileFormat.JPEG),
+                new ImageDerivative(0.5, web.toURI(), ImageFileFormat.PNG))));
+
+        BufferedImage thumbnailImage = ImageIO.read(thumbnail);
+        assertEquals("Wrong thumbnail width", 100, thumbnailImage.getWidth());
+        assertEquals("Wrong thumbnail height", 140, thumbnailImage.getHeight());
+        BufferedImage webImage = ImageIO.read(web);
+        assertEquals("Wrong web image width", 500, webImage.getWidth());
+        assertEquals("Wrong web image height", 700, webImage.getHeight());
+    }
+
+    @Test
+    public void shouldCreateDerivativeFromTiff() throws IOException {
+        File tiffSource = new File(temporaryFolder.getRoot(), "00000002.tif");
+        assertTrue("TIFF source should be written", ImageIO.write(ImageIO.read(source), "tiff", tiffSource));
+        File tiffThumbnail = new File(temporaryFolder.getRoot(), "00000002_thumb.tif");
+
+        assertTrue("Derivative should be created", new JavaImageManagement().createDerivative(tiffSource.toURI(), 0.1,
+            tiffThumbnail.toURI(), ImageFileFormat.TIFF));
+
+        BufferedImage thumbnailImage = ImageIO.read(tiffThumbnail);
+        assertEquals("Wrong thumbnail width", 100, thumbnailImage.getWidth());
+        assertEquals("Wrong thumbnail height", 140, thumbnailImage.getHeight());
+    }
+
+    @Test
+    public void shouldRefuseFormatWithoutWriter() {
+        File thumbnail = new File(temporaryFolder.getRoot(), "00000001_refused.jpg");
+        File jpeg2000 = new File(temporaryFolder.getRoot(), "00000001_refused.jp2");
+        try {
+            new JavaImageManagement().createDerivatives(source.toURI(),
+                Arrays.asList(new ImageDerivative(0.1, thumbnail.toURI(), ImageFileFormat.JPEG),
+                    new ImageDerivative(0.5, jpeg2000.toURI(), ImageFileFormat.JPEG2000)));
+            fail("JPEG 2000 derivative should be refused");
+        } catch (IOException e) {
+            assertTrue("Wrong message: " + e.getMessage(), e.getMessage().contains("JPEG2000"));
+        }
+        assertFalse("No derivative should be created if one is refused", thumbnail.exists());
+        assertFalse("JPEG 2000 derivative should not be created", jpeg2000.exists());
+    }
+
+    @Test
+    public void shouldGetSizedWebImage() throws IOException {
+        Image image = new JavaImageManagement().getSizedWebImage(source.toURI(), 150);
+        assertEquals("Wrong width", 150, image.getWidth(null));
+        assertEquals("Wrong height", 210, image.getHeight(null));
+    }
+
+    @Test
+    public void shouldGetScaledWebImage() throws IOException {
+        Image image = new JavaImageManagement().getScaledWebImage(source.toURI(), 0.3);
+        assertEquals("Wrong width", 300, image.getWidth(null));
+        assertEquals("Wrong height", 420, image.getHeight(null));
+    }
+}
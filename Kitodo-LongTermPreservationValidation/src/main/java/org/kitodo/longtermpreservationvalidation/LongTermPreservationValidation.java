@@ -11,11 +11,14 @@
 
 package org.kitodo.longtermpreservationvalidation;
 
+import edu.harvard.hul.ois.jhove.JhoveException;
+
 import java.net.URI;
 import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import org.kitodo.api.validation.ValidationResult;
 import org.kitodo.api.validation.longtermpreservation.FileType;
@@ -48,9 +51,20 @@ public class LongTermPreservationValidation implements LongTermPreservationValid
         "edu.harvard.hul.ois.jhove.module.PdfModule", "com.mcgath.jhove.module.PngModule",
         "edu.harvard.hul.ois.jhove.module.TiffModule");
 
+    /**
+     * The JHove engines of the threads. Initializing the modules takes much
+     * longer than validating an image, so each thread keeps its engine for all
+     * files it validates. An engine is not thread-safe, so it is never shared
+     * between threads.
+     */
+    private static final ThreadLocal<KitodoJhoveBase> jhoveBases = new ThreadLocal<>();
+
     /**
      * {@inheritDoc}<!-- . -->
      *
+     * <p>
+     * This method may be called from several threads at the same time.
+     *
      * @param fileUri
      *            file URI to validate
      * @param fileType
@@ -60,11 +74,21 @@ public class LongTermPreservationValidation implements LongTermPreservationValid
     public ValidationResult validate(URI fileUri, FileType fileType) {
         KitodoOutputHandler result = new KitodoOutputHandler();
         try {
-            KitodoJhoveBase jhoveBase = new KitodoJhoveBase(MODULES);
-            jhoveBase.validate(fileUri.getPath(), MODULE_NAMES.get(fileType), result);
+            getJhoveBase().validate(fileUri.getPath(), MODULE_NAMES.get(fileType), result);
         } catch (Exception e) {
+            // the engine might be left in an undefined state, so do not reuse it
+            jhoveBases.remove();
             result.treatException(e);
         }
         return result.toValidationResult();
     }
+
+    private static KitodoJhoveBase getJhoveBase() throws JhoveException {
+        KitodoJhoveBase jhoveBase = jhoveBases.get();
+        if (Objects.isNull(jhoveBase)) {
+            jhoveBase = new KitodoJhoveBase(MODULES);
+            jhoveBases.set(jhoveBase);
+        }
+        return jhoveBase;
+    }
 }
@@ -16,9 +16,13 @@ import static org.junit.Assert.assertEquals;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 import org.kitodo.api.validation.State;
@@ -115,4 +119,25 @@ public class LongTermPreservationValidationIT {
         assertEquals(WELL_FORMED_AND_VALID, validationResult.getResultMessages());
     }
 
+    @Test
+    public void testThatFilesValidateOnSeveralThreads() throws Exception {
+        LongTermPreservationValidationInterface validator = new LongTermPreservationValidation();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ValidationResult>> validTifResults = new ArrayList<>();
+            List<Future<ValidationResult>> corruptedTifResults = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                validTifResults.add(executor.submit(() -> validator.validate(TIF_URI, FileType.TIFF)));
+                corruptedTifResults.add(executor.submit(() -> validator.validate(CORRUPTED_TIF_URI, FileType.TIFF)));
+            }
+            for (Future<ValidationResult> validTifResult : validTifResults) {
+                assertEquals(WELL_FORMED_AND_VALID, validTifResult.get().getResultMessages());
+            }
+            for (Future<ValidationResult> corruptedTifResult : corruptedTifResults) {
+                assertEquals(State.ERROR, corruptedTifResult.get().getState());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
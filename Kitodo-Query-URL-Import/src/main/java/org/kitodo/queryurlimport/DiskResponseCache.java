@@ -0,0 +1,174 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.queryurlimport;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Keeps responses in files of a directory, so that they survive a restart.
+ * Responses expire after a time, and the oldest responses are deleted if the
+ * files exceed the size limit.
+ */
+class DiskResponseCache implements ResponseCache {
+
+    private static final Logger logger = LogManager.getLogger(DiskResponseCache.class);
+
+    private static final String FILE_EXTENSION = ".xml";
+
+    private final Path directory;
+    private final long timeToLiveMillis;
+    private final long maxBytes;
+
+    /**
+     * Approximate size of the files in the directory. It is recalculated when
+     * files are deleted because of the size limit.
+     */
+    private long size;
+
+    /**
+     * Creates a disk response cache.
+     *
+     * @param directory
+     *            directory to store the responses in
+     * @param timeToLiveMillis
+     *            time after which a response expires
+     * @param maxBytes
+     *            maximal size of all responses
+     * @throws IOException
+     *             if the directory cannot be created or read
+     */
+    DiskResponseCache(Path directory, long timeToLiveMillis, long maxBytes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.maxBytes = maxBytes;
+        for (Path file : listFiles()) {
+            size += Files.size(file);
+        }
+    }
+
+    @Override
+    public String get(String key) {
+        Path file = getFile(key);
+        try {
+            if (System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis() >= timeToLiveMillis) {
+                delete(file);
+                return null;
+            }
+            return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Cannot read cached response {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, String response) {
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxBytes) {
+            return;
+        }
+        Path file = getFile(key);
+        try {
+            Path temporaryFile = Files.createTempFile(directory, null, ".tmp");
+            Files.write(temporaryFile, bytes);
+            synchronized (this) {
+                long replacedBytes = sizeOf(file);
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                size += bytes.length - replacedBytes;
+                if (size > maxBytes) {
+                    deleteOldestFiles();
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot cache response: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the oldest files until the files take three quarters of the
+     * size limit.
+     */
+    private void deleteOldestFiles() throws IOException {
+        List<Path> files = listFiles();
+        Map<Path, Long> lastModified = new HashMap<>();
+        size = 0;
+        for (Path file : files) {
+            lastModified.put(file, Files.getLastModifiedTime(file).toMillis());
+            size += Files.size(file);
+        }
+        files.sort(Comparator.comparing(lastModified::get));
+        for (Path file : files) {
+            if (size <= maxBytes / 4 * 3) {
+                break;
+            }
+            long fileSize = Files.size(file);
+            delete(file);
+            size -= fileSize;
+        }
+    }
+
+    private static long sizeOf(Path file) throws IOException {
+        try {
+            return Files.size(file);
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    private List<Path> listFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory, "*" + FILE_EXTENSION)) {
+            for (Path file : directoryStream) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Cannot delete cached response {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Path getFile(String key) {
+        try {
+            StringBuilder fileName = new StringBuilder(64 + FILE_EXTENSION.length());
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8))) {
+                fileName.append(String.format("%02x", b));
+            }
+            return directory.resolve(fileName.append(FILE_EXTENSION).toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.queryurlimport;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the most recently used responses in memory for a limited time.
+ */
+class MemoryResponseCache implements ResponseCache {
+
+    private final long timeToLiveMillis;
+
+    private final Map<String, CachedResponse> responses;
+
+    /**
+     * A response and the time it was cached at.
+     */
+    private static class CachedResponse {
+        private final String response;
+        private final long created;
+
+        private CachedResponse(String response, long created) {
+            this.response = response;
+            this.created = created;
+        }
+    }
+
+    /**
+     * Creates a memory response cache.
+     *
+     * @param maxEntries
+     *            maximal number of responses kept
+     * @param timeToLiveMillis
+     *            time after which a response expires
+     */
+    MemoryResponseCache(int maxEntries, long timeToLiveMillis) {
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.responses = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized String get(String key) {
+        CachedResponse cachedResponse = responses.get(key);
+        if (Objects.isNull(cachedResponse)) {
+            return null;
+        }
+        if (System.currentTimeMillis() - cachedResponse.created >= timeToLiveMillis) {
+            responses.remove(key);
+            return null;
+        }
+        return cachedResponse.response;
+    }
+
+    @Override
+    public synchronized void put(String key, String response) {
+        responses.put(key, new CachedResponse(response, System.currentTimeMillis()));
+    }
+}
@@ -15,6 +15,7 @@ import static org.apache.http.HttpStatus.SC_OK;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
@@ -24,6 +25,8 @@ import java.net.URLEncoder;
 import java.net.UnknownHostException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -32,6 +35,10 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import javax.xml.XMLConstants;
@@ -50,6 +57,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.net.ftp.FTPClient;
 import org.apache.commons.net.ftp.FTPFile;
 import org.apache.commons.net.ftp.FTPFileFilter;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
@@ -62,7 +70,9 @@ import org.apache.http.conn.ConnectTimeoutException;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.kitodo.api.externaldatamanagement.ExternalDataImportInterface;
@@ -72,7 +82,9 @@ import org.kitodo.api.externaldatamanagement.SingleHit;
 import org.kitodo.api.schemaconverter.DataRecord;
 import org.kitodo.api.schemaconverter.FileFormat;
 import org.kitodo.api.schemaconverter.MetadataFormat;
+import org.kitodo.config.KitodoConfig;
 import org.kitodo.config.OPACConfig;
+import org.kitodo.config.enums.ParameterQueryURLImport;
 import org.kitodo.exceptions.CatalogException;
 import org.kitodo.exceptions.ConfigException;
 import org.kitodo.exceptions.NoRecordFoundException;
@@ -104,7 +116,28 @@ public class QueryURLImport implements ExternalDataImportInterface {
     private static final String FTP_PROTOCOL = "ftp";
     private static final String equalsOperand = "=";
     private static final String AND = "&";
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 500;
+    private static final List<Integer> RETRY_STATUS_CODES = Arrays.asList(429, 502, 503, 504);
 
+    /*
+     * Pooled HTTP clients by catalog and credentials. The module is
+     * instantiated for every import, but the connections to a catalog are
+     * kept alive and shared by all imports from it.
+     */
+    private static final Map<List<String>, CloseableHttpClient> httpClients = new ConcurrentHashMap<>();
+
+    private static volatile ResponseCache responseCache;
+
+    /**
+     * Time in nanoseconds after which the statistics of the response cache
+     * are logged again.
+     */
+    private static final long CACHE_STATISTICS_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
+    private static final AtomicLong cacheStatisticsLoggedAt = new AtomicLong(System.nanoTime());
+
+    private String catalogName;
     private SearchInterfaceType interfaceType;
     private String protocol;
     private String host;
@@ -121,7 +154,6 @@ public class QueryURLImport implements ExternalDataImportInterface {
     private LinkedHashMap<String, String> parameters = new LinkedHashMap<>();
     private final HashMap<String, String> searchFieldMapping = new HashMap<>();
 
-    private CloseableHttpClient httpClient = HttpClientBuilder.create().build();
     private final FTPClient ftpClient = new FTPClient();
 
     private static final HashMap<String, XmlResponseHandler> formatHandlers;
@@ -215,34 +247,175 @@ public class QueryURLImport implements ExternalDataImportInterface {
         return Collections.emptyList();
     }
 
-    private void reinitializeHttpClient() throws IOException {
-        httpClient.close();
-        if (StringUtils.isNotBlank(username) && StringUtils.isNotBlank(password)) {
-            CredentialsProvider provider = new BasicCredentialsProvider();
-            UsernamePasswordCredentials credentials = new UsernamePasswordCredentials(username, password);
-            provider.setCredentials(AuthScope.ANY, credentials);
-            httpClient = HttpClientBuilder.create().setDefaultCredentialsProvider(provider).build();
-        } else {
-            httpClient = HttpClientBuilder.create().build();
+    private CloseableHttpClient getHttpClient() {
+        return httpClients.computeIfAbsent(Arrays.asList(catalogName, username, password), key -> {
+            int maxParallelRequests = OPACConfig.getMaxParallelRequests(catalogName);
+            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+            connectionManager.setMaxTotal(maxParallelRequests);
+            connectionManager.setDefaultMaxPerRoute(maxParallelRequests);
+            HttpClientBuilder httpClientBuilder = HttpClientBuilder.create().setConnectionManager(connectionManager);
+            if (StringUtils.isNotBlank(username) && StringUtils.isNotBlank(password)) {
+                CredentialsProvider provider = new BasicCredentialsProvider();
+                UsernamePasswordCredentials credentials = new UsernamePasswordCredentials(username, password);
+                provider.setCredentials(AuthScope.ANY, credentials);
+                httpClientBuilder.setDefaultCredentialsProvider(provider);
+            }
+            return httpClientBuilder.build();
+        });
+    }
+
+    /**
+     * Sends a request to the catalog. If the request fails or the catalog is
+     * temporarily unavailable, the request is repeated after a delay which
+     * doubles with every attempt.
+     *
+     * @param request
+     *            request to send
+     * @return the response of the catalog
+     * @throws IOException
+     *             if the last attempt fails
+     */
+    private HttpResponse execute(HttpGet request) throws IOException {
+        for (int attempt = 1;; attempt++) {
+            try {
+                HttpResponse response = getHttpClient().execute(request);
+                int responseStatusCode = response.getStatusLine().getStatusCode();
+                if (attempt >= MAX_ATTEMPTS || !RETRY_STATUS_CODES.contains(responseStatusCode)) {
+                    return response;
+                }
+                EntityUtils.consumeQuietly(response.getEntity());
+                logger.debug("Catalog responded with status {}, retrying {}", responseStatusCode, request.getURI());
+            } catch (UnknownHostException e) {
+                throw e;
+            } catch (IOException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("Request failed with {}, retrying {}", e.getMessage(), request.getURI());
+            }
+            request.reset();
+            try {
+                Thread.sleep(RETRY_BACKOFF_MILLIS << (attempt - 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the response cache, which is created from the configuration on
+     * first use.
+     *
+     * @return the response cache
+     */
+    private static ResponseCache getResponseCache() {
+        ResponseCache localReference = responseCache;
+        if (Objects.isNull(localReference)) {
+            synchronized (QueryURLImport.class) {
+                localReference = responseCache;
+                if (Objects.isNull(localReference)) {
+                    localReference = createResponseCache();
+                    responseCache = localReference;
+                }
+            }
+        }
+        return localReference;
+    }
+
+    private static ResponseCache createResponseCache() {
+        ResponseCache memoryCache = new MemoryResponseCache(
+                KitodoConfig.getIntParameter(ParameterQueryURLImport.CACHE_MEMORY_ENTRIES, 500),
+                TimeUnit.SECONDS.toMillis(KitodoConfig.getIntParameter(ParameterQueryURLImport.CACHE_MEMORY_TTL_SEC,
+                    600)));
+        ResponseCache diskCache = null;
+        Optional<String> directory = KitodoConfig.getOptionalString(ParameterQueryURLImport.CACHE_DIRECTORY);
+        if (directory.isPresent()) {
+            try {
+                diskCache = new DiskResponseCache(Paths.get(directory.get()),
+                        TimeUnit.SECONDS.toMillis(KitodoConfig.getIntParameter(
+                            ParameterQueryURLImport.CACHE_DISK_TTL_SEC, 86400)),
+                        KitodoConfig.getIntParameter(ParameterQueryURLImport.CACHE_DISK_SIZE_MB, 100) * 1024L * 1024L);
+            } catch (IOException e) {
+                logger.error("Cannot use catalog response cache directory {}: {}", directory.get(), e.getMessage());
+            }
+        }
+        return new TieredResponseCache(memoryCache, diskCache);
+    }
+
+    /**
+     * The response of a catalog.
+     */
+    private static class CatalogResponse {
+        private final int statusCode;
+        private final String reasonPhrase;
+        private final String content;
+
+        private CatalogResponse(int statusCode, String reasonPhrase, String content) {
+            this.statusCode = statusCode;
+            this.reasonPhrase = reasonPhrase;
+            this.content = content;
+        }
+    }
+
+    /**
+     * Sends a request to the catalog, unless a successful response to it is
+     * in the response cache.
+     *
+     * @param request
+     *            request to send
+     * @return the response of the catalog
+     * @throws IOException
+     *             if the request fails
+     */
+    private CatalogResponse getResponse(HttpGet request) throws IOException {
+        ResponseCache cache = getResponseCache();
+        String key = catalogName + ' ' + metadataFormat + ' ' + request.getURI();
+        String content = cache.get(key);
+        logCacheStatistics(cache);
+        if (Objects.nonNull(content)) {
+            logger.debug("Cached: {}", request.getURI());
+            return new CatalogResponse(SC_OK, null, content);
+        }
+        logger.debug("Requesting: {}", request.getURI());
+        HttpResponse response = execute(request);
+        try {
+            HttpEntity entity = response.getEntity();
+            int statusCode = response.getStatusLine().getStatusCode();
+            content = Objects.nonNull(entity) ? EntityUtils.toString(entity, encoding) : null;
+            if (statusCode == SC_OK && Objects.nonNull(content)) {
+                cache.put(key, content);
+            }
+            return new CatalogResponse(statusCode, response.getStatusLine().getReasonPhrase(), content);
+        } finally {
+            EntityUtils.consumeQuietly(response.getEntity());
+        }
+    }
+
+    /**
+     * Logs the statistics of the response cache, at most once per interval.
+     */
+    private static void logCacheStatistics(ResponseCache cache) {
+        long now = System.nanoTime();
+        long loggedAt = cacheStatisticsLoggedAt.get();
+        if (now - loggedAt >= CACHE_STATISTICS_INTERVAL && cacheStatisticsLoggedAt.compareAndSet(loggedAt, now)) {
+            logger.info("Catalog response cache: {}", cache);
         }
     }
 
     private SearchResult performQuery(String queryURL) throws ResponseHandlerNotFoundException {
         try {
-            this.reinitializeHttpClient();
-            logger.debug("Requesting: {}", queryURL);
-            HttpResponse response = httpClient.execute(new HttpGet(queryURL));
-            int responseStatusCode = response.getStatusLine().getStatusCode();
-            if (Objects.equals(responseStatusCode, SC_OK)) {
+            CatalogResponse response = getResponse(new HttpGet(queryURL));
+            if (Objects.equals(response.statusCode, SC_OK)) {
                 if (formatHandlers.containsKey(metadataFormat)) {
-                    return formatHandlers.get(metadataFormat).getSearchResult(response, interfaceType);
+                    return formatHandlers.get(metadataFormat).getSearchResult(response.content, interfaceType);
                 } else {
                     throw new ResponseHandlerNotFoundException("No ResponseHandler found for metadata format "
                             + metadataFormat);
                 }
             } else {
-                throw new CatalogException(response.getStatusLine().getReasonPhrase() + " (Http status code "
-                        + responseStatusCode + ")");
+                throw new CatalogException(response.reasonPhrase + " (Http status code " + response.statusCode
+                        + ")");
             }
         } catch (UnknownHostException e) {
             throw new CatalogException("Unknown host: " + e.getMessage());
@@ -304,15 +477,12 @@ public class QueryURLImport implements ExternalDataImportInterface {
             fullUrl += queryParameter;
         }
         try {
-            this.reinitializeHttpClient();
-            logger.debug("Requesting: {}", fullUrl);
-            HttpResponse response = httpClient.execute(new HttpGet(fullUrl));
-            if (Objects.equals(response.getStatusLine().getStatusCode(), SC_OK)) {
-                if (Objects.isNull(response.getEntity())) {
+            CatalogResponse response = getResponse(new HttpGet(fullUrl));
+            if (Objects.equals(response.statusCode, SC_OK)) {
+                if (Objects.isNull(response.content)) {
                     throw new NoRecordFoundException("No record with ID '" + identifier + "' found!");
                 }
-                return createRecordFromXMLElement(IOUtils.toString(response.getEntity().getContent(),
-                        Charset.defaultCharset()));
+                return createRecordFromXMLElement(response.content);
             }
             throw new ConfigException("Search Query Request Failed");
         } catch (IOException e) {
@@ -355,19 +525,16 @@ public class QueryURLImport implements ExternalDataImportInterface {
         requestConfigBuilder.setConnectTimeout(3000);
         request.setConfig(requestConfigBuilder.build());
         try {
-            logger.debug("Requesting: {}", queryURL);
-            HttpResponse response = httpClient.execute(request);
-            int responseStatusCode = response.getStatusLine().getStatusCode();
-            if (Objects.equals(responseStatusCode, SC_OK)) {
-                String xmlContent = IOUtils.toString(response.getEntity().getContent(), Charset.defaultCharset());
-                Document document = stringToDocument(xmlContent);
+            CatalogResponse response = getResponse(request);
+            if (Objects.equals(response.statusCode, SC_OK)) {
+                Document document = stringToDocument(response.content);
                 NodeList recordNodes = document.getElementsByTagName(MODS_RECORD_TAG);
                 for (int i = 0; i < recordNodes.getLength(); i++) {
                     records.add(createRecordFromXMLElement(nodeToString(recordNodes.item(i))));
                 }
             } else {
-                throw new CatalogException(response.getStatusLine().getReasonPhrase() + " (Http status code "
-                        + responseStatusCode + ")");
+                throw new CatalogException(response.reasonPhrase + " (Http status code " + response.statusCode
+                        + ")");
             }
         } catch (ConnectTimeoutException e) {
             throw new CatalogException("Connection exception: OPAC did not respond within the configured time limit!");
@@ -464,6 +631,7 @@ public class QueryURLImport implements ExternalDataImportInterface {
     }
 
     private void loadOPACConfiguration(String opacName) {
+        catalogName = opacName;
         try {
             // XML configuration of OPAC
             loadServerConfiguration(OPACConfig.getOPACConfiguration(opacName));
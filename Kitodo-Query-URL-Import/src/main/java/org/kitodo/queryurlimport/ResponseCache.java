@@ -0,0 +1,40 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.queryurlimport;
+
+/**
+ * A cache for the responses of catalogs. The key of a response consists of
+ * the catalog, the metadata format and the query URL. Implementations must be
+ * thread-safe.
+ */
+interface ResponseCache {
+
+    /**
+     * Returns the cached response for a key.
+     *
+     * @param key
+     *            key of the response
+     * @return the response, or {@code null} if the response is not cached or
+     *         has expired
+     */
+    String get(String key);
+
+    /**
+     * Adds a response to the cache.
+     *
+     * @param key
+     *            key of the response
+     * @param response
+     *            response to cache
+     */
+    void put(String key, String response);
+}
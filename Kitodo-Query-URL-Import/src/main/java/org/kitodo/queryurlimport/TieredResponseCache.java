@@ -0,0 +1,114 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.queryurlimport;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Looks up responses in a memory cache first and then in an optional disk
+ * cache, and counts the hits of both. Responses found on disk are put into the
+ * memory cache again.
+ */
+class TieredResponseCache implements ResponseCache {
+
+    private final ResponseCache memoryCache;
+    private final ResponseCache diskCache;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a tiered response cache.
+     *
+     * @param memoryCache
+     *            the memory cache
+     * @param diskCache
+     *            the disk cache, may be {@code null}
+     */
+    TieredResponseCache(ResponseCache memoryCache, ResponseCache diskCache) {
+        this.memoryCache = memoryCache;
+        this.diskCache = diskCache;
+    }
+
+    @Override
+    public String get(String key) {
+        String response = memoryCache.get(key);
+        if (Objects.nonNull(response)) {
+            memoryHits.incrementAndGet();
+            return response;
+        }
+        if (Objects.nonNull(diskCache)) {
+            response = diskCache.get(key);
+            if (Objects.nonNull(response)) {
+                diskHits.incrementAndGet();
+                memoryCache.put(key, response);
+                return response;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    @Override
+    public void put(String key, String response) {
+        memoryCache.put(key, response);
+        if (Objects.nonNull(diskCache)) {
+            diskCache.put(key, response);
+        }
+    }
+
+    /**
+     * Returns the number of responses found in memory.
+     *
+     * @return the number of memory hits
+     */
+    long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    /**
+     * Returns the number of responses found on disk.
+     *
+     * @return the number of disk hits
+     */
+    long getDiskHits() {
+        return diskHits.get();
+    }
+
+    /**
+     * Returns the number of responses not found.
+     *
+     * @return the number of misses
+     */
+    long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the share of lookups which found a response.
+     *
+     * @return the hit rate between 0 and 1
+     */
+    double getHitRate() {
+        long hits = memoryHits.get() + diskHits.get();
+        long lookups = hits + misses.get();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d memory hits, %d disk hits, %d misses, hit rate %.1f%%", getMemoryHits(),
+            getDiskHits(), getMisses(), getHitRate() * 100);
+    }
+}
@@ -12,7 +12,7 @@
 package org.kitodo.queryurlimport;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.StringReader;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.LinkedList;
 import java.util.Objects;
@@ -25,8 +25,6 @@ import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.apache.commons.lang.StringUtils;
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
 import org.jdom2.output.Format;
 import org.jdom2.output.XMLOutputter;
 import org.kitodo.api.externaldatamanagement.SearchInterfaceType;
@@ -57,11 +55,11 @@ abstract class XmlResponseHandler {
     }
 
     /**
-     * Create and return SearchResult for given HttpResponse.
-     * @param response HttpResponse for which a SearchResult is created
-     * @return SearchResult created from given HttpResponse
+     * Create and return SearchResult for given response.
+     * @param response content of the response for which a SearchResult is created
+     * @return SearchResult created from given response
      */
-    SearchResult getSearchResult(HttpResponse response, SearchInterfaceType interfaceType) {
+    SearchResult getSearchResult(String response, SearchInterfaceType interfaceType) {
         SearchResult searchResult = new SearchResult();
         Document resultDocument = transformResponseToDocument(response);
         if (Objects.nonNull(resultDocument)) {
@@ -84,26 +82,21 @@ abstract class XmlResponseHandler {
     }
 
     /**
-     * Transform given HttpResponse into Document and return it.
-     * @param response HttpResponse that is transformed into a Document
-     * @return Document into which given HttpResponse has been transformed
+     * Transform given response into Document and return it.
+     * @param response content of the response that is transformed into a Document
+     * @return Document into which given response has been transformed
      */
-    private static Document transformResponseToDocument(HttpResponse response) {
-        HttpEntity entity = response.getEntity();
-        if (Objects.nonNull(entity)) {
-            try {
-                return parseXML(entity.getContent());
-            } catch (IOException e) {
-                throw new ConfigException(e.getMessage());
-            }
+    private static Document transformResponseToDocument(String response) {
+        if (Objects.nonNull(response)) {
+            return parseXML(response);
         }
         throw new ConfigException("Query response is null");
     }
 
-    private static Document parseXML(InputStream xmlSteam) {
+    private static Document parseXML(String xmlString) {
         try {
             DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
-            return documentBuilder.parse(new InputSource(xmlSteam));
+            return documentBuilder.parse(new InputSource(new StringReader(xmlString)));
         } catch (ParserConfigurationException | IOException | SAXException e) {
             throw new ConfigException(e.getMessage());
         }
@@ -12,9 +12,13 @@
 package org.kitodo.queryurlimport;
 
 import static com.xebialabs.restito.builder.stub.StubHttp.whenHttp;
+import static com.xebialabs.restito.builder.verify.VerifyHttp.verifyHttp;
+import static com.xebialabs.restito.semantics.Action.composite;
 import static com.xebialabs.restito.semantics.Action.contentType;
 import static com.xebialabs.restito.semantics.Action.ok;
+import static com.xebialabs.restito.semantics.Action.status;
 import static com.xebialabs.restito.semantics.Action.stringContent;
+import static com.xebialabs.restito.semantics.ActionSequence.sequence;
 import static com.xebialabs.restito.semantics.Condition.get;
 import static com.xebialabs.restito.semantics.Condition.parameter;
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -32,6 +36,7 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.apache.commons.io.IOUtils;
+import org.glassfish.grizzly.http.util.HttpStatus;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -49,6 +54,8 @@ public class QueryURLImportTest {
     private static final String TEST_FILE_PATH = "src/test/resources/sruTestRecord.xml";
     private static final String OPAC_NAME = "Kalliope";
     private static final String RECORD_ID = "1";
+    private static final String UNAVAILABLE_RECORD_ID = "2";
+    private static final String CACHED_RECORD_ID = "3";
     private static final String RECORD_IDENTIFIER_VALUE = "12345";
     private static final int PORT = 8888;
 
@@ -77,6 +84,23 @@ public class QueryURLImportTest {
                 recordIdentifierElement.getTextContent());
     }
 
+    @Test
+    public void shouldRetryWhenCatalogIsUnavailable() throws NoRecordFoundException {
+        QueryURLImport queryURLImport = new QueryURLImport();
+        DataRecord importRecord = queryURLImport.getFullRecordById(OPAC_NAME, UNAVAILABLE_RECORD_ID);
+        Assert.assertNotNull(importRecord);
+        Assert.assertThat("Original data of data record has wrong class!",
+                importRecord.getOriginalData(), instanceOf(String.class));
+    }
+
+    @Test
+    public void shouldRequestRecordOnlyOnce() throws NoRecordFoundException {
+        DataRecord importRecord = new QueryURLImport().getFullRecordById(OPAC_NAME, CACHED_RECORD_ID);
+        DataRecord cachedRecord = new QueryURLImport().getFullRecordById(OPAC_NAME, CACHED_RECORD_ID);
+        Assert.assertEquals("Cached record differs!", importRecord.getOriginalData(), cachedRecord.getOriginalData());
+        verifyHttp(server).once(get("/sru"), parameter("query", "ead.id=" + CACHED_RECORD_ID));
+    }
+
     private static void setupServer(String serverResponse) {
         // endpoint for importing record by id
         whenHttp(server)
@@ -87,6 +111,17 @@ public class QueryURLImportTest {
                         parameter("maximumRecords", "1"),
                         parameter("query", "ead.id=" + RECORD_ID))
                 .then(ok(), contentType("text/xml"), stringContent(serverResponse));
+        // endpoint for importing record by id which is cached
+        whenHttp(server)
+                .match(get("/sru"),
+                        parameter("query", "ead.id=" + CACHED_RECORD_ID))
+                .then(ok(), contentType("text/xml"), stringContent(serverResponse));
+        // endpoint which is unavailable for the first request
+        whenHttp(server)
+                .match(get("/sru"),
+                        parameter("query", "ead.id=" + UNAVAILABLE_RECORD_ID))
+                .then(sequence(status(HttpStatus.SERVICE_UNAVAILABLE_503),
+                        composite(ok(), contentType("text/xml"), stringContent(serverResponse))));
     }
 
     private Document parseInputStreamToDocument(String inputString) throws ParserConfigurationException,
@@ -0,0 +1,111 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.queryurlimport;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResponseCacheTest {
+
+    private static final String RESPONSE = "<record>12345</record>";
+
+    private Path directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("responseCache");
+    }
+
+    @After
+    public void deleteDirectory() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedResponse() {
+        MemoryResponseCache memoryCache = new MemoryResponseCache(2, 60000);
+        memoryCache.put("a", RESPONSE);
+        memoryCache.put("b", RESPONSE);
+        memoryCache.get("a");
+        memoryCache.put("c", RESPONSE);
+        Assert.assertEquals("Recently used response was evicted!", RESPONSE, memoryCache.get("a"));
+        Assert.assertNull("Least recently used response was not evicted!", memoryCache.get("b"));
+    }
+
+    @Test
+    public void shouldExpireResponseInMemory() {
+        MemoryResponseCache memoryCache = new MemoryResponseCache(2, 0);
+        memoryCache.put("a", RESPONSE);
+        Assert.assertNull("Expired response was returned!", memoryCache.get("a"));
+    }
+
+    @Test
+    public void shouldExpireResponseOnDisk() throws IOException {
+        DiskResponseCache diskCache = new DiskResponseCache(directory, 60000, 1024);
+        diskCache.put("a", RESPONSE);
+        Assert.assertEquals("Response was not cached!", RESPONSE, diskCache.get("a"));
+        try (Stream<Path> files = Files.list(directory)) {
+            Path file = files.findAny().orElseThrow(IllegalStateException::new);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 120000));
+        }
+        Assert.assertNull("Expired response was returned!", diskCache.get("a"));
+    }
+
+    @Test
+    public void shouldKeepDiskSizeLimit() throws IOException {
+        DiskResponseCache diskCache = new DiskResponseCache(directory, 60000, RESPONSE.length() * 3);
+        for (int i = 0; i < 10; i++) {
+            diskCache.put(Integer.toString(i), RESPONSE);
+        }
+        long size = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                size += Files.size(file);
+            }
+        }
+        Assert.assertTrue("Size limit was exceeded!", size <= RESPONSE.length() * 3);
+    }
+
+    @Test
+    public void shouldNotCountReplacedResponseTwice() throws IOException {
+        DiskResponseCache diskCache = new DiskResponseCache(directory, 60000, RESPONSE.length() * 3);
+        diskCache.put("a", RESPONSE);
+        diskCache.put("a", RESPONSE);
+        diskCache.put("b", RESPONSE);
+        diskCache.put("c", RESPONSE);
+        Assert.assertEquals("Response within the size limit was deleted!", RESPONSE, diskCache.get("a"));
+        Assert.assertEquals("Response within the size limit was deleted!", RESPONSE, diskCache.get("b"));
+    }
+
+    @Test
+    public void shouldCountHits() throws IOException {
+        DiskResponseCache diskCache = new DiskResponseCache(directory, 60000, 1024);
+        diskCache.put("a", RESPONSE);
+        TieredResponseCache tieredCache = new TieredResponseCache(new MemoryResponseCache(10, 60000), diskCache);
+        Assert.assertEquals(RESPONSE, tieredCache.get("a"));
+        Assert.assertEquals(RESPONSE, tieredCache.get("a"));
+        Assert.assertNull(tieredCache.get("b"));
+        Assert.assertEquals("Wrong number of memory hits!", 1, tieredCache.getMemoryHits());
+        Assert.assertEquals("Wrong number of disk hits!", 1, tieredCache.getDiskHits());
+        Assert.assertEquals("Wrong number of misses!", 1, tieredCache.getMisses());
+        Assert.assertEquals("Wrong hit rate!", 2 / 3.0, tieredCache.getHitRate(), 0.001);
+    }
+}
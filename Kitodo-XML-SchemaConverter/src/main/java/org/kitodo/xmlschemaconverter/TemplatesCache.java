@@ -0,0 +1,125 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.xmlschemaconverter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+import org.kitodo.exceptions.ConfigException;
+
+/**
+ * Keeps the compiled stylesheets, so that a stylesheet is compiled once and
+ * not for every converted record. Compiled stylesheets are thread-safe and can
+ * be used by several imports at the same time. A stylesheet is compiled again
+ * if its file was modified, so that changed mapping files take effect without
+ * a restart.
+ */
+class TemplatesCache {
+
+    private static volatile TemplatesCache instance = null;
+
+    private final SAXTransformerFactory transformerFactory;
+
+    private final Map<Path, CompiledStylesheet> compiledStylesheets = new ConcurrentHashMap<>();
+
+    /**
+     * A compiled stylesheet and the modification time of its file at the time
+     * it was compiled.
+     */
+    private static class CompiledStylesheet {
+        private final FileTime lastModified;
+        private final Templates templates;
+
+        private CompiledStylesheet(FileTime lastModified, Templates templates) {
+            this.lastModified = lastModified;
+            this.templates = templates;
+        }
+    }
+
+    private TemplatesCache() {
+        transformerFactory = (SAXTransformerFactory) TransformerFactory.newInstance();
+        transformerFactory.setURIResolver((href, base) -> new StreamSource(href.replace("http:", "https:")));
+        System.setProperty("http.agent", "Chrome");
+    }
+
+    /**
+     * Returns the only instance of the templates cache.
+     *
+     * @return the templates cache
+     */
+    static TemplatesCache getInstance() {
+        TemplatesCache localReference = instance;
+        if (Objects.isNull(localReference)) {
+            synchronized (TemplatesCache.class) {
+                localReference = instance;
+                if (Objects.isNull(localReference)) {
+                    localReference = new TemplatesCache();
+                    instance = localReference;
+                }
+            }
+        }
+        return localReference;
+    }
+
+    /**
+     * Returns the transformer factory the stylesheets are compiled with.
+     *
+     * @return the transformer factory
+     */
+    SAXTransformerFactory getTransformerFactory() {
+        return transformerFactory;
+    }
+
+    /**
+     * Returns the compiled stylesheet of a file. The stylesheet is compiled if
+     * it was not compiled before or if the file was modified since.
+     *
+     * @param stylesheet
+     *            path to the stylesheet file
+     * @return the compiled stylesheet
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    Templates getTemplates(Path stylesheet) throws IOException {
+        Path path = stylesheet.toAbsolutePath().normalize();
+        FileTime lastModified = Files.getLastModifiedTime(path);
+        CompiledStylesheet compiledStylesheet = compiledStylesheets.get(path);
+        if (Objects.nonNull(compiledStylesheet) && compiledStylesheet.lastModified.equals(lastModified)) {
+            return compiledStylesheet.templates;
+        }
+        return compiledStylesheets.compute(path, (key, compiled) -> {
+            if (Objects.nonNull(compiled) && compiled.lastModified.equals(lastModified)) {
+                return compiled;
+            }
+            return new CompiledStylesheet(lastModified, compile(key));
+        }).templates;
+    }
+
+    private Templates compile(Path path) {
+        try {
+            return transformerFactory.newTemplates(new StreamSource(path.toFile()));
+        } catch (TransformerConfigurationException e) {
+            throw new ConfigException("Error in compiling the stylesheet " + path + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -13,15 +13,15 @@ package org.kitodo.xmlschemaconverter;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InvalidClassException;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -30,19 +30,14 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.UnknownFormatConversionException;
 
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.Result;
-import javax.xml.transform.Transformer;
+import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.sax.SAXResult;
 import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.sax.SAXTransformerFactory;
 import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamResult;
-import javax.xml.transform.stream.StreamSource;
 
 import org.apache.commons.io.FileUtils;
 import org.kitodo.api.schemaconverter.DataRecord;
@@ -99,6 +94,7 @@ public class XMLSchemaConverter implements SchemaConverterInterface {
             String xmlString = (String)record.getOriginalData();
             String conversionResult;
 
+            List<Path> stylesheets = new ArrayList<>();
             if (mappingFiles.isEmpty()) {
                 List<MetadataFormatConversion> xslFiles = supportedSourceMetadataFormats.get(record.getMetadataFormat());
                 URI xsltDir = Paths.get(KitodoConfig.getParameter("directory.xslt")).toUri();
@@ -107,19 +103,14 @@ public class XMLSchemaConverter implements SchemaConverterInterface {
                     if (!new File(xsltFile).exists() && Objects.nonNull(metadataFormatConversion.getSource())) {
                         downloadXSLTFile(new URL(metadataFormatConversion.getSource()), xsltFile);
                     }
-
-                    try (InputStream fileStream = Files.newInputStream(Paths.get(xsltFile))) {
-                        xmlString = transformXmlByXslt(xmlString, fileStream);
-                    }
+                    stylesheets.add(Paths.get(xsltFile));
                 }
             } else {
                 for (File mappingFile : mappingFiles) {
-                    try (InputStream fileStream = Files.newInputStream(mappingFile.toPath())) {
-                        xmlString = transformXmlByXslt(xmlString, fileStream);
-                    }
+                    stylesheets.add(mappingFile.toPath());
                 }
             }
-            conversionResult = xmlString;
+            conversionResult = transformXmlByXslt(xmlString, stylesheets);
 
             DataRecord resultRecord = new DataRecord();
             resultRecord.setOriginalData(conversionResult);
@@ -152,26 +143,34 @@ public class XMLSchemaConverter implements SchemaConverterInterface {
         return supportedSourceFileFormat.equals(format);
     }
 
-    private String transformXmlByXslt(String xmlString, InputStream stylesheetFile) {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        try {
-            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-        } catch (ParserConfigurationException e) {
-            throw new IllegalArgumentException(e.getMessage(), e);
+    /**
+     * Transforms an XML string by a chain of stylesheets. The stylesheets are
+     * taken from the templates cache and the steps are pipelined, so that the
+     * result of one step is passed on as SAX events to the next one, and only
+     * the result of the last step is serialized.
+     */
+    private String transformXmlByXslt(String xmlString, List<Path> stylesheets) throws IOException {
+        if (stylesheets.isEmpty()) {
+            return xmlString;
+        }
+        TemplatesCache templatesCache = TemplatesCache.getInstance();
+        List<Templates> templates = new ArrayList<>(stylesheets.size());
+        for (Path stylesheet : stylesheets) {
+            templates.add(templatesCache.getTemplates(stylesheet));
         }
-        factory.setNamespaceAware(true);
         try {
+            SAXTransformerFactory transformerFactory = templatesCache.getTransformerFactory();
             StringWriter stringWriter = new StringWriter();
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            transformerFactory.setURIResolver((href, base) -> new StreamSource(href.replace("http:", "https:")));
-            System.setProperty("http.agent", "Chrome");
-            Transformer xsltTransformer = transformerFactory.newTransformer(new StreamSource(stylesheetFile));
-            TransformerHandler handler
-                    = ((SAXTransformerFactory) SAXTransformerFactory.newInstance()).newTransformerHandler();
-            handler.setResult(new StreamResult(stringWriter));
-            Result saxResult = new SAXResult(handler);
+            TransformerHandler serializer = transformerFactory.newTransformerHandler();
+            serializer.setResult(new StreamResult(stringWriter));
+            Result result = new SAXResult(serializer);
+            for (int i = templates.size() - 1; i > 0; i--) {
+                TransformerHandler step = transformerFactory.newTransformerHandler(templates.get(i));
+                step.setResult(result);
+                result = new SAXResult(step);
+            }
             SAXSource saxSource = new SAXSource(new InputSource(new StringReader(xmlString)));
-            xsltTransformer.transform(saxSource, saxResult);
+            templates.get(0).newTransformer().transform(saxSource, result);
             return stringWriter.toString();
         } catch (TransformerException e) {
             throw new ConfigException("Error in transforming the response to internal format: " + e.getMessage(), e);
@@ -0,0 +1,53 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.xmlschemaconverter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+
+import javax.xml.transform.Templates;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TemplatesCacheTest {
+
+    private static final Path MAPPING_FILE = Paths.get("src/main/resources/xslt/mods2kitodo.xsl");
+
+    @Test
+    public void shouldCompileStylesheetOnce() throws IOException {
+        TemplatesCache templatesCache = TemplatesCache.getInstance();
+        Templates templates = templatesCache.getTemplates(MAPPING_FILE);
+        Assert.assertSame("Stylesheet was compiled again!", templates,
+                templatesCache.getTemplates(MAPPING_FILE.toAbsolutePath()));
+    }
+
+    @Test
+    public void shouldCompileModifiedStylesheetAgain() throws IOException {
+        Path copy = Files.createTempFile("mapping", ".xsl");
+        try {
+            Files.copy(MAPPING_FILE, copy, StandardCopyOption.REPLACE_EXISTING);
+            TemplatesCache templatesCache = TemplatesCache.getInstance();
+            Templates templates = templatesCache.getTemplates(copy);
+            Files.setLastModifiedTime(copy,
+                    FileTime.fromMillis(Files.getLastModifiedTime(copy).toMillis() + 1000));
+            Assert.assertNotSame("Modified stylesheet was not compiled again!", templates,
+                    templatesCache.getTemplates(copy));
+        } finally {
+            Files.delete(copy);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.xmlschemaconverter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.kitodo.api.schemaconverter.DataRecord;
+import org.kitodo.api.schemaconverter.FileFormat;
+import org.kitodo.api.schemaconverter.MetadataFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the throughput of an import of 1,000 MODS records with the compiled
+ * stylesheets of the templates cache, against compiling the stylesheet for
+ * every record, as it was done before. The score is records per second.
+ *
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.kitodo.xmlschemaconverter.XmlSchemaConverterBenchmark}
+ * in the module directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class XmlSchemaConverterBenchmark {
+
+    private static final int RECORDS = 1000;
+    private static final String MODS_TEST_FILE_PATH = "src/test/resources/modsXmlTestRecord.xml";
+    private static final String MAPPING_FILE_PATH = "src/main/resources/xslt/mods2kitodo.xsl";
+
+    private final XMLSchemaConverter converter = new XMLSchemaConverter();
+    private List<File> mappingFiles;
+    private String modsRecord;
+
+    /**
+     * Reads the test record.
+     */
+    @Setup
+    public void readRecord() throws IOException {
+        mappingFiles = Collections.singletonList(new File(MAPPING_FILE_PATH));
+        modsRecord = new String(Files.readAllBytes(Paths.get(MODS_TEST_FILE_PATH)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Converts the records with the schema converter.
+     */
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public int convert() throws IOException, URISyntaxException {
+        int length = 0;
+        for (int i = 0; i < RECORDS; i++) {
+            DataRecord record = new DataRecord();
+            record.setMetadataFormat(MetadataFormat.MODS);
+            record.setFileFormat(FileFormat.XML);
+            record.setOriginalData(modsRecord);
+            length += ((String) converter.convert(record, MetadataFormat.KITODO, FileFormat.XML, mappingFiles)
+                    .getOriginalData()).length();
+        }
+        return length;
+    }
+
+    /**
+     * Converts the records compiling the stylesheet for each record.
+     */
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public int convertCompilingEachRecord() throws TransformerException {
+        int length = 0;
+        for (int i = 0; i < RECORDS; i++) {
+            StringWriter stringWriter = new StringWriter();
+            TransformerFactory.newInstance().newTransformer(new StreamSource(new File(MAPPING_FILE_PATH)))
+                    .transform(new StreamSource(new StringReader(modsRecord)), new StreamResult(stringWriter));
+            length += stringWriter.toString().length();
+        }
+        return length;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *            not used
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(XmlSchemaConverterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -207,6 +207,26 @@ public enum ParameterCore implements ParameterInterface {
      */
     DONE_DIRECTORY_NAME(new Parameter<>("image.doneDirectoryName", "fertig/")),
 
+    /**
+     * Number of images for which derivatives are generated in parallel, by
+     * all image generation tasks together. Integer, defaults to the number of
+     * available cores.
+     */
+    IMAGE_GENERATOR_THREADS(new Parameter<UndefinedParameter>("image.generator.threads")),
+
+    /**
+     * Number of images which are validated in parallel when a whole folder is
+     * validated, by all validations together. Integer, defaults to the number
+     * of available cores.
+     */
+    IMAGE_VALIDATION_THREADS(new Parameter<UndefinedParameter>("image.validation.threads")),
+
+    /**
+     * Number of validation results to keep, so that images which have not
+     * changed are not validated again. Integer, defaults to 10000.
+     */
+    IMAGE_VALIDATION_CACHE_ENTRIES(new Parameter<>("image.validation.cacheEntries", 10000)),
+
     /*
      * VISUAL APPEARANCE
      *
@@ -325,6 +345,12 @@ public enum ParameterCore implements ParameterInterface {
      */
     TITLE_KEYS(new Parameter<>("metsEditor.titleMetadata", "")),
 
+    /**
+     * Integer, megabytes of preview images which the media servlet keeps in
+     * memory for all users of the metadata editor. 0 turns the cache off.
+     */
+    METS_EDITOR_MEDIA_CACHE_SIZE(new Parameter<>("metsEditor.mediaCacheSize", 64)),
+
     /*
      * backup of metadata configuration
      */
@@ -414,6 +440,14 @@ public enum ParameterCore implements ParameterInterface {
      */
     BATCHES_LOG_CHANGES(new Parameter<>("batches.logChangesToWikiField", false)),
 
+    /**
+     * Number of processes whose task status is changed together, when the
+     * task status of many processes is changed at once. The processes of a
+     * chunk are saved in one transaction and written to the index in one bulk
+     * request. Integer, defaults to 100.
+     */
+    BATCHES_TASK_STATUS_CHUNK_SIZE(new Parameter<>("batches.taskStatusChunkSize", 100)),
+
     /*
      * Task manager
      */
@@ -472,6 +506,37 @@ public enum ParameterCore implements ParameterInterface {
      */
     TASK_MANAGER_SHOW_SAMPLE_TASK(new Parameter<>("taskManager.showSampleTask", false)),
 
+    /**
+     * Number of jobs from the job queue which run script tasks at the same time
+     * on this node. Integer, defaults to 4.
+     */
+    TASK_MANAGER_JOBS_SCRIPT_WORKERS(new Parameter<>("taskManager.jobs.script.workers", 4)),
+
+    /**
+     * Number of jobs from the job queue which export to the DMS at the same
+     * time on this node. Integer, defaults to 2.
+     */
+    TASK_MANAGER_JOBS_DMS_EXPORT_WORKERS(new Parameter<>("taskManager.jobs.dmsExport.workers", 2)),
+
+    /**
+     * Number of jobs from the job queue which generate images at the same time
+     * on this node. Integer, defaults to 2.
+     */
+    TASK_MANAGER_JOBS_IMAGE_GENERATION_WORKERS(new Parameter<>("taskManager.jobs.imageGeneration.workers", 2)),
+
+    /**
+     * Time in seconds a node claims a job from the job queue. The node renews
+     * the lease while the job is running. If the node disappears, the job is
+     * run again after the lease has expired. Integer, defaults to 300.
+     */
+    TASK_MANAGER_JOBS_LEASE_SECONDS(new Parameter<>("taskManager.jobs.leaseSeconds", 300)),
+
+    /**
+     * Number of days ended jobs are kept in the job queue. Integer, defaults
+     * to 7.
+     */
+    TASK_MANAGER_JOBS_KEEP_DAYS(new Parameter<>("taskManager.jobs.keep.days", 7)),
+
     /*
      * Export to presentation module
      */
@@ -579,6 +644,23 @@ public enum ParameterCore implements ParameterInterface {
      */
     DEFAULT_CLIENT_ID(new Parameter<>("defaultClientId", 0)),
 
+    /**
+     * Maximum number of loaded rulesets kept in memory. Integer, defaults to 25.
+     */
+    RULESET_CACHE_SIZE(new Parameter<>("rulesetCache.size", 25)),
+
+    /**
+     * Maximum number of directory listings kept in the media inventory.
+     * Integer, defaults to 1000.
+     */
+    MEDIA_INVENTORY_SIZE(new Parameter<>("mediaInventory.size", 1000)),
+
+    /**
+     * Read METS files with a streaming StAX reader instead of JAXB. Boolean,
+     * defaults to {@code false}.
+     */
+    USE_STREAMING_METS_READER(new Parameter<>("useStreamingMetsReader", false)),
+
     /**
      * Parameter controlling whether each process in the system needs to have a unique name or not.
      */
@@ -612,7 +694,43 @@ public enum ParameterCore implements ParameterInterface {
      */
 
     ELASTICSEARCH_BATCH(new Parameter<>("elasticsearch.batch", 500)),
-    ELASTICSEARCH_INDEXLIMIT(new Parameter<>("elasticsearch.indexLimit", 5000));
+    ELASTICSEARCH_INDEXLIMIT(new Parameter<>("elasticsearch.indexLimit", 5000)),
+
+    /**
+     * Integer, number of threads creating index documents during indexing.
+     */
+    ELASTICSEARCH_INDEX_THREADS(new Parameter<>("elasticsearch.indexThreads", 4)),
+
+    /**
+     * Integer, size in kilobytes after which a bulk request sent to the index
+     * is complete.
+     */
+    ELASTICSEARCH_BULK_SIZE(new Parameter<>("elasticsearch.bulkSize", 5120)),
+
+    /**
+     * Integer, size in kilobytes of all bulk requests that may be sent to the
+     * index and not yet be answered at the same time.
+     */
+    ELASTICSEARCH_BULK_IN_FLIGHT(new Parameter<>("elasticsearch.bulkInFlight", 20480)),
+
+    /**
+     * Boolean, if true, saved objects are written to the index by a background
+     * thread instead of on the thread of the request.
+     */
+    ELASTICSEARCH_WRITE_BEHIND(new Parameter<>("elasticsearch.writeBehind", false)),
+
+    /**
+     * Integer, time in milliseconds a saved object waits before it is written
+     * to the index, if writing behind is enabled. Objects saved several times
+     * within this time are written only once.
+     */
+    ELASTICSEARCH_WRITE_BEHIND_DELAY(new Parameter<>("elasticsearch.writeBehindDelay", 500)),
+
+    /**
+     * Integer, time in milliseconds for which the lists rely on the last check
+     * whether the index exists, before asking the index again.
+     */
+    ELASTICSEARCH_INDEX_CHECK_INTERVAL(new Parameter<>("elasticsearch.indexCheckInterval", 30000));
 
     private final Parameter<?> parameter;
 
@@ -17,10 +17,8 @@ import java.util.List;
 import java.util.function.Consumer;
 
 import org.apache.commons.lang3.tuple.Pair;
-import org.apache.logging.log4j.LogManager;
 import org.kitodo.production.helper.Helper;
 import org.kitodo.production.model.Subfolder;
-import org.kitodo.production.services.image.ContentToBeGenerated;
 import org.kitodo.production.services.image.ImageGenerator;
 
 /**
@@ -28,7 +26,9 @@ import org.kitodo.production.services.image.ImageGenerator;
  */
 public enum ImageGeneratorStep implements Consumer<ImageGenerator> {
     /**
-     * First step, get the list of images in the folder of source images.
+     * First step, get the list of images in the folder of source images. If
+     * damaged images are to be generated, validate the images in the
+     * destination folders.
      */
     LIST_SOURCE_FOLDER {
         @Override
@@ -36,6 +36,9 @@ public enum ImageGeneratorStep implements Consumer<ImageGenerator> {
             imageGenerator.letTheSupervisorDo(
                 emptyTask -> emptyTask.setWorkDetail(Helper.getTranslation("listSourceFolder")));
             imageGenerator.determineSources();
+            if (imageGenerator.getMode().equals(GenerationMode.MISSING_OR_DAMAGED)) {
+                imageGenerator.validateOutputs();
+            }
             imageGenerator.setState(DETERMINE_WHICH_IMAGES_NEED_TO_BE_GENERATED);
             imageGenerator.setPosition(-1);
 
@@ -71,19 +74,17 @@ public enum ImageGeneratorStep implements Consumer<ImageGenerator> {
     },
 
     /**
-     * Third step, generate whatever needs to be generated.
+     * Third step, generate whatever needs to be generated, in parallel.
      */
     GENERATE_IMAGES {
         @Override
         public void accept(ImageGenerator imageGenerator) {
-            ContentToBeGenerated instructuon = imageGenerator.getFromContentToBeGeneratedByPosition();
-            imageGenerator.letTheSupervisorDo(emptyTask -> emptyTask.setWorkDetail(
-                Helper.getTranslation("generateImages", Collections.singletonList(instructuon.getCanonical()))));
-            LogManager.getLogger(ImageGeneratorStep.class).info("Generating ".concat(instructuon.toString()));
-            imageGenerator.createDerivatives(instructuon);
-            if (imageGenerator.getPosition() == imageGenerator.getContentToBeGenerated().size() - 1) {
-                imageGenerator.letTheSupervisorDo(emptyTask -> emptyTask.setProgress(100));
-            }
+            imageGenerator.generateImages();
+            imageGenerator.letTheSupervisorDo(emptyTask -> {
+                if (!emptyTask.isInterrupted()) {
+                    emptyTask.setProgress(100);
+                }
+            });
         }
     }
 }
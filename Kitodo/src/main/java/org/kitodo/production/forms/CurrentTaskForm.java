@@ -46,17 +46,13 @@ import org.kitodo.production.helper.CustomListColumnInitializer;
 import org.kitodo.production.helper.Helper;
 import org.kitodo.production.helper.WebDav;
 import org.kitodo.production.helper.batch.BatchTaskHelper;
-import org.kitodo.production.helper.tasks.TaskManager;
 import org.kitodo.production.metadata.MetadataLock;
 import org.kitodo.production.model.LazyTaskDTOModel;
 import org.kitodo.production.model.Subfolder;
 import org.kitodo.production.services.ServiceManager;
 import org.kitodo.production.services.data.ProcessService;
 import org.kitodo.production.services.data.TaskService;
-import org.kitodo.production.services.file.SubfolderFactoryService;
-import org.kitodo.production.services.image.ImageGenerator;
 import org.kitodo.production.services.workflow.WorkflowControllerService;
-import org.kitodo.production.thread.TaskImageGeneratorThread;
 
 @Named("CurrentTaskForm")
 @SessionScoped
@@ -316,10 +312,13 @@ public class CurrentTaskForm extends BaseForm {
         if (sourceFolder.listContents().isEmpty()) {
             Helper.setErrorMessage("emptySourceFolder");
         } else {
-            List<Subfolder> outputs = SubfolderFactoryService.createAll(myProcess, contentFolders);
-            ImageGenerator imageGenerator = new ImageGenerator(sourceFolder, mode, outputs);
-            TaskManager.addTask(new TaskImageGeneratorThread(myProcess.getTitle(), imageGenerator));
-            Helper.setMessage(messageKey);
+            try {
+                ServiceManager.getJobService().enqueueImageGeneration(myProcess, mode, generatorSource,
+                    contentFolders);
+                Helper.setMessage(messageKey);
+            } catch (DAOException e) {
+                Helper.setErrorMessage(e.getLocalizedMessage(), logger, e);
+            }
         }
     }
 
@@ -34,6 +34,8 @@ import org.kitodo.production.enums.IndexStates;
 import org.kitodo.production.enums.ObjectType;
 import org.kitodo.production.helper.Helper;
 import org.kitodo.production.services.ServiceManager;
+import org.kitodo.production.services.index.IndexHealth;
+import org.kitodo.production.services.index.IndexQueue;
 import org.kitodo.production.services.index.IndexingService;
 import org.omnifaces.util.Ajax;
 
@@ -81,6 +83,31 @@ public class IndexingForm {
         return indexingStartedTime;
     }
 
+    /**
+     * Get throughput of the current or last indexing process.
+     *
+     * @return summary of the indexing metrics
+     */
+    public String getIndexingMetrics() {
+        return ServiceManager.getIndexingService().getIndexingMetrics();
+    }
+
+    /**
+     * Get queue depth and lag of the objects waiting to be written to the
+     * index, if writing behind is enabled.
+     *
+     * @return summary of the index queue metrics
+     */
+    public String getIndexQueueMetrics() {
+        if (!IndexQueue.isEnabled()) {
+            return "";
+        }
+        IndexQueue indexQueue = IndexQueue.getInstance();
+        return "Index queue: " + indexQueue.getQueueDepth() + " objects waiting, " + indexQueue.getLag()
+                + " ms lag, " + indexQueue.getWrittenObjects() + " written, " + indexQueue.getFailedWrites()
+                + " failed writes";
+    }
+
     /**
      * Get count of database objects.
      *
@@ -175,6 +202,16 @@ public class IndexingForm {
         ServiceManager.getIndexingService().startAllIndexingRemaining(pollingChannel);
     }
 
+    /**
+     * Starts building a new ElasticSearch index in the background, which
+     * replaces the current one when it is complete.
+     */
+    public void startRebuildIndex() {
+        indexingStartedTime = LocalDateTime.now();
+        indexingStartedUser = ServiceManager.getUserService().getAuthenticatedUser().getFullName();
+        ServiceManager.getIndexingService().startRebuildIndex(pollingChannel);
+    }
+
     /**
      * Return the overall progress in percent of the currently running indexing
      * process, incorporating the total number of indexed and all objects.
@@ -209,6 +246,7 @@ public class IndexingForm {
                 pollingChannel.send(IndexingService.MAPPING_STARTED_MESSAGE);
             }
             String mappingStateMessage = ServiceManager.getIndexingService().createMapping();
+            IndexHealth.getInstance().invalidate();
             if (updatePollingChannel) {
                 pollingChannel.send(mappingStateMessage);
             }
@@ -548,6 +548,24 @@ public class ProjectForm extends BaseForm {
         return generator;
     }
 
+    /**
+     * Returns the image management modules to generate images with, to display
+     * them in the drop-down select. The labels are the simple class names.
+     *
+     * @return image management modules
+     */
+    public Map<String, String> getImageManagementModules() {
+        Map<String, String> imageManagementModules = new TreeMap<>();
+        try {
+            for (String module : ServiceManager.getImageService().getModuleNames()) {
+                imageManagementModules.put(module.substring(module.lastIndexOf('.') + 1), module);
+            }
+        } catch (RuntimeException e) {
+            Helper.setErrorMessage(ERROR_READING, new Object[] {e.getMessage() }, logger, e);
+        }
+        return imageManagementModules;
+    }
+
     /**
      * Returns the list of possible MIME types to display them in the drop-down
      * select.
@@ -29,6 +29,7 @@ import org.kitodo.data.database.exceptions.DAOException;
 import org.kitodo.production.enums.ObjectType;
 import org.kitodo.production.helper.Helper;
 import org.kitodo.production.model.LazyDTOModel;
+import org.kitodo.production.security.SecurityUserDetails;
 import org.kitodo.production.services.ServiceManager;
 import org.primefaces.model.DualListModel;
 
@@ -74,6 +75,9 @@ public class RoleForm extends BaseForm {
     public String save() {
         try {
             ServiceManager.getRoleService().saveToDatabase(this.role);
+            if (isRoleOfCurrentUser()) {
+                updateAuthenticationOfCurrentUser();
+            }
             return usersPage;
         } catch (DAOException e) {
             Helper.setErrorMessage(ERROR_SAVING, new Object[] {ObjectType.ROLE.getTranslationSingular() }, logger, e);
@@ -103,11 +107,37 @@ public class RoleForm extends BaseForm {
                 ServiceManager.getRoleService().saveToDatabase(this.role);
             }
             ServiceManager.getRoleService().removeFromDatabase(this.role);
+            if (isRoleOfCurrentUser()) {
+                updateAuthenticationOfCurrentUser();
+            }
         } catch (DAOException e) {
             Helper.setErrorMessage(ERROR_DELETING, new Object[] {ObjectType.ROLE.getTranslationSingular() }, logger, e);
         }
     }
 
+    private boolean isRoleOfCurrentUser() {
+        SecurityUserDetails authenticatedUser = ServiceManager.getUserService().getAuthenticatedUser();
+        if (Objects.isNull(authenticatedUser) || Objects.isNull(this.role.getId())) {
+            return false;
+        }
+        for (Role userRole : authenticatedUser.getRoles()) {
+            if (this.role.getId().equals(userRole.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the authorities of the current user again, as they are created
+     * only once per authentication.
+     */
+    private void updateAuthenticationOfCurrentUser() throws DAOException {
+        User currentUser = ServiceManager.getUserService().getById(
+            ServiceManager.getUserService().getAuthenticatedUser().getId());
+        ServiceManager.getSecurityAccessService().updateAuthentication(currentUser);
+    }
+
     /**
      * Method being used as viewAction for role edit form. Selectable clients
      * and projects are initialized as well.
@@ -88,6 +88,7 @@ public class RulesetForm extends BaseForm {
                     return this.stayOnCurrentPage;
                 }
                 ServiceManager.getRulesetService().save(this.ruleset);
+                ServiceManager.getRulesetService().invalidateRulesetCache(this.ruleset.getFile());
                 return projectsPage;
             } else {
                 Helper.setErrorMessage("rulesetNotFound", new Object[] {this.ruleset.getFile()});
@@ -109,6 +110,7 @@ public class RulesetForm extends BaseForm {
                 Helper.setErrorMessage("rulesetInUse");
             } else {
                 ServiceManager.getRulesetService().remove(this.ruleset);
+                ServiceManager.getRulesetService().invalidateRulesetCache(this.ruleset.getFile());
             }
         } catch (DataException e) {
             Helper.setErrorMessage(ERROR_DELETING, new Object[] {ObjectType.RULESET.getTranslationSingular() }, logger,
@@ -57,6 +57,7 @@ import org.kitodo.production.interfaces.RulesetSetupInterface;
 import org.kitodo.production.metadata.MetadataLock;
 import org.kitodo.production.services.ServiceManager;
 import org.kitodo.production.services.dataeditor.DataEditorService;
+import org.kitodo.production.servlet.MediaServlet;
 import org.primefaces.PrimeFaces;
 
 @Named("DataEditorForm")
@@ -151,11 +152,6 @@ public class DataEditorForm implements RulesetSetupInterface, Serializable {
      */
     private Workpiece workpiece;
 
-    /**
-     * Original state of workpiece. Used to check whether any unsaved changes exist when leaving the editor.
-     */
-    private Workpiece workpieceOriginalState;
-
     /**
      * This List of Pairs stores all selected physical elements and the logical elements in which the physical element was selected.
      * It is necessary to store the logical elements as well, because a physical element can be assigned to multiple logical elements.
@@ -265,7 +261,7 @@ public class DataEditorForm implements RulesetSetupInterface, Serializable {
     private void openMetsFile() throws IOException, InvalidImagesException {
         mainFileUri = ServiceManager.getProcessService().getMetadataFileUri(process);
         workpiece = ServiceManager.getMetsService().loadWorkpiece(mainFileUri);
-        workpieceOriginalState = ServiceManager.getMetsService().loadWorkpiece(mainFileUri);
+        workpiece.trackChanges();
         if (Objects.isNull(workpiece.getId())) {
             logger.warn("Workpiece has no ID. Cannot verify workpiece ID. Setting workpiece ID.");
             workpiece.setId(process.getId().toString());
@@ -305,12 +301,13 @@ public class DataEditorForm implements RulesetSetupInterface, Serializable {
         metadataPanel.clear();
         structurePanel.clear();
         workpiece = null;
-        workpieceOriginalState = null;
         mainFileUri = null;
         ruleset = null;
         currentChildren.clear();
         selectedMedia.clear();
         MetadataLock.setFree(process.getId());
+        MediaServlet.revokeAccess(FacesContext.getCurrentInstance().getExternalContext().getSessionMap(),
+            process.getId());
         process = null;
         user = null;
         if (referringView.contains("?")) {
@@ -763,7 +760,7 @@ public class DataEditorForm implements RulesetSetupInterface, Serializable {
      */
     public void checkForChanges() {
         if (Objects.nonNull(PrimeFaces.current())) {
-            boolean unsavedChanges = !this.workpiece.equals(workpieceOriginalState);
+            boolean unsavedChanges = this.workpiece.hasChanges();
             PrimeFaces.current().executeScript("setConfirmUnload(" + unsavedChanges + ");");
         }
     }
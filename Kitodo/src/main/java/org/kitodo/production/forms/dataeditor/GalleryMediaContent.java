@@ -11,71 +11,49 @@
 
 package org.kitodo.production.forms.dataeditor;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.net.URI;
-import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
-import javax.faces.context.FacesContext;
-import javax.faces.event.PhaseId;
-
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import org.kitodo.api.dataformat.View;
-import org.kitodo.production.services.ServiceManager;
-import org.primefaces.model.DefaultStreamedContent;
-import org.primefaces.model.StreamedContent;
 
 /**
  * A single media content in the media gallery.
  */
 public class GalleryMediaContent {
-    private static final Logger logger = LogManager.getLogger(GalleryMediaContent.class);
-    /**
-     * Gallery panel in which the medium is displayed.
-     */
-    private final GalleryPanel panel;
-
     /**
      * Identifier for the media content.
      */
     private final String id;
 
     /**
-     * URI to content for media preview.
+     * Path to content for media preview, relative to the web application.
      */
-    private final URI previewUri;
+    private final String previewUrl;
 
     /**
-     * URI to the content for the media view.
+     * Path to the content for the media view, relative to the web
+     * application.
      */
-    private final URI mediaViewUri;
+    private final String mediaViewUrl;
     private final View view;
 
     /**
      * Creates a new gallery media content.
      *
-     * @param panel
-     *            gallery panel in which the medium is displayed. The panel
-     *            provides configuration information.
      * @param canonical
      *            the canonical part of the file name, used as the identifier
      *            for the media content
-     * @param previewUri
-     *            URI to content for media preview. Can be {@code null}, then a
-     *            placeholder is used.
-     * @param mediaViewUri
-     *            URI to the content for the media view. Can be {@code null},
+     * @param previewUrl
+     *            path to content for media preview. Can be {@code null}, then
+     *            a placeholder is used.
+     * @param mediaViewUrl
+     *            path to the content for the media view. Can be {@code null},
      *            then no media view is offered.
      */
-    GalleryMediaContent(GalleryPanel panel, View view, String canonical, URI previewUri, URI mediaViewUri) {
-        this.panel = panel;
+    GalleryMediaContent(View view, String canonical, String previewUrl, String mediaViewUrl) {
         this.view = view;
         this.id = canonical;
-        this.previewUri = previewUri;
-        this.mediaViewUri = mediaViewUri;
+        this.previewUrl = previewUrl;
+        this.mediaViewUrl = mediaViewUrl;
     }
 
     /**
@@ -89,13 +67,13 @@ public class GalleryMediaContent {
     }
 
     /**
-     * Returns the media content. This is the method that is called when the web
-     * browser wants to retrieve the media file itself.
+     * Returns the path to the media content, relative to the web application.
+     * The web browser retrieves the media file itself from the media servlet.
      *
-     * @return a Primefaces object that handles the output of media data
+     * @return the path to the media content
      */
-    public StreamedContent getMediaViewData() {
-        return sendData(mediaViewUri, panel.getMediaViewMimeType());
+    public String getMediaViewUrl() {
+        return mediaViewUrl;
     }
 
     /**
@@ -117,13 +95,13 @@ public class GalleryMediaContent {
     }
 
     /**
-     * Returns the media content of the preview media. This is the method that
-     * is called through the gallery panel using a media ID.
+     * Returns the path to the preview media, relative to the web application.
+     * The web browser retrieves the media file itself from the media servlet.
      *
-     * @return a Primefaces object that handles the output of media data
+     * @return the path to the preview media
      */
-    StreamedContent getPreviewData() {
-        return sendData(previewUri, panel.getPreviewMimeType());
+    public String getPreviewUrl() {
+        return previewUrl;
     }
 
     /**
@@ -136,7 +114,7 @@ public class GalleryMediaContent {
      * @return if there is a media view for this media
      */
     public boolean isShowingInMediaView() {
-        return Objects.nonNull(mediaViewUri);
+        return Objects.nonNull(mediaViewUrl);
     }
 
     /**
@@ -149,43 +127,7 @@ public class GalleryMediaContent {
      * @return if there is a media preview for this media
      */
     public boolean isShowingInPreview() {
-        return Objects.nonNull(previewUri);
-    }
-
-    /**
-     * Method for output of URL-referenced media content.
-     *
-     * @param uri
-     *            internal URI of the media file to be transferred
-     * @param mimeType
-     *            the Internet MIME type of the media file
-     * @return a Primefaces object that handles the output of media data
-     */
-    private StreamedContent sendData(URI uri, String mimeType) {
-        /*
-         * During the construction of the HTML page, only an URL for the media
-         * file is generated.
-         */
-        if (FacesContext.getCurrentInstance().getCurrentPhaseId() == PhaseId.RENDER_RESPONSE) {
-            return new DefaultStreamedContent();
-        }
-
-        /*
-         * Output of media data when the browser retrieves this URL. Note that
-         * we are NOT ALLOWED TO close the InputStream at this point. Faces does
-         * that after transferring the data.
-         */
-        try {
-            InputStream previewData = ServiceManager.getFileService().read(uri);
-            return new DefaultStreamedContent(previewData, mimeType);
-        } catch (IOException e) {
-            logger.catching(e);
-            String errorpage = "<html>" + System.lineSeparator() + "<h1>Error!</h1>" + System.lineSeparator() + "<p>"
-                    + e.getClass().getSimpleName() + ": " + e.getMessage() + "</p>" + System.lineSeparator() + "</html>"
-                    + System.lineSeparator();
-            ByteArrayInputStream errorPage = new ByteArrayInputStream(errorpage.getBytes(StandardCharsets.UTF_8));
-            return new DefaultStreamedContent(errorPage, "text/html", "errorpage.html", "UTF-8");
-        }
+        return Objects.nonNull(previewUrl);
     }
 
     public View getView() {
@@ -14,7 +14,6 @@ package org.kitodo.production.forms.dataeditor;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale.LanguageRange;
@@ -22,13 +21,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import javax.faces.context.FacesContext;
-import javax.faces.event.PhaseId;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -49,10 +46,9 @@ import org.kitodo.production.helper.Helper;
 import org.kitodo.production.model.Subfolder;
 import org.kitodo.production.services.ServiceManager;
 import org.kitodo.production.services.file.FileService;
+import org.kitodo.production.servlet.MediaServlet;
 import org.primefaces.PrimeFaces;
 import org.primefaces.event.DragDropEvent;
-import org.primefaces.model.DefaultStreamedContent;
-import org.primefaces.model.StreamedContent;
 
 /**
  * Backing bean for the gallery panel of the metadata editor.
@@ -93,14 +89,13 @@ public class GalleryPanel {
     private List<GalleryMediaContent> medias = Collections.emptyList();
 
     private MediaVariant mediaViewVariant;
-    private Map<String, GalleryMediaContent> previewImageResolver = new HashMap<>();
     private MediaVariant previewVariant;
 
     private List<GalleryStripe> stripes;
 
     private Subfolder previewFolder;
 
-    private String cachingUUID = "";
+    private Subfolder mediaViewFolder;
 
     GalleryPanel(DataEditorForm dataEditor) {
         this.dataEditor = dataEditor;
@@ -155,34 +150,6 @@ public class GalleryPanel {
         return medias;
     }
 
-    String getMediaViewMimeType() {
-        return mediaViewVariant.getMimeType();
-    }
-
-    /**
-     * Returns the media content of the preview media. This is the method that
-     * is called when the web browser wants to retrieve the media file itself.
-     *
-     * @return a Primefaces object that handles the output of media data
-     */
-    public StreamedContent getPreviewData() {
-        FacesContext context = FacesContext.getCurrentInstance();
-        if (context.getCurrentPhaseId() != PhaseId.RENDER_RESPONSE) {
-            String id = context.getExternalContext().getRequestParameterMap().get("mediaId");
-            GalleryMediaContent mediaContent = previewImageResolver.get(id);
-            if (Objects.nonNull(mediaContent)) {
-                logger.trace("Serving image request {}", id);
-                return mediaContent.getPreviewData();
-            }
-            logger.debug("Cannot serve image request, mediaId = {}", id);
-        }
-        return new DefaultStreamedContent();
-    }
-
-    String getPreviewMimeType() {
-        return previewVariant.getMimeType();
-    }
-
     List<LanguageRange> getPriorityList() {
         return dataEditor.getPriorityList();
     }
@@ -400,18 +367,20 @@ public class GalleryPanel {
 
         medias = new ArrayList<>(mediaUnits.size());
         stripes = new ArrayList<>();
-        previewImageResolver = new HashMap<>();
-        cachingUUID = UUID.randomUUID().toString();
 
+        Map<String, Object> sessionMap = FacesContext.getCurrentInstance().getExternalContext().getSessionMap();
         previewFolder = new Subfolder(process, project.getPreview());
+        if (Objects.nonNull(previewSettings)) {
+            MediaServlet.grantAccess(sessionMap, previewFolder, true);
+        }
+        mediaViewFolder = Objects.nonNull(mediaViewSettings) ? new Subfolder(process, mediaViewSettings) : null;
+        if (Objects.nonNull(mediaViewFolder)) {
+            MediaServlet.grantAccess(sessionMap, mediaViewFolder, false);
+        }
         for (MediaUnit mediaUnit : mediaUnits) {
             View wholeMediaUnitView = new View();
             wholeMediaUnitView.setMediaUnit(mediaUnit);
-            GalleryMediaContent mediaContent = createGalleryMediaContent(wholeMediaUnitView);
-            medias.add(mediaContent);
-            if (mediaContent.isShowingInPreview()) {
-                previewImageResolver.put(mediaContent.getId(), mediaContent);
-            }
+            medias.add(createGalleryMediaContent(wholeMediaUnitView));
         }
 
         addStripesRecursive(dataEditor.getWorkpiece().getRootElement());
@@ -447,9 +416,6 @@ public class GalleryPanel {
             for (GalleryMediaContent galleryMediaContent : medias) {
                 if (Objects.equals(view.getMediaUnit(), galleryMediaContent.getView().getMediaUnit())) {
                     galleryStripe.getMedias().add(galleryMediaContent);
-                    if (galleryMediaContent.isShowingInPreview()) {
-                        previewImageResolver.put(galleryMediaContent.getId(), galleryMediaContent);
-                    }
                     break;
                 }
             }
@@ -477,7 +443,15 @@ public class GalleryPanel {
                     : fileService.getResourceUriForProcessRelativeUri(dataEditor.getProcess(), mediaViewUri);
         }
         String canonical = Objects.nonNull(resourcePreviewUri) ? previewFolder.getCanonical(resourcePreviewUri) : null;
-        return new GalleryMediaContent(this, view, canonical, resourcePreviewUri, resourceMediaViewUri);
+        String previewUrl = Objects.nonNull(canonical) ? MediaServlet.getPath(previewFolder, canonical) : null;
+        String mediaViewUrl = null;
+        if (Objects.nonNull(resourceMediaViewUri)) {
+            String mediaViewCanonical = mediaViewFolder.getCanonical(resourceMediaViewUri);
+            if (Objects.nonNull(mediaViewCanonical)) {
+                mediaViewUrl = MediaServlet.getPath(mediaViewFolder, mediaViewCanonical);
+            }
+        }
+        return new GalleryMediaContent(view, canonical, previewUrl, mediaViewUrl);
     }
 
     /**
@@ -879,13 +853,4 @@ public class GalleryPanel {
         }
         return -1;
     }
-
-    /**
-     * Get cachingUUID.
-     *
-     * @return value of cachingUUID
-     */
-    public String getCachingUUID() {
-        return cachingUUID;
-    }
 }
@@ -46,6 +46,23 @@ public class LegacyPrefsHelper {
      */
     private RulesetManagementInterface ruleset;
 
+    /**
+     * Creates a legacy prefs helper without ruleset. The ruleset has to be
+     * loaded with {@link #loadPrefs(String)}.
+     */
+    public LegacyPrefsHelper() {
+    }
+
+    /**
+     * Creates a legacy prefs helper for a ruleset which is already loaded.
+     *
+     * @param ruleset
+     *            loaded ruleset
+     */
+    public LegacyPrefsHelper(RulesetManagementInterface ruleset) {
+        this.ruleset = ruleset;
+    }
+
     /**
      * MetadataType aus Preferences ermitteln.
      *
@@ -108,6 +108,12 @@ public class EmptyTask extends Thread {
      */
     private int progress = 0;
 
+    /**
+     * The field replacement holds the copy of this task which was created to
+     * restart it, if any. It is needed to follow a restarted job.
+     */
+    private volatile EmptyTask replacement = null;
+
     /**
      * Default constructor. Creates an empty thread.
      *
@@ -134,6 +140,7 @@ public class EmptyTask extends Thread {
         this.exception = master.exception;
         this.passedAway = master.passedAway;
         this.progress = master.progress;
+        master.replacement = this;
     }
 
     /**
@@ -175,6 +182,21 @@ public class EmptyTask extends Thread {
         return behaviour;
     }
 
+    /**
+     * Returns the copy of this task which was created to restart it. If the
+     * task was restarted several times, the latest copy is returned. If the
+     * task was not restarted, the task itself is returned.
+     *
+     * @return the task running in place of this task
+     */
+    EmptyTask getLatestReplacement() {
+        EmptyTask task = this;
+        while (Objects.nonNull(task.replacement)) {
+            task = task.replacement;
+        }
+        return task;
+    }
+
     /**
      * Returns the display name of the task to show to the user.
      */
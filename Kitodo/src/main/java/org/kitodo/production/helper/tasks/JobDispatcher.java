@@ -0,0 +1,312 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.helper.tasks;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.kitodo.config.ConfigCore;
+import org.kitodo.config.enums.ParameterCore;
+import org.kitodo.data.database.beans.Job;
+import org.kitodo.data.database.enums.JobState;
+import org.kitodo.data.database.enums.JobType;
+import org.kitodo.data.database.exceptions.DAOException;
+import org.kitodo.production.helper.tasks.EmptyTask.Behaviour;
+import org.kitodo.production.services.ServiceManager;
+import org.kitodo.production.services.data.JobService;
+
+/**
+ * The class JobDispatcher runs the jobs of the persistent job queue in the task
+ * manager. It is called by the scheduler of the TaskManager every some
+ * seconds. It claims queued jobs up to the number of workers configured for
+ * each type of job, adds a thread running the job to the task manager, renews
+ * the claims of the jobs running on this node and writes the state of the
+ * jobs that have ended back into the queue. Jobs that were running on a node
+ * which went away are claimed again after their claim has expired.
+ */
+public class JobDispatcher implements Runnable {
+    private static final Logger logger = LogManager.getLogger(JobDispatcher.class);
+
+    /**
+     * The field owner identifies this node in the job queue.
+     */
+    private final String owner;
+
+    /**
+     * The field runningJobs holds the jobs claimed by this node, by their ID.
+     * It is only accessed by the scheduler thread.
+     */
+    private final Map<Integer, RunningJob> runningJobs = new HashMap<>();
+
+    /**
+     * The fields waitTimes and runTimes hold the times in milliseconds the
+     * jobs ended on this node have waited in the queue and have been running.
+     */
+    private final Map<JobType, LongSummaryStatistics> waitTimes = new EnumMap<>(JobType.class);
+    private final Map<JobType, LongSummaryStatistics> runTimes = new EnumMap<>(JobType.class);
+
+    private long lastRenewal = System.nanoTime();
+    private long lastCleanUp = 0;
+
+    /**
+     * A job claimed by this node and the thread running it.
+     */
+    private static class RunningJob {
+        private final Job job;
+        private final EmptyTask task;
+        private final long started;
+
+        private RunningJob(Job job, EmptyTask task, long started) {
+            this.job = job;
+            this.task = task;
+            this.started = started;
+        }
+    }
+
+    /**
+     * Creates the job dispatcher of this node.
+     */
+    JobDispatcher() {
+        String hostName;
+        try {
+            hostName = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            hostName = "localhost";
+        }
+        owner = hostName + ':' + UUID.randomUUID();
+        for (JobType type : JobType.values()) {
+            waitTimes.put(type, new LongSummaryStatistics());
+            runTimes.put(type, new LongSummaryStatistics());
+        }
+    }
+
+    /**
+     * Writes the state of the jobs which have ended back into the queue,
+     * renews the claims of the running jobs, claims new jobs and deletes old
+     * ended jobs from the queue. New jobs are claimed even while the task
+     * manager is not auto-running threads. The TaskSitter decides when their
+     * threads are started, and until then they are shown in the task manager
+     * and can be started by hand.
+     *
+     * @see java.lang.Runnable#run()
+     */
+    @Override
+    public void run() {
+        try {
+            JobService jobService = ServiceManager.getJobService();
+            finishEndedJobs(jobService);
+            renewLeases(jobService);
+            for (JobType type : JobType.values()) {
+                claimJobs(jobService, type);
+            }
+            removeOldJobs(jobService);
+        } catch (DAOException | RuntimeException e) {
+            logger.error("Error in processing the job queue: " + e.getMessage(), e);
+        }
+    }
+
+    private void finishEndedJobs(JobService jobService) throws DAOException {
+        Iterator<RunningJob> runningJobsIterator = runningJobs.values().iterator();
+        while (runningJobsIterator.hasNext()) {
+            RunningJob runningJob = runningJobsIterator.next();
+            EmptyTask task = runningJob.task.getLatestReplacement();
+            JobState state = getJobState(task);
+            if (Objects.isNull(state)) {
+                continue;
+            }
+            Exception exception = task.getException();
+            String error = JobState.FAILED.equals(state) ? exception.getClass().getName() + ": "
+                    + exception.getMessage() : null;
+            jobService.finish(runningJob.job.getId(), owner, state, error);
+            runningJobsIterator.remove();
+
+            Job job = runningJob.job;
+            long waitTime = runningJob.started - job.getCreated().getTime();
+            long runTime = System.currentTimeMillis() - runningJob.started;
+            synchronized (this) {
+                waitTimes.get(job.getType()).accept(waitTime);
+                runTimes.get(job.getType()).accept(runTime);
+            }
+            logger.info("Job {} ({} \"{}\") {} after waiting {} ms and running {} ms", job.getId(), job.getType(),
+                job.getTitle(), state, waitTime, runTime);
+        }
+    }
+
+    /**
+     * Returns the state of the job a task is running, if the task has ended.
+     *
+     * @param task
+     *            task running the job
+     * @return the state of the job, or {@code null} if the task has not yet
+     *         ended or is going to be restarted
+     */
+    private static JobState getJobState(EmptyTask task) {
+        switch (task.getTaskState()) {
+            case NEW:
+                return Behaviour.DELETE_IMMEDIATELY.equals(task.getBehaviour()) ? JobState.CANCELLED : null;
+            case WORKING:
+            case STOPPING:
+                return null;
+            default: // cases STOPPED, FINISHED, CRASHED
+                switch (task.getBehaviour()) {
+                    case DELETE_IMMEDIATELY:
+                        return JobState.CANCELLED;
+                    case PREPARE_FOR_RESTART:
+                        return null;
+                    default:
+                        return Objects.isNull(task.getException()) ? JobState.FINISHED : JobState.FAILED;
+                }
+        }
+    }
+
+    private void renewLeases(JobService jobService) throws DAOException {
+        long leaseMillis = getLeaseMillis();
+        if (System.nanoTime() - lastRenewal < TimeUnit.MILLISECONDS.toNanos(leaseMillis / 2)) {
+            return;
+        }
+        jobService.renewLeases(runningJobs.keySet(), owner, new Date(System.currentTimeMillis() + leaseMillis));
+        lastRenewal = System.nanoTime();
+    }
+
+    private void claimJobs(JobService jobService, JobType type) throws DAOException {
+        int running = (int) runningJobs.values().stream().filter(runningJob -> runningJob.job.getType() == type)
+                .count();
+        int capacity = getWorkers(type) - running;
+        if (capacity <= 0) {
+            return;
+        }
+        Date now = new Date();
+        Date leaseExpires = new Date(now.getTime() + getLeaseMillis());
+        List<Job> claimable = jobService.getClaimable(type, now, capacity);
+        for (Job job : claimable) {
+            if (!jobService.claim(job, owner, now, leaseExpires)) {
+                continue;
+            }
+            EmptyTask task;
+            try {
+                task = jobService.createTask(job);
+            } catch (DAOException | RuntimeException e) {
+                logger.error("Cannot run job " + job.getId() + ": " + e.getMessage(), e);
+                jobService.finish(job.getId(), owner, JobState.FAILED, e.getClass().getName() + ": "
+                        + e.getMessage());
+                continue;
+            }
+            runningJobs.put(job.getId(), new RunningJob(job, task, now.getTime()));
+            TaskManager.addTask(task);
+        }
+    }
+
+    private void removeOldJobs(JobService jobService) throws DAOException {
+        if (System.nanoTime() - lastCleanUp < TimeUnit.HOURS.toNanos(1) && lastCleanUp != 0) {
+            return;
+        }
+        int keepDays = ConfigCore.getIntParameterOrDefaultValue(ParameterCore.TASK_MANAGER_JOBS_KEEP_DAYS);
+        jobService.removeFinished(new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(keepDays)));
+        lastCleanUp = System.nanoTime();
+    }
+
+    /**
+     * Puts the jobs still running on this node back into the queue, so that
+     * they are run again after a restart. This is called on shutdown of the
+     * task manager, after the scheduler was stopped.
+     */
+    void releaseJobs() {
+        try {
+            ServiceManager.getJobService().release(owner);
+            runningJobs.clear();
+        } catch (DAOException | RuntimeException e) {
+            logger.error("Cannot put the running jobs back into the queue: " + e.getMessage(), e);
+        }
+    }
+
+    private static int getWorkers(JobType type) {
+        switch (type) {
+            case SCRIPT:
+                return ConfigCore.getIntParameterOrDefaultValue(ParameterCore.TASK_MANAGER_JOBS_SCRIPT_WORKERS);
+            case DMS_EXPORT:
+                return ConfigCore.getIntParameterOrDefaultValue(ParameterCore.TASK_MANAGER_JOBS_DMS_EXPORT_WORKERS);
+            case IMAGE_GENERATION:
+                return ConfigCore
+                        .getIntParameterOrDefaultValue(ParameterCore.TASK_MANAGER_JOBS_IMAGE_GENERATION_WORKERS);
+            default:
+                throw new IllegalArgumentException("Unknown job type: " + type);
+        }
+    }
+
+    private static long getLeaseMillis() {
+        return TimeUnit.SECONDS
+                .toMillis(ConfigCore.getIntParameterOrDefaultValue(ParameterCore.TASK_MANAGER_JOBS_LEASE_SECONDS));
+    }
+
+    /**
+     * Returns the identifier of this node in the job queue.
+     *
+     * @return the identifier of this node
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Returns the number of queued jobs for each type of job. This is the
+     * depth of the queue of all nodes.
+     *
+     * @return the number of queued jobs by type
+     * @throws DAOException
+     *             if the database cannot be accessed
+     */
+    public Map<JobType, Long> getQueueDepth() throws DAOException {
+        return ServiceManager.getJobService().countQueued();
+    }
+
+    /**
+     * Returns statistics of the times in milliseconds the jobs which ended on
+     * this node have waited in the queue until they were claimed.
+     *
+     * @return the wait times by type of job
+     */
+    public synchronized Map<JobType, LongSummaryStatistics> getWaitTimes() {
+        return copy(waitTimes);
+    }
+
+    /**
+     * Returns statistics of the times in milliseconds the jobs which ended on
+     * this node have been running.
+     *
+     * @return the run times by type of job
+     */
+    public synchronized Map<JobType, LongSummaryStatistics> getRunTimes() {
+        return copy(runTimes);
+    }
+
+    private static Map<JobType, LongSummaryStatistics> copy(Map<JobType, LongSummaryStatistics> statistics) {
+        Map<JobType, LongSummaryStatistics> copy = new EnumMap<>(JobType.class);
+        for (Map.Entry<JobType, LongSummaryStatistics> entry : statistics.entrySet()) {
+            LongSummaryStatistics statisticsCopy = new LongSummaryStatistics();
+            statisticsCopy.combine(entry.getValue());
+            copy.put(entry.getKey(), statisticsCopy);
+        }
+        return copy;
+    }
+}
@@ -13,7 +13,6 @@ package org.kitodo.production.helper.tasks;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -22,6 +21,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.kitodo.config.ConfigCore;
 import org.kitodo.config.enums.ParameterCore;
 import org.kitodo.production.helper.tasks.EmptyTask.Behaviour;
@@ -32,6 +33,7 @@ import org.kitodo.production.helper.tasks.EmptyTask.Behaviour;
  * {@link org.kitodo.production.forms.TaskManagerForm}.
  */
 public class TaskManager {
+    private static final Logger logger = LogManager.getLogger(TaskManager.class);
 
     /**
      * The field singletonInstance holds the singleton instance of the
@@ -49,8 +51,15 @@ public class TaskManager {
      */
     private final ScheduledExecutorService taskSitter;
 
+    /**
+     * The field jobDispatcher holds the task which runs the jobs of the
+     * persistent job queue. It is run by the same scheduler as the TaskSitter.
+     */
+    private final JobDispatcher jobDispatcher;
+
     /**
      * The field taskList holds the list of threads managed by the task manager.
+     * All accesses to the list must be synchronized on the list.
      */
     final LinkedList<EmptyTask> taskList = new LinkedList<>();
 
@@ -63,6 +72,8 @@ public class TaskManager {
         taskSitter = Executors.newSingleThreadScheduledExecutor();
         long delay = ConfigCore.getLongParameterOrDefaultValue(ParameterCore.TASK_MANAGER_INSPECTION_INTERVAL_MILLIS);
         taskSitter.scheduleWithFixedDelay(new TaskSitter(), delay, delay, TimeUnit.MILLISECONDS);
+        jobDispatcher = new JobDispatcher();
+        taskSitter.scheduleWithFixedDelay(jobDispatcher, delay, delay, TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -72,14 +83,16 @@ public class TaskManager {
      *            task to add
      */
     public static void addTask(EmptyTask task) {
-        singleton().taskList.addLast(task);
+        LinkedList<EmptyTask> tasks = singleton().taskList;
+        synchronized (tasks) {
+            tasks.addLast(task);
+        }
     }
 
     /**
      * The procedure will add a task to the task list if it
      * has not yet been added right after the last task that is currently
-     * executing. If this fails for some reason (i.e. the list got concurrently
-     * modified) it will be added in the end.
+     * executing.
      *
      * <p>
      * This is a fallback method that is called by the overloaded start() method
@@ -91,12 +104,9 @@ public class TaskManager {
      */
     static void addTaskIfMissing(EmptyTask task) {
         LinkedList<EmptyTask> tasks = singleton().taskList;
-        if (!tasks.contains(task)) {
-            int pos = lastIndexOf(TaskState.WORKING) + 1;
-            try {
-                tasks.add(pos, task);
-            } catch (IndexOutOfBoundsException e) {
-                tasks.addLast(task);
+        synchronized (tasks) {
+            if (!tasks.contains(task)) {
+                tasks.add(lastIndexOf(tasks, TaskState.WORKING) + 1, task);
             }
         }
     }
@@ -113,21 +123,37 @@ public class TaskManager {
      * @return a copy of the task list
      */
     public static List<EmptyTask> getTaskList() {
-        return new ArrayList<>(singleton().taskList);
+        LinkedList<EmptyTask> tasks = singleton().taskList;
+        synchronized (tasks) {
+            return new ArrayList<>(tasks);
+        }
+    }
+
+    /**
+     * Returns the dispatcher which runs the jobs of the persistent job queue.
+     * It provides the statistics of the job queue.
+     *
+     * @return the job dispatcher
+     */
+    public static JobDispatcher getJobDispatcher() {
+        return singleton().jobDispatcher;
     }
 
     /**
      * Returns the index of the last task in the task
-     * list that is in the given TaskState.
+     * list that is in the given TaskState. The caller must hold the lock of the
+     * list.
      *
+     * @param tasks
+     *            task list to search
      * @param state
      *            state of tasks to look for
      * @return the index of the last task in that state
      */
-    private static int lastIndexOf(TaskState state) {
+    private static int lastIndexOf(LinkedList<EmptyTask> tasks, TaskState state) {
         int lastIndex = -1;
         int pos = -1;
-        for (EmptyTask task : singleton().taskList) {
+        for (EmptyTask task : tasks) {
             pos++;
             if (task.getTaskState().equals(state)) {
                 lastIndex = pos;
@@ -141,15 +167,10 @@ public class TaskManager {
      * terminated threads from the list.
      */
     public static void removeAllFinishedTasks() {
-        boolean redo;
-        do {
-            redo = false;
-            try {
-                singleton().taskList.removeIf(emptyTask -> emptyTask.getState().equals(Thread.State.TERMINATED));
-            } catch (ConcurrentModificationException listModifiedByAnotherThreadWhileIterating) {
-                redo = true;
-            }
-        } while (redo);
+        LinkedList<EmptyTask> tasks = singleton().taskList;
+        synchronized (tasks) {
+            tasks.removeIf(emptyTask -> emptyTask.getState().equals(Thread.State.TERMINATED));
+        }
     }
 
     /**
@@ -160,10 +181,12 @@ public class TaskManager {
      *            task to move forwards
      */
     public static void runEarlier(EmptyTask task) {
-        TaskManager theManager = singleton();
-        int index = theManager.taskList.indexOf(task);
-        if (index > 0) {
-            Collections.swap(theManager.taskList, index - 1, index);
+        LinkedList<EmptyTask> tasks = singleton().taskList;
+        synchronized (tasks) {
+            int index = tasks.indexOf(task);
+            if (index > 0) {
+                Collections.swap(tasks, index - 1, index);
+            }
         }
     }
 
@@ -175,10 +198,12 @@ public class TaskManager {
      *            task to move backwards
      */
     public static void runLater(EmptyTask task) {
-        TaskManager theManager = singleton();
-        int index = theManager.taskList.indexOf(task);
-        if (index > -1 && index + 1 < theManager.taskList.size()) {
-            Collections.swap(theManager.taskList, index, index + 1);
+        LinkedList<EmptyTask> tasks = singleton().taskList;
+        synchronized (tasks) {
+            int index = tasks.indexOf(task);
+            if (index > -1 && index + 1 < tasks.size()) {
+                Collections.swap(tasks, index, index + 1);
+            }
         }
     }
 
@@ -198,11 +223,21 @@ public class TaskManager {
     /**
      * The function will be called by the TaskSitter to gracefully
      * exit the task manager as well as its managed threads during container
-     * shutdown.
+     * shutdown. The jobs still running on this node are put back into the
+     * persistent job queue, so that they are run again after the restart.
      */
     static void shutdownNow() {
+        TaskManager taskManager = singleton();
+        taskManager.taskSitter.shutdownNow();
+        try {
+            if (!taskManager.taskSitter.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Task sitter did not terminate in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        taskManager.jobDispatcher.releaseJobs();
         stopAndDeleteAllTasks();
-        singleton().taskSitter.shutdownNow();
     }
 
     /**
@@ -211,22 +246,17 @@ public class TaskManager {
      * the same time remove all threads that aren’t alive anyhow.
      */
     public static void stopAndDeleteAllTasks() {
-        boolean redo;
-        do {
-            redo = false;
-            try {
-                Iterator<EmptyTask> inspector = singleton().taskList.iterator();
-                while (inspector.hasNext()) {
-                    EmptyTask task = inspector.next();
-                    if (task.isAlive()) {
-                        task.interrupt(Behaviour.DELETE_IMMEDIATELY);
-                    } else {
-                        inspector.remove();
-                    }
+        LinkedList<EmptyTask> tasks = singleton().taskList;
+        synchronized (tasks) {
+            Iterator<EmptyTask> inspector = tasks.iterator();
+            while (inspector.hasNext()) {
+                EmptyTask task = inspector.next();
+                if (task.isAlive()) {
+                    task.interrupt(Behaviour.DELETE_IMMEDIATELY);
+                } else {
+                    inspector.remove();
                 }
-            } catch (ConcurrentModificationException listModifiedByAnotherThreadWhileIterating) {
-                redo = true;
             }
-        } while (redo);
+        }
     }
 }
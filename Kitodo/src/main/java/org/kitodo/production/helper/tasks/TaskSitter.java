@@ -14,7 +14,6 @@ package org.kitodo.production.helper.tasks;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalUnit;
-import java.util.ConcurrentModificationException;
 import java.util.LinkedList;
 import java.util.ListIterator;
 import java.util.Objects;
@@ -69,13 +68,14 @@ public class TaskSitter implements Runnable, ServletContextListener {
     }
 
     /**
-     * Currently, there is nothing to do when the servlet is loading.
+     * When the servlet is loading, the TaskManager is started, so that the
+     * jobs left in the persistent job queue are run again after a restart.
      *
      * @see javax.servlet.ServletContextListener#contextInitialized(javax.servlet.ServletContextEvent)
      */
     @Override
     public void contextInitialized(ServletContextEvent argument) {
-        // nothing is done here
+        TaskManager.singleton();
     }
 
     /**
@@ -112,7 +112,8 @@ public class TaskSitter implements Runnable, ServletContextListener {
      * <p>
      * Then the function iterates along the task list and takes care for each
      * task. To be able to modify the list in passing, we need a
-     * {@link java.util.ListIterator} here.
+     * {@link java.util.ListIterator} here. The list is locked while it is
+     * examined, so that other threads cannot modify it concurrently.
      *
      * <p>
      * Running tasks reduce the clearance to run new tasks. (However, the
@@ -127,12 +128,6 @@ public class TaskSitter implements Runnable, ServletContextListener {
      * them.
      *
      * <p>
-     * If a ConcurrentModificationException arises during list examination, the
-     * method will behave like a polite servant and retire silently until the
-     * lordship has scarpered. This is not a pity because it will be started
-     * every some seconds.
-     *
-     * <p>
      * After having finished iterating, the method will reduce the absolute
      * number of expired threads as configured. (Since new threads will be added
      * to the bottom of the list and we therefore want to remove older ones
@@ -145,6 +140,12 @@ public class TaskSitter implements Runnable, ServletContextListener {
     @Override
     public void run() {
         TaskManager taskManager = TaskManager.singleton();
+        synchronized (taskManager.taskList) {
+            inspect(taskManager);
+        }
+    }
+
+    private void inspect(TaskManager taskManager) {
         if (taskManager.taskList.isEmpty()) {
             return;
         }
@@ -163,53 +164,49 @@ public class TaskSitter implements Runnable, ServletContextListener {
 
         ListIterator<EmptyTask> position = taskManager.taskList.listIterator();
         EmptyTask task;
-        try {
-            while (position.hasNext()) {
-                task = position.next();
-                switch (task.getTaskState()) {
-                    case WORKING:
-                    case STOPPING:
-                        availableClearance = Math.max(availableClearance - 1, 0);
-                        break;
-                    case NEW:
-                        if (Behaviour.DELETE_IMMEDIATELY.equals(task.getBehaviour())) {
+        while (position.hasNext()) {
+            task = position.next();
+            switch (task.getTaskState()) {
+                case WORKING:
+                case STOPPING:
+                    availableClearance = Math.max(availableClearance - 1, 0);
+                    break;
+                case NEW:
+                    if (Behaviour.DELETE_IMMEDIATELY.equals(task.getBehaviour())) {
+                        position.remove();
+                    } else {
+                        launchableThreads.addLast(task);
+                    }
+                    break;
+                default: // cases STOPPED, FINISHED, CRASHED
+                    switch (task.getBehaviour()) {
+                        case DELETE_IMMEDIATELY:
                             position.remove();
-                        } else {
-                            launchableThreads.addLast(task);
-                        }
-                        break;
-                    default: // cases STOPPED, FINISHED, CRASHED
-                        switch (task.getBehaviour()) {
-                            case DELETE_IMMEDIATELY:
+                            break;
+                        case PREPARE_FOR_RESTART:
+                            EmptyTask replacement = task.replace();
+                            if (Objects.nonNull(replacement)) {
+                                position.set(replacement);
+                                launchableThreads.addLast(replacement);
+                            }
+                            break;
+                        default: // case KEEP_FOR_A_WHILE
+                            boolean taskFinishedSuccessfully = Objects.isNull(task.getException());
+                            Duration durationDead = task.getDurationDead();
+                            if (Objects.isNull(durationDead)) {
+                                task.setTimeOfDeath();
+                            } else if (durationDead.compareTo(taskFinishedSuccessfully ? successfulMaxAge : failedMaxAge) > 0) {
                                 position.remove();
                                 break;
-                            case PREPARE_FOR_RESTART:
-                                EmptyTask replacement = task.replace();
-                                if (Objects.nonNull(replacement)) {
-                                    position.set(replacement);
-                                    launchableThreads.addLast(replacement);
-                                }
-                                break;
-                            default: // case KEEP_FOR_A_WHILE
-                                boolean taskFinishedSuccessfully = Objects.isNull(task.getException());
-                                Duration durationDead = task.getDurationDead();
-                                if (Objects.isNull(durationDead)) {
-                                    task.setTimeOfDeath();
-                                } else if (durationDead.compareTo(taskFinishedSuccessfully ? successfulMaxAge : failedMaxAge) > 0) {
-                                    position.remove();
-                                    break;
-                                }
-                                if (taskFinishedSuccessfully) {
-                                    finishedThreads.add(task);
-                                } else {
-                                    failedThreads.add(task);
-                                }
-                                break;
-                        }
-                }
+                            }
+                            if (taskFinishedSuccessfully) {
+                                finishedThreads.add(task);
+                            } else {
+                                failedThreads.add(task);
+                            }
+                            break;
+                    }
             }
-        } catch (ConcurrentModificationException e) {
-            return;
         }
 
         while (finishedThreads.size() > successfulMaxCount && (task = finishedThreads.pollFirst()) != null) {
@@ -0,0 +1,124 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.helper.tasks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.kitodo.config.ConfigCore;
+import org.kitodo.config.enums.ParameterCore;
+import org.kitodo.data.database.beans.Process;
+import org.kitodo.data.exceptions.DataException;
+import org.kitodo.production.helper.Helper;
+import org.kitodo.production.services.ServiceManager;
+import org.kitodo.production.services.workflow.WorkflowControllerService;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Changes the processing status of the current tasks of many processes up or
+ * down. The processes are changed in chunks. The processes of a chunk are
+ * saved in one transaction and written to the index in one bulk request, and
+ * the progress is updated after each chunk.
+ */
+public class TaskStatusChangeTask extends EmptyTask {
+
+    private final List<Integer> processIds;
+    private final boolean up;
+
+    /**
+     * The user who started the change. The processing user of the changed
+     * tasks is set to this user.
+     */
+    private final Authentication authentication;
+
+    /**
+     * The number of processes already changed, to continue after them if the
+     * task is restarted.
+     */
+    private int done = 0;
+
+    /**
+     * Creates a task to change the status of the tasks of processes.
+     *
+     * @param processes
+     *            processes whose task status is changed
+     * @param up
+     *            whether the status is changed up, else down
+     */
+    public TaskStatusChangeTask(List<Process> processes, boolean up) {
+        super(Helper.getTranslation(up ? "up" : "down") + ": " + processes.size() + " "
+                + Helper.getTranslation("processes"));
+        this.processIds = processes.stream().map(Process::getId).collect(Collectors.toList());
+        this.up = up;
+        this.authentication = SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    /**
+     * Clone constructor. Provides the ability to restart the task if it was
+     * previously interrupted.
+     *
+     * @param source
+     *            terminated thread
+     */
+    private TaskStatusChangeTask(TaskStatusChangeTask source) {
+        super(source);
+        this.processIds = source.processIds;
+        this.up = source.up;
+        this.authentication = source.authentication;
+        this.done = source.done;
+    }
+
+    /**
+     * Changes the task status of the processes chunk by chunk, and updates the
+     * progress after each chunk.
+     */
+    @Override
+    public void run() {
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        securityContext.setAuthentication(authentication);
+        try {
+            WorkflowControllerService workflowControllerService = new WorkflowControllerService();
+            int chunkSize = ConfigCore.getIntParameterOrDefaultValue(ParameterCore.BATCHES_TASK_STATUS_CHUNK_SIZE);
+            while (done < processIds.size()) {
+                List<Integer> chunk = processIds.subList(done, Math.min(done + chunkSize, processIds.size()));
+                List<Process> processes = ServiceManager.getProcessService()
+                        .getByQuery("FROM Process WHERE id IN (:ids) ORDER BY id", Collections.singletonMap("ids", chunk));
+                workflowControllerService.setTaskStatusForChunk(processes, up);
+                done += chunk.size();
+                setProgress(100 * done / processIds.size());
+                if (isInterrupted()) {
+                    return;
+                }
+            }
+        } catch (DataException | RuntimeException e) {
+            setException(e);
+        } finally {
+            securityContext.setAuthentication(null);
+        }
+    }
+
+    /**
+     * Calls the clone constructor to create a not yet executed instance of
+     * this thread object. This is necessary for threads that have terminated
+     * in order to render possible to restart them.
+     *
+     * @return a not-yet-executed replacement of this thread
+     * @see org.kitodo.production.helper.tasks.EmptyTask#replace()
+     */
+    @Override
+    public TaskStatusChangeTask replace() {
+        return new TaskStatusChangeTask(this);
+    }
+}
@@ -13,12 +13,13 @@ package org.kitodo.production.model;
 
 import static java.lang.Math.toIntExact;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.logging.log4j.LogManager;
@@ -26,16 +27,15 @@ import org.apache.logging.log4j.Logger;
 import org.elasticsearch.ElasticsearchStatusException;
 import org.elasticsearch.index.query.QueryShardException;
 import org.hibernate.exception.SQLGrammarException;
-import org.kitodo.config.ConfigMain;
 import org.kitodo.data.database.beans.BaseBean;
 import org.kitodo.data.database.exceptions.DAOException;
-import org.kitodo.data.elasticsearch.exceptions.CustomResponseException;
-import org.kitodo.data.elasticsearch.index.IndexRestClient;
 import org.kitodo.data.exceptions.DataException;
 import org.kitodo.exceptions.FilterException;
 import org.kitodo.production.dto.BaseDTO;
 import org.kitodo.production.services.data.FilterService;
 import org.kitodo.production.services.data.base.SearchDatabaseService;
+import org.kitodo.production.services.index.IndexHealth;
+import org.kitodo.production.services.index.IndexQueue;
 import org.primefaces.PrimeFaces;
 import org.primefaces.model.LazyDataModel;
 import org.primefaces.model.SortOrder;
@@ -44,9 +44,19 @@ public class LazyDTOModel extends LazyDataModel<Object> {
 
     final transient SearchDatabaseService searchService;
     static final Logger logger = LogManager.getLogger(LazyDTOModel.class);
-    private static final IndexRestClient indexRestClient = IndexRestClient.getInstance();
+
+    /**
+     * Time in nanoseconds for which the number of rows is reused while paging
+     * or sorting with the same filter, as long as no object has been saved or
+     * deleted.
+     */
+    private static final long ROW_COUNT_TTL = TimeUnit.SECONDS.toNanos(5);
+
     transient List entities = new ArrayList<>();
     String filterString = "";
+    private String countedFilterString;
+    private long countedAt;
+    private long countedModifications;
 
     /**
      * Creates a LazyDTOModel instance that allows fetching data from the data
@@ -58,15 +68,8 @@ public class LazyDTOModel extends LazyDataModel<Object> {
      *            source
      */
     public LazyDTOModel(SearchDatabaseService searchService) {
-        indexRestClient.setIndex(ConfigMain.getParameter("elasticsearch.index", "kitodo"));
         this.searchService = searchService;
-
-        try {
-            this.setRowCount(toIntExact(searchService.countDatabaseRows()));
-        } catch (DAOException e) {
-            logger.error(e.getMessage());
-            this.setRowCount(0);
-        }
+        this.setRowCount(0);
     }
 
     @Override
@@ -96,21 +99,30 @@ public class LazyDTOModel extends LazyDataModel<Object> {
     public List<Object> load(int first, int pageSize, String sortField, SortOrder sortOrder, Map<String, Object>
             filters) {
         if (indexRunning()) {
+            flushIndexQueue();
             try {
                 HashMap<String, String> filterMap = new HashMap<>();
                 if (!StringUtils.isBlank(this.filterString)) {
                     filterMap.put(FilterService.FILTER_STRING, this.filterString);
                 }
-                setRowCount(toIntExact(searchService.countResults(filterMap)));
+                long modifications = searchService.getModifications();
+                if (!isRowCountValid(modifications)) {
+                    setRowCount(toIntExact(searchService.countResults(filterMap)));
+                    countedFilterString = this.filterString;
+                    countedAt = System.nanoTime();
+                    countedModifications = modifications;
+                }
                 entities = searchService.loadData(first, pageSize, sortField, sortOrder, filterMap);
                 logger.info("{} entities loaded!", entities.size());
                 return entities;
             } catch (DAOException | DataException | ElasticsearchStatusException | QueryShardException
                     | SQLGrammarException e) {
                 setRowCount(0);
+                countedFilterString = null;
                 logger.error(e.getMessage(), e);
             } catch (FilterException e) {
                 setRowCount(0);
+                countedFilterString = null;
                 PrimeFaces.current().executeScript("PF('sticky-notifications').renderMessage("
                         + "{'summary':'Filter error','detail':'" + e.getMessage() + "','severity':'error'});");
                 logger.error(e.getMessage(), e);
@@ -121,8 +133,14 @@ public class LazyDTOModel extends LazyDataModel<Object> {
         return new LinkedList<>();
     }
 
+    private boolean isRowCountValid(long modifications) {
+        return Objects.equals(this.filterString, countedFilterString) && System.nanoTime() - countedAt <= ROW_COUNT_TTL
+                && modifications == countedModifications;
+    }
+
     /**
-     * Checks and returns whether the ElasticSearch index is running or not.
+     * Checks and returns whether the ElasticSearch index is running or not. The
+     * index is not asked each time, see {@link IndexHealth}.
      *
      * <p>
      * NOTE: This wrapper function is necessary because the calling "load" function
@@ -133,11 +151,17 @@ public class LazyDTOModel extends LazyDataModel<Object> {
      * @return whether the ElasticSearch index is running or not
      */
     boolean indexRunning() {
-        try {
-            return indexRestClient.indexExists();
-        } catch (IOException | CustomResponseException e) {
-            logger.error(e.getMessage());
-            return false;
+        return IndexHealth.getInstance().indexExists();
+    }
+
+    /**
+     * Asks for the objects waiting in the index queue to be written without
+     * further delay, if writing behind is enabled. This does not wait for
+     * them, so the list shows them on one of the next loads.
+     */
+    void flushIndexQueue() {
+        if (IndexQueue.isEnabled()) {
+            IndexQueue.getInstance().requestFlush();
         }
     }
 
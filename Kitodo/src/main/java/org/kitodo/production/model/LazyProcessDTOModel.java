@@ -19,10 +19,12 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.elasticsearch.ElasticsearchStatusException;
 import org.elasticsearch.index.query.QueryShardException;
 import org.kitodo.data.exceptions.DataException;
 import org.kitodo.exceptions.FilterException;
+import org.kitodo.production.dto.ProcessDTO;
 import org.kitodo.production.services.data.FilterService;
 import org.kitodo.production.services.data.ProcessService;
 import org.primefaces.PrimeFaces;
@@ -88,15 +90,16 @@ public class LazyProcessDTOModel extends LazyDTOModel {
     public List<Object> load(int first, int pageSize, String sortField, SortOrder sortOrder, Map<String, Object>
             filters) {
         if (indexRunning()) {
+            flushIndexQueue();
             try {
                 HashMap<String, String> filterMap = new HashMap<>();
                 if (!StringUtils.isBlank(this.filterString)) {
                     filterMap.put(FilterService.FILTER_STRING, this.filterString);
                 }
-                setRowCount(toIntExact(((ProcessService)searchService).countResults(filterMap, this.showClosedProcesses,
-                        this.showInactiveProjects)));
-                entities = ((ProcessService)searchService).loadData(first, pageSize, sortField, sortOrder, filterMap,
-                        this.showClosedProcesses, this.showInactiveProjects);
+                Pair<Long, List<ProcessDTO>> page = ((ProcessService) searchService).countAndLoadData(first, pageSize,
+                    sortField, sortOrder, filterMap, this.showClosedProcesses, this.showInactiveProjects);
+                setRowCount(toIntExact(page.getKey()));
+                entities = page.getValue();
                 logger.trace("{} entities loaded!", entities.size());
                 return entities;
             } catch (DataException | ElasticsearchStatusException | QueryShardException e) {
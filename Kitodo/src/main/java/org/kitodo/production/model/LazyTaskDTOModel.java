@@ -19,11 +19,13 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.elasticsearch.ElasticsearchStatusException;
 import org.elasticsearch.index.query.QueryShardException;
 import org.kitodo.data.database.enums.TaskStatus;
 import org.kitodo.data.exceptions.DataException;
 import org.kitodo.exceptions.FilterException;
+import org.kitodo.production.dto.TaskDTO;
 import org.kitodo.production.services.data.FilterService;
 import org.kitodo.production.services.data.TaskService;
 import org.primefaces.PrimeFaces;
@@ -53,16 +55,17 @@ public class LazyTaskDTOModel extends LazyDTOModel {
     public List<Object> load(int first, int pageSize, String sortField, SortOrder sortOrder, Map<String, Object>
             filters) {
         if (indexRunning()) {
+            flushIndexQueue();
             try {
                 HashMap<String, String> filterMap = new HashMap<>();
                 if (!StringUtils.isBlank(this.filterString)) {
                     filterMap.put(FilterService.FILTER_STRING, this.filterString);
                 }
-                setRowCount(toIntExact(((TaskService)searchService).countResults(filterMap, this.onlyOwnTasks,
-                        this.hideCorrectionTasks, this.showAutomaticTasks, this.taskStatusRestriction)));
-                entities = ((TaskService)searchService).loadData(first, pageSize, sortField, sortOrder, filterMap,
-                        this.onlyOwnTasks, this.hideCorrectionTasks, this.showAutomaticTasks,
-                        this.taskStatusRestriction);
+                Pair<Long, List<TaskDTO>> page = ((TaskService) searchService).countAndLoadData(first, pageSize,
+                    sortField, sortOrder, filterMap, this.onlyOwnTasks, this.hideCorrectionTasks,
+                    this.showAutomaticTasks, this.taskStatusRestriction);
+                setRowCount(toIntExact(page.getKey()));
+                entities = page.getValue();
                 logger.trace("{} entities loaded!", entities.size());
                 return entities;
             } catch (DataException | ElasticsearchStatusException | QueryShardException e) {
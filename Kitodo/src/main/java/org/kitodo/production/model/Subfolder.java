@@ -15,6 +15,7 @@ import java.io.File;
 import java.io.FilenameFilter;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.net.URI;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
@@ -222,6 +223,15 @@ public class Subfolder {
         return folder;
     }
 
+    /**
+     * Returns the process whose subfolder this is.
+     *
+     * @return the process
+     */
+    public Process getProcess() {
+        return process;
+    }
+
     /**
      * Returns the relative path to a (fictious) media file in the folder,
      * relative to the process dierctory.
@@ -346,16 +356,26 @@ public class Subfolder {
      */
     private Map<String, URI> listDirectory(Pair<URI, Pattern> query, boolean absolute) {
         FilenameFilter filter = (dir, name) -> query.getRight().matcher(name).matches();
-        try (Stream<URI> relativeURIs = fileService.getSubUris(filter, query.getLeft()).parallelStream()) {
-            Stream<URI> resultURIs = absolute ? relativeURIs.map(
-                uri -> new File(FilenameUtils.concat(ConfigCore.getKitodoDataDirectory(), uri.getPath())).toURI())
-                    : relativeURIs.map(uri -> URI.create(uri.toString().replaceFirst("^[^/]+/", "")));
+        Path directory = Paths.get(query.getLeft());
+        URI processDirectory = Paths.get(ConfigCore.getKitodoDataDirectory(), process.getId().toString()).toUri();
+        try (Stream<Path> files = fileService.getFileNames(filter, query.getLeft()).stream().map(directory::resolve)) {
+            Stream<URI> resultURIs = absolute ? files.map(file -> file.toFile().toURI())
+                    : files.map(file -> processDirectory.relativize(file.toUri()));
             Function<URI, String> keyMapper = createKeyMapperForPattern(query.getRight());
             return resultURIs.collect(Collectors.toMap(keyMapper, Function.identity(), (previous, latest) -> latest,
                 () -> new TreeMap<>(new MetadataImageComparator())));
         }
     }
 
+    /**
+     * Removes this folder from the media inventory, so that it is listed
+     * again on next access. Should be called after files have been written to
+     * or deleted from the folder.
+     */
+    public void invalidateContents() {
+        fileService.invalidateMediaInventory(determineDirectoryAndFileNamePattern().getLeft());
+    }
+
     /**
      * Returns a string that textually represents this object.
      */
@@ -14,12 +14,14 @@ package org.kitodo.production.security;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
 import org.kitodo.data.database.beans.Authority;
 import org.kitodo.data.database.beans.Client;
 import org.kitodo.data.database.beans.Role;
 import org.kitodo.data.database.beans.User;
 import org.kitodo.production.services.ServiceManager;
+import org.kitodo.security.AuthorityIndex;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -39,6 +41,14 @@ public class SecurityUserDetails extends User implements UserDetails {
     private Client sessionClient;
     private final User user;
 
+    /**
+     * The authorities of the user, created on first use. The authentication
+     * holds the authorities of the user at the time it was created, so they
+     * are not created again if the roles change. To apply changed roles, a
+     * new authentication must be created.
+     */
+    private volatile AuthorityIndex authorityIndex;
+
     public SecurityUserDetails(final User user) {
         super(user);
         this.user = user;
@@ -46,6 +56,25 @@ public class SecurityUserDetails extends User implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
+        return getAuthorityIndex().getAuthorities();
+    }
+
+    /**
+     * Returns the index of the authorities of the user. It is created once
+     * from the roles of the user.
+     *
+     * @return the index of the authorities
+     */
+    public AuthorityIndex getAuthorityIndex() {
+        AuthorityIndex localReference = authorityIndex;
+        if (Objects.isNull(localReference)) {
+            localReference = AuthorityIndex.of(createAuthorities());
+            authorityIndex = localReference;
+        }
+        return localReference;
+    }
+
+    private List<SimpleGrantedAuthority> createAuthorities() {
         List<Role> roles = this.user.getRoles();
         List<SimpleGrantedAuthority> userAuthorities = new ArrayList<>();
 
@@ -67,10 +96,7 @@ public class SecurityUserDetails extends User implements UserDetails {
     private void insertGlobalAuthorities(List<SimpleGrantedAuthority> userAuthorities, Authority authority) {
         String authorityTitle = authority.getTitle()
                 .replace(ServiceManager.getAuthorityService().getGlobalAuthoritySuffix(), "");
-        SimpleGrantedAuthority simpleGrantedAuthority = new SimpleGrantedAuthority(authorityTitle + "_GLOBAL");
-        if (!userAuthorities.contains(simpleGrantedAuthority)) {
-            userAuthorities.add(simpleGrantedAuthority);
-        }
+        userAuthorities.add(new SimpleGrantedAuthority(authorityTitle + "_GLOBAL"));
     }
 
     private void insertClientAuthorities(List<SimpleGrantedAuthority> userAuthorities, Authority authority,
@@ -78,16 +104,8 @@ public class SecurityUserDetails extends User implements UserDetails {
         String authorityTitle = authority.getTitle()
                 .replace(ServiceManager.getAuthorityService().getClientAuthoritySuffix(), "");
 
-        SimpleGrantedAuthority simpleGrantedAuthority = new SimpleGrantedAuthority(authorityTitle + "_CLIENT_ANY");
-        if (!userAuthorities.contains(simpleGrantedAuthority)) {
-            userAuthorities.add(simpleGrantedAuthority);
-        }
-
-        SimpleGrantedAuthority simpleGrantedAuthorityWithId = new SimpleGrantedAuthority(
-                authorityTitle + "_CLIENT_" + clientId);
-        if (!userAuthorities.contains(simpleGrantedAuthorityWithId)) {
-            userAuthorities.add(simpleGrantedAuthorityWithId);
-        }
+        userAuthorities.add(new SimpleGrantedAuthority(authorityTitle + "_CLIENT_ANY"));
+        userAuthorities.add(new SimpleGrantedAuthority(authorityTitle + "_CLIENT_" + clientId));
     }
 
     /**
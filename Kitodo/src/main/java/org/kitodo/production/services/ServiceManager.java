@@ -24,6 +24,7 @@ import org.kitodo.production.services.data.DocketService;
 import org.kitodo.production.services.data.FilterService;
 import org.kitodo.production.services.data.FolderService;
 import org.kitodo.production.services.data.ImportService;
+import org.kitodo.production.services.data.JobService;
 import org.kitodo.production.services.data.LdapGroupService;
 import org.kitodo.production.services.data.LdapServerService;
 import org.kitodo.production.services.data.ListColumnService;
@@ -69,6 +70,7 @@ public class ServiceManager {
     private static ImageService imageService;
     private static ImportService importService;
     private static IndexingService indexingService;
+    private static JobService jobService;
     private static KitodoScriptService kitodoScriptService;
     private static LdapGroupService ldapGroupService;
     private static LdapServerService ldapServerService;
@@ -321,6 +323,12 @@ public class ServiceManager {
         }
     }
 
+    private static void initializeJobService() {
+        if (Objects.isNull(jobService)) {
+            jobService = JobService.getInstance();
+        }
+    }
+
     private static void initializeDataEditorSettingService() {
         if (Objects.isNull(dataEditorSettingService)) {
             dataEditorSettingService = DataEditorSettingService.getInstance();
@@ -726,4 +734,14 @@ public class ServiceManager {
         initializeDataEditorSettingService();
         return dataEditorSettingService;
     }
+
+    /**
+     * Initialize JobService if it is not yet initialized and next return it.
+     *
+     * @return JobService object
+     */
+    public static JobService getJobService() {
+        initializeJobService();
+        return jobService;
+    }
 }
@@ -11,9 +11,7 @@
 
 package org.kitodo.production.services.calendar;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -33,8 +31,6 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.kitodo.api.dataeditor.rulesetmanagement.MetadataViewInterface;
 import org.kitodo.api.dataeditor.rulesetmanagement.RulesetManagementInterface;
 import org.kitodo.api.dataeditor.rulesetmanagement.StructuralElementViewInterface;
-import org.kitodo.config.ConfigCore;
-import org.kitodo.config.enums.ParameterCore;
 import org.kitodo.data.database.beans.Process;
 import org.kitodo.data.exceptions.DataException;
 import org.kitodo.production.model.bibliography.course.Block;
@@ -76,13 +72,9 @@ public class CalendarService {
     public static List<MetadataViewInterface> getAddableMetadata(Process completeEdition) throws IOException, DataException {
         final String acquisitionStage = "create";
 
-        // get an instance of the ruleset module
-        RulesetManagementInterface ruleset = ServiceManager.getRulesetManagementService().getRulesetManagement();
-
-        // find and load the ruleset file
-        String rulesetDir = ConfigCore.getParameter(ParameterCore.DIR_RULESETS);
-        String rulesetFullPath = Paths.get(rulesetDir, completeEdition.getRuleset().getFile()).toString();
-        ruleset.load(new File(rulesetFullPath));
+        // get the ruleset of the newspaper
+        RulesetManagementInterface ruleset = ServiceManager.getRulesetService()
+                .openRuleset(completeEdition.getRuleset());
 
         // get the user’s metadata language
         SecurityUserDetails authenticatedUser = ServiceManager.getUserService().getAuthenticatedUser();
@@ -18,19 +18,34 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
+import java.util.TreeMap;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.kitodo.api.command.CommandInterface;
 import org.kitodo.api.command.CommandResult;
 import org.kitodo.production.services.ServiceManager;
 import org.kitodo.serviceloader.KitodoServiceLoader;
 
 public class CommandService {
+    private static final Logger logger = LogManager.getLogger(CommandService.class);
+
     private final CommandInterface commandModule;
     private final ArrayList<CommandResult> finishedCommandResults = new ArrayList<>();
     private final Random random = new Random(1000000);
 
+    /**
+     * Statistics of the commands run, in milliseconds. Guarded by this.
+     */
+    private final LongSummaryStatistics spawnLatencies = new LongSummaryStatistics();
+    private final LongSummaryStatistics durations = new LongSummaryStatistics();
+    private final Map<Integer, Integer> exitCodes = new TreeMap<>();
+    private int timeouts = 0;
+
     /**
      * Initialize Command Service.
      */
@@ -55,6 +70,7 @@ public class CommandService {
             return null;
         }
         CommandResult commandResult = commandModule.runCommand(random.nextInt(), script);
+        recordStatistics(commandResult);
         List<String> commandResultMessages = commandResult.getMessages();
         if (!commandResultMessages.isEmpty() && commandResultMessages.get(0).contains("IOException")) {
             throw new IOException(commandResultMessages.get(1));
@@ -109,11 +125,8 @@ public class CommandService {
      */
     public void runCommandAsync(String script) {
         if (Objects.nonNull(script)) {
-            KitodoServiceLoader<CommandInterface> serviceLoader = new KitodoServiceLoader<>(CommandInterface.class);
-            CommandInterface commandInterface = serviceLoader.loadModule();
-
             Flowable<CommandResult> source = Flowable.fromCallable(() ->
-                commandInterface.runCommand(random.nextInt(), script)
+                commandModule.runCommand(random.nextInt(), script)
             );
 
             Flowable<CommandResult> commandBackgroundWorker = source.subscribeOn(Schedulers.io());
@@ -157,11 +170,34 @@ public class CommandService {
      */
     private void handleCommandResult(CommandResult commandResult) {
 
+        recordStatistics(commandResult);
         finishedCommandResults.add(commandResult);
 
         // TODO add more result handling for frontend here
     }
 
+    /**
+     * Adds the spawn latency, duration and exit code of a command to the
+     * statistics, if its process was started.
+     *
+     * @param commandResult
+     *            The command result.
+     */
+    private synchronized void recordStatistics(CommandResult commandResult) {
+        if (Objects.isNull(commandResult.getExitCode())) {
+            return;
+        }
+        spawnLatencies.accept(commandResult.getSpawnLatency());
+        durations.accept(commandResult.getDuration());
+        exitCodes.merge(commandResult.getExitCode(), 1, Integer::sum);
+        if (commandResult.isTimedOut()) {
+            timeouts++;
+        }
+        logger.debug("Command {} exited with code {} after {} ms, process started after {} ms",
+            commandResult.getId(), commandResult.getExitCode(), commandResult.getDuration(),
+            commandResult.getSpawnLatency());
+    }
+
     /**
      * Generates a String in the form of (filepath parameter1 parameter2 ...).
      *
@@ -189,4 +225,48 @@ public class CommandService {
     public List<CommandResult> getFinishedCommandResults() {
         return finishedCommandResults;
     }
+
+    /**
+     * Returns statistics of the milliseconds from the request until the
+     * process of a command was started.
+     *
+     * @return the spawn latencies
+     */
+    public synchronized LongSummaryStatistics getSpawnLatencies() {
+        LongSummaryStatistics copy = new LongSummaryStatistics();
+        copy.combine(spawnLatencies);
+        return copy;
+    }
+
+    /**
+     * Returns statistics of the milliseconds from the request until the
+     * process of a command has ended.
+     *
+     * @return the durations
+     */
+    public synchronized LongSummaryStatistics getDurations() {
+        LongSummaryStatistics copy = new LongSummaryStatistics();
+        copy.combine(durations);
+        return copy;
+    }
+
+    /**
+     * Returns how often the processes of the commands ended with each exit
+     * code.
+     *
+     * @return the number of commands by exit code
+     */
+    public synchronized Map<Integer, Integer> getExitCodes() {
+        return new TreeMap<>(exitCodes);
+    }
+
+    /**
+     * Returns the number of commands which were killed because they exceeded
+     * the time limit.
+     *
+     * @return the number of timed out commands
+     */
+    public synchronized int getTimeouts() {
+        return timeouts;
+    }
 }
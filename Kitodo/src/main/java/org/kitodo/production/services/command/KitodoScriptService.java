@@ -28,12 +28,15 @@ import org.apache.commons.lang.text.StrTokenizer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.kitodo.api.dataformat.Workpiece;
+import org.kitodo.config.ConfigCore;
+import org.kitodo.config.enums.ParameterCore;
 import org.kitodo.data.database.beans.Folder;
 import org.kitodo.data.database.beans.Process;
 import org.kitodo.data.database.beans.Role;
 import org.kitodo.data.database.beans.Ruleset;
 import org.kitodo.data.database.beans.Task;
 import org.kitodo.data.database.enums.TaskStatus;
+import org.kitodo.data.database.exceptions.DAOException;
 import org.kitodo.data.exceptions.DataException;
 import org.kitodo.exceptions.CommandException;
 import org.kitodo.exceptions.InvalidImagesException;
@@ -41,14 +44,11 @@ import org.kitodo.export.ExportDms;
 import org.kitodo.production.enums.GenerationMode;
 import org.kitodo.production.helper.Helper;
 import org.kitodo.production.helper.metadata.legacytypeimplementations.LegacyMetsModsDigitalDocumentHelper;
-import org.kitodo.production.helper.tasks.TaskManager;
 import org.kitodo.production.model.Subfolder;
 import org.kitodo.production.services.ServiceManager;
 import org.kitodo.production.services.data.ProcessService;
 import org.kitodo.production.services.dataformat.MetsService;
 import org.kitodo.production.services.file.FileService;
-import org.kitodo.production.services.image.ImageGenerator;
-import org.kitodo.production.thread.TaskImageGeneratorThread;
 
 public class KitodoScriptService {
     private static volatile KitodoScriptService instance = null;
@@ -399,36 +399,58 @@ public class KitodoScriptService {
             }
             boolean all = folders.size() == 1 && folders.get(0).equalsIgnoreCase("all");
             List<String> ungeneratableFolders = all ? new ArrayList<>() : new ArrayList<>(folders);
-            List<Subfolder> outputFolders = new ArrayList<>();
-            for (Folder folder : process.getProject().getFolders()) {
-                if ((all || folders.contains(folder.getPath())) && !folder.equals(generatorSource)
-                        && (folder.getDerivative().isPresent() || folder.getDpi().isPresent()
-                                || folder.getImageScale().isPresent() || folder.getImageSize().isPresent())) {
-                    outputFolders.add(new Subfolder(process, folder));
-                    ungeneratableFolders.remove(folder.getPath());
-                }
-            }
+            List<Subfolder> outputFolders = getOutputFolders(process, generatorSource, all, folders,
+                ungeneratableFolders);
             if (outputFolders.isEmpty()) {
                 Helper.setErrorMessage("kitodoScript.generateImages.error.noDestination",
                     new String[] {process.getTitle(), String.join(", ", ungeneratableFolders) });
                 continue;
             }
-            ImageGenerator imageGenerator = new ImageGenerator(sourceFolder, generationMode, outputFolders);
-            TaskManager.addTask(new TaskImageGeneratorThread(process.getTitle(), imageGenerator));
-            String generationModeTranslated = Helper
-                    .getTranslation("imageGenerator.generationMode.".concat(generationMode.toString()));
-            String generatedFolders = // folders whose contents CAN BE generated
-                    outputFolders.stream().map(Subfolder::getFolder).map(Folder::getPath)
-                            .collect(Collectors.joining(", "));
-            if (ungeneratableFolders.isEmpty()) {
-                Helper.setMessage(MessageFormat.format(Helper.getTranslation("kitodoScript.generateImages.ok"),
-                    generationModeTranslated, process.getTitle(), String.join(", ", generatedFolders)));
-            } else {
-                Helper.setMessage(MessageFormat.format(Helper.getTranslation("kitodoScript.generateImages.partitial"),
-                    generationModeTranslated, process.getTitle(), generatedFolders,
-                    String.join(", ", ungeneratableFolders)));
+            try {
+                ServiceManager.getJobService().enqueueImageGeneration(process, generationMode, generatorSource,
+                    outputFolders.stream().map(Subfolder::getFolder).collect(Collectors.toList()));
+            } catch (DAOException e) {
+                Helper.setErrorMessage(e.getLocalizedMessage(), logger, e);
+                continue;
+            }
+            setGenerateImagesMessage(process, generationMode, outputFolders, ungeneratableFolders);
+        }
+    }
+
+    /**
+     * Returns the folders of the project of a process whose images can be
+     * generated. The folders found are removed from the list of folders which
+     * cannot be generated.
+     */
+    private static List<Subfolder> getOutputFolders(Process process, Folder generatorSource, boolean all,
+            List<String> folders, List<String> ungeneratableFolders) {
+        List<Subfolder> outputFolders = new ArrayList<>();
+        for (Folder folder : process.getProject().getFolders()) {
+            if ((all || folders.contains(folder.getPath())) && !folder.equals(generatorSource)
+                    && (folder.getDerivative().isPresent() || folder.getDpi().isPresent()
+                            || folder.getImageScale().isPresent() || folder.getImageSize().isPresent())) {
+                outputFolders.add(new Subfolder(process, folder));
+                ungeneratableFolders.remove(folder.getPath());
             }
         }
+        return outputFolders;
+    }
+
+    private static void setGenerateImagesMessage(Process process, GenerationMode generationMode,
+            List<Subfolder> outputFolders, List<String> ungeneratableFolders) {
+        String generationModeTranslated = Helper
+                .getTranslation("imageGenerator.generationMode.".concat(generationMode.toString()));
+        String generatedFolders = // folders whose contents CAN BE generated
+                outputFolders.stream().map(Subfolder::getFolder).map(Folder::getPath)
+                        .collect(Collectors.joining(", "));
+        if (ungeneratableFolders.isEmpty()) {
+            Helper.setMessage(MessageFormat.format(Helper.getTranslation("kitodoScript.generateImages.ok"),
+                generationModeTranslated, process.getTitle(), String.join(", ", generatedFolders)));
+        } else {
+            Helper.setMessage(MessageFormat.format(Helper.getTranslation("kitodoScript.generateImages.partitial"),
+                generationModeTranslated, process.getTitle(), generatedFolders,
+                String.join(", ", ungeneratableFolders)));
+        }
     }
 
     private void searchForMedia(List<Process> processes) throws IOException, InvalidImagesException {
@@ -659,16 +681,27 @@ public class KitodoScriptService {
     }
 
     private void executeActionForSetTaskStatus(List<Process> processes) {
-        for (Process process : processes) {
-            for (Task task : process.getTasks()) {
-                if (task.getTitle().equals(this.parameters.get(TASK_TITLE))) {
-                    TaskStatus newTaskStatus = TaskStatus
-                            .getStatusFromValue(Integer.valueOf(this.parameters.get(STATUS)));
-                    task.setProcessingStatus(newTaskStatus);
-                    saveTask(process.getTitle(), task);
+        TaskStatus newTaskStatus = TaskStatus.getStatusFromValue(Integer.valueOf(this.parameters.get(STATUS)));
+        int chunkSize = ConfigCore.getIntParameterOrDefaultValue(ParameterCore.BATCHES_TASK_STATUS_CHUNK_SIZE);
+        for (int start = 0; start < processes.size(); start += chunkSize) {
+            List<Process> changedProcesses = new ArrayList<>();
+            for (Process process : processes.subList(start, Math.min(start + chunkSize, processes.size()))) {
+                for (Task task : process.getTasks()) {
+                    if (task.getTitle().equals(this.parameters.get(TASK_TITLE))) {
+                        task.setProcessingStatus(newTaskStatus);
+                        changedProcesses.add(process);
+                        break;
+                    }
+                }
+            }
+            try {
+                ServiceManager.getProcessService().saveInBulk(changedProcesses);
+                for (Process process : changedProcesses) {
                     Helper.setMessage("stepstatus set in process: ", process.getTitle());
-                    break;
                 }
+            } catch (DataException e) {
+                Helper.setErrorMessage("Error while saving - " + changedProcesses.stream().map(Process::getTitle)
+                        .collect(Collectors.joining(", ")), logger, e);
             }
         }
     }
@@ -98,6 +98,7 @@ public class FolderService extends SearchDatabaseService<Folder, FolderDAO> {
         clone.setDpi(source.getDpi().orElse(null));
         clone.setImageScale(source.getImageScale().orElse(null));
         clone.setImageSize(source.getImageSize().orElse(null));
+        clone.setImageManagementModule(source.getImageManagementModule().orElse(null));
         clone.setLinkingMode(source.getLinkingMode());
         return clone;
     }
@@ -13,22 +13,30 @@ package org.kitodo.production.services.data;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import javax.xml.parsers.ParserConfigurationException;
@@ -40,6 +48,7 @@ import javax.xml.xpath.XPathFactory;
 import org.apache.commons.configuration.HierarchicalConfiguration;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.kitodo.api.MdSec;
@@ -605,10 +614,23 @@ public class ImportService {
         if (!childRecords.isEmpty()) {
             SchemaConverterInterface converter = getSchemaConverter(childRecords.get(0));
             List<File> mappingFiles = getMappingFiles(opac);
+            List<Callable<Document>> conversions = new ArrayList<>(childRecords.size());
             for (DataRecord childRecord : childRecords) {
-                DataRecord internalRecord = converter.convert(childRecord, MetadataFormat.KITODO, FileFormat.XML, mappingFiles);
-                Document childDocument = XMLUtils.parseXMLString((String)internalRecord.getOriginalData());
-                childProcesses.add(createTempProcessFromDocument(childDocument, templateId, projectId));
+                conversions.add(() -> {
+                    DataRecord internalRecord = converter.convert(childRecord, MetadataFormat.KITODO, FileFormat.XML,
+                        mappingFiles);
+                    return XMLUtils.parseXMLString((String) internalRecord.getOriginalData());
+                });
+            }
+            ExecutorService executor = createImportExecutor(opac, conversions.size());
+            try {
+                List<Future<Document>> childDocuments = submitAll(executor, conversions);
+                for (Future<Document> childDocument : childDocuments) {
+                    childProcesses.add(createTempProcessFromDocument(getImportResult(childDocument), templateId,
+                        projectId));
+                }
+            } finally {
+                executor.shutdownNow();
             }
             // TODO: sort child processes (by what? catalog ID? Signature?)
             return childProcesses;
@@ -618,6 +640,60 @@ public class ImportService {
         }
     }
 
+    /**
+     * Creates an executor for the records of an import. The records are
+     * retrieved and converted in parallel, but not more at the same time than
+     * parallel requests are configured for the catalog. The processes have to
+     * be created by the calling thread, because the database session is bound
+     * to it.
+     */
+    private static ExecutorService createImportExecutor(String opac, int numberOfRecords) {
+        return Executors.newFixedThreadPool(Math.max(1, Math.min(numberOfRecords,
+            OPACConfig.getMaxParallelRequests(opac))));
+    }
+
+    private static <T> List<Future<T>> submitAll(ExecutorService executor, List<Callable<T>> tasks) {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submit(task));
+        }
+        return futures;
+    }
+
+    /**
+     * Waits for a record retrieved or converted by the import executor and
+     * throws the exception of the task if it failed.
+     */
+    private static <T> T getImportResult(Future<T> future) throws IOException, NoRecordFoundException,
+            UnsupportedFormatException, URISyntaxException, ParserConfigurationException, SAXException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof NoRecordFoundException) {
+                throw (NoRecordFoundException) cause;
+            } else if (cause instanceof UnsupportedFormatException) {
+                throw (UnsupportedFormatException) cause;
+            } else if (cause instanceof URISyntaxException) {
+                throw (URISyntaxException) cause;
+            } else if (cause instanceof ParserConfigurationException) {
+                throw (ParserConfigurationException) cause;
+            } else if (cause instanceof SAXException) {
+                throw (SAXException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
     private Document importDocument(String opac, String identifier, boolean extractExemplars, boolean isParentInRecord)
             throws NoRecordFoundException, UnsupportedFormatException, URISyntaxException, IOException,
             XPathExpressionException, ParserConfigurationException, SAXException {
@@ -642,6 +718,18 @@ public class ImportService {
     public Document convertDataRecordToInternal(DataRecord dataRecord, String opac, boolean isParentInRecord)
             throws UnsupportedFormatException, URISyntaxException, IOException, ParserConfigurationException,
             SAXException {
+        return convertDataRecordToInternal(dataRecord, opac, isParentInRecord, "");
+    }
+
+    /**
+     * Converts a given dataRecord to an internal document. If a debug folder
+     * is configured, the records are written there with the given suffix to
+     * their file names, so that records converted at the same time do not
+     * overwrite each other.
+     */
+    private Document convertDataRecordToInternal(DataRecord dataRecord, String opac, boolean isParentInRecord,
+            String debugFileSuffix) throws UnsupportedFormatException, URISyntaxException, IOException,
+            ParserConfigurationException, SAXException {
         SchemaConverterInterface converter = getSchemaConverter(dataRecord);
 
         List<File> mappingFiles = getMappingFiles(opac, isParentInRecord);
@@ -649,12 +737,12 @@ public class ImportService {
         // transform dataRecord to Kitodo internal format using appropriate SchemaConverter!
         File debugFolder = ConfigCore.getKitodoDebugDirectory();
         if (Objects.nonNull(debugFolder)) {
-            FileUtils.writeStringToFile(new File(debugFolder, "catalogRecord.xml"),
+            FileUtils.writeStringToFile(new File(debugFolder, "catalogRecord" + debugFileSuffix + ".xml"),
                     (String) dataRecord.getOriginalData(), StandardCharsets.UTF_8);
         }
         DataRecord internalRecord = converter.convert(dataRecord, MetadataFormat.KITODO, FileFormat.XML, mappingFiles);
         if (Objects.nonNull(debugFolder)) {
-            FileUtils.writeStringToFile(new File(debugFolder, "internalRecord.xml"),
+            FileUtils.writeStringToFile(new File(debugFolder, "internalRecord" + debugFileSuffix + ".xml"),
                     (String) internalRecord.getOriginalData(), StandardCharsets.UTF_8);
         }
 
@@ -1170,32 +1258,88 @@ public class ImportService {
      * @return the importedProcess
      */
     public Process importProcess(String ppn, int projectId, int templateId, String selectedCatalog) throws ImportException {
-        LinkedList<TempProcess> processList = new LinkedList<>();
-        TempProcess tempProcess;
+        return importProcesses(Collections.singletonList(ppn), projectId, templateId, selectedCatalog).get(0);
+    }
+
+    /**
+     * Imports processes and saves them to database. The records are retrieved
+     * from the catalog and converted in parallel, while the processes are
+     * created in the order of the given ppns. Not more than twice as many
+     * records as parallel requests are configured for the catalog are
+     * retrieved ahead of the process being created.
+     * @param ppns the ppns to import
+     * @param projectId the projectId
+     * @param templateId the templateId
+     * @param selectedCatalog the selected catalog to import from
+     * @return the imported processes
+     */
+    public List<Process> importProcesses(List<String> ppns, int projectId, int templateId, String selectedCatalog)
+            throws ImportException {
         Template template;
+        RulesetManagementInterface ruleset;
+        List<Locale.LanguageRange> priorityList;
         try {
             template = ServiceManager.getTemplateService().getById(templateId);
+            ruleset = ServiceManager.getRulesetService().openRuleset(template.getRuleset());
             String metadataLanguage = ServiceManager.getUserService().getCurrentUser().getMetadataLanguage();
-            List<Locale.LanguageRange> priorityList = Locale.LanguageRange
-                    .parse(metadataLanguage.isEmpty() ? "en" : metadataLanguage);
-            importProcessAndReturnParentID(ppn, processList, selectedCatalog, projectId, templateId, false);
-            tempProcess = processList.get(0);
-            processTempProcess(tempProcess, template,
-                ServiceManager.getRulesetService().openRuleset(template.getRuleset()), "create", priorityList);
-            ServiceManager.getProcessService().save(tempProcess.getProcess());
-            URI processBaseUri = ServiceManager.getFileService().createProcessLocation(tempProcess.getProcess());
-            tempProcess.getProcess().setProcessBaseUri(processBaseUri);
-            OutputStream out = ServiceManager.getFileService()
-                    .write(ServiceManager.getProcessService().getMetadataFileUri(tempProcess.getProcess()));
-            tempProcess.getWorkpiece().setId(tempProcess.getProcess().getId().toString());
-            ServiceManager.getMetsService().save(tempProcess.getWorkpiece(), out);
-        } catch (DAOException | IOException | ProcessGenerationException | XPathExpressionException
-                | ParserConfigurationException | NoRecordFoundException | UnsupportedFormatException
-                | URISyntaxException | SAXException | InvalidMetadataValueException
-                | NoSuchMetadataFieldException | DataException | CommandException e) {
-            throw new ImportException(
-                    Helper.getTranslation("errorImporting", Arrays.asList(Helper.getTranslation("process"), ppn)));
+            priorityList = Locale.LanguageRange.parse(metadataLanguage.isEmpty() ? "en" : metadataLanguage);
+        } catch (DAOException | IOException e) {
+            throw new ImportException(Helper.getTranslation("errorImporting",
+                Arrays.asList(Helper.getTranslation("process"), String.join(", ", ppns))));
+        }
+        List<Process> processes = new ArrayList<>(ppns.size());
+        ExecutorService executor = createImportExecutor(selectedCatalog, ppns.size());
+        try {
+            int lookAhead = 2 * Math.max(1, OPACConfig.getMaxParallelRequests(selectedCatalog));
+            Deque<Future<Pair<DataRecord, Document>>> records = new ArrayDeque<>(lookAhead);
+            for (int i = 0; i < ppns.size(); i++) {
+                while (records.size() < lookAhead && i + records.size() < ppns.size()) {
+                    String ppn = ppns.get(i + records.size());
+                    records.add(executor.submit(() -> retrieveRecord(ppn, selectedCatalog)));
+                }
+                try {
+                    Pair<DataRecord, Document> record = getImportResult(records.remove());
+                    exemplarRecords = extractExemplarRecords(record.getKey(), selectedCatalog);
+                    processes.add(createProcess(record.getValue(), template, ruleset, priorityList, projectId,
+                        templateId));
+                } catch (IOException | ProcessGenerationException | XPathExpressionException
+                        | ParserConfigurationException | NoRecordFoundException | UnsupportedFormatException
+                        | URISyntaxException | SAXException | InvalidMetadataValueException
+                        | NoSuchMetadataFieldException | DataException | CommandException e) {
+                    throw new ImportException(Helper.getTranslation("errorImporting",
+                        Arrays.asList(Helper.getTranslation("process"), ppns.get(i))));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
         }
+        return processes;
+    }
+
+    /**
+     * Retrieves a record from the catalog and converts it to an internal
+     * document. Runs on a thread of the import executor.
+     */
+    private Pair<DataRecord, Document> retrieveRecord(String ppn, String catalog) throws NoRecordFoundException,
+            UnsupportedFormatException, URISyntaxException, IOException, ParserConfigurationException, SAXException {
+        DataRecord dataRecord = initializeImportModule().getFullRecordById(catalog, ppn);
+        String debugFileSuffix = '_' + ppn.replaceAll("[^\\w.-]", "_");
+        return Pair.of(dataRecord, convertDataRecordToInternal(dataRecord, catalog, false, debugFileSuffix));
+    }
+
+    private Process createProcess(Document document, Template template, RulesetManagementInterface ruleset,
+            List<Locale.LanguageRange> priorityList, int projectId, int templateId) throws IOException,
+            ProcessGenerationException, InvalidMetadataValueException, NoSuchMetadataFieldException, DataException,
+            CommandException {
+        TempProcess tempProcess = createTempProcessFromDocument(document, templateId, projectId);
+        processTempProcess(tempProcess, template, ruleset, "create", priorityList);
+        ServiceManager.getProcessService().save(tempProcess.getProcess());
+        URI processBaseUri = ServiceManager.getFileService().createProcessLocation(tempProcess.getProcess());
+        tempProcess.getProcess().setProcessBaseUri(processBaseUri);
+        OutputStream out = ServiceManager.getFileService()
+                .write(ServiceManager.getProcessService().getMetadataFileUri(tempProcess.getProcess()));
+        tempProcess.getWorkpiece().setId(tempProcess.getProcess().getId().toString());
+        ServiceManager.getMetsService().save(tempProcess.getWorkpiece(), out);
         return tempProcess.getProcess();
     }
 }
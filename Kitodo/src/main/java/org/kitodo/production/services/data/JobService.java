@@ -0,0 +1,314 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.kitodo.data.database.beans.Folder;
+import org.kitodo.data.database.beans.Job;
+import org.kitodo.data.database.beans.Process;
+import org.kitodo.data.database.beans.Task;
+import org.kitodo.data.database.enums.JobState;
+import org.kitodo.data.database.enums.JobType;
+import org.kitodo.data.database.exceptions.DAOException;
+import org.kitodo.data.database.persistence.JobDAO;
+import org.kitodo.export.ExportDms;
+import org.kitodo.production.enums.GenerationMode;
+import org.kitodo.production.helper.tasks.EmptyTask;
+import org.kitodo.production.helper.tasks.ExportDmsTask;
+import org.kitodo.production.model.Subfolder;
+import org.kitodo.production.services.ServiceManager;
+import org.kitodo.production.services.data.base.SearchDatabaseService;
+import org.kitodo.production.services.image.ImageGenerator;
+import org.kitodo.production.thread.TaskImageGeneratorThread;
+import org.kitodo.production.thread.TaskScriptThread;
+import org.primefaces.model.SortOrder;
+
+/**
+ * Service for the persistent job queue. Automatic tasks, asynchronous DMS
+ * exports and image generations are stored as jobs, so that they are not lost
+ * if the application is restarted. The jobs are run by the
+ * {@link org.kitodo.production.helper.tasks.TaskManager}.
+ */
+public class JobService extends SearchDatabaseService<Job, JobDAO> {
+
+    private static final String PARAMETER_SEPARATOR = ";";
+    private static final String FOLDER_SEPARATOR = ",";
+
+    /**
+     * Length of the title column of the job table. Titles composed of a task
+     * and a process title may be longer and are abbreviated.
+     */
+    private static final int TITLE_MAX_LENGTH = 255;
+
+    private static volatile JobService instance = null;
+
+    /**
+     * Constructor.
+     */
+    private JobService() {
+        super(new JobDAO());
+    }
+
+    /**
+     * Return singleton variable of type JobService.
+     *
+     * @return unique instance of JobService
+     */
+    public static JobService getInstance() {
+        JobService localReference = instance;
+        if (Objects.isNull(localReference)) {
+            synchronized (JobService.class) {
+                localReference = instance;
+                if (Objects.isNull(localReference)) {
+                    localReference = new JobService();
+                    instance = localReference;
+                }
+            }
+        }
+        return localReference;
+    }
+
+    @Override
+    public List loadData(int first, int pageSize, String sortField, SortOrder sortOrder, Map filters) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Long countDatabaseRows() throws DAOException {
+        return countDatabaseRows("SELECT COUNT(*) FROM Job");
+    }
+
+    @Override
+    public Long countResults(Map filters) throws DAOException {
+        return countDatabaseRows();
+    }
+
+    /**
+     * Adds a job to run the script, image generation and export of an
+     * automatic task to the queue.
+     *
+     * @param task
+     *            automatic task
+     * @throws DAOException
+     *             if the job cannot be saved
+     */
+    public void enqueueScript(Task task) throws DAOException {
+        enqueue(JobType.SCRIPT, task.getTitle() + ": " + task.getProcess().getTitle(), task.getProcess().getId(),
+            task.getId(), null);
+    }
+
+    /**
+     * Adds a job to export a process to the DMS to the queue.
+     *
+     * @param process
+     *            process to export
+     * @param exportWithImages
+     *            whether the images are exported
+     * @throws DAOException
+     *             if the job cannot be saved
+     */
+    public void enqueueDmsExport(Process process, boolean exportWithImages) throws DAOException {
+        enqueue(JobType.DMS_EXPORT, process.getTitle(), process.getId(), null, Boolean.toString(exportWithImages));
+    }
+
+    /**
+     * Adds a job to generate images of a process to the queue. The parameters
+     * of the job are the generation mode, the ID of the source folder and the
+     * IDs of the output folders.
+     *
+     * @param process
+     *            process whose images are generated
+     * @param mode
+     *            which images are generated
+     * @param sourceFolder
+     *            folder with the source images
+     * @param outputFolders
+     *            folders to generate the images in
+     * @throws DAOException
+     *             if the job cannot be saved
+     */
+    public void enqueueImageGeneration(Process process, GenerationMode mode, Folder sourceFolder,
+            Collection<Folder> outputFolders) throws DAOException {
+        String parameters = mode + PARAMETER_SEPARATOR + sourceFolder.getId() + PARAMETER_SEPARATOR
+                + outputFolders.stream().map(folder -> folder.getId().toString())
+                        .collect(Collectors.joining(FOLDER_SEPARATOR));
+        enqueue(JobType.IMAGE_GENERATION, process.getTitle(), process.getId(), null, parameters);
+    }
+
+    private void enqueue(JobType type, String title, Integer processId, Integer taskId, String parameters)
+            throws DAOException {
+        Job job = new Job();
+        job.setType(type);
+        job.setTitle(StringUtils.abbreviate(title, TITLE_MAX_LENGTH));
+        job.setProcessId(processId);
+        job.setTaskId(taskId);
+        job.setParameters(parameters);
+        job.setCreated(new Date());
+        saveToDatabase(job);
+    }
+
+    /**
+     * Creates the task manager thread which runs a job.
+     *
+     * @param job
+     *            job to run
+     * @return the thread running the job
+     * @throws DAOException
+     *             if the process, task or a folder of the job no longer exists
+     */
+    public EmptyTask createTask(Job job) throws DAOException {
+        switch (job.getType()) {
+            case SCRIPT:
+                Task task = ServiceManager.getTaskService().getById(job.getTaskId());
+                if (Objects.isNull(task.getProcessingBegin())) {
+                    task.setProcessingBegin(job.getCreated());
+                }
+                return new TaskScriptThread(task);
+            case DMS_EXPORT:
+                return new ExportDmsTask(new ExportDms(Boolean.parseBoolean(job.getParameters())),
+                        ServiceManager.getProcessService().getById(job.getProcessId()));
+            case IMAGE_GENERATION:
+                return createImageGeneratorTask(job);
+            default:
+                throw new IllegalArgumentException("Unknown job type: " + job.getType());
+        }
+    }
+
+    private TaskImageGeneratorThread createImageGeneratorTask(Job job) throws DAOException {
+        String[] parameters = job.getParameters().split(PARAMETER_SEPARATOR, 3);
+        Process process = ServiceManager.getProcessService().getById(job.getProcessId());
+        FolderService folderService = ServiceManager.getFolderService();
+        Subfolder sourceFolder = new Subfolder(process, folderService.getById(Integer.valueOf(parameters[1])));
+        List<Subfolder> outputs = new ArrayList<>();
+        for (String folderId : parameters[2].split(FOLDER_SEPARATOR)) {
+            outputs.add(new Subfolder(process, folderService.getById(Integer.valueOf(folderId))));
+        }
+        ImageGenerator imageGenerator = new ImageGenerator(sourceFolder, GenerationMode.valueOf(parameters[0]),
+                outputs);
+        return new TaskImageGeneratorThread(process.getTitle(), imageGenerator);
+    }
+
+    /**
+     * Returns the oldest jobs of a type which can be claimed.
+     *
+     * @param type
+     *            type of jobs
+     * @param now
+     *            current time
+     * @param max
+     *            maximum number of jobs to return
+     * @return the jobs which can be claimed
+     * @throws DAOException
+     *             if the database cannot be accessed
+     */
+    public List<Job> getClaimable(JobType type, Date now, int max) throws DAOException {
+        return dao.getClaimable(type, now, max);
+    }
+
+    /**
+     * Claims a job for a worker.
+     *
+     * @param job
+     *            job to claim
+     * @param owner
+     *            the worker which claims the job
+     * @param now
+     *            current time
+     * @param leaseExpires
+     *            time until when the job is claimed
+     * @return whether the job was claimed
+     * @throws DAOException
+     *             if the database cannot be accessed
+     */
+    public boolean claim(Job job, String owner, Date now, Date leaseExpires) throws DAOException {
+        return dao.claim(job.getId(), owner, now, leaseExpires);
+    }
+
+    /**
+     * Extends the leases of the running jobs of a worker.
+     *
+     * @param jobIds
+     *            ids of the running jobs
+     * @param owner
+     *            the worker running the jobs
+     * @param leaseExpires
+     *            new end of the leases
+     * @throws DAOException
+     *             if the database cannot be accessed
+     */
+    public void renewLeases(Collection<Integer> jobIds, String owner, Date leaseExpires) throws DAOException {
+        dao.renewLeases(jobIds, owner, leaseExpires);
+    }
+
+    /**
+     * Sets the final state of a job run by a worker.
+     *
+     * @param jobId
+     *            id of the job
+     * @param owner
+     *            the worker running the job
+     * @param state
+     *            final state of the job
+     * @param error
+     *            error message if the job failed, else {@code null}
+     * @throws DAOException
+     *             if the database cannot be accessed
+     */
+    public void finish(Integer jobId, String owner, JobState state, String error) throws DAOException {
+        dao.finish(jobId, owner, state, error, new Date());
+    }
+
+    /**
+     * Puts the running jobs of a worker back into the queue.
+     *
+     * @param owner
+     *            the worker running the jobs
+     * @throws DAOException
+     *             if the database cannot be accessed
+     */
+    public void release(String owner) throws DAOException {
+        dao.release(owner);
+    }
+
+    /**
+     * Deletes the jobs which have ended before a given time.
+     *
+     * @param finishedBefore
+     *            the jobs which ended before this time are deleted
+     * @throws DAOException
+     *             if the database cannot be accessed
+     */
+    public void removeFinished(Date finishedBefore) throws DAOException {
+        for (JobState state : new JobState[] {JobState.FINISHED, JobState.FAILED, JobState.CANCELLED }) {
+            dao.removeFinished(state, finishedBefore);
+        }
+    }
+
+    /**
+     * Returns the number of queued jobs for each type of job.
+     *
+     * @return the number of queued jobs by type
+     * @throws DAOException
+     *             if the database cannot be accessed
+     */
+    public Map<JobType, Long> countQueued() throws DAOException {
+        return dao.countQueued();
+    }
+}
@@ -83,9 +83,6 @@ public class MassImportService {
 
     private void importPPNs(String selectedCatalog, List<String> ppns, int projectId, int templateId)
             throws ImportException {
-        ImportService importService = ServiceManager.getImportService();
-        for (String ppn : ppns) {
-            importService.importProcess(ppn, projectId, templateId, selectedCatalog);
-        }
+        ServiceManager.getImportService().importProcesses(ppns, projectId, templateId, selectedCatalog);
     }
 }
@@ -0,0 +1,239 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Extracts the metadata of a process for the index from its METS file. The
+ * file is read with StAX and only the {@code <kitodo:metadata>} and
+ * {@code <kitodo:metadataGroup>} elements of the {@code <mets:dmdSec>}s are
+ * kept, in the structure which is searched by the {@code ProcessService}:
+ * {@code mdWrap.xmlData.kitodo.metadata} with {@code name} and
+ * {@code content}.
+ */
+class ProcessMetadataExtractor {
+    private static final String METS_NAMESPACE = "http://www.loc.gov/METS/";
+    private static final String KITODO_NAMESPACE = "http://meta.kitodo.org/v1/";
+
+    private static final String CONTENT = "content";
+    private static final String KITODO = "kitodo";
+    private static final String MD_WRAP = "mdWrap";
+    private static final String METADATA = "metadata";
+    private static final String METADATA_GROUP = "metadataGroup";
+    private static final String XML_DATA = "xmlData";
+
+    private static final XMLInputFactory xmlInputFactory = createXmlInputFactory();
+
+    private final XMLStreamReader reader;
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    private ProcessMetadataExtractor(XMLStreamReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the metadata for the index from a METS file.
+     *
+     * @param in
+     *            input stream of the METS file
+     * @return one map for each {@code <mets:dmdSec>}
+     * @throws IOException
+     *             if the file cannot be read or is not well-formed
+     */
+    static List<Map<String, Object>> extract(InputStream in) throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = xmlInputFactory.createXMLStreamReader(in);
+            return new ProcessMetadataExtractor(reader).readMets();
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            if (Objects.nonNull(reader)) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private List<Map<String, Object>> readMets() throws XMLStreamException {
+        List<Map<String, Object>> dmdSecs = new ArrayList<>();
+        if (reader.nextTag() != XMLStreamConstants.START_ELEMENT || !isElement(METS_NAMESPACE, "mets")) {
+            return dmdSecs;
+        }
+        while (nextStartElement()) {
+            if (isElement(METS_NAMESPACE, "dmdSec")) {
+                dmdSecs.add(readDmdSec());
+            } else {
+                skipElement();
+            }
+        }
+        return dmdSecs;
+    }
+
+    private Map<String, Object> readDmdSec() throws XMLStreamException {
+        Map<String, Object> dmdSec = readAttributes();
+        while (nextStartElement()) {
+            if (isElement(METS_NAMESPACE, MD_WRAP)) {
+                Map<String, Object> mdWrap = readAttributes();
+                while (nextStartElement()) {
+                    if (isElement(METS_NAMESPACE, XML_DATA)) {
+                        mdWrap.put(XML_DATA, readXmlData());
+                    } else {
+                        skipElement();
+                    }
+                }
+                dmdSec.put(MD_WRAP, mdWrap);
+            } else {
+                skipElement();
+            }
+        }
+        return dmdSec;
+    }
+
+    private Map<String, Object> readXmlData() throws XMLStreamException {
+        Map<String, Object> xmlData = new HashMap<>();
+        while (nextStartElement()) {
+            if (isElement(KITODO_NAMESPACE, KITODO)) {
+                xmlData.put(KITODO, readMetadataGroup(readAttributes()));
+            } else {
+                skipElement();
+            }
+        }
+        return xmlData;
+    }
+
+    /**
+     * Reads the children of {@code <kitodo:kitodo>} or of a
+     * {@code <kitodo:metadataGroup>} into the given map.
+     */
+    private Map<String, Object> readMetadataGroup(Map<String, Object> group) throws XMLStreamException {
+        List<Map<String, Object>> metadata = new ArrayList<>();
+        List<Map<String, Object>> metadataGroups = new ArrayList<>();
+        while (nextStartElement()) {
+            if (isElement(KITODO_NAMESPACE, METADATA)) {
+                metadata.add(readMetadata());
+            } else if (isElement(KITODO_NAMESPACE, METADATA_GROUP)) {
+                metadataGroups.add(readMetadataGroup(readAttributes()));
+            } else {
+                skipElement();
+            }
+        }
+        if (!metadata.isEmpty()) {
+            group.put(METADATA, metadata);
+        }
+        if (!metadataGroups.isEmpty()) {
+            group.put(METADATA_GROUP, metadataGroups);
+        }
+        return group;
+    }
+
+    /**
+     * Reads a {@code <kitodo:metadata>} element. Its trimmed text becomes the
+     * {@code content}. Older files nest {@code <kitodo:metadata>} elements in
+     * a {@code <kitodo:metadata type="group">}, these are kept as children of
+     * the entry.
+     */
+    private Map<String, Object> readMetadata() throws XMLStreamException {
+        Map<String, Object> metadataEntry = readAttributes();
+        StringBuilder content = new StringBuilder();
+        List<Map<String, Object>> children = new ArrayList<>();
+        int event;
+        while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (isElement(KITODO_NAMESPACE, METADATA)) {
+                    children.add(readMetadata());
+                } else {
+                    skipElement();
+                }
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                    || event == XMLStreamConstants.SPACE || event == XMLStreamConstants.ENTITY_REFERENCE) {
+                content.append(reader.getText());
+            }
+        }
+        String text = content.toString().trim();
+        if (children.isEmpty()) {
+            if (!text.isEmpty()) {
+                metadataEntry.put(CONTENT, text);
+            }
+        } else {
+            metadataEntry.put(METADATA, children);
+        }
+        return metadataEntry;
+    }
+
+    private Map<String, Object> readAttributes() {
+        int attributeCount = reader.getAttributeCount();
+        Map<String, Object> attributes = new HashMap<>();
+        for (int i = 0; i < attributeCount; i++) {
+            attributes.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+        }
+        return attributes;
+    }
+
+    private boolean isElement(String namespace, String localName) {
+        return localName.equals(reader.getLocalName()) && namespace.equals(reader.getNamespaceURI());
+    }
+
+    /**
+     * Moves to the next child element of the current element. Text between
+     * the elements is ignored.
+     *
+     * @return true if there is a next child element, false if the end of the
+     *         current element has been reached
+     */
+    private boolean nextStartElement() throws XMLStreamException {
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    return true;
+                case XMLStreamConstants.END_ELEMENT:
+                    return false;
+                default:
+                    break;
+            }
+        }
+        return false;
+    }
+
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+}
@@ -34,13 +34,13 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.text.DecimalFormat;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -65,6 +65,7 @@ import javax.faces.context.FacesContext;
 
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.search.join.ScoreMode;
@@ -75,6 +76,7 @@ import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.Row;
+import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.MatchQueryBuilder;
 import org.elasticsearch.index.query.MultiMatchQueryBuilder;
@@ -84,9 +86,6 @@ import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.search.sort.SortBuilder;
 import org.elasticsearch.search.sort.SortBuilders;
 import org.elasticsearch.search.sort.SortOrder;
-import org.json.JSONArray;
-import org.json.JSONObject;
-import org.json.XML;
 import org.kitodo.api.dataeditor.rulesetmanagement.FunctionalDivision;
 import org.kitodo.api.dataformat.IncludedStructuralElement;
 import org.kitodo.api.docket.DocketData;
@@ -148,6 +147,7 @@ import org.kitodo.production.process.TitleGenerator;
 import org.kitodo.production.services.ServiceManager;
 import org.kitodo.production.services.data.base.ProjectSearchService;
 import org.kitodo.production.services.file.FileService;
+import org.kitodo.production.services.index.IndexQueue;
 import org.kitodo.production.services.workflow.WorkflowControllerService;
 import org.kitodo.serviceloader.KitodoServiceLoader;
 import org.primefaces.model.charts.ChartData;
@@ -279,18 +279,46 @@ public class ProcessService extends ProjectSearchService<Process, ProcessDTO, Pr
     @Override
     public void saveToIndex(Process process, boolean forceRefresh)
             throws CustomResponseException, DataException, IOException {
-        process.setMetadata(getMetadataForIndex(process));
-        process.setBaseType(getBaseType(process));
+        prepareForIndex(process, false);
         super.saveToIndex(process, forceRefresh);
     }
 
+    @Override
+    protected void saveToIndex(List<Process> processes) throws CustomResponseException {
+        prepareForIndex(processes, false);
+        super.saveToIndex(processes);
+    }
+
     @Override
     public void addAllObjectsToIndex(List<Process> processes) throws CustomResponseException, DAOException {
+        prepareForIndex(processes, true);
+        super.addAllObjectsToIndex(processes);
+    }
+
+    @Override
+    public List<BulkRequest> createBulkRequests(List<Process> processes, long maximumBytes) {
+        prepareForIndex(processes, true);
+        return super.createBulkRequests(processes, maximumBytes);
+    }
+
+    private void prepareForIndex(List<Process> processes, boolean forIndexingAll) {
         for (Process process : processes) {
-            process.setMetadata(getMetadataForIndex(process, true));
-            process.setBaseType(getBaseType(process));
+            prepareForIndex(process, forIndexingAll);
         }
-        super.addAllObjectsToIndex(processes);
+    }
+
+    /**
+     * Sets the metadata and the base type of a process, which are not stored
+     * in the database but are written to the index.
+     *
+     * @param process
+     *            process to prepare
+     * @param forIndexingAll
+     *            whether the metadata file is read for indexing all processes
+     */
+    private void prepareForIndex(Process process, boolean forIndexingAll) {
+        process.setMetadata(getMetadataForIndex(process, forIndexingAll));
+        process.setBaseType(getBaseType(process));
     }
 
     /**
@@ -334,6 +362,27 @@ public class ProcessService extends ProjectSearchService<Process, ProcessDTO, Pr
                 getSortBuilder(sortField, sortOrder), first, pageSize, false);
     }
 
+    /**
+     * Load a page of processes with given parameters, and count all processes
+     * matching them, with one request to the index.
+     * @param first index of first process to load
+     * @param pageSize number of processes to load
+     * @param sortField name of field by which processes are sorted
+     * @param sortOrder SortOrder by which processes are sorted - either ascending or descending
+     * @param filters filter map
+     * @param showClosedProcesses boolean controlling whether to load closed processes or not
+     * @param showInactiveProjects boolean controlling whether to load processes of closed projects or not
+     * @return number of matching processes, and list of loaded processes
+     * @throws DataException if processes cannot be loaded from search index
+     */
+    public Pair<Long, List<ProcessDTO>> countAndLoadData(int first, int pageSize, String sortField,
+            org.primefaces.model.SortOrder sortOrder, Map filters, boolean showClosedProcesses,
+            boolean showInactiveProjects) throws DataException {
+        String filter = ServiceManager.getFilterService().parseFilterString(filters);
+        return countAndFindByQuery(getQueryForFilter(showClosedProcesses, showInactiveProjects, filter),
+            getSortBuilder(sortField, sortOrder), first, pageSize, false);
+    }
+
     /**
      * Gets the query for the current processfilter.
      * @param showClosedProcesses if closed processes are shown
@@ -502,6 +551,59 @@ public class ProcessService extends ProjectSearchService<Process, ProcessDTO, Pr
         dao.saveList(list);
     }
 
+    /**
+     * Saves processes which were changed together, with their tasks. The
+     * processes and tasks are saved to the database in one transaction and
+     * written to the index in one bulk request, or added to the index queue
+     * if writing behind is enabled. Unlike {@link #save(Process)}, the batches
+     * and projects of the processes are not written to the index again, as
+     * they do not change with the tasks of the processes.
+     *
+     * @param processes
+     *            processes to save
+     */
+    public void saveInBulk(List<Process> processes) throws DataException {
+        if (processes.isEmpty()) {
+            return;
+        }
+        List<Task> tasks = new ArrayList<>();
+        for (Process process : processes) {
+            WorkflowControllerService.updateProcessSortHelperStatus(process);
+            process.setIndexAction(IndexAction.INDEX);
+            for (Task task : process.getTasks()) {
+                task.setIndexAction(IndexAction.INDEX);
+                tasks.add(task);
+            }
+        }
+        try {
+            dao.saveList(processes);
+        } catch (DAOException e) {
+            throw new DataException(e);
+        }
+
+        TaskService taskService = ServiceManager.getTaskService();
+        if (IndexQueue.isEnabled()) {
+            for (Process process : processes) {
+                IndexQueue.getInstance().add(this, process.getId());
+            }
+            for (Task task : tasks) {
+                IndexQueue.getInstance().add(taskService, task.getId());
+            }
+            return;
+        }
+        try {
+            prepareForIndex(processes, false);
+            BulkRequest bulkRequest = new BulkRequest();
+            addToBulkRequest(processes, bulkRequest);
+            taskService.addToBulkRequest(tasks, bulkRequest);
+            addBulkRequestToIndex(bulkRequest);
+            updateIndexAction(processes, IndexAction.DONE);
+            taskService.updateIndexAction(tasks, IndexAction.DONE);
+        } catch (CustomResponseException | DAOException e) {
+            throw new DataException(e);
+        }
+    }
+
     @Override
     public void refresh(Process process) {
         dao.refresh(process);
@@ -877,6 +979,23 @@ public class ProcessService extends ProjectSearchService<Process, ProcessDTO, Pr
         return processDTO;
     }
 
+    @Override
+    protected void prefetchRelatedDTOs(List<Map<String, Object>> jsonObjects) throws DataException {
+        Set<Integer> projects = new HashSet<>();
+        Set<Integer> rulesets = new HashSet<>();
+        Set<Integer> tasks = new HashSet<>();
+        for (Map<String, Object> jsonObject : jsonObjects) {
+            projects.add(ProcessTypeField.PROJECT_ID.getIntValue(jsonObject));
+            rulesets.add(ProcessTypeField.RULESET.getIntValue(jsonObject));
+            for (Map<String, Object> task : ProcessTypeField.TASKS.getJsonArray(jsonObject)) {
+                tasks.add((Integer) task.get("id"));
+            }
+        }
+        prefetchDTOs(ServiceManager.getProjectService(), projects);
+        prefetchDTOs(ServiceManager.getRulesetService(), rulesets);
+        prefetchDTOs(ServiceManager.getTaskService(), tasks);
+    }
+
     private void convertRelatedJSONObjects(Map<String, Object> jsonObject, ProcessDTO processDTO) throws DataException {
         int project = ProcessTypeField.PROJECT_ID.getIntValue(jsonObject);
         if (project > 0) {
@@ -1644,8 +1763,7 @@ public class ProcessService extends ProjectSearchService<Process, ProcessDTO, Pr
 
         try (OutputStream outputStream = externalContext.getResponseOutputStream();
                 FileInputStream fileInputStream = new FileInputStream(file)) {
-            byte[] bytes = IOUtils.toByteArray(fileInputStream);
-            outputStream.write(bytes);
+            IOUtils.copy(fileInputStream, outputStream);
             outputStream.flush();
         }
         facesContext.responseComplete();
@@ -2034,18 +2152,27 @@ public class ProcessService extends ProjectSearchService<Process, ProcessDTO, Pr
     }
 
     /**
-     * Creates a List of Docket data for the given processes.
+     * Creates a List of Docket data for the given processes. The docket data
+     * of a process is created when it is read from the list, so that the
+     * docket module, which writes one process after the other, does not need
+     * to keep the docket data of all processes in memory.
      *
      * @param processes
      *            the process to create the docket data for.
      * @return A List of DocketData objects
      */
     private List<DocketData> getDocketData(List<Process> processes) {
-        List<DocketData> docketData = new ArrayList<>();
-        for (Process process : processes) {
-            docketData.add(getDocketData(process));
-        }
-        return docketData;
+        return new AbstractList<DocketData>() {
+            @Override
+            public DocketData get(int index) {
+                return getDocketData(processes.get(index));
+            }
+
+            @Override
+            public int size() {
+                return processes.size();
+            }
+        };
     }
 
     /**
@@ -2091,11 +2218,6 @@ public class ProcessService extends ProjectSearchService<Process, ProcessDTO, Pr
         return propertiesForDocket;
     }
 
-    private List<Map<String, Object>> getMetadataForIndex(Process process) {
-        return getMetadataForIndex(process, false);
-    }
-
-    @SuppressWarnings("unchecked")
     private List<Map<String, Object>> getMetadataForIndex(Process process, boolean forIndexingAll) {
         try {
             URI metadataFileUri = ServiceManager.getFileService().getMetadataFilePath(process, false, true);
@@ -2103,22 +2225,8 @@ public class ProcessService extends ProjectSearchService<Process, ProcessDTO, Pr
                 logger.info("No metadata file for indexing: {}", metadataFileUri);
                 return Collections.emptyList();
             }
-            String metadataFile;
             try (InputStream inputStream = ServiceManager.getFileService().readMetadataFile(process, forIndexingAll)) {
-                metadataFile = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
-            }
-            JSONObject xmlJSONObject = XML.toJSONObject(metadataFile);
-            Map<String, Object> json = iterateOverJsonObject(xmlJSONObject);
-            if (json.containsKey("mets")) {
-                Map<String, Object> mets = (Map<String, Object>) json.get("mets");
-                Object dmdSec = mets.get("dmdSec");
-                List<Map<String, Object>> metadata = new ArrayList<>();
-                if (dmdSec instanceof List) {
-                    metadata = (List<Map<String, Object>>) dmdSec;
-                } else if (dmdSec instanceof Map) {
-                    metadata.add((Map<String, Object>) dmdSec);
-                }
-                return metadata;
+                return ProcessMetadataExtractor.extract(inputStream);
             }
         } catch (NullPointerException | IOException e) {
             logger.warn(e.getMessage(), e);
@@ -2126,48 +2234,6 @@ public class ProcessService extends ProjectSearchService<Process, ProcessDTO, Pr
         return Collections.emptyList();
     }
 
-    private Map<String, Object> iterateOverJsonObject(JSONObject xmlJSONObject) {
-        Iterator<String> keys = xmlJSONObject.keys();
-        Map<String, Object> json = new HashMap<>();
-        while (keys.hasNext()) {
-            String key = keys.next();
-            Object value = xmlJSONObject.get(key);
-            if (value instanceof String || value instanceof Integer) {
-                json.put(prepareKey(key), value);
-            } else if (value instanceof JSONObject) {
-                JSONObject jsonObject = (JSONObject) value;
-                Map<String, Object> map = iterateOverJsonObject(jsonObject);
-                json.put(prepareKey(key), map);
-            } else if (value instanceof JSONArray) {
-                json.put(prepareKey(key), iterateOverJsonArray((JSONArray) value));
-            }
-        }
-        return json;
-    }
-
-    private Object iterateOverJsonArray(JSONArray jsonArray) {
-        int jsonArraySize = jsonArray.length();
-        List<Object> json = new ArrayList<>(jsonArraySize);
-        for (int i = 0; i < jsonArraySize; i++) {
-            Object value = jsonArray.get(i);
-            if (value instanceof JSONObject) {
-                json.add(iterateOverJsonObject((JSONObject) value));
-            } else if (value instanceof String) {
-                json.add(value);
-            } else if (value instanceof JSONArray) {
-                json.add(iterateOverJsonArray((JSONArray) value));
-            }
-        }
-        return json;
-    }
-
-    private String prepareKey(String key) {
-        if (key.contains(":")) {
-            return key.substring(key.indexOf(':') + 1);
-        }
-        return key;
-    }
-
     /**
      * Retrieve and return process property value of property with given name
      * 'propertyName' from given ProcessDTO 'process'.
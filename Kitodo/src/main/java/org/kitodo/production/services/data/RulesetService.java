@@ -11,6 +11,7 @@
 
 package org.kitodo.production.services.data;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Paths;
@@ -43,12 +44,16 @@ import org.kitodo.production.dto.RulesetDTO;
 import org.kitodo.production.helper.metadata.legacytypeimplementations.LegacyPrefsHelper;
 import org.kitodo.production.services.ServiceManager;
 import org.kitodo.production.services.data.base.ClientSearchService;
+import org.kitodo.production.services.dataeditor.RulesetCache;
 import org.primefaces.model.SortOrder;
 
 public class RulesetService extends ClientSearchService<Ruleset, RulesetDTO, RulesetDAO> {
 
     private static final Logger logger = LogManager.getLogger(RulesetService.class);
     private static volatile RulesetService instance = null;
+    private final RulesetCache rulesetCache = new RulesetCache(
+        () -> ServiceManager.getRulesetManagementService().getRulesetManagement(),
+        ConfigCore.getIntParameterOrDefaultValue(ParameterCore.RULESET_CACHE_SIZE));
 
     /**
      * Constructor with Searcher and Indexer assigning.
@@ -202,13 +207,12 @@ public class RulesetService extends ClientSearchService<Ruleset, RulesetDTO, Rul
      * @return preferences
      */
     public LegacyPrefsHelper getPreferences(Ruleset ruleset) {
-        LegacyPrefsHelper myPreferences = new LegacyPrefsHelper();
         try {
-            myPreferences.loadPrefs(ConfigCore.getParameter(ParameterCore.DIR_RULESETS) + ruleset.getFile());
+            return new LegacyPrefsHelper(openRuleset(ruleset));
         } catch (IOException e) {
             logger.error(e.getMessage(), e);
+            return new LegacyPrefsHelper();
         }
-        return myPreferences;
     }
 
     private QueryBuilder getRulesetsForCurrentUserQuery() {
@@ -219,7 +223,10 @@ public class RulesetService extends ClientSearchService<Ruleset, RulesetDTO, Rul
     }
 
     /**
-     * Acquires a ruleset Management and loads a ruleset into it.
+     * Returns a ruleset Management in which the ruleset has been loaded. The
+     * ruleset is only read from disk if it is not cached yet or its file has
+     * been modified since. The returned ruleset management is shared and must
+     * not be loaded again.
      *
      * @param ruleset
      *            database object that references the ruleset
@@ -227,11 +234,10 @@ public class RulesetService extends ClientSearchService<Ruleset, RulesetDTO, Rul
      */
     public RulesetManagementInterface openRuleset(Ruleset ruleset) throws IOException {
         final long begin = System.nanoTime();
-        RulesetManagementInterface rulesetManagement = ServiceManager.getRulesetManagementService()
-                .getRulesetManagement();
         String fileName = ruleset.getFile();
+        RulesetManagementInterface rulesetManagement;
         try {
-            rulesetManagement.load(Paths.get(ConfigCore.getParameter(ParameterCore.DIR_RULESETS), fileName).toFile());
+            rulesetManagement = rulesetCache.get(getRulesetFile(fileName));
         } catch (FileNotFoundException e) {
             throw new RulesetNotFoundException(fileName);
         }
@@ -241,4 +247,31 @@ public class RulesetService extends ClientSearchService<Ruleset, RulesetDTO, Rul
         }
         return rulesetManagement;
     }
+
+    /**
+     * Removes a ruleset file from the ruleset cache, so that it is read again
+     * on next access. Should be called whenever a ruleset is edited.
+     *
+     * @param fileName
+     *            name of the ruleset file
+     */
+    public void invalidateRulesetCache(String fileName) {
+        if (Objects.nonNull(fileName)) {
+            rulesetCache.invalidate(getRulesetFile(fileName));
+        }
+    }
+
+    /**
+     * Returns the cache of loaded rulesets, for example to check its hit and
+     * miss counters.
+     *
+     * @return the ruleset cache
+     */
+    public RulesetCache getRulesetCache() {
+        return rulesetCache;
+    }
+
+    private File getRulesetFile(String fileName) {
+        return Paths.get(ConfigCore.getParameter(ParameterCore.DIR_RULESETS), fileName).toFile();
+    }
 }
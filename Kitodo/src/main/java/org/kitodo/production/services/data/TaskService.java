@@ -225,6 +225,32 @@ public class TaskService extends ProjectSearchService<Task, TaskDTO, TaskDAO> {
                 taskStatus), getSortBuilder(sortField, sortOrder), first, pageSize, false);
     }
 
+    /**
+     * Load a page of tasks with given parameters, and count all tasks matching
+     * them, with one request to the index.
+     * @param first index of first task to load
+     * @param pageSize number of tasks to load
+     * @param sortField name of field by which tasks are sorted
+     * @param sortOrder SortOrder by which tasks are sorted - either ascending or descending
+     * @param filters filter map
+     * @param onlyOwnTasks boolean controlling whether to load only tasks assigned to current user or not
+     * @param hideCorrectionTasks boolean controlling whether to load correction tasks or not
+     * @param showAutomaticTasks boolean controlling whether to load automatic tasks or not
+     * @param taskStatus TaskStatus by which tasks are filtered
+     * @return number of matching tasks, and list of loaded tasks
+     * @throws DataException if tasks cannot be loaded from search index
+     */
+    public Pair<Long, List<TaskDTO>> countAndLoadData(int first, int pageSize, String sortField, SortOrder sortOrder,
+            Map filters, boolean onlyOwnTasks, boolean hideCorrectionTasks, boolean showAutomaticTasks,
+            TaskStatus taskStatus) throws DataException {
+        if ("process.creationDate".equals(sortField)) {
+            sortField = "processForTask.creationDate";
+        }
+        String filter = ServiceManager.getFilterService().parseFilterString(filters);
+        return countAndFindByQuery(createUserTaskQuery(filter, onlyOwnTasks, hideCorrectionTasks,
+            showAutomaticTasks, taskStatus), getSortBuilder(sortField, sortOrder), first, pageSize, false);
+    }
+
     /**
      * Method saves or removes dependencies with process, users and user's
      * groups related to modified task.
@@ -351,6 +377,15 @@ public class TaskService extends ProjectSearchService<Task, TaskDTO, TaskDAO> {
         return taskDTO;
     }
 
+    @Override
+    protected void prefetchRelatedDTOs(List<Map<String, Object>> jsonObjects) throws DataException {
+        Set<Integer> processes = new HashSet<>();
+        for (Map<String, Object> jsonObject : jsonObjects) {
+            processes.add(TaskTypeField.PROCESS_ID.getIntValue(jsonObject));
+        }
+        prefetchDTOs(ServiceManager.getProcessService(), processes);
+    }
+
     private List<Integer> convertJSONValuesToList(List<Map<String, Object>> jsonObject) {
         return jsonObject.stream()
                 .flatMap(map -> map.values().stream())
@@ -14,6 +14,7 @@ package org.kitodo.production.services.data.base;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.kitodo.data.database.beans.BaseBean;
 import org.kitodo.data.database.exceptions.DAOException;
@@ -25,6 +26,12 @@ public abstract class SearchDatabaseService<T extends BaseBean, S extends BaseDA
 
     protected S dao;
 
+    /**
+     * Number of objects saved to or removed from the database by this service.
+     * Lists compare it to decide whether their row count is still valid.
+     */
+    private final AtomicLong modifications = new AtomicLong();
+
     /**
      * Constructor necessary to use searcher in child classes.
      *
@@ -62,6 +69,7 @@ public abstract class SearchDatabaseService<T extends BaseBean, S extends BaseDA
      */
     public void saveToDatabase(T baseIndexedBean) throws DAOException {
         dao.save(baseIndexedBean);
+        modifications.incrementAndGet();
     }
 
     /**
@@ -72,6 +80,7 @@ public abstract class SearchDatabaseService<T extends BaseBean, S extends BaseDA
      */
     public void removeFromDatabase(T baseIndexedBean) throws DAOException {
         dao.remove(baseIndexedBean);
+        modifications.incrementAndGet();
     }
 
     /**
@@ -82,6 +91,18 @@ public abstract class SearchDatabaseService<T extends BaseBean, S extends BaseDA
      */
     public void removeFromDatabase(Integer id) throws DAOException {
         dao.remove(id);
+        modifications.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of objects saved to or removed from the database by
+     * this service so far. The number only grows; if it has changed, the
+     * number of objects may have changed.
+     *
+     * @return the number of modifications
+     */
+    public long getModifications() {
+        return modifications.get();
     }
 
     /**
@@ -19,9 +19,13 @@ import static org.elasticsearch.index.query.QueryBuilders.termsQuery;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.LongSummaryStatistics;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -29,8 +33,12 @@ import java.util.Set;
 import javax.json.JsonObject;
 import javax.ws.rs.HttpMethod;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.Operator;
 import org.elasticsearch.index.query.QueryBuilder;
@@ -55,6 +63,7 @@ import org.kitodo.data.exceptions.DataException;
 import org.kitodo.production.dto.BaseDTO;
 import org.kitodo.production.helper.Helper;
 import org.kitodo.production.services.data.ProjectService;
+import org.kitodo.production.services.index.IndexQueue;
 import org.primefaces.model.SortOrder;
 
 /**
@@ -70,6 +79,33 @@ public abstract class SearchService<T extends BaseIndexedBean, S extends BaseDTO
     protected BaseType type;
     protected static final String WILDCARD = "*";
 
+    /**
+     * Related objects found while a page of search results is converted to
+     * DTOs on this thread. Set only during the outermost call of
+     * {@link #convertJSONObjectsToDTOs(List, boolean)}.
+     */
+    private static final ThreadLocal<RelatedDTOs> relatedDTOs = new ThreadLocal<>();
+
+    /**
+     * Number of index requests needed to find the related objects of a page of
+     * search results.
+     */
+    private static final LongSummaryStatistics roundTripsPerPage = new LongSummaryStatistics();
+
+    /**
+     * Identity map of the related objects of a page of search results, by
+     * service and id, so that each related object is requested and converted
+     * only once per page.
+     */
+    private static class RelatedDTOs {
+        private final Map<SearchService<?, ?, ?>, Map<Integer, BaseDTO>> dtos = new IdentityHashMap<>();
+        private int roundTrips;
+
+        private Map<Integer, BaseDTO> of(SearchService<?, ?, ?> service) {
+            return dtos.computeIfAbsent(service, key -> new HashMap<>());
+        }
+    }
+
     /**
      * Constructor necessary to use searcher in child classes.
      *
@@ -131,6 +167,23 @@ public abstract class SearchService<T extends BaseIndexedBean, S extends BaseDTO
         return dao.getAllNotIndexed(offset, size);
     }
 
+    /**
+     * Get objects from database with an id greater than the given one, ordered
+     * by id.
+     *
+     * @param lastId
+     *            id of the last object of the previous page, 0 for the first
+     *            page
+     * @param size
+     *            amount of results
+     * @param notIndexedOnly
+     *            if true, only not indexed objects are returned
+     * @return list of objects from database following the given id
+     */
+    public List<T> getAllAfter(int lastId, int size, boolean notIndexedOnly) throws DAOException {
+        return dao.getAllAfter(lastId, size, notIndexedOnly);
+    }
+
     /**
      * Get all DTO objects from index an convert them for frontend with all
      * relations.
@@ -196,6 +249,50 @@ public abstract class SearchService<T extends BaseIndexedBean, S extends BaseDTO
         }
     }
 
+    /**
+     * Write the given objects to the index in one bulk request and wait for
+     * the answer.
+     *
+     * @param baseIndexedBeans
+     *            List of BaseIndexedBean objects
+     */
+    @SuppressWarnings("unchecked")
+    protected void saveToIndex(List<T> baseIndexedBeans) throws CustomResponseException {
+        indexer.performBulkUpdate(baseIndexedBeans, type);
+    }
+
+    /**
+     * Write the objects with the given ids, as they are in the database now,
+     * and the objects depending on them to the index, and mark them as
+     * indexed. Objects which have been removed from the database in the
+     * meantime are left out. This is called by the {@link IndexQueue}.
+     *
+     * @param ids
+     *            ids of the queued objects
+     */
+    public void saveQueuedToIndex(List<Integer> ids) throws DataException {
+        List<T> baseIndexedBeans = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            try {
+                T baseIndexedBean = getById(id);
+                if (baseIndexedBean.getIndexAction() != IndexAction.DELETE) {
+                    baseIndexedBeans.add(baseIndexedBean);
+                }
+            } catch (DAOException e) {
+                logger.debug("Queued object {} not found: {}", id, e.getMessage());
+            }
+        }
+        try {
+            saveToIndex(baseIndexedBeans);
+            for (T baseIndexedBean : baseIndexedBeans) {
+                manageDependenciesForIndex(baseIndexedBean);
+            }
+            updateIndexAction(baseIndexedBeans, IndexAction.DONE);
+        } catch (CustomResponseException | DAOException | IOException e) {
+            throw new DataException(e);
+        }
+    }
+
     /**
      * Method adds all object found in database to Elastic Search index.
      *
@@ -211,7 +308,91 @@ public abstract class SearchService<T extends BaseIndexedBean, S extends BaseDTO
         setIndexColumToIndexed(baseIndexedBeans);
     }
 
-    private void setIndexColumToIndexed(List<T> baseIndexedBeans) throws DAOException {
+    /**
+     * Create the index documents for the given objects, packed into bulk
+     * requests of about the given size.
+     *
+     * @param baseIndexedBeans
+     *            List of BaseIndexedBean objects
+     * @param maximumBytes
+     *            size in bytes after which a bulk request is complete
+     * @return bulk requests to send with {@link #addBulkRequestToIndex(BulkRequest, ActionListener)}
+     */
+    @SuppressWarnings("unchecked")
+    public List<BulkRequest> createBulkRequests(List<T> baseIndexedBeans, long maximumBytes) {
+        indexer.setMethod(HttpMethod.PUT);
+        return indexer.createBulkRequests(baseIndexedBeans, type, maximumBytes);
+    }
+
+    /**
+     * Add the index documents for the given objects to a bulk request. The
+     * documents are written to the index in use and, while the index is being
+     * rebuilt, to the new index as well.
+     *
+     * @param baseIndexedBeans
+     *            List of BaseIndexedBean objects
+     * @param bulkRequest
+     *            bulk request to add the documents to, may contain documents
+     *            of other types
+     */
+    @SuppressWarnings("unchecked")
+    public void addToBulkRequest(List<T> baseIndexedBeans, BulkRequest bulkRequest) {
+        indexer.addToBulkRequest(bulkRequest, baseIndexedBeans, type);
+    }
+
+    /**
+     * Send a bulk request to the index without waiting for the response.
+     *
+     * @param bulkRequest
+     *            bulk request created by {@link #createBulkRequests(List, long)}
+     * @param listener
+     *            called when the request has been answered or has failed
+     */
+    public void addBulkRequestToIndex(BulkRequest bulkRequest, ActionListener<BulkResponse> listener) {
+        indexer.performBulkRequest(bulkRequest, listener);
+    }
+
+    /**
+     * Send a bulk request to the index and wait for the response.
+     *
+     * @param bulkRequest
+     *            bulk request filled by {@link #addToBulkRequest(List, BulkRequest)},
+     *            may contain documents of several types
+     */
+    public void addBulkRequestToIndex(BulkRequest bulkRequest) throws CustomResponseException {
+        indexer.performBulkRequest(bulkRequest);
+    }
+
+    /**
+     * Set the index action of the given objects in the database with one
+     * update per index action they had when they were read, without saving
+     * their other properties. Objects whose index action has been changed in
+     * the database in the meantime, for example by saving them again, keep
+     * the changed index action.
+     *
+     * @param baseIndexedBeans
+     *            List of BaseIndexedBean objects
+     * @param indexAction
+     *            index action to set
+     */
+    public void updateIndexAction(List<T> baseIndexedBeans, IndexAction indexAction) throws DAOException {
+        Map<IndexAction, List<T>> beansByIndexAction = new HashMap<>();
+        for (T baseIndexedBean : baseIndexedBeans) {
+            beansByIndexAction.computeIfAbsent(baseIndexedBean.getIndexAction(), expected -> new ArrayList<>())
+                    .add(baseIndexedBean);
+        }
+        for (Map.Entry<IndexAction, List<T>> entry : beansByIndexAction.entrySet()) {
+            dao.updateIndexAction(entry.getValue(), entry.getKey(), indexAction);
+        }
+    }
+
+    /**
+     * Set the index action of the given objects to DONE and save them.
+     *
+     * @param baseIndexedBeans
+     *            List of BaseIndexedBean objects which were written to the index
+     */
+    public void setIndexColumToIndexed(List<T> baseIndexedBeans) throws DAOException {
         for (T baseIndexedBean : baseIndexedBeans) {
             baseIndexedBean.setIndexAction(IndexAction.DONE);
             saveToDatabase(baseIndexedBean);
@@ -277,10 +458,26 @@ public abstract class SearchService<T extends BaseIndexedBean, S extends BaseDTO
      * fails and in that case, even if index is up to date, in some point of the
      * future it will be reindexed by administrator.
      *
+     * <p>
+     * If writing behind is enabled, only the first step is done here, and the
+     * object is added to the {@link IndexQueue}, which performs the other steps
+     * in the background.
+     *
      * @param baseIndexedBean
      *            object
      */
     public void save(T baseIndexedBean) throws DataException {
+        if (IndexQueue.isEnabled()) {
+            try {
+                baseIndexedBean.setIndexAction(IndexAction.INDEX);
+                saveToDatabase(baseIndexedBean);
+            } catch (DAOException e) {
+                logger.debug(e);
+                throw new DataException(e);
+            }
+            IndexQueue.getInstance().add(this, baseIndexedBean.getId());
+            return;
+        }
         try {
             baseIndexedBean.setIndexAction(IndexAction.INDEX);
             saveToDatabase(baseIndexedBean);
@@ -340,6 +537,9 @@ public abstract class SearchService<T extends BaseIndexedBean, S extends BaseDTO
      *            object
      */
     public void remove(T baseIndexedBean) throws DataException {
+        if (IndexQueue.isEnabled()) {
+            IndexQueue.getInstance().discard(this, baseIndexedBean.getId());
+        }
         try {
             baseIndexedBean.setIndexAction(IndexAction.DELETE);
             saveToDatabase(baseIndexedBean);
@@ -444,9 +644,22 @@ public abstract class SearchService<T extends BaseIndexedBean, S extends BaseDTO
      *            findById(Integer id).
      * @return related DTO object
      */
+    @SuppressWarnings("unchecked")
     public S findById(Integer id, boolean related) throws DataException {
+        RelatedDTOs page = related ? relatedDTOs.get() : null;
+        if (Objects.nonNull(page)) {
+            S dto = (S) page.of(this).get(id);
+            if (Objects.nonNull(dto)) {
+                return dto;
+            }
+            page.roundTrips++;
+        }
         try {
-            return convertJSONObjectToDTO(searcher.findDocument(id), related);
+            S dto = convertJSONObjectToDTO(searcher.findDocument(id), related);
+            if (Objects.nonNull(page)) {
+                page.of(this).put(id, dto);
+            }
+            return dto;
         } catch (CustomResponseException e) {
             throw new DataException(e);
         }
@@ -517,7 +730,37 @@ public abstract class SearchService<T extends BaseIndexedBean, S extends BaseDTO
     }
 
     /**
-     * Convert list of JSONObject object to list of DTO objects.
+     * Find a page of sorted DTO objects by query, and count all objects
+     * matching the query, with one request to the index.
+     *
+     * @param query
+     *            as QueryBuilder object
+     * @param sort
+     *            as SortBuilder object
+     * @param offset
+     *            start point for get results
+     * @param size
+     *            amount of requested results
+     * @param related
+     *            if true it means that related objects are already loaded
+     * @return number of all matching objects, and list of DTO objects
+     */
+    public Pair<Long, List<S>> countAndFindByQuery(QueryBuilder query, SortBuilder sort, Integer offset, Integer size,
+            boolean related) throws DataException {
+        try {
+            Pair<Long, List<Map<String, Object>>> documents = searcher.countAndFindDocuments(query, sort, offset,
+                size);
+            return Pair.of(documents.getKey(), convertJSONObjectsToDTOs(documents.getValue(), related));
+        } catch (CustomResponseException e) {
+            throw new DataException(e);
+        }
+    }
+
+    /**
+     * Convert list of JSONObject object to list of DTO objects. If the related
+     * objects are to be converted as well, they are collected for all objects
+     * first by {@link #prefetchRelatedDTOs(List)} and requested with one query
+     * per type, and each related object is converted only once.
      *
      * @param jsonObjects
      *            list of SearchResult objects
@@ -528,13 +771,101 @@ public abstract class SearchService<T extends BaseIndexedBean, S extends BaseDTO
      */
     protected List<S> convertJSONObjectsToDTOs(List<Map<String, Object>> jsonObjects, boolean related)
             throws DataException {
-        List<S> results = new ArrayList<>();
+        RelatedDTOs page = relatedDTOs.get();
+        boolean outermost = Objects.isNull(page);
+        if (outermost) {
+            page = new RelatedDTOs();
+            relatedDTOs.set(page);
+        }
+        try {
+            if (!related && !jsonObjects.isEmpty()) {
+                prefetchRelatedDTOs(jsonObjects);
+            }
+            List<S> results = new ArrayList<>();
+
+            for (Map<String, Object> jsonObject : jsonObjects) {
+                results.add(convertJSONObjectToDTO(jsonObject, related));
+            }
 
-        for (Map<String, Object> jsonObject : jsonObjects) {
-            results.add(convertJSONObjectToDTO(jsonObject, related));
+            return results;
+        } finally {
+            if (outermost) {
+                relatedDTOs.remove();
+                if (!related && !jsonObjects.isEmpty()) {
+                    synchronized (roundTripsPerPage) {
+                        roundTripsPerPage.accept(page.roundTrips);
+                    }
+                    logger.debug("Converted {} objects with {} requests for related objects", jsonObjects.size(),
+                        page.roundTrips);
+                }
+            }
         }
+    }
 
-        return results;
+    /**
+     * Requests the objects related to a page of search results in advance.
+     * Services whose DTOs contain related objects override this to collect the
+     * ids of all related objects of the page and to pass them to
+     * {@link #prefetchDTOs(SearchService, Collection)}. Does nothing by
+     * default.
+     *
+     * @param jsonObjects
+     *            the page of search results
+     */
+    protected void prefetchRelatedDTOs(List<Map<String, Object>> jsonObjects) throws DataException {
+        // no related objects by default
+    }
+
+    /**
+     * Requests related objects of a page of search results with one query,
+     * unless they have been found before on this page. Afterwards,
+     * {@link #findById(Integer, boolean)} and
+     * {@link #convertRelatedJSONObjectToDTO(Map, String, SearchService)}
+     * return them without requesting them again. Outside of the conversion of
+     * a page, this does nothing.
+     *
+     * @param service
+     *            service of the related objects
+     * @param ids
+     *            ids of the related objects
+     */
+    protected static <O extends BaseDTO> void prefetchDTOs(SearchService<?, O, ?> service, Collection<Integer> ids)
+            throws DataException {
+        RelatedDTOs page = relatedDTOs.get();
+        if (Objects.isNull(page)) {
+            return;
+        }
+        Map<Integer, BaseDTO> found = page.of(service);
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : new HashSet<>(ids)) {
+            if (Objects.nonNull(id) && id > 0 && !found.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        page.roundTrips++;
+        for (O dto : service.findByQuery(termsQuery("_id", missing), true)) {
+            found.put(dto.getId(), dto);
+        }
+        for (Integer id : missing) {
+            found.putIfAbsent(id, null);
+        }
+    }
+
+    /**
+     * Returns how many requests for related objects were needed per page of
+     * search results converted since startup.
+     *
+     * @return statistics of the requests per page
+     */
+    public static LongSummaryStatistics getRoundTripsPerPage() {
+        LongSummaryStatistics copy = new LongSummaryStatistics();
+        synchronized (roundTripsPerPage) {
+            copy.combine(roundTripsPerPage);
+        }
+        return copy;
     }
 
     /**
@@ -546,6 +877,7 @@ public abstract class SearchService<T extends BaseIndexedBean, S extends BaseDTO
      *            name of related property
      * @return bean object
      */
+    @SuppressWarnings("unchecked")
     protected <O extends BaseDTO> List<O> convertRelatedJSONObjectToDTO(Map<String, Object> jsonObject, String key,
             SearchService<?, O, ?> service) throws DataException {
         List<Integer> ids = getRelatedPropertyForDTO(jsonObject, key);
@@ -558,6 +890,19 @@ public abstract class SearchService<T extends BaseIndexedBean, S extends BaseDTO
             query.must(((ProjectService)service).getProjectsForCurrentUserQuery());
             return service.findByQuery(query, true);
         }
+        RelatedDTOs page = relatedDTOs.get();
+        if (Objects.nonNull(page)) {
+            prefetchDTOs(service, ids);
+            Map<Integer, BaseDTO> found = page.of(service);
+            List<O> dtos = new ArrayList<>(ids.size());
+            for (Integer id : ids) {
+                O dto = (O) found.get(id);
+                if (Objects.nonNull(dto)) {
+                    dtos.add(dto);
+                }
+            }
+            return dtos;
+        }
         return service.findByQuery(createSetQueryForIds(ids), true);
     }
 
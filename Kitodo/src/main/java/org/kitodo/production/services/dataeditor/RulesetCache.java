@@ -0,0 +1,221 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.dataeditor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale.LanguageRange;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.kitodo.api.dataeditor.rulesetmanagement.ComplexMetadataViewInterface;
+import org.kitodo.api.dataeditor.rulesetmanagement.FunctionalDivision;
+import org.kitodo.api.dataeditor.rulesetmanagement.FunctionalMetadata;
+import org.kitodo.api.dataeditor.rulesetmanagement.RulesetManagementInterface;
+import org.kitodo.api.dataeditor.rulesetmanagement.StructuralElementViewInterface;
+
+/**
+ * Cache of loaded rulesets, shared by all users. A ruleset is identified by its
+ * file and the file’s last modification time, so a changed ruleset file is
+ * loaded again on next access. The number of cached rulesets is limited; the
+ * least recently used ruleset is discarded first.
+ *
+ * <p>
+ * The cached ruleset managements are read-only. Trying to load another ruleset
+ * into them throws an {@code UnsupportedOperationException}.
+ */
+public class RulesetCache {
+    private static final Logger logger = LogManager.getLogger(RulesetCache.class);
+
+    private final Supplier<RulesetManagementInterface> rulesetManagementSupplier;
+    private final Map<File, CachedRuleset> rulesets;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a new ruleset cache.
+     *
+     * @param rulesetManagementSupplier
+     *            supplies empty ruleset managements to load rulesets into
+     * @param maximumSize
+     *            maximum number of rulesets to keep
+     */
+    public RulesetCache(Supplier<RulesetManagementInterface> rulesetManagementSupplier, int maximumSize) {
+        this.rulesetManagementSupplier = rulesetManagementSupplier;
+        this.rulesets = new LinkedHashMap<File, CachedRuleset>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<File, CachedRuleset> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the ruleset loaded from the given file. If the ruleset is not
+     * cached or the file was modified since it was loaded, it is loaded.
+     *
+     * @param rulesetFile
+     *            ruleset file
+     * @return a read-only ruleset management in which the ruleset has been
+     *         loaded
+     * @throws IOException
+     *             if the ruleset cannot be read
+     */
+    public RulesetManagementInterface get(File rulesetFile) throws IOException {
+        File key = rulesetFile.getAbsoluteFile();
+        long lastModified = key.lastModified();
+        synchronized (rulesets) {
+            CachedRuleset cachedRuleset = rulesets.get(key);
+            if (Objects.nonNull(cachedRuleset) && cachedRuleset.lastModified == lastModified) {
+                hits.incrementAndGet();
+                return cachedRuleset.rulesetManagement;
+            }
+        }
+        misses.incrementAndGet();
+        RulesetManagementInterface rulesetManagement = rulesetManagementSupplier.get();
+        rulesetManagement.load(key);
+        CachedRuleset loadedRuleset = new CachedRuleset(lastModified,
+                new UnmodifiableRulesetManagement(rulesetManagement));
+        synchronized (rulesets) {
+            rulesets.put(key, loadedRuleset);
+        }
+        logger.debug("Loaded ruleset {} into cache", key);
+        return loadedRuleset.rulesetManagement;
+    }
+
+    /**
+     * Removes the ruleset loaded from the given file from the cache.
+     *
+     * @param rulesetFile
+     *            ruleset file
+     */
+    public void invalidate(File rulesetFile) {
+        synchronized (rulesets) {
+            rulesets.remove(rulesetFile.getAbsoluteFile());
+        }
+    }
+
+    /**
+     * Removes all rulesets from the cache.
+     */
+    public void invalidateAll() {
+        synchronized (rulesets) {
+            rulesets.clear();
+        }
+    }
+
+    /**
+     * Returns the number of rulesets currently cached.
+     *
+     * @return the number of rulesets
+     */
+    public int size() {
+        synchronized (rulesets) {
+            return rulesets.size();
+        }
+    }
+
+    /**
+     * Returns how often a ruleset could be taken from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns how often a ruleset had to be loaded.
+     *
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static class CachedRuleset {
+        private final long lastModified;
+        private final RulesetManagementInterface rulesetManagement;
+
+        private CachedRuleset(long lastModified, RulesetManagementInterface rulesetManagement) {
+            this.lastModified = lastModified;
+            this.rulesetManagement = rulesetManagement;
+        }
+    }
+
+    /**
+     * Ruleset management which forwards all reading calls to a loaded ruleset
+     * management, but refuses to load another ruleset.
+     */
+    private static class UnmodifiableRulesetManagement implements RulesetManagementInterface {
+        private final RulesetManagementInterface rulesetManagement;
+
+        private UnmodifiableRulesetManagement(RulesetManagementInterface rulesetManagement) {
+            this.rulesetManagement = rulesetManagement;
+        }
+
+        @Override
+        public Collection<String> getAcquisitionStages() {
+            return rulesetManagement.getAcquisitionStages();
+        }
+
+        @Override
+        public Collection<String> getFunctionalKeys(FunctionalMetadata functionalMetadata) {
+            return rulesetManagement.getFunctionalKeys(functionalMetadata);
+        }
+
+        @Override
+        public Collection<String> getFunctionalDivisions(FunctionalDivision functionalDivision) {
+            return rulesetManagement.getFunctionalDivisions(functionalDivision);
+        }
+
+        @Override
+        public Collection<String> getDivisionsWithNoWorkflow() {
+            return rulesetManagement.getDivisionsWithNoWorkflow();
+        }
+
+        @Override
+        public Map<String, String> getStructuralElements(List<LanguageRange> priorityList) {
+            return rulesetManagement.getStructuralElements(priorityList);
+        }
+
+        @Override
+        public StructuralElementViewInterface getStructuralElementView(String structuralElement,
+                String acquisitionStage, List<LanguageRange> priorityList) {
+            return rulesetManagement.getStructuralElementView(structuralElement, acquisitionStage, priorityList);
+        }
+
+        @Override
+        public ComplexMetadataViewInterface getMetadataView(String metadata, String acquisitionStage,
+                List<LanguageRange> priorityList) {
+            return rulesetManagement.getMetadataView(metadata, acquisitionStage, priorityList);
+        }
+
+        @Override
+        public Optional<String> getTranslationForKey(String key, List<LanguageRange> priorityList) {
+            return rulesetManagement.getTranslationForKey(key, priorityList);
+        }
+
+        @Override
+        public void load(File rulesetFile) {
+            throw new UnsupportedOperationException("Cached rulesets cannot be reloaded");
+        }
+    }
+}
@@ -17,6 +17,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
 import javax.xml.transform.Result;
@@ -32,6 +34,8 @@ import org.kitodo.api.MetadataEntry;
 import org.kitodo.api.dataformat.IncludedStructuralElement;
 import org.kitodo.api.dataformat.Workpiece;
 import org.kitodo.api.dataformat.mets.MetsXmlElementAccessInterface;
+import org.kitodo.config.ConfigCore;
+import org.kitodo.config.enums.ParameterCore;
 import org.kitodo.production.services.ServiceManager;
 import org.kitodo.serviceloader.KitodoServiceLoader;
 import org.w3c.dom.Document;
@@ -39,6 +43,12 @@ import org.w3c.dom.Document;
 public class MetsService {
     private static final Logger logger = LogManager.getLogger(MetsService.class);
 
+    /**
+     * Simple class name of the module implementation which reads METS files
+     * with StAX.
+     */
+    private static final String STREAMING_READER = "StreamingMetsXmlElementAccess";
+
     private static volatile MetsService instance = null;
     private final MetsXmlElementAccessInterface metsXmlElementAccess;
 
@@ -62,8 +72,16 @@ public class MetsService {
     }
 
     private MetsService() {
-        metsXmlElementAccess = (MetsXmlElementAccessInterface) new KitodoServiceLoader<>(
-                MetsXmlElementAccessInterface.class).loadModule();
+        List<MetsXmlElementAccessInterface> modules = new KitodoServiceLoader<MetsXmlElementAccessInterface>(
+                MetsXmlElementAccessInterface.class).loadModules();
+        if (modules.isEmpty()) {
+            throw new NoSuchElementException("No module for " + MetsXmlElementAccessInterface.class.getName());
+        }
+        boolean streaming = ConfigCore.getBooleanParameterOrDefaultValue(ParameterCore.USE_STREAMING_METS_READER);
+        metsXmlElementAccess = modules.stream()
+                .filter(module -> module.getClass().getSimpleName().equals(STREAMING_READER) == streaming)
+                .findFirst().orElse(modules.get(0));
+        logger.info("Using {} to read METS files", metsXmlElementAccess.getClass().getSimpleName());
     }
 
     /**
@@ -18,6 +18,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.nio.file.FileSystems;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.MessageFormat;
 import java.util.Arrays;
@@ -31,6 +32,7 @@ import java.util.Objects;
 import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.apache.commons.httpclient.util.URIUtil;
 import org.apache.commons.io.FilenameUtils;
@@ -81,6 +83,8 @@ public class FileService {
     private static final String TEMPORARY_FILENAME_PREFIX = "temporary_";
     private final FileManagementInterface fileManagementModule = new KitodoServiceLoader<FileManagementInterface>(
             FileManagementInterface.class).loadModule();
+    private final MediaInventory mediaInventory = new MediaInventory(
+            ConfigCore.getIntParameterOrDefaultValue(ParameterCore.MEDIA_INVENTORY_SIZE));
 
     /**
      * Adds a slash to a URI to mark it as a directory, if it does not already
@@ -364,14 +368,79 @@ public class FileService {
 
     /**
      * Calculate all files with given file extension at specified directory
-     * recursively.
+     * recursively. The directories are only listed if they have been modified
+     * since they were last listed, otherwise the files are counted in the
+     * media inventory.
      *
      * @param directory
      *            the directory to run through
      * @return number of files as Integer
      */
     public Integer getNumberOfFiles(URI directory) {
-        return fileManagementModule.getNumberOfFiles(null, directory);
+        try {
+            return mediaInventory.countFiles(toPath(directory));
+        } catch (IOException e) {
+            logger.warn("Cannot count files in media inventory: " + e.getMessage(), e);
+            return fileManagementModule.getNumberOfFiles(null, directory);
+        }
+    }
+
+    /**
+     * Returns the names of the files and subdirectories of a directory which
+     * are accepted by a filter. The directory is only listed if it has been
+     * modified since it was last listed, otherwise the names are taken from
+     * the media inventory.
+     *
+     * @param filter
+     *            filter for the names, may be {@code null}
+     * @param directory
+     *            the directory to list
+     * @return the names of the files and subdirectories
+     */
+    public List<String> getFileNames(FilenameFilter filter, URI directory) {
+        try {
+            return mediaInventory.getNames(toPath(directory), filter);
+        } catch (IOException e) {
+            logger.warn("Cannot list directory in media inventory: " + e.getMessage(), e);
+            return getSubUris(filter, directory).stream().map(uri -> Paths.get(uri.getPath()).getFileName().toString())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Removes a directory from the media inventory, so that it is listed again
+     * on next access. Should be called after media files have been written to
+     * or deleted from the directory.
+     *
+     * @param directory
+     *            the directory that has been changed
+     */
+    public void invalidateMediaInventory(URI directory) {
+        mediaInventory.invalidate(toPath(directory));
+    }
+
+    /**
+     * Returns the media inventory, to look at its statistics.
+     *
+     * @return the media inventory
+     */
+    public MediaInventory getMediaInventory() {
+        return mediaInventory;
+    }
+
+    /**
+     * Returns the path of a URI, resolving relative URIs against the Kitodo
+     * data directory like the file management module does.
+     */
+    private static Path toPath(URI uri) {
+        if (uri.isAbsolute()) {
+            return Paths.get(uri);
+        }
+        String kitodoDataDirectory = ConfigCore.getKitodoDataDirectory();
+        if (uri.getRawPath().contains(kitodoDataDirectory)) {
+            return Paths.get(uri.getPath());
+        }
+        return Paths.get(kitodoDataDirectory, uri.getPath());
     }
 
     /**
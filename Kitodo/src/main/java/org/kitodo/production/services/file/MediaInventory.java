@@ -0,0 +1,237 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.file;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Inventory of the contents of the media folders of the processes, shared by
+ * all users. A directory is listed once, and the listing is reused as long as
+ * the directory’s last modification time is unchanged, because adding,
+ * removing or renaming a file modifies the directory. Checking the
+ * modification time takes one file status query, where listing a folder of
+ * thousands of images takes one query per file on network file systems. The
+ * number of directories kept is limited; the least recently used listing is
+ * discarded first.
+ *
+ * <p>
+ * Modification times may have a resolution of only one or two seconds. A
+ * listing taken shortly after the directory was modified is therefore not
+ * trusted and the directory is listed again on next access.
+ */
+public class MediaInventory {
+    private static final Logger logger = LogManager.getLogger(MediaInventory.class);
+
+    /**
+     * The time a listing must have been taken after the last modification of
+     * the directory to be trusted.
+     */
+    private static final long TIMESTAMP_RESOLUTION = TimeUnit.SECONDS.toMillis(2);
+
+    private final Map<Path, Listing> listings;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a new media inventory.
+     *
+     * @param maximumSize
+     *            maximum number of directory listings to keep
+     */
+    public MediaInventory(int maximumSize) {
+        this.listings = new LinkedHashMap<Path, Listing>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Listing> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the names of the files and subdirectories of a directory which
+     * are accepted by a filter. If the directory does not exist, the list is
+     * empty.
+     *
+     * @param directory
+     *            directory to list
+     * @param filter
+     *            filter for the names, may be {@code null} to return all names
+     * @return the names of the files and subdirectories
+     * @throws IOException
+     *             if the directory cannot be read
+     */
+    public List<String> getNames(Path directory, FilenameFilter filter) throws IOException {
+        Path key = directory.toAbsolutePath().normalize();
+        Listing listing = getListing(key);
+        List<String> names = new ArrayList<>(listing.files.size() + listing.directories.size());
+        File directoryFile = key.toFile();
+        addAccepted(listing.files, filter, directoryFile, names);
+        addAccepted(listing.directories, filter, directoryFile, names);
+        return names;
+    }
+
+    private static void addAccepted(List<String> entries, FilenameFilter filter, File directory, List<String> names) {
+        for (String name : entries) {
+            if (Objects.isNull(filter) || filter.accept(directory, name)) {
+                names.add(name);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of files in a directory and all its subdirectories.
+     * Subdirectories themselves are not counted. If the directory does not
+     * exist, the number is zero.
+     *
+     * @param directory
+     *            directory to count the files in
+     * @return the number of files
+     * @throws IOException
+     *             if a directory cannot be read
+     */
+    public int countFiles(Path directory) throws IOException {
+        Path key = directory.toAbsolutePath().normalize();
+        Listing listing = getListing(key);
+        int count = listing.files.size();
+        for (String subdirectory : listing.directories) {
+            count += countFiles(key.resolve(subdirectory));
+        }
+        return count;
+    }
+
+    private Listing getListing(Path key) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            invalidate(key);
+            return Listing.EMPTY;
+        }
+        if (!attributes.isDirectory()) {
+            return Listing.EMPTY;
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        synchronized (listings) {
+            Listing listing = listings.get(key);
+            if (Objects.nonNull(listing) && listing.isValid(lastModified)) {
+                hits.incrementAndGet();
+                return listing;
+            }
+        }
+        misses.incrementAndGet();
+        long listed = System.currentTimeMillis();
+        List<String> files = new ArrayList<>();
+        List<String> directories = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(key)) {
+            for (Path entry : entries) {
+                (Files.isDirectory(entry) ? directories : files).add(entry.getFileName().toString());
+            }
+        }
+        Listing listing = new Listing(lastModified, listed, files, directories);
+        synchronized (listings) {
+            listings.put(key, listing);
+        }
+        logger.debug("Listed {} files and {} directories in {}", files.size(), directories.size(), key);
+        return listing;
+    }
+
+    /**
+     * Removes the listing of a directory from the inventory, so that the
+     * directory is listed again on next access. Should be called after files
+     * have been written to or removed from the directory.
+     *
+     * @param directory
+     *            directory whose listing is removed
+     */
+    public void invalidate(Path directory) {
+        synchronized (listings) {
+            listings.remove(directory.toAbsolutePath().normalize());
+        }
+    }
+
+    /**
+     * Removes all listings from the inventory.
+     */
+    public void invalidateAll() {
+        synchronized (listings) {
+            listings.clear();
+        }
+    }
+
+    /**
+     * Returns the number of directory listings currently kept.
+     *
+     * @return the number of listings
+     */
+    public int size() {
+        synchronized (listings) {
+            return listings.size();
+        }
+    }
+
+    /**
+     * Returns how often a directory listing could be taken from the
+     * inventory.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns how often a directory had to be listed.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static class Listing {
+        private static final Listing EMPTY = new Listing(0, 0, Collections.emptyList(), Collections.emptyList());
+
+        private final long lastModified;
+        private final long listed;
+        private final List<String> files;
+        private final List<String> directories;
+
+        private Listing(long lastModified, long listed, List<String> files, List<String> directories) {
+            this.lastModified = lastModified;
+            this.listed = listed;
+            this.files = files;
+            this.directories = directories;
+        }
+
+        private boolean isValid(long directoryLastModified) {
+            return lastModified == directoryLastModified && listed - lastModified >= TIMESTAMP_RESOLUTION;
+        }
+    }
+}
@@ -20,12 +20,22 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.LongSummaryStatistics;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -33,9 +43,13 @@ import java.util.stream.Stream;
 
 import javax.imageio.ImageIO;
 
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.kitodo.api.imagemanagement.ImageDerivative;
+import org.kitodo.config.ConfigCore;
+import org.kitodo.config.enums.ParameterCore;
 import org.kitodo.config.xml.fileformats.FileFormat;
 import org.kitodo.data.database.beans.Folder;
 import org.kitodo.production.enums.GenerationMode;
@@ -45,6 +59,7 @@ import org.kitodo.production.helper.tasks.EmptyTask;
 import org.kitodo.production.model.Subfolder;
 import org.kitodo.production.services.ServiceManager;
 import org.kitodo.production.services.file.FileService;
+import org.kitodo.production.services.validation.FolderValidationResult;
 import org.kitodo.production.thread.TaskImageGeneratorThread;
 import org.kitodo.production.thread.TaskScriptThread;
 
@@ -56,6 +71,13 @@ import org.kitodo.production.thread.TaskScriptThread;
  */
 public class ImageGenerator implements Runnable {
     private static final Logger logger = LogManager.getLogger(ImageGenerator.class);
+
+    /**
+     * Threads generating images, shared by all image generators, so that the
+     * configured number of images is generated in parallel at most.
+     */
+    private static volatile ExecutorService executor = null;
+
     private final FileService fileService = ServiceManager.getFileService();
     private final ImageService imageService = ServiceManager.getImageService();
 
@@ -99,6 +121,11 @@ public class ImageGenerator implements Runnable {
      */
     private final GenerationMode mode;
 
+    /**
+     * Milliseconds taken to generate the derivatives of each image.
+     */
+    private final LongSummaryStatistics generationTimes = new LongSummaryStatistics();
+
     /**
      * Creates a new image generator.
      *
@@ -136,7 +163,9 @@ public class ImageGenerator implements Runnable {
     }
 
     /**
-     * Generates a set of derivatives.
+     * Generates a set of derivatives. The derivatives which are created by
+     * scaling with the same image management module are created in one call,
+     * so that the source image is read only once.
      *
      * @param instruction
      *            Instruction, which pictures are to be generated. Left: image
@@ -148,13 +177,31 @@ public class ImageGenerator implements Runnable {
      *            defined in the properties of the destination folder.
      */
     public void createDerivatives(ContentToBeGenerated instruction) {
+        long start = System.nanoTime();
         try {
+            Map<String, List<ImageDerivative>> derivativesByModule = new HashMap<>();
             for (Subfolder destinationFolder : instruction.getSubfoldersWhoseContentsAreToBeGenerated()) {
-                generateDerivative(instruction.getSourceURI(), destinationFolder, instruction.getCanonical());
+                Optional<ImageDerivative> derivative = getDerivative(destinationFolder, instruction.getCanonical());
+                if (derivative.isPresent()) {
+                    derivativesByModule.computeIfAbsent(
+                        destinationFolder.getFolder().getImageManagementModule().orElse(null),
+                        module -> new ArrayList<>()).add(derivative.get());
+                } else {
+                    generateDerivative(instruction.getSourceURI(), destinationFolder, instruction.getCanonical());
+                }
+            }
+            for (Entry<String, List<ImageDerivative>> derivatives : derivativesByModule.entrySet()) {
+                imageService.createDerivatives(derivatives.getKey(), instruction.getSourceURI(),
+                    derivatives.getValue());
             }
         } catch (IOException e) {
             throw new UndeclaredThrowableException(e);
         }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        synchronized (generationTimes) {
+            generationTimes.accept(millis);
+        }
+        logger.debug("Generated {} in {} ms", instruction.getCanonical(), millis);
     }
 
     /**
@@ -209,6 +256,23 @@ public class ImageGenerator implements Runnable {
         return foldersThatNeedDerivatives;
     }
 
+    /**
+     * Validates the images in the destination folders. The files of each
+     * folder are validated in parallel. The validation results are kept, so
+     * that the images are not validated again one after the other when the
+     * folders that need derivatives are determined.
+     */
+    public void validateOutputs() {
+        for (Subfolder folder : outputs) {
+            FolderValidationResult validationResult = ServiceManager.getLongTermPreservationValidationService()
+                    .validate(folder);
+            logger.info("Validated folder {}: {}", folder, validationResult);
+            if (Objects.nonNull(supervisor) && supervisor.isInterrupted()) {
+                return;
+            }
+        }
+    }
+
     /**
      * Gets the file list from the content folder, converts it into the required
      * form, and stores it in the sources field.
@@ -220,6 +284,96 @@ public class ImageGenerator implements Runnable {
         this.sources = sourcesStream.collect(Collectors.toList());
     }
 
+    /**
+     * Generates the derivatives of all elements to be generated on the shared
+     * threads. Progress is reported to the supervisor as the images are
+     * completed. If the supervisor is interrupted, or generating an image
+     * fails, the images not yet generated are cancelled. When this returns,
+     * the position is on the last element.
+     */
+    public void generateImages() {
+        CompletionService<ContentToBeGenerated> completionService = new ExecutorCompletionService<>(getExecutor());
+        List<Future<ContentToBeGenerated>> futures = new ArrayList<>(contentToBeGenerated.size());
+        long start = System.nanoTime();
+        try {
+            for (ContentToBeGenerated instruction : contentToBeGenerated) {
+                futures.add(completionService.submit(() -> {
+                    logger.info("Generating ".concat(instruction.toString()));
+                    createDerivatives(instruction);
+                    return instruction;
+                }));
+            }
+            for (int generated = 1; generated <= futures.size(); generated++) {
+                ContentToBeGenerated instruction = completionService.take().get();
+                letTheSupervisorDo(emptyTask -> emptyTask.setWorkDetail(
+                    Helper.getTranslation("generateImages", Collections.singletonList(instruction.getCanonical()))));
+                position = generated;
+                setProgress();
+                if (Objects.nonNull(supervisor) && supervisor.isInterrupted()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new UndeclaredThrowableException(cause);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+            outputs.forEach(Subfolder::invalidateContents);
+            position = contentToBeGenerated.size() - 1;
+            logGenerationTimes(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private static ExecutorService getExecutor() {
+        ExecutorService localReference = executor;
+        if (Objects.isNull(localReference)) {
+            synchronized (ImageGenerator.class) {
+                localReference = executor;
+                if (Objects.isNull(localReference)) {
+                    int threads = ConfigCore.getIntParameter(ParameterCore.IMAGE_GENERATOR_THREADS,
+                        Runtime.getRuntime().availableProcessors());
+                    ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(threads, threads, 1,
+                            TimeUnit.MINUTES, new LinkedBlockingQueue<>(),
+                            new BasicThreadFactory.Builder().namingPattern("ImageGenerator-%d").daemon(true).build());
+                    threadPoolExecutor.allowCoreThreadTimeOut(true);
+                    localReference = threadPoolExecutor;
+                    executor = localReference;
+                }
+            }
+        }
+        return localReference;
+    }
+
+    private void logGenerationTimes(long wallClockMillis) {
+        LongSummaryStatistics statistics = getGenerationTimes();
+        if (statistics.getCount() > 0) {
+            logger.info("Generated {} images in {} ms on {} threads, per image: average {} ms, min {} ms, max {} ms",
+                statistics.getCount(), wallClockMillis, ((ThreadPoolExecutor) getExecutor()).getMaximumPoolSize(),
+                Math.round(statistics.getAverage()), statistics.getMin(), statistics.getMax());
+        }
+    }
+
+    /**
+     * Returns the derivative to be created by scaling with the image
+     * management interface, if the folder is configured for it.
+     *
+     * @param destinationImage
+     *            folder to create the derivative in
+     * @param canonical
+     *            the canonical part of the file name
+     * @return the derivative, or empty if the image is created differently
+     */
+    private Optional<ImageDerivative> getDerivative(Subfolder destinationImage, String canonical) {
+        Optional<Double> optionalDerivative = destinationImage.getFolder().getDerivative();
+        if (optionalDerivative.isPresent() && destinationImage.getFileFormat().getImageFileFormat().isPresent()) {
+            return Optional.of(new ImageDerivative(optionalDerivative.get(), destinationImage.getUri(canonical),
+                    destinationImage.getFileFormat().getImageFileFormat().get()));
+        }
+        return Optional.empty();
+    }
+
     /**
      * Generates the derivative depending on the declared generator function.
      *
@@ -239,11 +393,7 @@ public class ImageGenerator implements Runnable {
         boolean isChangingDpi = imageProperties.getDpi().isPresent();
         boolean isGettingSizedWebImage = imageProperties.getImageSize().isPresent();
 
-        Optional<Double> optionalDerivative = imageProperties.getDerivative();
-        if (optionalDerivative.isPresent() && destinationImage.getFileFormat().getImageFileFormat().isPresent()) {
-            imageService.createDerivative(sourceImage, optionalDerivative.get(), destinationImage.getUri(canonical),
-                destinationImage.getFileFormat().getImageFileFormat().orElseThrow(IllegalStateException::new));
-        } else if (isChangingDpi || isGettingSizedWebImage) {
+        if (isChangingDpi || isGettingSizedWebImage) {
             createImageWithImageIO(sourceImage, imageProperties, destinationImage.getFileFormat(),
                 destinationImage.getUri(canonical));
         }
@@ -267,6 +417,20 @@ public class ImageGenerator implements Runnable {
         return position;
     }
 
+    /**
+     * Returns the times in milliseconds taken to generate the derivatives of
+     * each image so far. This can be used to choose the number of threads.
+     *
+     * @return statistics of the generation times
+     */
+    public LongSummaryStatistics getGenerationTimes() {
+        LongSummaryStatistics copy = new LongSummaryStatistics();
+        synchronized (generationTimes) {
+            copy.combine(generationTimes);
+        }
+        return copy;
+    }
+
     /**
      * Returns the list of source images.
      *
@@ -323,15 +487,16 @@ public class ImageGenerator implements Runnable {
      *             if an underlying disk operation fails
      */
     private Image retrieveJavaImage(URI sourceImage, Folder imageProperties) throws IOException {
+        String module = imageProperties.getImageManagementModule().orElse(null);
         Optional<Integer> optionalDpi = imageProperties.getDpi();
         Optional<Double> optionalImageScale = imageProperties.getImageScale();
         Optional<Integer> optionalImageSize = imageProperties.getImageSize();
         if (optionalDpi.isPresent()) {
-            return imageService.changeDpi(sourceImage, optionalDpi.get());
+            return imageService.changeDpi(module, sourceImage, optionalDpi.get());
         } else if (optionalImageScale.isPresent()) {
-            return imageService.getScaledWebImage(sourceImage, optionalImageScale.get());
+            return imageService.getScaledWebImage(module, sourceImage, optionalImageScale.get());
         } else if (optionalImageSize.isPresent()) {
-            return imageService.getSizedWebImage(sourceImage, optionalImageSize.get());
+            return imageService.getSizedWebImage(module, sourceImage, optionalImageSize.get());
         }
         throw new IllegalArgumentException(imageProperties + " does not give any method to create a java image");
     }
@@ -14,29 +14,50 @@ package org.kitodo.production.services.image;
 import java.awt.Image;
 import java.io.IOException;
 import java.net.URI;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.kitodo.api.imagemanagement.ImageDerivative;
 import org.kitodo.api.imagemanagement.ImageFileFormat;
 import org.kitodo.api.imagemanagement.ImageManagementInterface;
 import org.kitodo.serviceloader.KitodoServiceLoader;
 
 /**
  * This class does nothing more than call the methods on the image management
- * interface.
+ * interface. If there are several image management modules, the module can be
+ * chosen by its class name. The first module found is used by default.
  */
 public class ImageService {
+    private static final Logger logger = LogManager.getLogger(ImageService.class);
 
     private final ImageManagementInterface imageManagement;
+    private final Map<String, ImageManagementInterface> modules = new LinkedHashMap<>();
     private static volatile ImageService instance = null;
 
     private ImageService() {
-        imageManagement = new KitodoServiceLoader<ImageManagementInterface>(ImageManagementInterface.class)
-                .loadModule();
+        List<ImageManagementInterface> loadedModules = new KitodoServiceLoader<ImageManagementInterface>(
+                ImageManagementInterface.class).loadModules();
+        if (loadedModules.isEmpty()) {
+            throw new NoSuchElementException("Couldn't find a module for " + ImageManagementInterface.class);
+        }
+        imageManagement = loadedModules.get(0);
+        for (ImageManagementInterface module : loadedModules) {
+            modules.putIfAbsent(module.getClass().getName(), module);
+        }
     }
 
     /**
      * Changes the DPI of an image at a given URI.
      *
+     * @param module
+     *            class name of the image management module to use, or
+     *            {@code null} for the default module
      * @param imageFileUri
      *            the URI of the image
      * @param dpi
@@ -46,13 +67,16 @@ public class ImageService {
      *             if the plug-in is configured incorrectly, the image is
      *             missing or corrupted, etc.
      */
-    Image changeDpi(URI imageFileUri, int dpi) throws IOException {
-        return imageManagement.changeDpi(imageFileUri, dpi);
+    Image changeDpi(String module, URI imageFileUri, int dpi) throws IOException {
+        return getModule(module).changeDpi(imageFileUri, dpi);
     }
 
     /**
      * Creates a derivative for an image at a given path.
      *
+     * @param module
+     *            class name of the image management module to use, or
+     *            {@code null} for the default module
      * @param imageFileUri
      *            the URI to the image
      * @param percent
@@ -66,14 +90,39 @@ public class ImageService {
      *             if the plug-in is configured incorrectly, the image is
      *             missing or corrupted, etc.
      */
-    boolean createDerivative(URI imageFileUri, double percent, URI resultFileUri, ImageFileFormat resultFileFormat)
+    boolean createDerivative(String module, URI imageFileUri, double percent, URI resultFileUri,
+            ImageFileFormat resultFileFormat) throws IOException {
+        return getModule(module).createDerivative(imageFileUri, percent, resultFileUri, resultFileFormat);
+    }
+
+    /**
+     * Creates several derivatives for an image at a given path, reading the
+     * image only once if the image management module supports it.
+     *
+     * @param module
+     *            class name of the image management module to use, or
+     *            {@code null} for the default module
+     * @param imageFileUri
+     *            the URI to the image
+     * @param derivatives
+     *            the derivatives to create
+     * @return true, if creation was successful for all derivatives, false
+     *         otherwise
+     * @throws IOException
+     *             if the plug-in is configured incorrectly, the image is
+     *             missing or corrupted, etc.
+     */
+    boolean createDerivatives(String module, URI imageFileUri, Collection<ImageDerivative> derivatives)
             throws IOException {
-        return imageManagement.createDerivative(imageFileUri, percent, resultFileUri, resultFileFormat);
+        return getModule(module).createDerivatives(imageFileUri, derivatives);
     }
 
     /**
      * Scales an image at a given path and returns it.
      *
+     * @param module
+     *            class name of the image management module to use, or
+     *            {@code null} for the default module
      * @param imageFileUri
      *            the URI to the image which should be scaled
      * @param percent
@@ -83,13 +132,16 @@ public class ImageService {
      *             if the plug-in is configured incorrectly, the image is
      *             missing or corrupted, etc.
      */
-    Image getScaledWebImage(URI imageFileUri, double percent) throws IOException {
-        return imageManagement.getScaledWebImage(imageFileUri, percent);
+    Image getScaledWebImage(String module, URI imageFileUri, double percent) throws IOException {
+        return getModule(module).getScaledWebImage(imageFileUri, percent);
     }
 
     /**
      * Changes the size (in pixel) of the image.
      *
+     * @param module
+     *            class name of the image management module to use, or
+     *            {@code null} for the default module
      * @param imageFileUri
      *            the URI of the image to size
      * @param pixelWidth
@@ -99,8 +151,31 @@ public class ImageService {
      *             if the plug-in is configured incorrectly, the image is
      *             missing or corrupted, etc.
      */
-    Image getSizedWebImage(URI imageFileUri, int pixelWidth) throws IOException {
-        return imageManagement.getSizedWebImage(imageFileUri, pixelWidth);
+    Image getSizedWebImage(String module, URI imageFileUri, int pixelWidth) throws IOException {
+        return getModule(module).getSizedWebImage(imageFileUri, pixelWidth);
+    }
+
+    /**
+     * Returns the class names of the available image management modules. The
+     * first one is the default module.
+     *
+     * @return the class names of the modules
+     */
+    public Collection<String> getModuleNames() {
+        return modules.keySet();
+    }
+
+    private ImageManagementInterface getModule(String module) {
+        if (Objects.isNull(module)) {
+            return imageManagement;
+        }
+        ImageManagementInterface imageManagementModule = modules.get(module);
+        if (Objects.isNull(imageManagementModule)) {
+            logger.warn("Image management module {} not found, using {}", module,
+                imageManagement.getClass().getName());
+            return imageManagement;
+        }
+        return imageManagementModule;
     }
 
     /**
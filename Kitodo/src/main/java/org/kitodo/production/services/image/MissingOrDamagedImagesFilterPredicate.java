@@ -21,7 +21,7 @@ import org.kitodo.api.validation.State;
 import org.kitodo.api.validation.ValidationResult;
 import org.kitodo.api.validation.longtermpreservation.FileType;
 import org.kitodo.production.model.Subfolder;
-import org.kitodo.production.services.validation.LongTermPreservationValidationService;
+import org.kitodo.production.services.ServiceManager;
 
 /**
  * A filter predicate that checks if the file exists in the folder and can be
@@ -95,8 +95,8 @@ public class MissingOrDamagedImagesFilterPredicate implements Predicate<Subfolde
         }
         Optional<FileType> fileType = folder.getFileFormat().getFileType();
         if (fileType.isPresent()) {
-            LongTermPreservationValidationService serviceLoader = new LongTermPreservationValidationService();
-            ValidationResult validated = serviceLoader.validate(imageURI.get(), fileType.get());
+            ValidationResult validated = ServiceManager.getLongTermPreservationValidationService()
+                    .validate(imageURI.get(), fileType.get());
             if (validated.getState().equals(State.SUCCESS)) {
                 logger.info(VALIDATION_SUCCESS, canonical, folder, validated.getState());
                 return false;
@@ -22,10 +22,12 @@ public class IndexAllThread extends Thread {
 
     private final PushContext context;
     private final IndexingService indexingService;
+    private final boolean indexAllObjects;
 
-    IndexAllThread(PushContext pushContext, IndexingService service) {
+    IndexAllThread(PushContext pushContext, IndexingService service, boolean indexAllObjects) {
         context = pushContext;
         indexingService = service;
+        this.indexAllObjects = indexAllObjects;
     }
 
     @Override
@@ -34,7 +36,11 @@ public class IndexAllThread extends Thread {
 
         for (ObjectType objectType : ObjectType.getIndexableObjectTypes()) {
             try {
-                indexingService.startIndexing(objectType, context);
+                if (indexAllObjects) {
+                    indexingService.startIndexing(objectType, context);
+                } else {
+                    indexingService.startIndexingRemaining(objectType, context);
+                }
             } catch (DataException | CustomResponseException e) {
                 Helper.setErrorMessage(e.getLocalizedMessage(), IndexingService.getLogger(), e);
                 Thread.currentThread().interrupt();
@@ -0,0 +1,119 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.index;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.kitodo.config.ConfigCore;
+import org.kitodo.config.ConfigMain;
+import org.kitodo.config.enums.ParameterCore;
+import org.kitodo.data.elasticsearch.exceptions.CustomResponseException;
+import org.kitodo.data.elasticsearch.index.IndexRestClient;
+
+/**
+ * Whether the index exists, as last checked. The lists check this before
+ * every request to the index. Instead of asking the index each time, the
+ * result is kept for all users and checked again once it is older than the
+ * configured interval. Only one thread checks at a time; while it does, the
+ * others use the previous result. After the index has been created or deleted,
+ * {@link #invalidate()} makes the next call check again.
+ */
+public class IndexHealth {
+
+    private static final Logger logger = LogManager.getLogger(IndexHealth.class);
+
+    private static volatile IndexHealth instance = null;
+
+    private final long interval;
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private volatile boolean checked;
+    private volatile boolean indexExists;
+    private volatile long checkedAt;
+
+    private IndexHealth() {
+        interval = TimeUnit.MILLISECONDS.toNanos(
+            ConfigCore.getIntParameterOrDefaultValue(ParameterCore.ELASTICSEARCH_INDEX_CHECK_INTERVAL));
+    }
+
+    /**
+     * Return singleton variable of type IndexHealth.
+     *
+     * @return unique instance of IndexHealth
+     */
+    public static IndexHealth getInstance() {
+        IndexHealth localReference = instance;
+        if (Objects.isNull(localReference)) {
+            synchronized (IndexHealth.class) {
+                localReference = instance;
+                if (Objects.isNull(localReference)) {
+                    localReference = new IndexHealth();
+                    instance = localReference;
+                }
+            }
+        }
+        return localReference;
+    }
+
+    /**
+     * Returns whether the index exists. The index is asked only if it has not
+     * been asked within the configured interval.
+     *
+     * @return whether the index exists
+     */
+    public boolean indexExists() {
+        if (!checked) {
+            synchronized (this) {
+                if (!checked) {
+                    check();
+                }
+            }
+        } else if (System.nanoTime() - checkedAt > interval && checking.compareAndSet(false, true)) {
+            try {
+                check();
+            } finally {
+                checking.set(false);
+            }
+        }
+        return indexExists;
+    }
+
+    /**
+     * Discards the last result, so that the index is asked again on the next
+     * call of {@link #indexExists()}.
+     */
+    public void invalidate() {
+        checked = false;
+    }
+
+    private void check() {
+        boolean exists;
+        try {
+            IndexRestClient indexRestClient = IndexRestClient.getInstance();
+            indexRestClient.setIndex(ConfigMain.getParameter("elasticsearch.index", "kitodo"));
+            exists = indexRestClient.indexExists();
+        } catch (IOException | CustomResponseException e) {
+            logger.error(e.getMessage());
+            exists = false;
+        }
+        if (exists != indexExists || !checked) {
+            logger.info(exists ? "Index found" : "Index not found");
+        }
+        indexExists = exists;
+        checkedAt = System.nanoTime();
+        checked = true;
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.index;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.kitodo.config.ConfigCore;
+import org.kitodo.config.ConfigMain;
+import org.kitodo.config.enums.ParameterCore;
+import org.kitodo.data.elasticsearch.index.IndexRestClient;
+import org.kitodo.data.exceptions.DataException;
+import org.kitodo.production.services.data.base.SearchService;
+
+/**
+ * Queue of objects which have been saved to the database, but not yet to the
+ * index. If writing behind is enabled, {@link SearchService#save} only marks
+ * the object with the index action INDEX and adds it to this queue, instead of
+ * writing it and its dependencies to the index on the thread of the request.
+ * A background thread writes the queued objects to the index in bulk requests
+ * once the oldest of them has waited for the configured delay. If an object is
+ * saved again in the meantime, it is written only once, as it is in the
+ * database then.
+ *
+ * <p>
+ * The queue itself is held in memory only. Objects are marked as indexed only
+ * after they have been written, so objects left in the queue on shutdown keep
+ * the index action INDEX and are found when the remaining objects are
+ * indexed.
+ *
+ * <p>
+ * The index is not refreshed after writing. Where a page must show an object
+ * right after it has been saved, {@link #flush()} writes everything queued
+ * and refreshes the index. Lists only ask for the queue to be written with
+ * {@link #requestFlush()}, so that loading them is not blocked.
+ */
+public class IndexQueue {
+
+    private static final Logger logger = LogManager.getLogger(IndexQueue.class);
+
+    private static volatile IndexQueue instance = null;
+
+    /**
+     * Time in milliseconds {@link #flush()} waits at most for the queue to be
+     * written.
+     */
+    private static final long FLUSH_TIMEOUT = 30000;
+
+    /**
+     * Time in milliseconds after which writing is repeated if the index could
+     * not be reached.
+     */
+    private static final long RETRY_DELAY = 5000;
+
+    /**
+     * Queued objects, in the order they were first queued, with the time they
+     * were first queued.
+     */
+    private final Map<Entry, Long> queue = new LinkedHashMap<>();
+
+    /**
+     * Held while queued objects are written to the index.
+     */
+    private final Object writeLock = new Object();
+
+    private final long delay;
+    private Thread worker;
+    private boolean writing;
+    private boolean flushRequested;
+    private boolean refreshNeeded;
+    private long retryAfter;
+    private long writtenObjects;
+    private long failedWrites;
+
+    /**
+     * An object of a type in the queue.
+     */
+    private static class Entry {
+        private final SearchService<?, ?, ?> service;
+        private final Integer id;
+
+        private Entry(SearchService<?, ?, ?> service, Integer id) {
+            this.service = service;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof Entry)) {
+                return false;
+            }
+            Entry other = (Entry) object;
+            return service == other.service && id.equals(other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(service) + id.hashCode();
+        }
+    }
+
+    private IndexQueue() {
+        delay = ConfigCore.getIntParameterOrDefaultValue(ParameterCore.ELASTICSEARCH_WRITE_BEHIND_DELAY);
+    }
+
+    /**
+     * Return singleton variable of type IndexQueue.
+     *
+     * @return unique instance of IndexQueue
+     */
+    public static IndexQueue getInstance() {
+        IndexQueue localReference = instance;
+        if (Objects.isNull(localReference)) {
+            synchronized (IndexQueue.class) {
+                localReference = instance;
+                if (Objects.isNull(localReference)) {
+                    localReference = new IndexQueue();
+                    instance = localReference;
+                }
+            }
+        }
+        return localReference;
+    }
+
+    /**
+     * Returns whether objects are written to the index behind saving them to
+     * the database.
+     *
+     * @return whether writing behind is enabled
+     */
+    public static boolean isEnabled() {
+        return ConfigCore.getBooleanParameterOrDefaultValue(ParameterCore.ELASTICSEARCH_WRITE_BEHIND);
+    }
+
+    /**
+     * Queues an object to be written to the index. If it is already queued,
+     * nothing changes.
+     *
+     * @param service
+     *            service of the type of the object
+     * @param id
+     *            id of the object
+     */
+    public synchronized void add(SearchService<?, ?, ?> service, Integer id) {
+        queue.putIfAbsent(new Entry(service, id), System.currentTimeMillis());
+        if (Objects.isNull(worker) || !worker.isAlive()) {
+            worker = new Thread(this::run, IndexQueue.class.getSimpleName());
+            worker.setDaemon(true);
+            worker.start();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Removes an object from the queue, because it is about to be removed.
+     * If the object is just being written to the index, this waits until it
+     * has been written, so that it can be removed from the index afterwards.
+     *
+     * @param service
+     *            service of the type of the object
+     * @param id
+     *            id of the object
+     */
+    public void discard(SearchService<?, ?, ?> service, Integer id) {
+        synchronized (writeLock) {
+            synchronized (this) {
+                queue.remove(new Entry(service, id));
+            }
+        }
+    }
+
+    /**
+     * Writes all queued objects to the index without further delay, waits until
+     * they have been written and refreshes the index, so that they are found
+     * by searches. Call this only where a page must show the objects saved
+     * before. If nothing has been written since the last flush, this returns
+     * at once. If writing fails, this returns without waiting for the next
+     * attempt.
+     */
+    public void flush() {
+        synchronized (this) {
+            flushRequested = true;
+            retryAfter = 0;
+            notifyAll();
+            long timeout = System.currentTimeMillis() + FLUSH_TIMEOUT;
+            long failedWritesBefore = failedWrites;
+            try {
+                while ((!queue.isEmpty() || writing) && failedWrites == failedWritesBefore
+                        && System.currentTimeMillis() < timeout) {
+                    wait(Math.max(1, timeout - System.currentTimeMillis()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!queue.isEmpty()) {
+                logger.warn("Index queue not written, {} objects left", queue.size());
+            }
+            if (!refreshNeeded) {
+                return;
+            }
+            refreshNeeded = false;
+        }
+        try {
+            IndexRestClient indexRestClient = IndexRestClient.getInstance();
+            indexRestClient.setIndex(ConfigMain.getParameter("elasticsearch.index", "kitodo"));
+            indexRestClient.refreshIndex();
+        } catch (IOException e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Asks for the queued objects to be written to the index without further
+     * delay, but does not wait until they have been written. The index is not
+     * refreshed, so the objects are found by searches once the index has
+     * refreshed itself.
+     */
+    public synchronized void requestFlush() {
+        if (!queue.isEmpty()) {
+            flushRequested = true;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Returns the number of objects waiting to be written to the index.
+     *
+     * @return the queue depth
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Returns how long the object queued first has been waiting to be
+     * written to the index.
+     *
+     * @return the lag in milliseconds, 0 if the queue is empty
+     */
+    public synchronized long getLag() {
+        Iterator<Long> queued = queue.values().iterator();
+        return queued.hasNext() ? System.currentTimeMillis() - queued.next() : 0;
+    }
+
+    /**
+     * Returns the number of objects written to the index since startup.
+     *
+     * @return the number of written objects
+     */
+    public synchronized long getWrittenObjects() {
+        return writtenObjects;
+    }
+
+    /**
+     * Returns the number of failed attempts to write queued objects.
+     *
+     * @return the number of failed writes
+     */
+    public synchronized long getFailedWrites() {
+        return failedWrites;
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Map<SearchService<?, ?, ?>, List<Integer>> objects = takeDueObjects();
+                synchronized (writeLock) {
+                    write(objects);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits until the object queued first has waited for the delay, or a
+     * flush is requested, and takes all queued objects out of the queue.
+     */
+    private synchronized Map<SearchService<?, ?, ?>, List<Integer>> takeDueObjects() throws InterruptedException {
+        writing = false;
+        notifyAll();
+        while (true) {
+            if (queue.isEmpty()) {
+                flushRequested = false;
+                wait();
+                continue;
+            }
+            long now = System.currentTimeMillis();
+            long due = Math.max(queue.values().iterator().next() + delay, retryAfter);
+            if (flushRequested || now >= due) {
+                break;
+            }
+            wait(due - now);
+        }
+        logger.debug("Writing {} queued objects to the index, lag {} ms", queue.size(), getLag());
+        Map<SearchService<?, ?, ?>, List<Integer>> objects = new LinkedHashMap<>();
+        for (Entry entry : queue.keySet()) {
+            objects.computeIfAbsent(entry.service, service -> new ArrayList<>()).add(entry.id);
+        }
+        queue.clear();
+        writing = true;
+        return objects;
+    }
+
+    private void write(Map<SearchService<?, ?, ?>, List<Integer>> objects) {
+        for (Map.Entry<SearchService<?, ?, ?>, List<Integer>> entry : objects.entrySet()) {
+            try {
+                entry.getKey().saveQueuedToIndex(entry.getValue());
+                synchronized (this) {
+                    writtenObjects += entry.getValue().size();
+                    refreshNeeded = true;
+                }
+            } catch (DataException | RuntimeException e) {
+                logger.error("Writing {} queued objects to the index failed: {}", entry.getValue().size(),
+                    e.getMessage(), e);
+                requeue(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private synchronized void requeue(SearchService<?, ?, ?> service, List<Integer> ids) {
+        failedWrites++;
+        notifyAll();
+        long now = System.currentTimeMillis();
+        for (Integer id : ids) {
+            queue.putIfAbsent(new Entry(service, id), now);
+        }
+        retryAfter = now + RETRY_DELAY;
+        flushRequested = false;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.index;
+
+import java.io.IOException;
+
+import javax.faces.push.PushContext;
+
+import org.kitodo.data.elasticsearch.exceptions.CustomResponseException;
+import org.kitodo.production.helper.Helper;
+
+public class IndexRebuildThread extends Thread {
+
+    private final PushContext context;
+    private final IndexingService indexingService;
+
+    IndexRebuildThread(PushContext pushContext, IndexingService service) {
+        context = pushContext;
+        indexingService = service;
+    }
+
+    @Override
+    public void run() {
+        try {
+            indexingService.rebuildIndex(context);
+        } catch (IOException | CustomResponseException e) {
+            Helper.setErrorMessage(e.getLocalizedMessage(), IndexingService.getLogger(), e);
+        } finally {
+            context.send(IndexingService.INDEXING_FINISHED_MESSAGE);
+        }
+    }
+}
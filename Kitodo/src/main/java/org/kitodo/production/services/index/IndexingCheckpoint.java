@@ -0,0 +1,82 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.index;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps track of the id up to which all objects of a type have been written to
+ * the index. The objects are read in numbered pages ordered by id, but the
+ * pages may be finished in any order. The checkpoint only moves past a page
+ * once all pages before it have been finished, too. If a page has failed, the
+ * checkpoint does not move past it, so that indexing can be continued from
+ * there.
+ */
+class IndexingCheckpoint {
+
+    private int lastId;
+    private int nextPage = 0;
+    private int failedPage = Integer.MAX_VALUE;
+    private final Map<Integer, Integer> finishedPages = new HashMap<>();
+
+    /**
+     * Creates a new checkpoint.
+     *
+     * @param lastId
+     *            id after which indexing starts, 0 to start from the beginning
+     */
+    IndexingCheckpoint(int lastId) {
+        this.lastId = lastId;
+    }
+
+    /**
+     * Records that a page has been finished.
+     *
+     * @param page
+     *            number of the page, counting from 0
+     * @param lastIdOfPage
+     *            id of the last object on the page
+     * @param successful
+     *            whether all objects of the page have been written to the
+     *            index
+     */
+    synchronized void pageFinished(int page, int lastIdOfPage, boolean successful) {
+        if (!successful) {
+            failedPage = Math.min(failedPage, page);
+            return;
+        }
+        finishedPages.put(page, lastIdOfPage);
+        while (nextPage < failedPage && finishedPages.containsKey(nextPage)) {
+            lastId = finishedPages.remove(nextPage);
+            nextPage++;
+        }
+    }
+
+    /**
+     * Returns the id up to which all objects have been written to the index.
+     *
+     * @return the id of the checkpoint
+     */
+    synchronized int getLastId() {
+        return lastId;
+    }
+
+    /**
+     * Returns whether a page has failed.
+     *
+     * @return whether a page has failed
+     */
+    synchronized boolean isFailed() {
+        return failedPage != Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,408 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.index;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.faces.push.PushContext;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.rest.RestStatus;
+import org.kitodo.config.ConfigCore;
+import org.kitodo.config.enums.ParameterCore;
+import org.kitodo.data.database.beans.BaseIndexedBean;
+import org.kitodo.data.database.exceptions.DAOException;
+import org.kitodo.production.enums.ObjectType;
+import org.kitodo.production.services.data.base.SearchService;
+
+/**
+ * Writes the objects of one type to the index. The work is done in three
+ * stages running at the same time: the indexing thread reads the objects from
+ * the database in pages ordered by id, a pool of threads creates the index
+ * documents of each page and sends them in bulk requests of limited size, and
+ * a single thread takes the answers, marks the objects as indexed and moves the
+ * checkpoint forward.
+ *
+ * <p>
+ * No stage gets far ahead of the next one: no further page is read while too
+ * many pages are in work, and no further bulk request is sent while too many
+ * bytes wait for an answer of the index. If a page cannot be indexed, no
+ * further pages are read. Indexing can later be continued after the checkpoint.
+ */
+class IndexingPipeline implements Runnable {
+
+    private static final Logger logger = LogManager.getLogger(IndexingPipeline.class);
+
+    private static final String INDEXING_METRICS_MESSAGE = "indexing_metrics";
+    private static final int KILOBYTE = 1024;
+
+    private final ObjectType objectType;
+    private final SearchService searchService;
+    private final boolean indexAllObjects;
+    private final IndexingCheckpoint checkpoint;
+    private final PushContext pollingChannel;
+
+    private final int pageSize;
+    private final long bulkSize;
+    private final int pagesLimit;
+    private final Semaphore pagesInWork;
+    private final int kilobytesLimit;
+    private final Semaphore kilobytesInFlight;
+    private final ExecutorService documentBuilders;
+    private final ExecutorService completion;
+
+    private volatile boolean failed = false;
+    private final AtomicLong indexedDocuments = new AtomicLong();
+    private final AtomicLong failedDocuments = new AtomicLong();
+    private final AtomicLong sentBytes = new AtomicLong();
+    private long startTime;
+    private long endTime;
+    private long lastMetricsSent;
+
+    /**
+     * Creates a new indexing pipeline.
+     *
+     * @param objectType
+     *            type of objects to index
+     * @param searchService
+     *            search service of the type
+     * @param indexAllObjects
+     *            if true, all objects are indexed, otherwise only those with
+     *            index action INDEX or NULL
+     * @param lastId
+     *            id after which indexing starts, 0 to start from the beginning
+     * @param pollingChannel
+     *            channel to which throughput metrics are pushed, may be
+     *            {@code null}
+     */
+    IndexingPipeline(ObjectType objectType, SearchService searchService, boolean indexAllObjects, int lastId,
+            PushContext pollingChannel) {
+        this.objectType = objectType;
+        this.searchService = searchService;
+        this.indexAllObjects = indexAllObjects;
+        this.checkpoint = new IndexingCheckpoint(lastId);
+        this.pollingChannel = pollingChannel;
+
+        pageSize = ConfigCore.getIntParameterOrDefaultValue(ParameterCore.ELASTICSEARCH_BATCH);
+        bulkSize = (long) ConfigCore.getIntParameterOrDefaultValue(ParameterCore.ELASTICSEARCH_BULK_SIZE) * KILOBYTE;
+        kilobytesLimit = Math.max(1, ConfigCore.getIntParameterOrDefaultValue(ParameterCore.ELASTICSEARCH_BULK_IN_FLIGHT));
+        kilobytesInFlight = new Semaphore(kilobytesLimit);
+        int threads = Math.max(1, ConfigCore.getIntParameterOrDefaultValue(ParameterCore.ELASTICSEARCH_INDEX_THREADS));
+        pagesLimit = 2 * threads;
+        pagesInWork = new Semaphore(pagesLimit);
+        AtomicInteger threadNumber = new AtomicInteger();
+        documentBuilders = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Indexing " + objectType + " documents " + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        completion = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Indexing " + objectType + " completion");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void run() {
+        startTime = System.nanoTime();
+        int lastId = checkpoint.getLastId();
+        int pageNumber = 0;
+        boolean completed = false;
+        try {
+            while (!failed) {
+                pagesInWork.acquireUninterruptibly();
+                boolean submitted = false;
+                try {
+                    List<BaseIndexedBean> beans = getPage(lastId);
+                    if (beans.isEmpty()) {
+                        break;
+                    }
+                    lastId = beans.get(beans.size() - 1).getId();
+                    Page page = new Page(pageNumber++, lastId, beans);
+                    documentBuilders.execute(() -> sendPage(page));
+                    submitted = true;
+                } finally {
+                    if (!submitted) {
+                        pagesInWork.release();
+                    }
+                }
+            }
+            completed = true;
+        } catch (DAOException | RuntimeException e) {
+            logger.error(e.getMessage(), e);
+        } finally {
+            if (!completed) {
+                failed = true;
+            }
+            pagesInWork.acquireUninterruptibly(pagesLimit);
+            documentBuilders.shutdown();
+            completion.shutdown();
+            awaitCompletion();
+            endTime = System.nanoTime();
+            sendMetrics();
+        }
+        logger.info("Indexing of {} {}: {} documents, {} failed, {} documents per second, checkpoint at id {}",
+            objectType, isSuccessful() ? "finished" : "failed", indexedDocuments.get(), failedDocuments.get(),
+            getDocumentsPerSecond(), checkpoint.getLastId());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<BaseIndexedBean> getPage(int lastId) throws DAOException {
+        return searchService.getAllAfter(lastId, pageSize, !indexAllObjects);
+    }
+
+    /**
+     * Creates the documents of a page and sends them to the index. Runs on a
+     * document builder thread.
+     */
+    @SuppressWarnings("unchecked")
+    private void sendPage(Page page) {
+        List<BulkRequest> bulkRequests;
+        try {
+            bulkRequests = searchService.createBulkRequests(page.beans, bulkSize);
+        } catch (RuntimeException e) {
+            logger.error("Creating documents of {} up to id {} failed", objectType, page.lastId, e);
+            page.successful = false;
+            completion.execute(() -> pageFinished(page));
+            return;
+        }
+        if (bulkRequests.isEmpty()) {
+            completion.execute(() -> pageFinished(page));
+            return;
+        }
+        page.pendingBulkRequests.set(bulkRequests.size());
+        for (int i = 0; i < bulkRequests.size(); i++) {
+            BulkRequest bulkRequest = bulkRequests.get(i);
+            long bytes = bulkRequest.estimatedSizeInBytes();
+            int kilobytes = (int) Math.min(kilobytesLimit, Math.max(1, (bytes + KILOBYTE - 1) / KILOBYTE));
+            try {
+                kilobytesInFlight.acquire(kilobytes);
+                searchService.addBulkRequestToIndex(bulkRequest, new BulkListener(page, bulkRequest, kilobytes));
+            } catch (InterruptedException | RuntimeException e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                } else {
+                    kilobytesInFlight.release(kilobytes);
+                    logger.error("Sending documents of {} up to id {} failed", objectType, page.lastId, e);
+                }
+                int unsent = bulkRequests.size() - i;
+                int documents = bulkRequests.subList(i, bulkRequests.size()).stream()
+                        .mapToInt(BulkRequest::numberOfActions).sum();
+                completion.execute(() -> bulkRequestsFinished(page, unsent, 0, documents));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Accounts answered or abandoned bulk requests of a page. Runs on the
+     * completion thread.
+     */
+    private void bulkRequestsFinished(Page page, int bulkRequests, long bytes, int failures) {
+        sentBytes.addAndGet(bytes);
+        if (failures > 0) {
+            failedDocuments.addAndGet(failures);
+            page.successful = false;
+        }
+        if (page.pendingBulkRequests.addAndGet(-bulkRequests) == 0) {
+            pageFinished(page);
+        }
+        if (System.nanoTime() - lastMetricsSent >= TimeUnit.MILLISECONDS.toNanos(IndexingService.PAUSE)) {
+            sendMetrics();
+        }
+    }
+
+    /**
+     * Marks the objects of a finished page as indexed and moves the checkpoint
+     * forward. Runs on the completion thread.
+     */
+    @SuppressWarnings("unchecked")
+    private void pageFinished(Page page) {
+        boolean successful = false;
+        try {
+            if (page.successful) {
+                try {
+                    searchService.setIndexColumToIndexed(page.beans);
+                    indexedDocuments.addAndGet(page.beans.size());
+                } catch (DAOException | RuntimeException e) {
+                    logger.error(e.getMessage(), e);
+                    page.successful = false;
+                }
+            }
+            checkpoint.pageFinished(page.number, page.lastId, page.successful);
+            successful = page.successful;
+        } finally {
+            if (!successful) {
+                failed = true;
+            }
+            pagesInWork.release();
+        }
+    }
+
+    private void awaitCompletion() {
+        boolean interrupted = false;
+        while (!completion.isTerminated()) {
+            try {
+                completion.awaitTermination(IndexingService.PAUSE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sendMetrics() {
+        lastMetricsSent = System.nanoTime();
+        if (Objects.nonNull(pollingChannel)) {
+            pollingChannel.send(INDEXING_METRICS_MESSAGE + objectType);
+        }
+    }
+
+    /**
+     * Returns the type of objects indexed.
+     *
+     * @return the object type
+     */
+    ObjectType getObjectType() {
+        return objectType;
+    }
+
+    /**
+     * Returns the number of documents written to the index so far.
+     *
+     * @return the number of indexed documents
+     */
+    long getIndexedDocuments() {
+        return indexedDocuments.get();
+    }
+
+    /**
+     * Returns the number of documents the index refused or which could not be
+     * sent.
+     *
+     * @return the number of failed documents
+     */
+    long getFailedDocuments() {
+        return failedDocuments.get();
+    }
+
+    /**
+     * Returns the number of bytes sent to the index so far.
+     *
+     * @return the number of sent bytes
+     */
+    long getSentBytes() {
+        return sentBytes.get();
+    }
+
+    /**
+     * Returns the number of documents written to the index per second.
+     *
+     * @return the indexing throughput
+     */
+    long getDocumentsPerSecond() {
+        long nanoseconds = (endTime > 0 ? endTime : System.nanoTime()) - startTime;
+        return nanoseconds > 0 ? indexedDocuments.get() * TimeUnit.SECONDS.toNanos(1) / nanoseconds : 0;
+    }
+
+    /**
+     * Returns the id up to which all objects have been written to the index.
+     * If indexing failed, it can be continued from here.
+     *
+     * @return the id of the checkpoint
+     */
+    int getCheckpoint() {
+        return checkpoint.getLastId();
+    }
+
+    /**
+     * Returns whether all objects have been written to the index.
+     *
+     * @return whether indexing was successful
+     */
+    boolean isSuccessful() {
+        return !failed && !checkpoint.isFailed();
+    }
+
+    private static class Page {
+        private final int number;
+        private final int lastId;
+        private final List<BaseIndexedBean> beans;
+        private final AtomicInteger pendingBulkRequests = new AtomicInteger();
+        private volatile boolean successful = true;
+
+        private Page(int number, int lastId, List<BaseIndexedBean> beans) {
+            this.number = number;
+            this.lastId = lastId;
+            this.beans = beans;
+        }
+    }
+
+    /**
+     * Receives the answer to a bulk request on a thread of the index client and
+     * passes it on to the completion thread.
+     */
+    private class BulkListener implements ActionListener<BulkResponse> {
+        private final Page page;
+        private final int documents;
+        private final long bytes;
+        private final int kilobytes;
+
+        private BulkListener(Page page, BulkRequest bulkRequest, int kilobytes) {
+            this.page = page;
+            this.documents = bulkRequest.numberOfActions();
+            this.bytes = bulkRequest.estimatedSizeInBytes();
+            this.kilobytes = kilobytes;
+        }
+
+        @Override
+        public void onResponse(BulkResponse bulkResponse) {
+            kilobytesInFlight.release(kilobytes);
+            int failures = 0;
+            if (bulkResponse.hasFailures()) {
+                for (BulkItemResponse item : bulkResponse.getItems()) {
+                    // a conflict means a more recent document is in the shadow index already
+                    if (item.isFailed() && item.getFailure().getStatus() != RestStatus.CONFLICT) {
+                        failures++;
+                    }
+                }
+                if (failures > 0) {
+                    logger.error(bulkResponse.buildFailureMessage());
+                }
+            }
+            int failedDocuments = failures;
+            completion.execute(() -> bulkRequestsFinished(page, 1, bytes, failedDocuments));
+        }
+
+        @Override
+        public void onFailure(Exception e) {
+            kilobytesInFlight.release(kilobytes);
+            logger.error("Bulk request of {} documents of {} failed", documents, objectType, e);
+            completion.execute(() -> bulkRequestsFinished(page, 1, bytes, documents));
+        }
+    }
+}
@@ -17,7 +17,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
@@ -41,7 +42,6 @@ import org.kitodo.data.exceptions.DataException;
 import org.kitodo.production.enums.IndexStates;
 import org.kitodo.production.enums.ObjectType;
 import org.kitodo.production.helper.Helper;
-import org.kitodo.production.helper.IndexWorker;
 import org.kitodo.production.services.ServiceManager;
 import org.kitodo.production.services.data.base.SearchService;
 
@@ -53,12 +53,13 @@ public class IndexingService {
 
     private static final List<ObjectType> objectTypes = ObjectType.getIndexableObjectTypes();
     private final Map<ObjectType, SearchService> searchServices = new EnumMap<>(ObjectType.class);
-    private final Map<ObjectType, List<IndexWorker>> indexWorkers = new EnumMap<>(ObjectType.class);
     private final Map<ObjectType, IndexStates> objectIndexingStates = new EnumMap<>(ObjectType.class);
     private final Map<ObjectType, Integer> countDatabaseObjects = new EnumMap<>(ObjectType.class);
+    private final Map<ObjectType, Integer> checkpoints = new EnumMap<>(ObjectType.class);
 
     // messages for web socket communication
     private static final String INDEXING_STARTED_MESSAGE = "indexing_started";
+    private static final String INDEXING_RUNNING_MESSAGE = "indexingRunning";
     static final String INDEXING_FINISHED_MESSAGE = "indexing_finished";
 
     public static final String DELETION_STARTED_MESSAGE = "deletion_started";
@@ -73,7 +74,14 @@ public class IndexingService {
 
     private boolean indexingAll = false;
 
-    private IndexWorker currentIndexWorker;
+    /**
+     * Whether a new index is being built. Only one index can be built at a
+     * time, and no other indexing must run meanwhile, as it would only write
+     * into the new index.
+     */
+    private boolean rebuilding = false;
+
+    private volatile IndexingPipeline currentPipeline;
     private ObjectType currentIndexState = ObjectType.NONE;
     private IndexStates currentState = IndexStates.NO_STATE;
 
@@ -110,7 +118,6 @@ public class IndexingService {
         }
         indexRestClient.setIndex(ConfigMain.getParameter("elasticsearch.index", "kitodo"));
         try {
-            prepareIndexWorker();
             countDatabaseObjects();
         } catch (DAOException e) {
             Helper.setErrorMessage(e.getLocalizedMessage(), logger, e);
@@ -221,28 +228,6 @@ public class IndexingService {
         }
     }
 
-    private void prepareIndexWorker() throws DAOException {
-
-        int indexLimit = ConfigCore.getIntParameterOrDefaultValue(ParameterCore.ELASTICSEARCH_INDEXLIMIT);
-        for (ObjectType objectType : ObjectType.values()) {
-            List<IndexWorker> indexWorkerList = new ArrayList<>();
-
-            int databaseObjectsSize = getNumberOfDatabaseObjects(objectType);
-            if (databaseObjectsSize > indexLimit) {
-                int start = 0;
-
-                while (start < databaseObjectsSize) {
-                    indexWorkerList.add(new IndexWorker(searchServices.get(objectType), start));
-                    start += indexLimit;
-                }
-            } else {
-                indexWorkerList.add(new IndexWorker(searchServices.get(objectType)));
-            }
-
-            indexWorkers.put(objectType, indexWorkerList);
-        }
-    }
-
     /**
      * Index all objects of given type 'objectType'.
      *
@@ -253,7 +238,6 @@ public class IndexingService {
         SearchService searchService = searchServices.get(type);
         int indexLimit = ConfigCore.getIntParameterOrDefaultValue(ParameterCore.ELASTICSEARCH_INDEXLIMIT);
         if (countDatabaseObjects.get(type) > 0) {
-            List<IndexWorker> indexWorkerList = indexWorkers.get(type);
             Long amountInIndex = searchService.count();
             long indexBatches = 0L;
 
@@ -262,10 +246,7 @@ public class IndexingService {
                 indexBatches += indexLimit;
             }
 
-            for (IndexWorker worker : indexWorkerList) {
-                currentIndexWorker = worker;
-                runIndexing(currentIndexWorker, type, pushContext);
-            }
+            runIndexing(type, true, pushContext);
         }
     }
 
@@ -293,32 +274,35 @@ public class IndexingService {
      */
     public void startIndexingRemaining(ObjectType type, PushContext context) {
         if (countDatabaseObjects.get(type) > 0) {
-            List<IndexWorker> indexWorkerList = indexWorkers.get(type);
-            for (IndexWorker worker : indexWorkerList) {
-                worker.setIndexAllObjects(false);
-                currentIndexWorker = worker;
-                runIndexing(currentIndexWorker, type, context);
-            }
+            runIndexing(type, false, context);
         }
     }
 
-    private void runIndexing(IndexWorker worker, ObjectType type, PushContext pollingChannel) {
+    /**
+     * Run the indexing pipeline for the given type and wait until it has
+     * finished. If a previous run of full indexing of the type has failed, it
+     * is continued after its checkpoint. Indexing the remaining objects needs
+     * no checkpoint, as their index action tells which objects are left.
+     */
+    private void runIndexing(ObjectType type, boolean indexAllObjects, PushContext pollingChannel) {
         currentState = IndexStates.NO_STATE;
         int attempts = 0;
         while (attempts < ConfigCore.getIntParameterOrDefaultValue(ParameterCore.ELASTICSEARCH_INDEXLIMIT)) {
             try {
-                if (Objects.equals(currentIndexState, ObjectType.NONE) || Objects.equals(currentIndexState, type)) {
+                if (!isRebuilding() && (Objects.equals(currentIndexState, ObjectType.NONE)
+                        || Objects.equals(currentIndexState, type))) {
                     if (Objects.equals(currentIndexState, ObjectType.NONE)) {
                         logger.debug("Starting indexing of type {}", type);
                         currentIndexState = type;
                         objectIndexingStates.put(type, IndexStates.INDEXING_STARTED);
                         pollingChannel.send(INDEXING_STARTED_MESSAGE + currentIndexState);
                     }
-                    indexerThread = new Thread(worker);
-                    indexerThread.setName("Indexing " + worker.getIndexedObjects() + " of type " + type);
-                    indexerThread.setDaemon(true);
-                    indexerThread.start();
-                    indexerThread.join();
+                    int lastId = indexAllObjects ? checkpoints.getOrDefault(type, 0) : 0;
+                    if (lastId > 0) {
+                        logger.info("Continuing indexing of type {} after id {}", type, lastId);
+                    }
+                    IndexingPipeline pipeline = runPipeline(type, indexAllObjects, lastId, pollingChannel);
+                    finishIndexing(pipeline, indexAllObjects, pollingChannel);
                     break;
                 } else {
                     logger.debug("Cannot start '{}' indexing while a different indexing process running: '{}'", type,
@@ -329,8 +313,143 @@ public class IndexingService {
             } catch (InterruptedException e) {
                 Helper.setErrorMessage(e.getLocalizedMessage(), logger, e);
                 Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private IndexingPipeline runPipeline(ObjectType type, boolean indexAllObjects, int lastId,
+            PushContext pollingChannel) throws InterruptedException {
+        IndexingPipeline pipeline = new IndexingPipeline(type, searchServices.get(type), indexAllObjects, lastId,
+                pollingChannel);
+        currentPipeline = pipeline;
+        indexerThread = new Thread(pipeline);
+        indexerThread.setName("Indexing of type " + type);
+        indexerThread.setDaemon(true);
+        indexerThread.start();
+        indexerThread.join();
+        return pipeline;
+    }
+
+    /**
+     * Build a new index in the background while the current one stays in use,
+     * and put it to use when it is complete. The new index gets a versioned
+     * name, and the configured index name becomes an alias pointing to it.
+     * While the new index is being built, changes are written to both
+     * indexes. The alias is switched to the new index in one request, then the
+     * old index is deleted. If building fails, the new index is deleted and
+     * the old one stays in use. The index is not rebuilt if another indexing
+     * is running or another new index is being built.
+     *
+     * @param pollingChannel
+     *            channel for progress messages
+     * @return whether the new index has been put to use
+     */
+    boolean rebuildIndex(PushContext pollingChannel) throws IOException, CustomResponseException {
+        if (!claimRebuild()) {
+            logger.warn("Cannot rebuild the index while another indexing is running");
+            return false;
+        }
+        try {
+            return buildShadowIndex(pollingChannel);
+        } finally {
+            releaseRebuild();
+        }
+    }
+
+    private synchronized boolean claimRebuild() {
+        if (rebuilding || indexingInProgress() || Objects.nonNull(indexRestClient.getShadowIndex())) {
+            return false;
+        }
+        rebuilding = true;
+        return true;
+    }
+
+    private synchronized void releaseRebuild() {
+        rebuilding = false;
+    }
+
+    private synchronized boolean isRebuilding() {
+        return rebuilding;
+    }
+
+    private boolean buildShadowIndex(PushContext pollingChannel) throws IOException, CustomResponseException {
+        String shadowIndex = indexRestClient.getIndex() + "_"
+                + DateTimeFormatter.ofPattern("yyyyMMddHHmmss").format(LocalDateTime.now());
+        String mapping = readMapping();
+        if (!indexRestClient.createIndex(shadowIndex, mapping.isEmpty() ? null : mapping)) {
+            logger.error("Could not create index {}", shadowIndex);
+            return false;
+        }
+        logger.info("Building index {} in the background", shadowIndex);
+        indexRestClient.setShadowIndex(shadowIndex);
+        boolean successful = true;
+        try {
+            for (ObjectType type : objectTypes) {
+                currentIndexState = type;
+                objectIndexingStates.put(type, IndexStates.INDEXING_STARTED);
+                pollingChannel.send(INDEXING_STARTED_MESSAGE + type);
+                IndexingPipeline pipeline = runPipeline(type, true, 0, pollingChannel);
+                objectIndexingStates.put(type,
+                    pipeline.isSuccessful() ? IndexStates.INDEXING_SUCCESSFUL : IndexStates.INDEXING_FAILED);
+                currentIndexState = ObjectType.NONE;
+                if (!pipeline.isSuccessful()) {
+                    successful = false;
+                    break;
+                }
+            }
+            if (successful) {
+                indexRestClient.repeatShadowDeletions();
+                List<String> oldIndexes = indexRestClient.switchAlias(shadowIndex);
+                logger.info("Index {} is now in use", shadowIndex);
+                IndexHealth.getInstance().invalidate();
+                for (String oldIndex : oldIndexes) {
+                    indexRestClient.deleteIndex(oldIndex);
+                }
+            }
+        } catch (InterruptedException e) {
+            Helper.setErrorMessage(e.getLocalizedMessage(), logger, e);
+            Thread.currentThread().interrupt();
+            successful = false;
+        } finally {
+            currentIndexState = ObjectType.NONE;
+            indexRestClient.setShadowIndex(null);
+            if (!successful) {
+                logger.error("Building index {} failed, the current index stays in use", shadowIndex);
+                indexRestClient.deleteIndex(shadowIndex);
+            }
+        }
+        return successful;
+    }
+
+    private void finishIndexing(IndexingPipeline pipeline, boolean indexAllObjects, PushContext pollingChannel) {
+        ObjectType type = pipeline.getObjectType();
+        if (pipeline.isSuccessful()) {
+            checkpoints.remove(type);
+        } else {
+            if (indexAllObjects) {
+                checkpoints.put(type, pipeline.getCheckpoint());
             }
+            objectIndexingStates.put(type, IndexStates.INDEXING_FAILED);
+            currentIndexState = ObjectType.NONE;
+            pollingChannel.send(INDEXING_FINISHED_MESSAGE + type + "!");
+        }
+    }
+
+    /**
+     * Return the throughput of the current or last indexing process.
+     *
+     * @return a summary of the indexing metrics, or an empty string if nothing
+     *         has been indexed yet
+     */
+    public String getIndexingMetrics() {
+        IndexingPipeline pipeline = currentPipeline;
+        if (Objects.isNull(pipeline)) {
+            return "";
         }
+        return pipeline.getObjectType() + ": " + pipeline.getIndexedDocuments() + " documents, "
+                + pipeline.getDocumentsPerSecond() + " documents/s, " + pipeline.getSentBytes() / 1024 + " KB sent, "
+                + pipeline.getFailedDocuments() + " failed";
     }
 
     /**
@@ -345,14 +464,14 @@ public class IndexingService {
         long numberOfObjects = countDatabaseObjects.get(currentType);
         long nrOfIndexedObjects = getNumberOfIndexedObjects(currentType);
         int progress = numberOfObjects > 0 ? (int) ((nrOfIndexedObjects / (float) numberOfObjects) * 100) : 0;
-        if (Objects.equals(currentIndexState, currentType) && (numberOfObjects == 0 || progress == 100)) {
+        if (Objects.equals(currentIndexState, currentType) && (numberOfObjects == 0 || progress == 100)
+                && (Objects.isNull(indexerThread) || !indexerThread.isAlive())) {
             currentIndexState = ObjectType.NONE;
             if (numberOfObjects == 0) {
                 objectIndexingStates.put(currentType, IndexStates.NO_STATE);
             } else {
                 objectIndexingStates.put(currentType, IndexStates.INDEXING_SUCCESSFUL);
             }
-            indexerThread.interrupt();
             pollingChannel.send(INDEXING_FINISHED_MESSAGE + currentType + "!");
         }
         return progress;
@@ -393,6 +512,7 @@ public class IndexingService {
     public String deleteIndex() {
         try {
             indexRestClient.deleteIndex();
+            IndexHealth.getInstance().invalidate();
             currentState = IndexStates.DELETING_SUCCESSFUL;
             return DELETION_FINISHED_MESSAGE;
         } catch (IOException e) {
@@ -480,7 +600,7 @@ public class IndexingService {
      *         progress or not
      */
     public boolean indexingInProgress() {
-        return !Objects.equals(this.currentIndexState, ObjectType.NONE) || indexingAll;
+        return !Objects.equals(this.currentIndexState, ObjectType.NONE) || indexingAll || isRebuilding();
     }
 
     /**
@@ -497,7 +617,10 @@ public class IndexingService {
         try (JsonReader mappingExpectedReader = Json.createReader(new StringReader(mapping));
              JsonReader mappingCurrentReader = Json.createReader(new StringReader(indexRestClient.getMapping()))) {
             JsonObject mappingExpected = mappingExpectedReader.readObject();
-            JsonObject mappingCurrent = mappingCurrentReader.readObject().getJsonObject(indexRestClient.getIndex());
+            // keyed by the name of the real index, which differs if the index name is an alias
+            JsonObject mappings = mappingCurrentReader.readObject();
+            JsonObject mappingCurrent = mappings.isEmpty() ? null
+                    : mappings.getJsonObject(mappings.keySet().iterator().next());
             return mappingExpected.equals(mappingCurrent);
         } catch (IOException e) {
             return false;
@@ -523,11 +646,34 @@ public class IndexingService {
         }
     }
 
+    /**
+     * Start building a new index with all database objects in a separate
+     * thread. The current index stays in use until the new one is complete.
+     * Nothing is started if another indexing is running.
+     */
+    public void startRebuildIndex(PushContext context) {
+        if (indexingInProgress() || Objects.nonNull(indexRestClient.getShadowIndex())) {
+            Helper.setErrorMessage(INDEXING_RUNNING_MESSAGE);
+            return;
+        }
+        IndexRebuildThread indexRebuildThread = new IndexRebuildThread(context, this);
+        indexRebuildThread.setName("IndexRebuildThread");
+        indexRebuildThread.start();
+    }
+
     /**
      * Start indexing of all database objects in separate thread.
      */
     public void startAllIndexing(PushContext context) {
-        IndexAllThread indexAllThread = new IndexAllThread(context, this);
+        startAllIndexing(context, true);
+    }
+
+    private void startAllIndexing(PushContext context, boolean indexAllObjects) {
+        if (isRebuilding()) {
+            Helper.setErrorMessage(INDEXING_RUNNING_MESSAGE);
+            return;
+        }
+        IndexAllThread indexAllThread = new IndexAllThread(context, this, indexAllObjects);
         indexAllThread.setName("IndexAllThread");
         indexAllThread.start();
     }
@@ -536,13 +682,7 @@ public class IndexingService {
      * Starts the process of indexing all objects to the ElasticSearch index.
      */
     public void startAllIndexingRemaining(PushContext pushContext) {
-        for (Map.Entry<ObjectType, List<IndexWorker>> workerEntry : indexWorkers.entrySet()) {
-            List<IndexWorker> indexWorkerList = workerEntry.getValue();
-            for (IndexWorker worker : indexWorkerList) {
-                worker.setIndexAllObjects(false);
-            }
-        }
-        startAllIndexing(pushContext);
+        startAllIndexing(pushContext, false);
     }
 
     void setIndexingAll(boolean indexing) {
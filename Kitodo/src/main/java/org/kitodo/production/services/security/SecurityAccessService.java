@@ -19,6 +19,7 @@ import org.kitodo.data.database.beans.User;
 import org.kitodo.data.exceptions.DataException;
 import org.kitodo.production.security.SecurityUserDetails;
 import org.kitodo.production.services.ServiceManager;
+import org.kitodo.security.AuthorityIndex;
 import org.kitodo.security.SecurityAccess;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -52,6 +53,18 @@ public class SecurityAccessService extends SecurityAccess {
         return ServiceManager.getUserService().getSessionClientId();
     }
 
+    /**
+     * {@inheritDoc} The index is created once per authenticated user.
+     */
+    @Override
+    protected AuthorityIndex getAuthorityIndexOfCurrentAuthentication() {
+        SecurityUserDetails securityUserDetails = getAuthenticatedSecurityUserDetails();
+        if (Objects.nonNull(securityUserDetails)) {
+            return securityUserDetails.getAuthorityIndex();
+        }
+        return super.getAuthorityIndexOfCurrentAuthentication();
+    }
+
     /**
      * Get the current authenticated user of current threads security context.
      *
@@ -82,7 +95,8 @@ public class SecurityAccessService extends SecurityAccess {
 
     /**
      * Update Authentication object of current threads security context
-     * after changing current parameters of authenticated user.
+     * after changing current parameters of authenticated user. This also
+     * creates the authorities of the user again.
      *
      * @param updatedUser as Object of the updated authenticated user
      */
@@ -0,0 +1,88 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.validation;
+
+import java.util.Collections;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+
+import org.kitodo.api.validation.ValidationResult;
+
+/**
+ * The result of the long term preservation validation of the files of a
+ * folder.
+ */
+public class FolderValidationResult {
+
+    private final Map<String, ValidationResult> results;
+    private final int cached;
+    private final LongSummaryStatistics validationTimes;
+    private final long wallClockMillis;
+
+    FolderValidationResult(Map<String, ValidationResult> results, int cached,
+            LongSummaryStatistics validationTimes, long wallClockMillis) {
+        this.results = Collections.unmodifiableMap(results);
+        this.cached = cached;
+        this.validationTimes = validationTimes;
+        this.wallClockMillis = wallClockMillis;
+    }
+
+    /**
+     * Returns the validation results of the files of the folder. The key is
+     * the canonical part of the file name.
+     *
+     * @return the validation results
+     */
+    public Map<String, ValidationResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Returns the number of files which were not validated again, because
+     * they did not change since they were last validated.
+     *
+     * @return the number of cached results
+     */
+    public int getCached() {
+        return cached;
+    }
+
+    /**
+     * Returns the statistics of the times in milliseconds it took to validate
+     * the files which were actually validated.
+     *
+     * @return the statistics of the validation times
+     */
+    public LongSummaryStatistics getValidationTimes() {
+        return validationTimes;
+    }
+
+    /**
+     * Returns the time in milliseconds it took to validate the folder.
+     *
+     * @return the time it took to validate the folder
+     */
+    public long getWallClockMillis() {
+        return wallClockMillis;
+    }
+
+    @Override
+    public String toString() {
+        String result = results.size() + " files in " + wallClockMillis + " ms, " + cached + " unchanged, "
+                + validationTimes.getCount() + " validated";
+        if (validationTimes.getCount() > 0) {
+            result += ", per file: average " + Math.round(validationTimes.getAverage()) + " ms, max "
+                    + validationTimes.getMax() + " ms";
+        }
+        return result;
+    }
+}
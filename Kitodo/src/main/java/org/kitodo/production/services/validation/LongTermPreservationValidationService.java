@@ -11,23 +11,126 @@
 
 package org.kitodo.production.services.validation;
 
+import java.io.IOException;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.lang3.tuple.Pair;
 import org.kitodo.api.validation.ValidationResult;
 import org.kitodo.api.validation.longtermpreservation.FileType;
 import org.kitodo.api.validation.longtermpreservation.LongTermPreservationValidationInterface;
+import org.kitodo.config.ConfigCore;
+import org.kitodo.config.enums.ParameterCore;
+import org.kitodo.production.model.Subfolder;
 import org.kitodo.serviceloader.KitodoServiceLoader;
 
 /**
- * This class does nothing more than call the methods on the long term
- * preservation validation interface.
+ * This class calls the methods on the long term preservation validation
+ * interface. It keeps the results, so that a file which did not change since
+ * it was last validated is not validated again, and it validates the files of
+ * a folder in parallel.
  */
 public class LongTermPreservationValidationService {
 
+    /**
+     * Threads shared by all folder validations.
+     */
+    private static volatile ExecutorService executor;
+
     private final LongTermPreservationValidationInterface longTermPreservationValidation;
 
+    /**
+     * The results of the last validated files, the least recently used result
+     * is dropped first.
+     */
+    private final Map<ValidatedFile, ValidationResult> validationResults;
+
+    /**
+     * A validated file. A file is considered unchanged as long as its path,
+     * size and modification time are the same.
+     */
+    private static class ValidatedFile {
+        private final String path;
+        private final long size;
+        private final long lastModified;
+        private final FileType fileType;
+
+        private ValidatedFile(String path, long size, long lastModified, FileType fileType) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.fileType = fileType;
+        }
+
+        /**
+         * Returns the validated file for a file URI, or {@code null} if the
+         * file cannot be accessed.
+         */
+        private static ValidatedFile of(URI fileUri, FileType fileType) {
+            try {
+                Path path = Paths.get(fileUri.getPath()).toAbsolutePath();
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return new ValidatedFile(path.toString(), attributes.size(), attributes.lastModifiedTime().toMillis(),
+                        fileType);
+            } catch (IOException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ValidatedFile)) {
+                return false;
+            }
+            ValidatedFile validatedFile = (ValidatedFile) other;
+            return size == validatedFile.size && lastModified == validatedFile.lastModified
+                    && path.equals(validatedFile.path) && fileType == validatedFile.fileType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, lastModified, fileType);
+        }
+    }
+
+    /**
+     * Creates the validation service. The validation module is loaded, and
+     * the cache of validation results is limited to the configured number of
+     * files.
+     */
     public LongTermPreservationValidationService() {
         longTermPreservationValidation = getValidationModule();
+        int cacheEntries = ConfigCore.getIntParameterOrDefaultValue(ParameterCore.IMAGE_VALIDATION_CACHE_ENTRIES);
+        validationResults = Collections.synchronizedMap(new LinkedHashMap<ValidatedFile, ValidationResult>(16,
+                0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Entry<ValidatedFile, ValidationResult> eldest) {
+                return size() > cacheEntries;
+            }
+        });
     }
 
     /**
@@ -42,7 +145,8 @@ public class LongTermPreservationValidationService {
     }
 
     /**
-     * Validates a file for longTimePreservation.
+     * Validates a file for longTimePreservation. If the file did not change
+     * since it was last validated, the previous result is returned.
      *
      * @param fileUri
      *            The uri to the image, which should be validated.
@@ -51,6 +155,97 @@ public class LongTermPreservationValidationService {
      * @return A validation result.
      */
     public ValidationResult validate(URI fileUri, FileType fileType) {
-        return longTermPreservationValidation.validate(fileUri, fileType);
+        ValidatedFile validatedFile = ValidatedFile.of(fileUri, fileType);
+        ValidationResult previousResult = getPreviousResult(validatedFile);
+        return Objects.nonNull(previousResult) ? previousResult : validate(fileUri, fileType, validatedFile);
+    }
+
+    private ValidationResult validate(URI fileUri, FileType fileType, ValidatedFile validatedFile) {
+        ValidationResult validationResult = longTermPreservationValidation.validate(fileUri, fileType);
+        if (Objects.nonNull(validatedFile)) {
+            validationResults.put(validatedFile, validationResult);
+        }
+        return validationResult;
+    }
+
+    /**
+     * Validates all files of a folder for long time preservation. The files
+     * are validated in parallel. Files which did not change since they were
+     * last validated are not validated again. If the thread is interrupted,
+     * the files not yet validated are cancelled, and the results of the files
+     * validated so far are returned. If there is no validator configured for
+     * the file format of the folder, the result is empty.
+     *
+     * @param folder
+     *            folder whose files are to be validated
+     * @return the validation results of the files and the time it took
+     */
+    public FolderValidationResult validate(Subfolder folder) {
+        Map<String, ValidationResult> results = new LinkedHashMap<>();
+        LongSummaryStatistics validationTimes = new LongSummaryStatistics();
+        int cached = 0;
+        Optional<FileType> fileType = folder.getFileFormat().getFileType();
+        if (!fileType.isPresent()) {
+            return new FolderValidationResult(results, cached, validationTimes, 0);
+        }
+
+        long start = System.nanoTime();
+        Map<String, Future<Pair<ValidationResult, Long>>> futures = new LinkedHashMap<>();
+        for (Entry<String, URI> file : folder.listContents().entrySet()) {
+            futures.put(file.getKey(), getExecutor().submit(() -> {
+                ValidatedFile validatedFile = ValidatedFile.of(file.getValue(), fileType.get());
+                ValidationResult previousResult = getPreviousResult(validatedFile);
+                if (Objects.nonNull(previousResult)) {
+                    return Pair.of(previousResult, null);
+                }
+                long validationStart = System.nanoTime();
+                ValidationResult validationResult = validate(file.getValue(), fileType.get(), validatedFile);
+                return Pair.of(validationResult, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - validationStart));
+            }));
+        }
+        try {
+            for (Entry<String, Future<Pair<ValidationResult, Long>>> future : futures.entrySet()) {
+                Pair<ValidationResult, Long> result = future.getValue().get();
+                results.put(future.getKey(), result.getLeft());
+                if (Objects.isNull(result.getRight())) {
+                    cached++;
+                } else {
+                    validationTimes.accept(result.getRight());
+                }
+            }
+        } catch (InterruptedException e) {
+            futures.values().forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            futures.values().forEach(future -> future.cancel(true));
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new UndeclaredThrowableException(cause);
+        }
+        return new FolderValidationResult(results, cached, validationTimes,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private ValidationResult getPreviousResult(ValidatedFile validatedFile) {
+        return Objects.nonNull(validatedFile) ? validationResults.get(validatedFile) : null;
+    }
+
+    private static ExecutorService getExecutor() {
+        ExecutorService localReference = executor;
+        if (Objects.isNull(localReference)) {
+            synchronized (LongTermPreservationValidationService.class) {
+                localReference = executor;
+                if (Objects.isNull(localReference)) {
+                    int threads = ConfigCore.getIntParameter(ParameterCore.IMAGE_VALIDATION_THREADS,
+                        Runtime.getRuntime().availableProcessors());
+                    ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(threads, threads, 1,
+                            TimeUnit.MINUTES, new LinkedBlockingQueue<>(), new BasicThreadFactory.Builder()
+                                    .namingPattern("LongTermPreservationValidation-%d").daemon(true).build());
+                    threadPoolExecutor.allowCoreThreadTimeOut(true);
+                    localReference = threadPoolExecutor;
+                    executor = localReference;
+                }
+            }
+        }
+        return localReference;
     }
 }
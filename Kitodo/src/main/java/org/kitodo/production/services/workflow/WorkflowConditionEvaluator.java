@@ -0,0 +1,174 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.workflow;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.kitodo.api.command.CommandResult;
+import org.kitodo.api.dataformat.Workpiece;
+import org.kitodo.data.database.beans.Process;
+import org.kitodo.data.database.beans.WorkflowCondition;
+import org.kitodo.data.database.enums.WorkflowConditionType;
+import org.kitodo.production.helper.VariableReplacer;
+import org.kitodo.production.services.ServiceManager;
+import org.kitodo.production.workflow.KitodoNamespaceContext;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * Evaluates the workflow conditions of the tasks activated in one workflow
+ * transition. The metadata file of a process is read at most once per
+ * transition and shared by all conditions evaluated on it. XPath expressions
+ * are compiled once and kept for the lifetime of the application, as there
+ * are only as many of them as there are conditions in the workflows.
+ */
+class WorkflowConditionEvaluator {
+    private static final Logger logger = LogManager.getLogger(WorkflowConditionEvaluator.class);
+
+    /**
+     * Compiled XPath expressions by their source. An expression must not be
+     * evaluated by several threads at the same time, so evaluations
+     * synchronize on it.
+     */
+    private static final Map<String, XPathExpression> compiledXPaths = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<DocumentBuilder> documentBuilder = ThreadLocal.withInitial(() -> {
+        DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
+        builderFactory.setNamespaceAware(true);
+        try {
+            return builderFactory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    });
+
+    /**
+     * Parsed metadata files and loaded workpieces of this transition, by
+     * process ID.
+     */
+    private final Map<Integer, Document> metadataDocuments = new HashMap<>();
+    private final Map<Integer, Workpiece> workpieces = new HashMap<>();
+
+    /**
+     * Returns whether the workflow condition of a task is fulfilled for a
+     * process.
+     *
+     * @param process
+     *            process the task belongs to
+     * @param workflowCondition
+     *            workflow condition of the task, may be {@code null}
+     * @return whether the condition is fulfilled
+     * @throws IOException
+     *             if the metadata file cannot be read, or the condition is
+     *             not a valid XPath
+     */
+    boolean isFulfilled(Process process, WorkflowCondition workflowCondition) throws IOException {
+        if (Objects.isNull(workflowCondition) || workflowCondition.getType().equals(WorkflowConditionType.NONE)) {
+            return true;
+        }
+        if (workflowCondition.getType().equals(WorkflowConditionType.SCRIPT)) {
+            return runScriptCondition(workflowCondition.getValue(), process);
+        }
+        if (workflowCondition.getType().equals(WorkflowConditionType.XPATH)) {
+            return runXPathCondition(process, workflowCondition.getValue());
+        }
+        return true;
+    }
+
+    private boolean runScriptCondition(String script, Process process) throws IOException {
+        Workpiece workpiece = workpieces.get(process.getId());
+        if (Objects.isNull(workpiece)) {
+            workpiece = ServiceManager.getMetsService()
+                    .loadWorkpiece(ServiceManager.getProcessService().getMetadataFileUri(process));
+            workpieces.put(process.getId(), workpiece);
+        }
+        VariableReplacer replacer = new VariableReplacer(workpiece, process, null);
+
+        CommandResult commandResult = ServiceManager.getCommandService().runCommand(replacer.replace(script));
+        return commandResult.isSuccessful();
+    }
+
+    private boolean runXPathCondition(Process process, String xpath) throws IOException {
+        try {
+            Document metadataDocument = metadataDocuments.get(process.getId());
+            if (Objects.isNull(metadataDocument)) {
+                try (InputStream fileInputStream = ServiceManager.getFileService().readMetadataFile(process)) {
+                    metadataDocument = parse(fileInputStream);
+                }
+                metadataDocuments.put(process.getId(), metadataDocument);
+            }
+            return evaluate(metadataDocument, xpath);
+        } catch (SAXException | XPathExpressionException e) {
+            logger.error(e.getMessage(), e);
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Parses a metadata file.
+     *
+     * @param inputStream
+     *            metadata file
+     * @return the parsed document
+     * @throws IOException
+     *             if the file cannot be read
+     * @throws SAXException
+     *             if the file is not well-formed
+     */
+    static Document parse(InputStream inputStream) throws IOException, SAXException {
+        return documentBuilder.get().parse(inputStream);
+    }
+
+    /**
+     * Returns whether an XPath expression selects any nodes in a document.
+     *
+     * @param document
+     *            document to evaluate the expression on
+     * @param xpath
+     *            XPath expression
+     * @return whether nodes were selected
+     * @throws XPathExpressionException
+     *             if the expression is not valid
+     */
+    static boolean evaluate(Document document, String xpath) throws XPathExpressionException {
+        XPathExpression expression = compiledXPaths.get(xpath);
+        if (Objects.isNull(expression)) {
+            XPath compiler = XPathFactory.newInstance().newXPath();
+            compiler.setNamespaceContext(new KitodoNamespaceContext());
+            expression = compiler.compile(xpath);
+            XPathExpression concurrentlyCompiled = compiledXPaths.putIfAbsent(xpath, expression);
+            if (Objects.nonNull(concurrentlyCompiled)) {
+                expression = concurrentlyCompiled;
+            }
+        }
+        synchronized (expression) {
+            return ((NodeList) expression.evaluate(document, XPathConstants.NODESET)).getLength() > 0;
+        }
+    }
+}
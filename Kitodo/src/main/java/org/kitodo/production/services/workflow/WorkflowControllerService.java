@@ -11,29 +11,19 @@
 
 package org.kitodo.production.services.workflow;
 
-import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.locks.ReentrantLock;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
-
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.kitodo.api.command.CommandResult;
 import org.kitodo.api.dataeditor.rulesetmanagement.RulesetManagementInterface;
 import org.kitodo.api.dataformat.Workpiece;
 import org.kitodo.api.validation.State;
@@ -44,27 +34,18 @@ import org.kitodo.data.database.beans.Comment;
 import org.kitodo.data.database.beans.Process;
 import org.kitodo.data.database.beans.Task;
 import org.kitodo.data.database.beans.User;
-import org.kitodo.data.database.beans.WorkflowCondition;
 import org.kitodo.data.database.enums.TaskEditType;
 import org.kitodo.data.database.enums.TaskStatus;
-import org.kitodo.data.database.enums.WorkflowConditionType;
 import org.kitodo.data.database.exceptions.DAOException;
 import org.kitodo.data.exceptions.DataException;
 import org.kitodo.production.helper.Helper;
-import org.kitodo.production.helper.VariableReplacer;
 import org.kitodo.production.helper.WebDav;
 import org.kitodo.production.helper.metadata.ImageHelper;
-import org.kitodo.production.helper.metadata.legacytypeimplementations.LegacyMetsModsDigitalDocumentHelper;
-import org.kitodo.production.helper.metadata.legacytypeimplementations.LegacyPrefsHelper;
 import org.kitodo.production.helper.tasks.TaskManager;
+import org.kitodo.production.helper.tasks.TaskStatusChangeTask;
 import org.kitodo.production.metadata.MetadataLock;
 import org.kitodo.production.services.ServiceManager;
 import org.kitodo.production.services.data.TaskService;
-import org.kitodo.production.thread.TaskScriptThread;
-import org.kitodo.production.workflow.KitodoNamespaceContext;
-import org.w3c.dom.Document;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 public class WorkflowControllerService {
 
@@ -76,6 +57,21 @@ public class WorkflowControllerService {
     private static final Logger logger = LogManager.getLogger(WorkflowControllerService.class);
     private final TaskService taskService = ServiceManager.getTaskService();
 
+    /**
+     * Evaluates the workflow conditions of the tasks activated in the current
+     * transition. It is only set while tasks are activated.
+     */
+    private WorkflowConditionEvaluator conditionEvaluator;
+
+    /**
+     * The processes changed while the task status of a chunk of processes is
+     * changed, by ID, and the automatic tasks whose jobs are queued after the
+     * processes were saved. They are only set while the task status of a
+     * chunk of processes is changed, otherwise each change is saved at once.
+     */
+    private Map<Integer, Process> changedProcesses;
+    private List<Task> pendingAutomaticTasks;
+
     /**
      * Set Task status up.
      *
@@ -102,7 +98,7 @@ public class WorkflowControllerService {
                 } else {
                     task.setProcessingTime(new Date());
                     taskService.replaceProcessingUser(task, getCurrentUser());
-                    ServiceManager.getTaskService().save(task);
+                    saveTask(task);
                 }
             }
         }
@@ -185,10 +181,8 @@ public class WorkflowControllerService {
     private boolean validateMetadata(Task task) throws IOException, DAOException {
         URI metadataFileUri = ServiceManager.getProcessService().getMetadataFileUri(task.getProcess());
         Workpiece workpiece = ServiceManager.getMetsService().loadWorkpiece(metadataFileUri);
-        RulesetManagementInterface ruleset = ServiceManager.getRulesetManagementService().getRulesetManagement();
-        ruleset.load(new File(Paths.get(
-                ConfigCore.getParameter(ParameterCore.DIR_RULESETS),
-                task.getProcess().getRuleset().getFile()).toString()));
+        RulesetManagementInterface ruleset = ServiceManager.getRulesetService()
+                .openRuleset(task.getProcess().getRuleset());
         ValidationResult validationResult = ServiceManager.getMetadataValidationService().validate(workpiece, ruleset);
         if (State.ERROR.equals(validationResult.getState())) {
             Helper.setErrorMessage(Helper.getTranslation("dataEditor.validation.state.error"));
@@ -252,7 +246,7 @@ public class WorkflowControllerService {
         taskService.replaceProcessingUser(task, user);
         task.setProcessingEnd(new Date());
 
-        taskService.save(task);
+        saveTask(task);
 
         automaticTasks = new ArrayList<>();
         tasksToFinish = new ArrayList<>();
@@ -269,8 +263,28 @@ public class WorkflowControllerService {
         if (!process.getChildren().isEmpty()) {
             boolean allChildrenClosed = true;
             for (Process child : process.getChildren()) {
-                allChildrenClosed &= child.getSortHelperStatus().equals("100000000")
-                        || child.getSortHelperStatus().equals("100000000000");
+                allChildrenClosed &= isClosed(child);
+            }
+            return allChildrenClosed;
+        }
+        return false;
+    }
+
+    private static boolean isClosed(Process process) {
+        return process.getSortHelperStatus().equals("100000000")
+                || process.getSortHelperStatus().equals("100000000000");
+    }
+
+    /**
+     * Checks if all children of a process are closed, while the task status
+     * of a chunk of processes is changed. The children changed in the chunk
+     * are not yet saved, so their changed state is checked.
+     */
+    private boolean allChildrenClosedInChunk(Process process) {
+        if (!process.getChildren().isEmpty()) {
+            boolean allChildrenClosed = true;
+            for (Process child : process.getChildren()) {
+                allChildrenClosed &= isClosed(changedProcesses.getOrDefault(child.getId(), child));
             }
             return allChildrenClosed;
         }
@@ -429,6 +443,20 @@ public class WorkflowControllerService {
     }
 
     private void activateTasksForClosedTask(Task closedTask) throws DataException, IOException, DAOException {
+        boolean transitionStarted = Objects.isNull(conditionEvaluator);
+        if (transitionStarted) {
+            conditionEvaluator = new WorkflowConditionEvaluator();
+        }
+        try {
+            activateTasksOfProcess(closedTask);
+        } finally {
+            if (transitionStarted) {
+                conditionEvaluator = null;
+            }
+        }
+    }
+
+    private void activateTasksOfProcess(Task closedTask) throws DataException, IOException, DAOException {
         Process process = closedTask.getProcess();
 
         // check if there are tasks that take place in parallel but are not yet
@@ -444,22 +472,24 @@ public class WorkflowControllerService {
             activateConcurrentTasks(concurrentTasksForOpen);
         }
 
-        process = ServiceManager.getProcessService().getById(process.getId());
+        if (Objects.isNull(changedProcesses)) {
+            process = ServiceManager.getProcessService().getById(process.getId());
+        }
 
         URI imagesOrigDirectory = ServiceManager.getProcessService().getImagesOriginDirectory(true, process);
-        Integer numberOfFiles = ServiceManager.getFileService().getNumberOfFiles(imagesOrigDirectory);
-        if (!process.getSortHelperImages().equals(numberOfFiles)) {
-            process.setSortHelperImages(numberOfFiles);
-            ServiceManager.getProcessService().save(process);
+        process.setSortHelperImages(ServiceManager.getFileService().getNumberOfFiles(imagesOrigDirectory));
+        saveProcess(process);
+        if (Objects.isNull(changedProcesses)) {
+            process = ServiceManager.getProcessService().getById(process.getId());
         }
 
-        ServiceManager.getProcessService().save(process);
-        process = ServiceManager.getProcessService().getById(process.getId());
-
         for (Task automaticTask : automaticTasks) {
             automaticTask.setProcessingBegin(new Date());
-            TaskScriptThread thread = new TaskScriptThread(automaticTask);
-            TaskManager.addTask(thread);
+            if (Objects.isNull(pendingAutomaticTasks)) {
+                ServiceManager.getJobService().enqueueScript(automaticTask);
+            } else {
+                pendingAutomaticTasks.add(automaticTask);
+            }
         }
         for (Task finish : tasksToFinish) {
             close(finish);
@@ -469,10 +499,43 @@ public class WorkflowControllerService {
     }
 
     private void closeParent(Process process) throws DataException {
-        if (Objects.nonNull(process.getParent()) && allChildrenClosed(process.getParent())) {
+        if (Objects.isNull(process.getParent())) {
+            return;
+        }
+        if (Objects.isNull(changedProcesses) && allChildrenClosed(process.getParent())) {
             process.getParent().setSortHelperStatus("100000000");
             ServiceManager.getProcessService().save(process.getParent());
             closeParent(process.getParent());
+        } else if (Objects.nonNull(changedProcesses) && allChildrenClosedInChunk(process.getParent())) {
+            process.getParent().setSortHelperStatus("100000000");
+            changedProcesses.putIfAbsent(process.getParent().getId(), process.getParent());
+            closeParent(process.getParent());
+        }
+    }
+
+    /**
+     * Saves a changed task, or remembers its process to be saved with the
+     * current chunk.
+     */
+    private void saveTask(Task task) throws DataException {
+        if (Objects.isNull(changedProcesses)) {
+            taskService.save(task);
+        } else {
+            changedProcesses.putIfAbsent(task.getProcess().getId(), task.getProcess());
+        }
+    }
+
+    /**
+     * Saves a changed process, or remembers it to be saved with the current
+     * chunk. The progress of a remembered process is updated at once, as the
+     * closing of its parent depends on it.
+     */
+    private void saveProcess(Process process) throws DataException {
+        if (Objects.isNull(changedProcesses)) {
+            ServiceManager.getProcessService().save(process);
+        } else {
+            updateProcessSortHelperStatus(process);
+            changedProcesses.putIfAbsent(process.getId(), process);
         }
     }
 
@@ -574,8 +637,18 @@ public class WorkflowControllerService {
     public void activateNextTasks(List<Task> allHigherTasks) throws DataException, IOException, DAOException {
         List<Task> nextTasks = getNextTasks(allHigherTasks);
 
-        for (Task nextTask : nextTasks) {
-            activateTask(nextTask);
+        boolean transitionStarted = Objects.isNull(conditionEvaluator);
+        if (transitionStarted) {
+            conditionEvaluator = new WorkflowConditionEvaluator();
+        }
+        try {
+            for (Task nextTask : nextTasks) {
+                activateTask(nextTask);
+            }
+        } finally {
+            if (transitionStarted) {
+                conditionEvaluator = null;
+            }
         }
     }
 
@@ -629,7 +702,7 @@ public class WorkflowControllerService {
      * If no open parallel tasks are available, activate the next tasks.
      */
     private void activateTask(Task task) throws DataException, IOException, DAOException {
-        if (isWorkflowConditionFulfilled(task.getProcess(), task.getWorkflowCondition())) {
+        if (conditionEvaluator.isFulfilled(task.getProcess(), task.getWorkflowCondition())) {
             // activate the task if it is not fully automatic
             task.setProcessingStatus(TaskStatus.OPEN);
             task.setProcessingTime(new Date());
@@ -637,7 +710,7 @@ public class WorkflowControllerService {
 
             verifyTask(task);
 
-            taskService.save(task);
+            saveTask(task);
         } else {
             // close task as it is not going to be executed
             task.setProcessingStatus(TaskStatus.DONE);
@@ -645,60 +718,12 @@ public class WorkflowControllerService {
             task.setProcessingEnd(new Date());
             task.setEditType(TaskEditType.AUTOMATIC);
 
-            taskService.save(task);
+            saveTask(task);
 
             activateTasksForClosedTask(task);
         }
     }
 
-    private boolean isWorkflowConditionFulfilled(Process process, WorkflowCondition workflowCondition)
-            throws IOException {
-        if (Objects.isNull(workflowCondition) || workflowCondition.getType().equals(WorkflowConditionType.NONE)) {
-            return true;
-        } else {
-            if (workflowCondition.getType().equals(WorkflowConditionType.SCRIPT)) {
-                return runScriptCondition(workflowCondition.getValue(), process);
-            }
-
-            if (workflowCondition.getType().equals(WorkflowConditionType.XPATH)) {
-                return runXPathCondition(process, workflowCondition.getValue());
-            }
-            return true;
-        }
-    }
-
-    private boolean runScriptCondition(String script, Process process) throws IOException {
-        LegacyPrefsHelper legacyPrefsHelper = ServiceManager.getRulesetService().getPreferences(process.getRuleset());
-
-        LegacyMetsModsDigitalDocumentHelper legacyMetsModsDigitalDocumentHelper = ServiceManager.getProcessService()
-                .readMetadataFile(ServiceManager.getFileService().getMetadataFilePath(process), legacyPrefsHelper)
-                .getDigitalDocument();
-        VariableReplacer replacer = new VariableReplacer(legacyMetsModsDigitalDocumentHelper.getWorkpiece(),
-                process, null);
-
-        script = replacer.replace(script);
-
-        CommandResult commandResult = ServiceManager.getCommandService().runCommand(script);
-        return commandResult.isSuccessful();
-    }
-
-    private boolean runXPathCondition(Process process, String xpath) throws IOException {
-        try (InputStream fileInputStream = ServiceManager.getFileService().readMetadataFile(process)) {
-            DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
-            builderFactory.setNamespaceAware(true);
-            DocumentBuilder builder = builderFactory.newDocumentBuilder();
-            Document xmlDocument = builder.parse(fileInputStream);
-
-            XPath xPath = XPathFactory.newInstance().newXPath();
-            xPath.setNamespaceContext(new KitodoNamespaceContext());
-            NodeList nodeList = (NodeList) xPath.compile(xpath).evaluate(xmlDocument, XPathConstants.NODESET);
-            return nodeList.getLength() > 0;
-        } catch (ParserConfigurationException | SAXException | XPathExpressionException e) {
-            logger.error(e.getMessage(), e);
-            throw new IOException(e);
-        }
-    }
-
     private void verifyTask(Task task) {
         // if it is an automatic task with script
         if (task.isTypeAutomatic()) {
@@ -741,32 +766,80 @@ public class WorkflowControllerService {
     }
 
     /**
-     * Set up processing status for given list of processes.
+     * Set up processing status for given list of processes. If the processes
+     * do not fit into one chunk, the status is changed in the task manager.
      */
     public void setTaskStatusUpForProcesses(List<Process> processes) {
-        for (Process processForStatus : processes) {
-            try {
-                setTasksStatusUp(processForStatus);
-            } catch (DataException | IOException | DAOException e) {
-                Helper.setErrorMessage("errorChangeTaskStatus",
-                        new Object[] {Helper.getTranslation("up"), processForStatus.getId() }, logger, e);
-            }
-        }
+        changeTaskStatusOfProcesses(processes, true);
     }
 
     /**
-     * Set down processing status for given list of processes.
+     * Set down processing status for given list of processes. If the
+     * processes do not fit into one chunk, the status is changed in the task
+     * manager.
      */
     public void setTaskStatusDownForProcesses(List<Process> processes) {
-        for (Process processForStatus : processes) {
-            try {
-                setTasksStatusDown(processForStatus);
-                ServiceManager.getProcessService().save(processForStatus);
-                updateProcessSortHelperStatus(processForStatus);
-            } catch (DataException e) {
-                Helper.setErrorMessage("errorChangeTaskStatus",
-                        new Object[] {Helper.getTranslation("down"), processForStatus.getId() }, logger, e);
+        changeTaskStatusOfProcesses(processes, false);
+    }
+
+    private void changeTaskStatusOfProcesses(List<Process> processes, boolean up) {
+        if (processes.size() > ConfigCore.getIntParameterOrDefaultValue(ParameterCore.BATCHES_TASK_STATUS_CHUNK_SIZE)) {
+            TaskManager.addTask(new TaskStatusChangeTask(processes, up));
+            Helper.setMessage("taskStatusChangeStarted");
+            return;
+        }
+        try {
+            setTaskStatusForChunk(processes, up);
+        } catch (DataException e) {
+            Helper.setErrorMessage("errorSaving", new Object[] {Helper.getTranslation("processes") }, logger, e);
+        }
+    }
+
+    /**
+     * Changes the processing status of the current tasks of a chunk of
+     * processes up or down. The tasks following closed tasks are activated in
+     * memory. Then the changed processes are saved with their tasks in one
+     * transaction and written to the index in one bulk request, and the jobs
+     * of the activated automatic tasks are queued. A process whose status
+     * cannot be changed is left out, and an error message is shown.
+     *
+     * @param processes
+     *            chunk of processes
+     * @param up
+     *            whether the status is changed up, else down
+     * @throws DataException
+     *             if the changed processes cannot be saved
+     */
+    public void setTaskStatusForChunk(List<Process> processes, boolean up) throws DataException {
+        changedProcesses = new LinkedHashMap<>();
+        pendingAutomaticTasks = new ArrayList<>();
+        try {
+            for (Process process : processes) {
+                try {
+                    if (up) {
+                        setTasksStatusUp(process);
+                    } else {
+                        setTasksStatusDown(process);
+                        changedProcesses.putIfAbsent(process.getId(), process);
+                    }
+                } catch (DataException | IOException | DAOException e) {
+                    changedProcesses.remove(process.getId());
+                    pendingAutomaticTasks.removeIf(task -> task.getProcess().getId().equals(process.getId()));
+                    Helper.setErrorMessage("errorChangeTaskStatus",
+                        new Object[] {Helper.getTranslation(up ? "up" : "down"), process.getId() }, logger, e);
+                }
             }
+            ServiceManager.getProcessService().saveInBulk(new ArrayList<>(changedProcesses.values()));
+            for (Task automaticTask : pendingAutomaticTasks) {
+                try {
+                    ServiceManager.getJobService().enqueueScript(automaticTask);
+                } catch (DAOException e) {
+                    Helper.setErrorMessage("errorSaving", new Object[] {automaticTask.getTitle() }, logger, e);
+                }
+            }
+        } finally {
+            changedProcesses = null;
+            pendingAutomaticTasks = null;
         }
     }
 }
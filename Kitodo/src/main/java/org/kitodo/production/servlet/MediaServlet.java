@@ -0,0 +1,381 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.servlet;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.kitodo.config.ConfigCore;
+import org.kitodo.config.enums.ParameterCore;
+import org.kitodo.production.model.Subfolder;
+
+/**
+ * Sends the media files shown in the metadata editor to the browser, under
+ * {@code /media/<process id>/<folder id>/<canonical>}. A session may only
+ * retrieve files from the folders of the processes it has opened in the
+ * metadata editor, see {@link #grantAccess(Map, Subfolder, boolean)}. The
+ * files are sent with ETag and Last-Modified headers, so that the browser can
+ * ask whether its copy is still valid instead of retrieving the file again,
+ * and byte ranges can be requested. Small files of folders marked as cached,
+ * that is, the preview images of the gallery, are kept in memory for all
+ * sessions, up to the size configured as {@code metsEditor.mediaCacheSize}.
+ */
+@WebServlet(name = "MediaServlet", urlPatterns = MediaServlet.PATH + "*")
+public class MediaServlet extends HttpServlet {
+    private static final Logger logger = LogManager.getLogger(MediaServlet.class);
+    private static final long serialVersionUID = 1L;
+
+    static final String PATH = "/media/";
+
+    /**
+     * Name of the session attribute holding the folders the session may
+     * retrieve files from.
+     */
+    private static final String SESSION_ATTRIBUTE = MediaServlet.class.getName();
+
+    /**
+     * Files larger than this are not cached.
+     */
+    private static final int MAX_CACHED_FILE_SIZE = 1 << 20;
+
+    private static final long[] FULL = null;
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    private transient MediaCache cache;
+
+    /**
+     * A folder a session may retrieve files from.
+     */
+    private static class Access {
+        private final Subfolder subfolder;
+        private final boolean cached;
+
+        private Access(Subfolder subfolder, boolean cached) {
+            this.subfolder = subfolder;
+            this.cached = cached;
+        }
+    }
+
+    /**
+     * The content of recently sent small files, least recently used first.
+     */
+    private static class MediaCache {
+        private final long limit;
+        private final LinkedHashMap<Path, CachedFile> files = new LinkedHashMap<>(256, 0.75f, true);
+        private long size;
+
+        private static class CachedFile {
+            private final String eTag;
+            private final byte[] content;
+
+            private CachedFile(String eTag, byte[] content) {
+                this.eTag = eTag;
+                this.content = content;
+            }
+        }
+
+        private MediaCache(long limit) {
+            this.limit = limit;
+        }
+
+        private synchronized byte[] get(Path file, String eTag) {
+            CachedFile cached = files.get(file);
+            return Objects.nonNull(cached) && cached.eTag.equals(eTag) ? cached.content : null;
+        }
+
+        private synchronized void put(Path file, String eTag, byte[] content) {
+            CachedFile replaced = files.put(file, new CachedFile(eTag, content));
+            if (Objects.nonNull(replaced)) {
+                size -= replaced.content.length;
+            }
+            size += content.length;
+            for (Iterator<CachedFile> eldest = files.values().iterator(); size > limit && eldest.hasNext();) {
+                size -= eldest.next().content.length;
+                eldest.remove();
+            }
+        }
+    }
+
+    @Override
+    public void init() {
+        long megabytes = ConfigCore.getIntParameterOrDefaultValue(ParameterCore.METS_EDITOR_MEDIA_CACHE_SIZE);
+        cache = megabytes > 0 ? new MediaCache(megabytes << 20) : null;
+    }
+
+    /**
+     * Allows the session to retrieve files from the folder of a process, and
+     * keeps them in memory if they are to be cached.
+     *
+     * @param sessionMap
+     *            attributes of the session
+     * @param subfolder
+     *            folder of a process
+     * @param cached
+     *            whether small files from the folder are kept in memory
+     */
+    @SuppressWarnings("unchecked")
+    public static void grantAccess(Map<String, Object> sessionMap, Subfolder subfolder, boolean cached) {
+        Map<String, Access> granted = (Map<String, Access>) sessionMap.computeIfAbsent(SESSION_ATTRIBUTE,
+            key -> new ConcurrentHashMap<>());
+        granted.put(getKey(subfolder), new Access(subfolder, cached));
+    }
+
+    /**
+     * Withdraws the access of the session to the folders of a process.
+     *
+     * @param sessionMap
+     *            attributes of the session
+     * @param processId
+     *            ID of the process
+     */
+    @SuppressWarnings("unchecked")
+    public static void revokeAccess(Map<String, Object> sessionMap, Integer processId) {
+        Map<String, Access> granted = (Map<String, Access>) sessionMap.get(SESSION_ATTRIBUTE);
+        if (Objects.nonNull(granted)) {
+            granted.keySet().removeIf(key -> key.startsWith(processId.toString() + '/'));
+        }
+    }
+
+    /**
+     * Returns the path of a media file relative to the web application, which
+     * can be used as URL of an image in a page.
+     *
+     * @param subfolder
+     *            folder of the media file
+     * @param canonical
+     *            the canonical part of the file name
+     * @return path of the media file
+     */
+    public static String getPath(Subfolder subfolder, String canonical) {
+        try {
+            return PATH + getKey(subfolder) + '/'
+                    + URLEncoder.encode(canonical, StandardCharsets.UTF_8.name()).replace("+", "%20");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String getKey(Subfolder subfolder) {
+        return subfolder.getProcess().getId().toString() + '/' + subfolder.getFolder().getId();
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String[] path = Objects.nonNull(request.getPathInfo()) ? request.getPathInfo().split("/", -1) : new String[0];
+        if (path.length != 4 || path[3].isEmpty() || path[3].indexOf(File.separatorChar) > -1) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Access access = getAccess(request.getSession(false), path[1] + '/' + path[2]);
+        if (Objects.isNull(access)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        Path file = Paths.get(access.subfolder.getUri(path[3]));
+        BasicFileAttributes attributes = getFileAttributes(file);
+        if (Objects.isNull(attributes) || !attributes.isRegularFile()) {
+            logger.debug("Cannot serve media request, file {} not found", file);
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        sendFile(request, response, access, file, attributes);
+    }
+
+    private static BasicFileAttributes getFileAttributes(Path file) throws IOException {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Answers a conditional or range request for a file, or sends the whole
+     * file.
+     */
+    private void sendFile(HttpServletRequest request, HttpServletResponse response, Access access, Path file,
+            BasicFileAttributes attributes) throws IOException {
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String eTag = '"' + Long.toHexString(length) + '-' + Long.toHexString(lastModified) + '"';
+        response.setHeader("ETag", eTag);
+        response.setDateHeader("Last-Modified", lastModified);
+        response.setHeader("Cache-Control", "private, no-cache");
+        response.setHeader("Accept-Ranges", "bytes");
+        if (isNotModified(request, eTag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long[] range = getRange(request, eTag, lastModified, length);
+        if (range == UNSATISFIABLE) {
+            response.setHeader("Content-Range", "bytes */" + length);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        response.setContentType(access.subfolder.getFolder().getMimeType());
+        if (range == FULL) {
+            sendWholeFile(response, access, file, eTag, length);
+        } else {
+            sendRange(response, file, range, length);
+        }
+    }
+
+    /**
+     * Sends the whole file, from the cache if it is a small file of a cached
+     * folder.
+     */
+    private void sendWholeFile(HttpServletResponse response, Access access, Path file, String eTag, long length)
+            throws IOException {
+        if (access.cached && Objects.nonNull(cache) && length <= MAX_CACHED_FILE_SIZE) {
+            byte[] content = cache.get(file, eTag);
+            if (Objects.isNull(content)) {
+                content = Files.readAllBytes(file);
+                cache.put(file, eTag, content);
+            }
+            response.setContentLength(content.length);
+            response.getOutputStream().write(content);
+        } else {
+            response.setHeader("Content-Length", Long.toString(length));
+            transfer(file, 0, length, response.getOutputStream());
+        }
+    }
+
+    private static void sendRange(HttpServletResponse response, Path file, long[] range, long length)
+            throws IOException {
+        long count = range[1] - range[0] + 1;
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setHeader("Content-Range", "bytes " + range[0] + '-' + range[1] + '/' + length);
+        response.setHeader("Content-Length", Long.toString(count));
+        transfer(file, range[0], count, response.getOutputStream());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Access getAccess(HttpSession session, String key) {
+        if (Objects.isNull(session)) {
+            return null;
+        }
+        Map<String, Access> granted = (Map<String, Access>) session.getAttribute(SESSION_ATTRIBUTE);
+        return Objects.nonNull(granted) ? granted.get(key) : null;
+    }
+
+    /**
+     * Returns whether the browser already has the file, as it told with an
+     * {@code If-None-Match} or {@code If-Modified-Since} header.
+     */
+    private static boolean isNotModified(HttpServletRequest request, String eTag, long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (Objects.nonNull(ifNoneMatch)) {
+            for (String match : ifNoneMatch.split(",")) {
+                String trimmed = match.trim();
+                if (trimmed.equals("*") || trimmed.equals(eTag) || trimmed.equals("W/" + eTag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = getDateHeader(request, "If-Modified-Since");
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * Returns the first and last byte of the requested range. Only a single
+     * range is supported; if several are requested, or if the file has changed
+     * since the browser got a part of it, the whole file is sent.
+     *
+     * @return the first and last byte, {@code FULL} for the whole file, or
+     *         {@code UNSATISFIABLE}
+     */
+    private static long[] getRange(HttpServletRequest request, String eTag, long lastModified, long length) {
+        String range = request.getHeader("Range");
+        if (Objects.isNull(range) || !range.startsWith("bytes=") || range.indexOf(',') > -1) {
+            return FULL;
+        }
+        String ifRange = request.getHeader("If-Range");
+        if (Objects.nonNull(ifRange) && (ifRange.startsWith("\"") || ifRange.startsWith("W/")
+                ? !ifRange.equals(eTag)
+                : getDateHeader(request, "If-Range") / 1000 != lastModified / 1000)) {
+            return FULL;
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        try {
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                return suffix > 0 && length > 0 ? new long[] {Math.max(0, length - suffix), length - 1 }
+                        : UNSATISFIABLE;
+            } else if (dash > 0) {
+                long first = Long.parseLong(spec.substring(0, dash));
+                if (first >= length) {
+                    return UNSATISFIABLE;
+                }
+                long last = dash == spec.length() - 1 ? length - 1 : Long.parseLong(spec.substring(dash + 1));
+                return last < first ? FULL : new long[] {first, Math.min(last, length - 1) };
+            }
+        } catch (NumberFormatException e) {
+            logger.debug("Ignoring invalid range {}", range);
+        }
+        return FULL;
+    }
+
+    private static long getDateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Transfers a part of a file to the browser. The file channel hands the
+     * data to the output channel without reading it into the heap first.
+     */
+    private static void transfer(Path file, long position, long count, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long transferred = 0;
+            while (transferred < count) {
+                long chunk = channel.transferTo(position + transferred, count - transferred, target);
+                if (chunk <= 0) {
+                    break;
+                }
+                transferred += chunk;
+            }
+        }
+    }
+}
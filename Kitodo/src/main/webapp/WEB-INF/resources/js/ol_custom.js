@@ -120,17 +120,6 @@ ol.inherits(kitodo.RotateLeftControl, ol.control.Rotate);
 ol.inherits(kitodo.RotateRightControl, ol.control.Rotate);
 ol.inherits(kitodo.ResetNorthControl, ol.control.Rotate);
 
-function random(length) {
-    var text = "";
-    var possible = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
-
-    for (var i = 0; i < length; i++) {
-        text += possible.charAt(Math.floor(Math.random() * possible.length));
-    }
-
-    return text;
-}
-
 function createProjection(extent) {
     return new ol.proj.Projection({
         code: 'kitodo-image',
@@ -214,7 +203,7 @@ function updateMap(imageDimensions, imagePath) {
 }
 
 function addListener(element) {
-    element.on("load", function () {
+    element.off("load").on("load", function () {
         if (kitodo.map) {
             updateMap([element.width(), element.height()], element[0].src);
         } else {
@@ -227,7 +216,10 @@ function initializeImage() {
     hideCanvas();
     let image = $("#imagePreviewForm\\:mediaViewData");
     addListener(image);
-    image[0].src = image[0].src.replace(/&uuid=[a-z0-9]+/i, "") + "&uuid=" + random(8);
+    if (image[0].complete && image[0].naturalWidth > 0) {
+        // already loaded, possibly from the browser cache
+        image.trigger("load");
+    }
 }
 
 function changeToMapView() {
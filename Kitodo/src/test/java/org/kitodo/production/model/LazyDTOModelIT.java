@@ -68,6 +68,23 @@ public class LazyDTOModelIT {
         assertEquals("Second client", client.getName());
     }
 
+    @Test
+    public void shouldCountRowsAgainAfterSaveAndRemove() throws Exception {
+        LazyDTOModel lazyDTOModelClient = new LazyDTOModel(clientService);
+        lazyDTOModelClient.load(0, 10, "name", SortOrder.ASCENDING, null);
+        int rowCount = lazyDTOModelClient.getRowCount();
+
+        Client client = new Client();
+        client.setName("Fourth client");
+        clientService.saveToDatabase(client);
+        lazyDTOModelClient.load(0, 10, "name", SortOrder.ASCENDING, null);
+        assertEquals("Saved client should be counted", rowCount + 1, lazyDTOModelClient.getRowCount());
+
+        clientService.removeFromDatabase(client);
+        lazyDTOModelClient.load(0, 10, "name", SortOrder.ASCENDING, null);
+        assertEquals("Removed client should not be counted", rowCount, lazyDTOModelClient.getRowCount());
+    }
+
     @Test
     public void shouldLoadFromIndex() throws Exception {
         MockDatabase.cleanDatabase();
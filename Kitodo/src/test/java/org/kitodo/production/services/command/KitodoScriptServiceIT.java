@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.SystemUtils;
@@ -218,6 +219,11 @@ public class KitodoScriptServiceIT {
 
         ServiceManager.getKitodoScriptService().execute(processes,
             "action:generateImages \"folders:jpgs/max,jpgs/thumbs\" images:all");
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (TaskManager.getTaskList().isEmpty()) {
+            assertTrue("Image generation job was not dispatched to the task manager", System.nanoTime() < deadline);
+            Thread.sleep(400);
+        }
         EmptyTask taskImageGeneratorThread = TaskManager.getTaskList().get(0);
         while (taskImageGeneratorThread.isStartable() || taskImageGeneratorThread.isStoppable()) {
             Thread.sleep(400);
@@ -0,0 +1,158 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.XML;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the number of process documents per second whose metadata can be
+ * prepared for the index by converting the METS file to org.json and copying
+ * it into maps, and by extracting it with StAX. The GC profiler reports the
+ * allocation rate as {@code gc.alloc.rate} and the bytes allocated per
+ * document as {@code gc.alloc.rate.norm}.
+ *
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.kitodo.production.services.data.ProcessMetadataExtractorBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx1g" })
+public class ProcessMetadataExtractorBenchmark {
+
+    @Param({"10", "500" })
+    private int divisions;
+
+    private byte[] metsFile;
+
+    /**
+     * Generates a METS file with the configured number of divisions, each
+     * with its own {@code <mets:dmdSec>}.
+     */
+    @Setup
+    public void generateMetsFile() {
+        StringBuilder mets = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<mets:mets"
+                + " xmlns:mets=\"http://www.loc.gov/METS/\" xmlns:kitodo=\"http://meta.kitodo.org/v1/\">\n");
+        for (int division = 0; division < divisions; division++) {
+            mets.append("<mets:dmdSec ID=\"DMDLOG_").append(division).append("\"><mets:mdWrap MDTYPE=\"OTHER\""
+                    + " OTHERMDTYPE=\"KITODO\"><mets:xmlData><kitodo:kitodo>\n");
+            mets.append("<kitodo:metadata name=\"TitleDocMain\">Title of division ").append(division)
+                    .append("</kitodo:metadata>\n<kitodo:metadata name=\"CurrentNo\">").append(division)
+                    .append("</kitodo:metadata>\n<kitodo:metadata name=\"PlaceOfPublication\">Dresden"
+                            + "</kitodo:metadata>\n<kitodo:metadataGroup name=\"Person\">"
+                            + "<kitodo:metadata name=\"LastName\">Doe</kitodo:metadata>"
+                            + "<kitodo:metadata name=\"FirstName\">Jane</kitodo:metadata>"
+                            + "<kitodo:metadata name=\"Role\">aut</kitodo:metadata></kitodo:metadataGroup>\n");
+            mets.append("</kitodo:kitodo></mets:xmlData></mets:mdWrap></mets:dmdSec>\n");
+        }
+        mets.append("<mets:structMap TYPE=\"LOGICAL\"><mets:div ID=\"LOG_0000\" TYPE=\"Monograph\"/>"
+                + "</mets:structMap>\n</mets:mets>\n");
+        metsFile = mets.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Prepares the metadata of one process the way it was done before, by
+     * converting the METS file with org.json.
+     */
+    @Benchmark
+    public Object extractWithJson() throws IOException {
+        String metadataFile = IOUtils.toString(new ByteArrayInputStream(metsFile), StandardCharsets.UTF_8);
+        Map<String, Object> json = iterateOverJsonObject(XML.toJSONObject(metadataFile));
+        return ((Map<?, ?>) json.get("mets")).get("dmdSec");
+    }
+
+    /**
+     * Prepares the metadata of one process with the StAX extractor.
+     */
+    @Benchmark
+    public List<Map<String, Object>> extractWithStax() throws IOException {
+        return ProcessMetadataExtractor.extract(new ByteArrayInputStream(metsFile));
+    }
+
+    private static Map<String, Object> iterateOverJsonObject(JSONObject xmlJSONObject) {
+        Iterator<String> keys = xmlJSONObject.keys();
+        Map<String, Object> json = new HashMap<>();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            Object value = xmlJSONObject.get(key);
+            if (value instanceof String || value instanceof Integer) {
+                json.put(prepareKey(key), value);
+            } else if (value instanceof JSONObject) {
+                json.put(prepareKey(key), iterateOverJsonObject((JSONObject) value));
+            } else if (value instanceof JSONArray) {
+                json.put(prepareKey(key), iterateOverJsonArray((JSONArray) value));
+            }
+        }
+        return json;
+    }
+
+    private static Object iterateOverJsonArray(JSONArray jsonArray) {
+        List<Object> json = new ArrayList<>(jsonArray.length());
+        for (int i = 0; i < jsonArray.length(); i++) {
+            Object value = jsonArray.get(i);
+            if (value instanceof JSONObject) {
+                json.add(iterateOverJsonObject((JSONObject) value));
+            } else if (value instanceof String) {
+                json.add(value);
+            } else if (value instanceof JSONArray) {
+                json.add(iterateOverJsonArray((JSONArray) value));
+            }
+        }
+        return json;
+    }
+
+    private static String prepareKey(String key) {
+        return key.contains(":") ? key.substring(key.indexOf(':') + 1) : key;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *            not used
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ProcessMetadataExtractorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).build()).run();
+    }
+}
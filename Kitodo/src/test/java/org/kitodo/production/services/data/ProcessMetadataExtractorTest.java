@@ -0,0 +1,81 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ProcessMetadataExtractorTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldExtractMetadataOfDmdSecs() throws IOException {
+        List<Map<String, Object>> dmdSecs;
+        try (InputStream in = Files.newInputStream(Paths.get("src/test/resources/metadata/testmeta.xml"))) {
+            dmdSecs = ProcessMetadataExtractor.extract(in);
+        }
+        assertEquals("Wrong number of dmdSecs", 3, dmdSecs.size());
+        assertEquals("Wrong ID of dmdSec", "DMDLOG_0000", dmdSecs.get(0).get("ID"));
+
+        Map<String, Object> mdWrap = (Map<String, Object>) dmdSecs.get(0).get("mdWrap");
+        assertEquals("Wrong MDTYPE", "OTHER", mdWrap.get("MDTYPE"));
+        Map<String, Object> kitodo = (Map<String, Object>) ((Map<String, Object>) mdWrap.get("xmlData")).get("kitodo");
+        List<Map<String, Object>> metadata = (List<Map<String, Object>>) kitodo.get("metadata");
+        assertEquals("Wrong number of metadata", 4, metadata.size());
+        assertEquals("Wrong metadata name", "TitleDocMain", metadata.get(0).get("name"));
+        assertEquals("Wrong metadata content", "Otsar ha-kavod", metadata.get(0).get("content"));
+
+        Map<String, Object> formerOwner = metadata.get(3);
+        assertEquals("Wrong metadata name", "FormerOwner", formerOwner.get("name"));
+        assertFalse("Group must not have content", formerOwner.containsKey("content"));
+        List<Map<String, Object>> members = (List<Map<String, Object>>) formerOwner.get("metadata");
+        assertEquals("Wrong number of group members", 3, members.size());
+        assertEquals("Content should be trimmed", ",", members.get(2).get("content"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldExtractMetadataGroups() throws IOException {
+        String mets = "<mets:mets xmlns:mets=\"http://www.loc.gov/METS/\"><mets:dmdSec ID=\"DMDLOG_0000\">"
+                + "<mets:mdWrap MDTYPE=\"OTHER\"><mets:xmlData><mods xmlns=\"http://www.loc.gov/mods/v3\">"
+                + "<title>ignored</title></mods><kitodo:kitodo xmlns:kitodo=\"http://meta.kitodo.org/v1/\">"
+                + "<kitodo:metadataGroup name=\"Person\"><kitodo:metadata name=\"LastName\">Doe</kitodo:metadata>"
+                + "<kitodo:metadata name=\"Empty\"/></kitodo:metadataGroup></kitodo:kitodo></mets:xmlData>"
+                + "</mets:mdWrap></mets:dmdSec><mets:structMap TYPE=\"LOGICAL\"/></mets:mets>";
+
+        List<Map<String, Object>> dmdSecs = ProcessMetadataExtractor
+                .extract(new ByteArrayInputStream(mets.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("Wrong number of dmdSecs", 1, dmdSecs.size());
+        Map<String, Object> xmlData = (Map<String, Object>) ((Map<String, Object>) dmdSecs.get(0).get("mdWrap"))
+                .get("xmlData");
+        assertEquals("Other metadata formats should be skipped", 1, xmlData.size());
+        Map<String, Object> kitodo = (Map<String, Object>) xmlData.get("kitodo");
+        assertFalse("There should be no ungrouped metadata", kitodo.containsKey("metadata"));
+        Map<String, Object> person = ((List<Map<String, Object>>) kitodo.get("metadataGroup")).get(0);
+        assertEquals("Wrong group name", "Person", person.get("name"));
+        List<Map<String, Object>> members = (List<Map<String, Object>>) person.get("metadata");
+        assertEquals("Wrong metadata content", "Doe", members.get(0).get("content"));
+        assertFalse("Empty metadata should have no content", members.get(1).containsKey("content"));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.data.base;
+
+import static org.awaitility.Awaitility.given;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.kitodo.MockDatabase;
+import org.kitodo.SecurityTestUtils;
+import org.kitodo.data.database.beans.BaseBean;
+import org.kitodo.data.database.beans.Process;
+import org.kitodo.data.database.beans.Task;
+import org.kitodo.production.dto.BaseDTO;
+import org.kitodo.production.dto.ProcessDTO;
+import org.kitodo.production.dto.TaskDTO;
+import org.kitodo.production.services.ServiceManager;
+import org.kitodo.production.services.data.ProcessService;
+import org.kitodo.production.services.data.TaskService;
+
+/**
+ * Tests for loading the related objects of a page of search results.
+ */
+public class SearchServiceIT {
+
+    private static final ProcessService processService = ServiceManager.getProcessService();
+    private static final TaskService taskService = ServiceManager.getTaskService();
+
+    @BeforeClass
+    public static void prepareDatabase() throws Exception {
+        MockDatabase.startNode();
+        MockDatabase.insertProcessesFull();
+        MockDatabase.setUpAwaitility();
+        SecurityTestUtils.addUserDataToSecurityContext(ServiceManager.getUserService().getById(1), 1);
+        given().ignoreExceptions().await().until(() -> Objects.nonNull(processService.findById(1)));
+    }
+
+    @AfterClass
+    public static void cleanDatabase() throws Exception {
+        SecurityTestUtils.cleanSecurityContext();
+        MockDatabase.stopNode();
+        MockDatabase.cleanDatabase();
+    }
+
+    @Test
+    public void shouldLoadRelatedObjectsOfProcessesWithOneRequestPerType() throws Exception {
+        LongSummaryStatistics before = SearchService.getRoundTripsPerPage();
+
+        List<ProcessDTO> processes = processService.findAll();
+
+        LongSummaryStatistics after = SearchService.getRoundTripsPerPage();
+        assertTrue("Processes should have been found", processes.size() > 1);
+        assertEquals("One page should have been converted", before.getCount() + 1, after.getCount());
+        assertTrue("Projects, rulesets and tasks should have been requested once each",
+            after.getSum() - before.getSum() <= 3);
+
+        for (ProcessDTO processDTO : processes) {
+            Process process = processService.getById(processDTO.getId());
+            assertNotNull("Project should have been set", processDTO.getProject());
+            assertEquals("Incorrect project", process.getProject().getTitle(), processDTO.getProject().getTitle());
+            if (Objects.nonNull(process.getRuleset())) {
+                assertEquals("Incorrect ruleset", process.getRuleset().getId(), processDTO.getRuleset().getId());
+            }
+            assertEquals("Incorrect tasks", process.getTasks().stream().map(BaseBean::getId).sorted()
+                    .collect(Collectors.toList()),
+                processDTO.getTasks().stream().map(BaseDTO::getId).sorted().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void shouldLoadProcessesOfTasksWithOneRequest() throws Exception {
+        LongSummaryStatistics before = SearchService.getRoundTripsPerPage();
+
+        List<TaskDTO> tasks = taskService.findAll();
+
+        LongSummaryStatistics after = SearchService.getRoundTripsPerPage();
+        assertTrue("Tasks of more than one process should have been found",
+            tasks.stream().map(TaskDTO::getProcess).filter(Objects::nonNull).map(BaseDTO::getId).distinct()
+                    .count() > 1);
+        assertEquals("One page should have been converted", before.getCount() + 1, after.getCount());
+        assertEquals("Processes should have been requested once", 1, after.getSum() - before.getSum());
+
+        for (TaskDTO taskDTO : tasks) {
+            Task task = taskService.getById(taskDTO.getId());
+            if (Objects.isNull(task.getProcess())) {
+                assertNull("Template task should have no process", taskDTO.getProcess());
+                continue;
+            }
+            assertEquals("Incorrect process", task.getProcess().getId(), taskDTO.getProcess().getId());
+            assertEquals("Incorrect process title", task.getProcess().getTitle(), taskDTO.getProcess().getTitle());
+        }
+    }
+}
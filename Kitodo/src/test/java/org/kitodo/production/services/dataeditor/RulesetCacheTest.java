@@ -0,0 +1,115 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+package org.kitodo.production.services.dataeditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kitodo.DummyRulesetManagement;
+import org.kitodo.api.dataeditor.rulesetmanagement.RulesetManagementInterface;
+
+public class RulesetCacheTest {
+
+    @Rule
+    public TemporaryFolder rulesetsFolder = new TemporaryFolder();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private RulesetCache createRulesetCache(int maximumSize) {
+        return new RulesetCache(() -> new DummyRulesetManagement() {
+            @Override
+            public void load(File rulesetFile) {
+                loads.incrementAndGet();
+            }
+        }, maximumSize);
+    }
+
+    private File createRulesetFile(String name) throws IOException {
+        return Files.write(rulesetsFolder.getRoot().toPath().resolve(name), Collections.singletonList("<ruleset/>"))
+                .toFile();
+    }
+
+    @Test
+    public void shouldLoadRulesetOnlyOnce() throws IOException {
+        RulesetCache rulesetCache = createRulesetCache(5);
+        File rulesetFile = createRulesetFile("ruleset.xml");
+
+        RulesetManagementInterface first = rulesetCache.get(rulesetFile);
+        RulesetManagementInterface second = rulesetCache.get(rulesetFile);
+
+        assertSame("Cached ruleset should be returned", first, second);
+        assertEquals("Ruleset should be loaded once", 1, loads.get());
+        assertEquals("Incorrect number of hits", 1, rulesetCache.getHits());
+        assertEquals("Incorrect number of misses", 1, rulesetCache.getMisses());
+    }
+
+    @Test
+    public void shouldLoadModifiedRulesetAgain() throws IOException {
+        RulesetCache rulesetCache = createRulesetCache(5);
+        File rulesetFile = createRulesetFile("ruleset.xml");
+
+        rulesetCache.get(rulesetFile);
+        Files.setLastModifiedTime(rulesetFile.toPath(), FileTime.fromMillis(rulesetFile.lastModified() + 1000));
+        rulesetCache.get(rulesetFile);
+
+        assertEquals("Modified ruleset should be loaded again", 2, loads.get());
+        assertEquals("Modified ruleset should replace the old one", 1, rulesetCache.size());
+    }
+
+    @Test
+    public void shouldLoadInvalidatedRulesetAgain() throws IOException {
+        RulesetCache rulesetCache = createRulesetCache(5);
+        File rulesetFile = createRulesetFile("ruleset.xml");
+
+        rulesetCache.get(rulesetFile);
+        rulesetCache.invalidate(rulesetFile);
+        rulesetCache.get(rulesetFile);
+
+        assertEquals("Invalidated ruleset should be loaded again", 2, loads.get());
+    }
+
+    @Test
+    public void shouldDiscardLeastRecentlyUsedRuleset() throws IOException {
+        RulesetCache rulesetCache = createRulesetCache(2);
+        File first = createRulesetFile("first.xml");
+        File second = createRulesetFile("second.xml");
+        File third = createRulesetFile("third.xml");
+
+        rulesetCache.get(first);
+        rulesetCache.get(second);
+        rulesetCache.get(first);
+        rulesetCache.get(third);
+        assertEquals("Cache size should be limited", 2, rulesetCache.size());
+
+        rulesetCache.get(first);
+        assertEquals("Recently used ruleset should be kept", 3, loads.get());
+        rulesetCache.get(second);
+        assertEquals("Least recently used ruleset should be discarded", 4, loads.get());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotReloadCachedRuleset() throws IOException {
+        RulesetCache rulesetCache = createRulesetCache(5);
+        File rulesetFile = createRulesetFile("ruleset.xml");
+
+        rulesetCache.get(rulesetFile).load(rulesetFile);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MediaInventoryTest {
+
+    @Rule
+    public TemporaryFolder processFolder = new TemporaryFolder();
+
+    private Path createDirectory(String name, String... files) throws IOException {
+        Path directory = Files.createDirectories(processFolder.getRoot().toPath().resolve(name));
+        for (String file : files) {
+            Files.createFile(directory.resolve(file));
+        }
+        return directory;
+    }
+
+    /**
+     * Sets the modification time of a directory into the past, so that the
+     * listing of the directory is trusted.
+     */
+    private static void age(Path directory, long seconds) throws IOException {
+        Files.setLastModifiedTime(directory, FileTime.fromMillis(System.currentTimeMillis() - seconds * 1000));
+    }
+
+    @Test
+    public void shouldListDirectoryOnlyOnce() throws IOException {
+        MediaInventory mediaInventory = new MediaInventory(5);
+        Path images = createDirectory("images", "00000001.tif", "00000002.tif");
+        age(images, 60);
+
+        List<String> first = mediaInventory.getNames(images, null);
+        List<String> second = mediaInventory.getNames(images, null);
+
+        Collections.sort(second);
+        assertEquals("Incorrect names", Arrays.asList("00000001.tif", "00000002.tif"), second);
+        assertEquals("Listings should be equal", first.size(), second.size());
+        assertEquals("Incorrect number of hits", 1, mediaInventory.getHits());
+        assertEquals("Incorrect number of misses", 1, mediaInventory.getMisses());
+    }
+
+    @Test
+    public void shouldListModifiedDirectoryAgain() throws IOException {
+        MediaInventory mediaInventory = new MediaInventory(5);
+        Path images = createDirectory("images", "00000001.tif");
+        age(images, 60);
+
+        mediaInventory.getNames(images, null);
+        Files.createFile(images.resolve("00000002.tif"));
+        age(images, 30);
+
+        assertEquals("Added file should be listed", 2, mediaInventory.getNames(images, null).size());
+        assertEquals("Modified directory should be listed again", 2, mediaInventory.getMisses());
+    }
+
+    @Test
+    public void shouldListRecentlyModifiedDirectoryAgain() throws IOException {
+        MediaInventory mediaInventory = new MediaInventory(5);
+        Path images = createDirectory("images", "00000001.tif");
+
+        mediaInventory.getNames(images, null);
+        mediaInventory.getNames(images, null);
+
+        assertEquals("Listing of recently modified directory should not be trusted", 2,
+            mediaInventory.getMisses());
+    }
+
+    @Test
+    public void shouldListInvalidatedDirectoryAgain() throws IOException {
+        MediaInventory mediaInventory = new MediaInventory(5);
+        Path images = createDirectory("images", "00000001.tif");
+        age(images, 60);
+
+        mediaInventory.getNames(images, null);
+        mediaInventory.invalidate(images);
+        mediaInventory.getNames(images, null);
+
+        assertEquals("Invalidated directory should be listed again", 2, mediaInventory.getMisses());
+    }
+
+    @Test
+    public void shouldFilterNames() throws IOException {
+        MediaInventory mediaInventory = new MediaInventory(5);
+        Path images = createDirectory("images", "00000001.tif", "00000001.xml", "00000002.tif");
+
+        List<String> names = mediaInventory.getNames(images, (directory, name) -> name.endsWith(".tif"));
+
+        assertEquals("Incorrect number of filtered names", 2, names.size());
+        assertTrue("Names should match the filter", names.stream().allMatch(name -> name.endsWith(".tif")));
+    }
+
+    @Test
+    public void shouldCountFilesInSubdirectories() throws IOException {
+        MediaInventory mediaInventory = new MediaInventory(5);
+        Path images = createDirectory("images", "meta.xml");
+        createDirectory("images/orig", "00000001.tif", "00000002.tif");
+        createDirectory("images/media", "00000001.jpg");
+
+        assertEquals("Incorrect number of files", 4, mediaInventory.countFiles(images));
+    }
+
+    @Test
+    public void shouldReturnNothingForMissingDirectory() throws IOException {
+        MediaInventory mediaInventory = new MediaInventory(5);
+        Path missing = processFolder.getRoot().toPath().resolve("missing");
+
+        assertTrue("Missing directory should have no names", mediaInventory.getNames(missing, null).isEmpty());
+        assertEquals("Missing directory should have no files", 0, mediaInventory.countFiles(missing));
+        assertEquals("Missing directory should not be kept", 0, mediaInventory.size());
+    }
+
+    @Test
+    public void shouldDiscardLeastRecentlyUsedListing() throws IOException {
+        MediaInventory mediaInventory = new MediaInventory(2);
+        Path first = createDirectory("first", "00000001.tif");
+        Path second = createDirectory("second", "00000001.tif");
+        Path third = createDirectory("third", "00000001.tif");
+
+        mediaInventory.getNames(first, null);
+        mediaInventory.getNames(second, null);
+        mediaInventory.getNames(third, null);
+
+        assertEquals("Number of listings should be limited", 2, mediaInventory.size());
+    }
+}
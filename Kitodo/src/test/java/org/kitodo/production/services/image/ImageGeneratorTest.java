@@ -0,0 +1,107 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.image;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.kitodo.production.enums.GenerationMode;
+
+public class ImageGeneratorTest {
+
+    private static final int IMAGES = 100;
+
+    /**
+     * Image generator whose images take until they are cancelled.
+     */
+    private static class BlockingImageGenerator extends ImageGenerator {
+        private final CountDownLatch running = new CountDownLatch(1);
+        private final AtomicInteger started = new AtomicInteger();
+        private final AtomicInteger cancelled = new AtomicInteger();
+        private final String failing;
+
+        private BlockingImageGenerator(String failing) {
+            super(null, GenerationMode.ALL, Collections.emptyList());
+            this.failing = failing;
+            for (int i = 1; i <= IMAGES; i++) {
+                addToContentToBeGenerated(String.format("%08d", i), URI.create("images/" + i + ".tif"),
+                    Collections.emptyList());
+            }
+        }
+
+        @Override
+        public void createDerivatives(ContentToBeGenerated instruction) {
+            started.incrementAndGet();
+            if (instruction.getCanonical().equals(failing)) {
+                throw new IllegalStateException("Cannot generate " + failing);
+            }
+            running.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                cancelled.incrementAndGet();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Test
+    public void shouldCancelImagesWhenInterrupted() throws Exception {
+        BlockingImageGenerator imageGenerator = new BlockingImageGenerator(null);
+        Thread generating = new Thread(imageGenerator::generateImages);
+        generating.start();
+        assertTrue("Generation should have started", imageGenerator.running.await(10, TimeUnit.SECONDS));
+
+        generating.interrupt();
+        generating.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertFalse("Generation should have ended", generating.isAlive());
+        assertTrue("Images should not all have been started", imageGenerator.started.get() < IMAGES);
+        awaitCancelled(imageGenerator);
+        assertEquals("Position should be on the last element", IMAGES - 1, imageGenerator.getPosition());
+    }
+
+    @Test
+    public void shouldCancelImagesWhenGenerationFails() throws Exception {
+        BlockingImageGenerator imageGenerator = new BlockingImageGenerator("00000001");
+        try {
+            imageGenerator.generateImages();
+            fail("Failure should have been passed on");
+        } catch (IllegalStateException e) {
+            assertEquals("Incorrect exception", "Cannot generate 00000001", e.getMessage());
+        }
+        assertTrue("Images should not all have been started", imageGenerator.started.get() < IMAGES);
+        awaitCancelled(imageGenerator);
+    }
+
+    /**
+     * Waits until all images started and not failed have been cancelled.
+     */
+    private static void awaitCancelled(BlockingImageGenerator imageGenerator) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        int failed = Objects.isNull(imageGenerator.failing) ? 0 : 1;
+        while (imageGenerator.cancelled.get() < imageGenerator.started.get() - failed) {
+            assertTrue("Running images should have been cancelled", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.index;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kitodo.MockDatabase;
+import org.kitodo.data.elasticsearch.index.IndexRestClient;
+
+/**
+ * Tests for keeping the state of the index.
+ */
+public class IndexHealthIT {
+
+    private static final IndexRestClient indexRestClient = IndexRestClient.getInstance();
+    private static final IndexHealth indexHealth = IndexHealth.getInstance();
+
+    @Before
+    public void startNode() throws Exception {
+        MockDatabase.startNode();
+        indexHealth.invalidate();
+    }
+
+    @After
+    public void stopNode() throws Exception {
+        if (!indexRestClient.indexExists(indexRestClient.getIndex())) {
+            indexRestClient.createIndex();
+        }
+        MockDatabase.stopNode();
+        indexHealth.invalidate();
+    }
+
+    @Test
+    public void shouldKeepResultUntilInvalidated() throws Exception {
+        assertTrue("Index should exist", indexHealth.indexExists());
+
+        indexRestClient.deleteIndex();
+        assertTrue("Last result should be kept within the check interval", indexHealth.indexExists());
+
+        indexHealth.invalidate();
+        assertFalse("Deleted index should not exist after invalidation", indexHealth.indexExists());
+
+        indexRestClient.createIndex();
+        assertFalse("Last result should be kept within the check interval", indexHealth.indexExists());
+
+        indexHealth.invalidate();
+        assertTrue("Created index should exist after invalidation", indexHealth.indexExists());
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.kitodo.data.exceptions.DataException;
+import org.kitodo.production.services.data.base.SearchService;
+
+public class IndexQueueTest {
+
+    @Test
+    public void shouldCoalesceRepeatedUpdates() throws DataException {
+        SearchService<?, ?, ?> service = mock(SearchService.class);
+        IndexQueue indexQueue = IndexQueue.getInstance();
+        long writtenBefore = indexQueue.getWrittenObjects();
+
+        indexQueue.add(service, 1);
+        indexQueue.add(service, 2);
+        indexQueue.add(service, 1);
+        assertEquals("Repeated updates should be queued once", 2, indexQueue.getQueueDepth());
+        indexQueue.flush();
+
+        verify(service).saveQueuedToIndex(Arrays.asList(1, 2));
+        assertEquals("Queue should be empty after flush", 0, indexQueue.getQueueDepth());
+        assertEquals("Queue should have no lag after flush", 0, indexQueue.getLag());
+        assertEquals("Wrong number of written objects", writtenBefore + 2, indexQueue.getWrittenObjects());
+    }
+
+    @Test
+    public void shouldWriteWithoutWaitingWhenFlushIsRequested() throws DataException {
+        SearchService<?, ?, ?> service = mock(SearchService.class);
+        IndexQueue indexQueue = IndexQueue.getInstance();
+
+        indexQueue.add(service, 5);
+        indexQueue.requestFlush();
+
+        verify(service, timeout(10000)).saveQueuedToIndex(Collections.singletonList(5));
+    }
+
+    @Test
+    public void shouldNotWriteDiscardedObjects() throws DataException {
+        SearchService<?, ?, ?> service = mock(SearchService.class);
+        IndexQueue indexQueue = IndexQueue.getInstance();
+
+        indexQueue.add(service, 3);
+        indexQueue.discard(service, 3);
+        indexQueue.flush();
+
+        verify(service, never()).saveQueuedToIndex(anyListOf(Integer.class));
+    }
+
+    @Test
+    public void shouldKeepObjectsIfWritingFails() throws DataException {
+        SearchService<?, ?, ?> service = mock(SearchService.class);
+        doThrow(new DataException("index not reachable")).when(service)
+                .saveQueuedToIndex(Collections.singletonList(4));
+        IndexQueue indexQueue = IndexQueue.getInstance();
+        long failedBefore = indexQueue.getFailedWrites();
+
+        indexQueue.add(service, 4);
+        indexQueue.flush();
+
+        assertEquals("Failed write should be counted", failedBefore + 1, indexQueue.getFailedWrites());
+        assertEquals("Object should stay queued", 1, indexQueue.getQueueDepth());
+        indexQueue.discard(service, 4);
+    }
+}
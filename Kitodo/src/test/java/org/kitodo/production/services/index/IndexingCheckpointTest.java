@@ -0,0 +1,51 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class IndexingCheckpointTest {
+
+    @Test
+    public void shouldMoveOnlyPastContiguousPages() {
+        IndexingCheckpoint checkpoint = new IndexingCheckpoint(0);
+        checkpoint.pageFinished(1, 20, true);
+        assertEquals("Checkpoint moved past unfinished page", 0, checkpoint.getLastId());
+        checkpoint.pageFinished(0, 10, true);
+        assertEquals("Checkpoint did not move past finished pages", 20, checkpoint.getLastId());
+        checkpoint.pageFinished(2, 30, true);
+        assertEquals("Checkpoint did not move past finished page", 30, checkpoint.getLastId());
+        assertFalse("Checkpoint is failed", checkpoint.isFailed());
+    }
+
+    @Test
+    public void shouldStartAtGivenId() {
+        IndexingCheckpoint checkpoint = new IndexingCheckpoint(500);
+        assertEquals("Checkpoint does not start at given id", 500, checkpoint.getLastId());
+        checkpoint.pageFinished(0, 600, true);
+        assertEquals("Checkpoint did not move past finished page", 600, checkpoint.getLastId());
+    }
+
+    @Test
+    public void shouldStopAtFailedPage() {
+        IndexingCheckpoint checkpoint = new IndexingCheckpoint(0);
+        checkpoint.pageFinished(1, 20, false);
+        checkpoint.pageFinished(2, 30, true);
+        checkpoint.pageFinished(0, 10, true);
+        assertEquals("Checkpoint did not stop before failed page", 10, checkpoint.getLastId());
+        assertTrue("Checkpoint is not failed", checkpoint.isFailed());
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.faces.push.PushContext;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kitodo.MockDatabase;
+import org.kitodo.data.elasticsearch.index.IndexRestClient;
+import org.kitodo.production.services.ServiceManager;
+
+/**
+ * Tests for building a new index in the background.
+ */
+public class IndexingServiceIT {
+
+    private static final IndexRestClient indexRestClient = IndexRestClient.getInstance();
+    private static final IndexingService indexingService = IndexingService.getInstance();
+
+    @Before
+    public void prepareDatabase() throws Exception {
+        MockDatabase.startNode();
+        MockDatabase.insertProcessesFull();
+    }
+
+    @After
+    public void cleanDatabase() throws Exception {
+        indexRestClient.setShadowIndex(null);
+        MockDatabase.stopNode();
+        MockDatabase.cleanDatabase();
+    }
+
+    @Test
+    public void shouldSwitchAliasToRebuiltIndex() throws Exception {
+        String index = indexRestClient.getIndex();
+        Long processes = ServiceManager.getProcessService().count();
+
+        assertTrue("Index should have been rebuilt", indexingService.rebuildIndex(mock(PushContext.class)));
+
+        List<String> aliasedIndexes = indexRestClient.getAliasedIndexes();
+        assertEquals("Index name should be an alias of exactly one index", 1, aliasedIndexes.size());
+        assertTrue("Alias should point to the new index", aliasedIndexes.get(0).startsWith(index + "_"));
+        assertNull("Shadow index should be reset", indexRestClient.getShadowIndex());
+        assertEquals("Processes should be found in the new index", processes,
+            ServiceManager.getProcessService().count());
+
+        assertTrue("Index should have been rebuilt again", indexingService.rebuildIndex(mock(PushContext.class)));
+
+        List<String> newAliasedIndexes = indexRestClient.getAliasedIndexes();
+        assertEquals("Index name should be an alias of exactly one index", 1, newAliasedIndexes.size());
+        assertFalse("Alias should point to the newest index", newAliasedIndexes.contains(aliasedIndexes.get(0)));
+        assertFalse("Old index should be deleted", indexRestClient.indexExists(aliasedIndexes.get(0)));
+    }
+
+    @Test
+    public void shouldDeleteShadowIndexIfRebuildFails() throws Exception {
+        List<String> shadowIndexes = new ArrayList<>();
+        PushContext failingContext = mock(PushContext.class);
+        doAnswer(invocation -> {
+            shadowIndexes.add(indexRestClient.getShadowIndex());
+            throw new IllegalStateException("Channel closed");
+        }).when(failingContext).send(any());
+
+        try {
+            indexingService.rebuildIndex(failingContext);
+            fail("Rebuild should have failed");
+        } catch (IllegalStateException e) {
+            assertEquals("Incorrect exception", "Channel closed", e.getMessage());
+        }
+
+        assertEquals("Rebuild should have used one shadow index", 1, shadowIndexes.size());
+        assertNull("Shadow index should be reset", indexRestClient.getShadowIndex());
+        assertFalse("Shadow index should be deleted", indexRestClient.indexExists(shadowIndexes.get(0)));
+        assertTrue("Old index should stay in use", indexRestClient.getAliasedIndexes().isEmpty());
+        assertTrue("Old index should still exist", indexRestClient.indexExists());
+        assertFalse("Indexing should not be in progress", indexingService.indexingInProgress());
+    }
+
+    @Test
+    public void shouldNotRebuildWhileShadowIndexIsSet() throws Exception {
+        indexRestClient.setShadowIndex(indexRestClient.getIndex() + "_running");
+
+        assertFalse("Rebuild should have been refused", indexingService.rebuildIndex(mock(PushContext.class)));
+        assertEquals("Shadow index of the running rebuild should be kept", indexRestClient.getIndex() + "_running",
+            indexRestClient.getShadowIndex());
+        assertTrue("Old index should stay in use", indexRestClient.getAliasedIndexes().isEmpty());
+    }
+}
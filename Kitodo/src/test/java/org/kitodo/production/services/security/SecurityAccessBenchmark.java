@@ -0,0 +1,142 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.kitodo.security.AuthorityIndex;
+import org.kitodo.security.SecurityAccess;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Compares the throughput of {@code hasAuthorityForClient} with the authority
+ * index of a user with all client authorities for several clients, against
+ * looking up a newly created authority in the list of granted authorities, as
+ * it was done before. The authority looked up is the last one of the list,
+ * which is the worst case for the list.
+ *
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.kitodo.production.services.security.SecurityAccessBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SecurityAccessBenchmark {
+
+    private static final int CLIENT_ID = 1;
+
+    @Param({"1", "5" })
+    private int clients;
+
+    private String authorityTitle;
+    private Collection<? extends GrantedAuthority> authorities;
+    private SecurityAccess securityAccess;
+
+    /**
+     * A security access with a fixed authentication and client, whose
+     * authority index is created once, as {@link SecurityAccessService} does.
+     */
+    private static class FixedSecurityAccess extends SecurityAccess {
+        private final Authentication authentication;
+        private final AuthorityIndex authorityIndex;
+
+        private FixedSecurityAccess(Authentication authentication) {
+            this.authentication = authentication;
+            this.authorityIndex = AuthorityIndex.of(authentication.getAuthorities());
+        }
+
+        @Override
+        public int getClientId() {
+            return CLIENT_ID;
+        }
+
+        @Override
+        protected Authentication getCurrentAuthentication() {
+            return authentication;
+        }
+
+        @Override
+        protected AuthorityIndex getAuthorityIndexOfCurrentAuthentication() {
+            return authorityIndex;
+        }
+    }
+
+    /**
+     * Creates the authorities of a user who has about a hundred authorities
+     * for each client, as an administrator has.
+     */
+    @Setup
+    public void createAuthorities() {
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>();
+        for (int client = clients; client >= CLIENT_ID; client--) {
+            for (int authority = 0; authority < 100; authority++) {
+                grantedAuthorities.add(new SimpleGrantedAuthority("authority" + authority + "_CLIENT_ANY"));
+                grantedAuthorities.add(new SimpleGrantedAuthority("authority" + authority + "_CLIENT_" + client));
+            }
+        }
+        authorityTitle = "authority99";
+        Authentication authentication = new UsernamePasswordAuthenticationToken("user", null, grantedAuthorities);
+        authorities = authentication.getAuthorities();
+        securityAccess = new FixedSecurityAccess(authentication);
+    }
+
+    /**
+     * Checks the authority with the authority index.
+     */
+    @Benchmark
+    public boolean hasAuthorityForClient() {
+        return securityAccess.hasAuthorityForClient(authorityTitle);
+    }
+
+    /**
+     * Checks the authority by looking it up in the list of granted
+     * authorities.
+     */
+    @Benchmark
+    public boolean hasAuthorityForClientInList() {
+        return authorities.contains(new SimpleGrantedAuthority(authorityTitle + "_CLIENT_" + CLIENT_ID));
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *            not used
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SecurityAccessBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.services.workflow;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.kitodo.production.workflow.KitodoNamespaceContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * Compares the time needed to evaluate the XPath conditions of the branches
+ * following a closed task, by parsing the metadata file and compiling the
+ * expression for every condition, as it was done before, and by parsing the
+ * metadata file once and evaluating the cached compiled expressions on it. The
+ * score is microseconds per workflow transition.
+ *
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.kitodo.production.services.workflow.WorkflowConditionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WorkflowConditionBenchmark {
+
+    private static final String[] CONDITIONS = {
+        "/mets:mets/mets:dmdSec[@ID='DMDLOG_0']/mets:mdWrap/mets:xmlData/kitodo:kitodo/kitodo:metadata"
+                + "[@name='TitleDocMain']",
+        "//kitodo:metadata[@name='CurrentNo' and text()='7']",
+        "//kitodo:metadataGroup[@name='Person']/kitodo:metadata[@name='Role' and text()='edt']",
+        "/mets:mets/mets:structMap[@TYPE='LOGICAL']/mets:div[@TYPE='Monograph']",
+    };
+
+    @Param({"10", "500" })
+    private int divisions;
+
+    private byte[] metsFile;
+
+    /**
+     * Generates a METS file with the configured number of divisions, each
+     * with its own {@code <mets:dmdSec>}.
+     */
+    @Setup
+    public void generateMetsFile() {
+        StringBuilder mets = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<mets:mets"
+                + " xmlns:mets=\"http://www.loc.gov/METS/\" xmlns:kitodo=\"http://meta.kitodo.org/v1/\">\n");
+        for (int division = 0; division < divisions; division++) {
+            mets.append("<mets:dmdSec ID=\"DMDLOG_").append(division).append("\"><mets:mdWrap MDTYPE=\"OTHER\""
+                    + " OTHERMDTYPE=\"KITODO\"><mets:xmlData><kitodo:kitodo>\n");
+            mets.append("<kitodo:metadata name=\"TitleDocMain\">Title of division ").append(division)
+                    .append("</kitodo:metadata>\n<kitodo:metadata name=\"CurrentNo\">").append(division)
+                    .append("</kitodo:metadata>\n<kitodo:metadataGroup name=\"Person\">"
+                            + "<kitodo:metadata name=\"LastName\">Doe</kitodo:metadata>"
+                            + "<kitodo:metadata name=\"FirstName\">Jane</kitodo:metadata>"
+                            + "<kitodo:metadata name=\"Role\">aut</kitodo:metadata></kitodo:metadataGroup>\n");
+            mets.append("</kitodo:kitodo></mets:xmlData></mets:mdWrap></mets:dmdSec>\n");
+        }
+        mets.append("<mets:structMap TYPE=\"LOGICAL\"><mets:div ID=\"LOG_0000\" TYPE=\"Monograph\"/>"
+                + "</mets:structMap>\n</mets:mets>\n");
+        metsFile = mets.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Evaluates the conditions the way it was done before, parsing the
+     * metadata file and compiling the expression for every condition.
+     */
+    @Benchmark
+    public int evaluateParsingEachCondition()
+            throws ParserConfigurationException, IOException, SAXException, XPathExpressionException {
+        int fulfilled = 0;
+        for (String condition : CONDITIONS) {
+            DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
+            builderFactory.setNamespaceAware(true);
+            DocumentBuilder builder = builderFactory.newDocumentBuilder();
+            Document document = builder.parse(new ByteArrayInputStream(metsFile));
+            XPath xPath = XPathFactory.newInstance().newXPath();
+            xPath.setNamespaceContext(new KitodoNamespaceContext());
+            NodeList nodeList = (NodeList) xPath.compile(condition).evaluate(document, XPathConstants.NODESET);
+            if (nodeList.getLength() > 0) {
+                fulfilled++;
+            }
+        }
+        return fulfilled;
+    }
+
+    /**
+     * Evaluates the conditions with the workflow condition evaluator, parsing
+     * the metadata file once.
+     */
+    @Benchmark
+    public int evaluateSharingDocument() throws IOException, SAXException, XPathExpressionException {
+        int fulfilled = 0;
+        Document document = WorkflowConditionEvaluator.parse(new ByteArrayInputStream(metsFile));
+        for (String condition : CONDITIONS) {
+            if (WorkflowConditionEvaluator.evaluate(document, condition)) {
+                fulfilled++;
+            }
+        }
+        return fulfilled;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *            not used
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(WorkflowConditionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -19,6 +19,7 @@ import static org.junit.Assume.assumeTrue;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
@@ -32,6 +33,7 @@ import org.kitodo.ExecutionPermission;
 import org.kitodo.MockDatabase;
 import org.kitodo.SecurityTestUtils;
 import org.kitodo.config.ConfigCore;
+import org.kitodo.config.ConfigMain;
 import org.kitodo.config.enums.ParameterCore;
 import org.kitodo.data.database.beans.Comment;
 import org.kitodo.data.database.beans.Process;
@@ -40,6 +42,9 @@ import org.kitodo.data.database.beans.WorkflowCondition;
 import org.kitodo.data.database.enums.CommentType;
 import org.kitodo.data.database.enums.TaskStatus;
 import org.kitodo.data.database.exceptions.DAOException;
+import org.kitodo.data.elasticsearch.index.IndexRestClient;
+import org.kitodo.data.elasticsearch.index.type.enums.TaskTypeField;
+import org.kitodo.data.elasticsearch.search.Searcher;
 import org.kitodo.data.exceptions.DataException;
 import org.kitodo.production.services.ServiceManager;
 import org.kitodo.production.services.data.TaskService;
@@ -144,6 +149,67 @@ public class WorkflowControllerServiceIT {
             tasks.get(2).getProcessingStatus());
     }
 
+    @Test
+    public void shouldSetTaskStatusUpForChunk() throws Exception {
+        Process process = ServiceManager.getProcessService().getById(1);
+
+        workflowService.setTaskStatusForChunk(Collections.singletonList(process), true);
+        for (Task task : ServiceManager.getProcessService().getById(1).getTasks()) {
+            if (Objects.equals(task.getId(), 9)) {
+                assertEquals("Task '" + task.getTitle() + "' status was not saved!", TaskStatus.INWORK,
+                    task.getProcessingStatus());
+            } else if (Objects.equals(task.getId(), 10)) {
+                assertEquals("Task '" + task.getTitle() + "' status should not be set up!", TaskStatus.LOCKED,
+                    task.getProcessingStatus());
+            } else {
+                assertEquals("Task '" + task.getTitle() + "' status was not saved!", TaskStatus.DONE,
+                    task.getProcessingStatus());
+            }
+        }
+    }
+
+    @Test
+    public void shouldSetTaskStatusDownForChunk() throws Exception {
+        Process process = ServiceManager.getProcessService().getById(1);
+
+        workflowService.setTaskStatusForChunk(Collections.singletonList(process), false);
+        List<Task> tasks = ServiceManager.getProcessService().getById(1).getTasks();
+        assertEquals("Task '" + tasks.get(3).getTitle() + "' status was not saved!", TaskStatus.LOCKED,
+            tasks.get(3).getProcessingStatus());
+        assertEquals("Task '" + tasks.get(2).getTitle() + "' status was not saved!", TaskStatus.LOCKED,
+            tasks.get(2).getProcessingStatus());
+    }
+
+    @Test
+    public void shouldSetTaskStatusForChunkInBothIndexesWhileRebuilding() throws Exception {
+        IndexRestClient indexRestClient = IndexRestClient.getInstance();
+        final String shadowIndex = ConfigMain.getParameter("elasticsearch.index", "kitodo") + "_shadow";
+        indexRestClient.createIndex(shadowIndex, null);
+        indexRestClient.setShadowIndex(shadowIndex);
+        try {
+            Process process = ServiceManager.getProcessService().getById(1);
+            workflowService.setTaskStatusForChunk(Collections.singletonList(process), true);
+        } finally {
+            indexRestClient.setShadowIndex(null);
+        }
+
+        try {
+            Searcher indexInUse = new Searcher(Task.class);
+            Searcher indexBeingBuilt = new Searcher(Task.class) {
+                {
+                    index = shadowIndex;
+                }
+            };
+            String processingStatus = TaskTypeField.PROCESSING_STATUS.getKey();
+            assertEquals("Task status was not written to the index in use!", TaskStatus.INWORK.getValue(),
+                indexInUse.findDocument(9).get(processingStatus));
+            assertEquals("Task status was not written to the index being built!", TaskStatus.INWORK.getValue(),
+                indexBeingBuilt.findDocument(9).get(processingStatus));
+        } finally {
+            indexRestClient.deleteIndex(shadowIndex);
+        }
+    }
+
     @Test
     public void shouldClose() throws Exception {
         Task task = taskService.getById(9);
@@ -0,0 +1,140 @@
+/*
+ * (c) Kitodo. Key to digital objects e. V. <contact@kitodo.org>
+ *
+ * This file is part of the Kitodo project.
+ *
+ * It is licensed under GNU General Public License version 3 or later.
+ *
+ * For the full copyright and license information, please read the
+ * GPL3-License.txt file that was distributed with this source code.
+ */
+
+package org.kitodo.production.servlet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kitodo.data.database.beans.Folder;
+import org.kitodo.data.database.beans.Process;
+import org.kitodo.production.model.Subfolder;
+import org.mockito.ArgumentCaptor;
+
+public class MediaServletTest {
+
+    private final MediaServlet mediaServlet = new MediaServlet();
+    private final Map<String, Object> sessionMap = new HashMap<>();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private File file;
+    private byte[] content;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+
+    /**
+     * Creates a media file, grants the session access to its folder and
+     * prepares a request for it.
+     */
+    @Before
+    public void setUp() throws IOException {
+        content = new byte[1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        file = File.createTempFile("00000001", ".jpg");
+        Files.write(file.toPath(), content);
+
+        Process process = new Process();
+        process.setId(1);
+        Folder folder = new Folder();
+        folder.setId(2);
+        folder.setMimeType("image/jpeg");
+        Subfolder subfolder = mock(Subfolder.class);
+        when(subfolder.getProcess()).thenReturn(process);
+        when(subfolder.getFolder()).thenReturn(folder);
+        when(subfolder.getUri("00000001")).thenReturn(file.toURI());
+        MediaServlet.grantAccess(sessionMap, subfolder, true);
+        mediaServlet.init();
+
+        HttpSession session = mock(HttpSession.class);
+        when(session.getAttribute(anyString())).thenAnswer(invocation -> sessionMap.get(invocation.getArguments()[0]));
+        request = mock(HttpServletRequest.class);
+        when(request.getSession(false)).thenReturn(session);
+        when(request.getPathInfo()).thenReturn("/1/2/00000001");
+        when(request.getDateHeader(anyString())).thenReturn(-1L);
+        response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Test
+    public void shouldSendFile() throws IOException {
+        mediaServlet.doGet(request, response);
+        verify(response).setContentType("image/jpeg");
+        assertArrayEquals("Wrong content", content, body.toByteArray());
+    }
+
+    @Test
+    public void shouldNotSendUnmodifiedFile() throws IOException {
+        mediaServlet.doGet(request, response);
+        ArgumentCaptor<String> eTag = ArgumentCaptor.forClass(String.class);
+        verify(response).setHeader(eq("ETag"), eTag.capture());
+
+        body.reset();
+        when(request.getHeader("If-None-Match")).thenReturn(eTag.getValue());
+        mediaServlet.doGet(request, response);
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        assertEquals("Content sent again", 0, body.size());
+    }
+
+    @Test
+    public void shouldSendRange() throws IOException {
+        when(request.getHeader("Range")).thenReturn("bytes=100-199");
+        mediaServlet.doGet(request, response);
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(response).setHeader("Content-Range", "bytes 100-199/1000");
+        assertArrayEquals("Wrong content", Arrays.copyOfRange(content, 100, 200), body.toByteArray());
+    }
+
+    @Test
+    public void shouldRejectUnsatisfiableRange() throws IOException {
+        when(request.getHeader("Range")).thenReturn("bytes=1000-");
+        mediaServlet.doGet(request, response);
+        verify(response).sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+    }
+
+    @Test
+    public void shouldDenyFolderOfOtherProcess() throws IOException {
+        when(request.getPathInfo()).thenReturn("/3/2/00000001");
+        mediaServlet.doGet(request, response);
+        verify(response).sendError(HttpServletResponse.SC_FORBIDDEN);
+    }
+}